@@ -229,10 +229,15 @@ class AppConstants {
 
         const val ESP_PREFERENCES = "Esp_Preferences"
         const val PREF_FILE_WIFI_NETWORKS = "wifi_networks"
+        const val PREF_FILE_LOCAL_SESSIONS = "local_sessions"
+        const val PREF_FILE_LOCAL_ADDRESSES = "local_addresses"
         const val ESP_DATABASE_NAME = "esp_db"
         const val NODE_TABLE = "node_table"
         const val GROUP_TABLE = "group_table"
         const val NOTIFICATION_TABLE = "notification_table"
+        const val DEVICE_TABLE = "device_table"
+        const val SERVICE_TABLE = "service_table"
+        const val PARAM_TABLE = "param_table"
 
         const val MDNS_SERVICE_TYPE = "_esp_local_ctrl._tcp."
         const val MDNS_TBR_SERVICE_TYPE = "_meshcop._udp."
@@ -374,9 +379,13 @@ class AppConstants {
         const val KEY_PROPERTY_TS = "time_series"
         const val KEY_PROPERTY_TS_SIMPLE = "simple_ts"
         const val KEY_PROPERTY_TS_TYPE = "time_series_type"
+        const val KEY_TS_TIMESTAMPS = "ts_timestamps"
+        const val KEY_TS_VALUES = "ts_values"
         const val KEY_FAILURE_RESPONSE = "failure"
         const val KEY_SECRET_KEY = "secret_key"
         const val KEY_PROPERTY_COUNT = "property_count"
+        const val KEY_PARAMS_CHANGED = "params_changed"
+        const val KEY_NODE_COUNT = "node_count"
         const val KEY_CLAIM_VERIFY_RESPONSE = "claim_verify_response"
         const val KEY_CLAIM_INIT_RESPONSE = "claim_initiate_response"
         const val KEY_REQ_ID = "request_id"
@@ -0,0 +1,375 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.espressif.local_control.EspLocalDevice;
+import com.espressif.ui.models.Automation;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Group;
+import com.espressif.ui.models.Scene;
+import com.espressif.ui.models.Schedule;
+import com.espressif.ui.models.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe in-memory store of nodes, groups, scenes, schedules, automations and local devices.
+ * Maps can be updated from any thread (Retrofit callbacks, NSD / BLE callbacks, UI thread).
+ * Secondary indexes are built lazily and rebuilt only after the backing map is changed.
+ * Nodes are changed in place from many places, those changes are reported to listeners with {@link #notifyNodeUpdated}.
+ */
+public class DeviceRegistry {
+
+    private static final String TAG = DeviceRegistry.class.getSimpleName();
+
+    /**
+     * Listener to receive changes of a single entry of the registry map.
+     * Callbacks are invoked on the thread which changed the map.
+     */
+    public interface ChangeListener<V> {
+
+        void onAdded(String key, V value);
+
+        void onUpdated(String key, V value);
+
+        void onRemoved(String key, V value);
+    }
+
+    /**
+     * Concurrent map which keeps a change version and notifies listeners about added, updated and removed entries.
+     * Null keys and values are ignored (same behaviour as HashMap for lookups).
+     */
+    public static class RegistryMap<V> extends ConcurrentHashMap<String, V> {
+
+        private final AtomicLong version = new AtomicLong();
+        private final CopyOnWriteArrayList<ChangeListener<V>> listeners = new CopyOnWriteArrayList<>();
+
+        public long getVersion() {
+            return version.get();
+        }
+
+        public void addListener(ChangeListener<V> listener) {
+            listeners.addIfAbsent(listener);
+        }
+
+        public void removeListener(ChangeListener<V> listener) {
+            listeners.remove(listener);
+        }
+
+        @Override
+        public V get(Object key) {
+            if (key == null) {
+                return null;
+            }
+            return super.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            if (key == null) {
+                return false;
+            }
+            return super.containsKey(key);
+        }
+
+        @Override
+        public V put(String key, V value) {
+            if (key == null) {
+                return null;
+            }
+            if (value == null) {
+                return remove(key);
+            }
+            V oldValue = super.put(key, value);
+            version.incrementAndGet();
+            if (oldValue == null) {
+                for (ChangeListener<V> listener : listeners) {
+                    listener.onAdded(key, value);
+                }
+            } else {
+                for (ChangeListener<V> listener : listeners) {
+                    listener.onUpdated(key, value);
+                }
+            }
+            return oldValue;
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ? extends V> map) {
+            for (Map.Entry<? extends String, ? extends V> entry : map.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @Override
+        public V putIfAbsent(String key, V value) {
+            if (key == null || value == null) {
+                return get(key);
+            }
+            V oldValue = super.putIfAbsent(key, value);
+            if (oldValue == null) {
+                version.incrementAndGet();
+                for (ChangeListener<V> listener : listeners) {
+                    listener.onAdded(key, value);
+                }
+            }
+            return oldValue;
+        }
+
+        @Override
+        public V remove(Object key) {
+            if (key == null) {
+                return null;
+            }
+            V oldValue = super.remove(key);
+            if (oldValue != null) {
+                version.incrementAndGet();
+                for (ChangeListener<V> listener : listeners) {
+                    listener.onRemoved((String) key, oldValue);
+                }
+            }
+            return oldValue;
+        }
+
+        @Override
+        public void clear() {
+            for (String key : new ArrayList<>(keySet())) {
+                remove(key);
+            }
+        }
+
+        /**
+         * Notify listeners that value has been modified in place (e.g. param values or node status).
+         * Version is not changed, in place changes don't affect keys of the secondary indexes.
+         *
+         * @param key Key of the changed entry.
+         */
+        public void notifyUpdated(String key) {
+            V value = get(key);
+            if (value == null) {
+                return;
+            }
+            for (ChangeListener<V> listener : listeners) {
+                listener.onUpdated(key, value);
+            }
+        }
+
+        /**
+         * Returns copy of the current values which is safe to iterate on any thread.
+         */
+        public ArrayList<V> snapshot() {
+            return new ArrayList<>(values());
+        }
+    }
+
+    /**
+     * Secondary indexes built from one version of node, group and controller maps.
+     */
+    private static class Indexes {
+
+        final long nodeVersion, groupVersion, controllerVersion;
+        final HashMap<String, List<EspNode>> nodesByServiceType = new HashMap<>();
+        final HashMap<String, List<String>> groupIdsByNode = new HashMap<>();
+        final HashMap<String, String> controllerByMatterNodeId = new HashMap<>();
+
+        Indexes(long nodeVersion, long groupVersion, long controllerVersion) {
+            this.nodeVersion = nodeVersion;
+            this.groupVersion = groupVersion;
+            this.controllerVersion = controllerVersion;
+        }
+    }
+
+    private final RegistryMap<EspNode> nodeMap = new RegistryMap<>();
+    private final RegistryMap<Schedule> scheduleMap = new RegistryMap<>();
+    private final RegistryMap<Scene> sceneMap = new RegistryMap<>();
+    private final RegistryMap<EspLocalDevice> localDeviceMap = new RegistryMap<>();
+    private final RegistryMap<Group> groupMap = new RegistryMap<>();
+    private final RegistryMap<Automation> automations = new RegistryMap<>();
+    private final RegistryMap<HashMap<String, String>> controllerDevices = new RegistryMap<>();
+
+    private volatile Indexes indexes;
+
+    public RegistryMap<EspNode> getNodeMap() {
+        return nodeMap;
+    }
+
+    public RegistryMap<Schedule> getScheduleMap() {
+        return scheduleMap;
+    }
+
+    public RegistryMap<Scene> getSceneMap() {
+        return sceneMap;
+    }
+
+    public RegistryMap<EspLocalDevice> getLocalDeviceMap() {
+        return localDeviceMap;
+    }
+
+    public RegistryMap<Group> getGroupMap() {
+        return groupMap;
+    }
+
+    public RegistryMap<Automation> getAutomations() {
+        return automations;
+    }
+
+    public RegistryMap<HashMap<String, String>> getControllerDevices() {
+        return controllerDevices;
+    }
+
+    public EspNode getNode(String nodeId) {
+        return nodeMap.get(nodeId);
+    }
+
+    public Group getGroup(String groupId) {
+        return groupMap.get(groupId);
+    }
+
+    public Scene getScene(String sceneKey) {
+        return sceneMap.get(sceneKey);
+    }
+
+    public Schedule getSchedule(String scheduleKey) {
+        return scheduleMap.get(scheduleKey);
+    }
+
+    public Automation getAutomation(String automationId) {
+        return automations.get(automationId);
+    }
+
+    public EspLocalDevice getLocalDevice(String nodeId) {
+        return localDeviceMap.get(nodeId);
+    }
+
+    public boolean isLocalNode(String nodeId) {
+        return localDeviceMap.containsKey(nodeId);
+    }
+
+    /**
+     * Returns nodes which have the service of given type.
+     */
+    public List<EspNode> getNodesWithService(String serviceType) {
+        List<EspNode> nodes = getIndexes().nodesByServiceType.get(serviceType);
+        return nodes != null ? nodes : Collections.<EspNode>emptyList();
+    }
+
+    public boolean hasNodeWithService(String serviceType) {
+        return !getNodesWithService(serviceType).isEmpty();
+    }
+
+    /**
+     * Returns ids of the groups in which the node is available.
+     */
+    public List<String> getGroupIdsForNode(String nodeId) {
+        List<String> groupIds = getIndexes().groupIdsByNode.get(nodeId);
+        return groupIds != null ? groupIds : Collections.<String>emptyList();
+    }
+
+    /**
+     * Returns node id of the controller which has given Matter device, null if no controller has the device.
+     */
+    public String getControllerForMatterNode(String matterNodeId) {
+        if (TextUtils.isEmpty(matterNodeId)) {
+            return null;
+        }
+        return getIndexes().controllerByMatterNodeId.get(matterNodeId);
+    }
+
+    /**
+     * Notify listeners that node has been modified in place (param values, connectivity or node status).
+     * Should be called before UpdateEvent of the change is posted.
+     */
+    public void notifyNodeUpdated(String nodeId) {
+        nodeMap.notifyUpdated(nodeId);
+    }
+
+    private Indexes getIndexes() {
+
+        Indexes current = indexes;
+        if (current != null && current.nodeVersion == nodeMap.getVersion()
+                && current.groupVersion == groupMap.getVersion()
+                && current.controllerVersion == controllerDevices.getVersion()) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = indexes;
+            long nodeVersion = nodeMap.getVersion();
+            long groupVersion = groupMap.getVersion();
+            long controllerVersion = controllerDevices.getVersion();
+
+            if (current == null || current.nodeVersion != nodeVersion
+                    || current.groupVersion != groupVersion
+                    || current.controllerVersion != controllerVersion) {
+                current = buildIndexes(nodeVersion, groupVersion, controllerVersion);
+                indexes = current;
+            }
+            return current;
+        }
+    }
+
+    private Indexes buildIndexes(long nodeVersion, long groupVersion, long controllerVersion) {
+
+        Indexes newIndexes = new Indexes(nodeVersion, groupVersion, controllerVersion);
+
+        for (EspNode node : nodeMap.values()) {
+
+            ArrayList<Service> services = node.getServices();
+            if (services != null) {
+                for (Service service : services) {
+                    if (!TextUtils.isEmpty(service.getType())) {
+                        addToIndex(newIndexes.nodesByServiceType, service.getType(), node);
+                    }
+                }
+            }
+        }
+
+        for (Group group : groupMap.values()) {
+            if (group.getNodeList() != null) {
+                for (String nodeId : group.getNodeList()) {
+                    addToIndex(newIndexes.groupIdsByNode, nodeId, group.getGroupId());
+                }
+            }
+        }
+
+        for (Map.Entry<String, HashMap<String, String>> entry : controllerDevices.entrySet()) {
+            for (String matterNodeId : entry.getValue().keySet()) {
+                newIndexes.controllerByMatterNodeId.put(matterNodeId, entry.getKey());
+            }
+        }
+
+        Log.d(TAG, "Indexes built for " + nodeMap.size() + " nodes and " + groupMap.size() + " groups");
+        return newIndexes;
+    }
+
+    private static <T> void addToIndex(HashMap<String, List<T>> index, String key, T value) {
+        List<T> values = index.get(key);
+        if (values == null) {
+            values = new ArrayList<>();
+            index.put(key, values);
+        }
+        values.add(value);
+    }
+}
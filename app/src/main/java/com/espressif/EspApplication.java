@@ -33,16 +33,22 @@ import androidx.appcompat.app.AppCompatDelegate;
 import com.espressif.AppConstants.Companion.UpdateEventType;
 import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.cloudapi.TokenManager;
 import com.espressif.db.EspDatabase;
+import com.espressif.db.EspDbWriter;
 import com.espressif.local_control.EspLocalDevice;
+import com.espressif.local_control.LocalAddressCache;
 import com.espressif.local_control.LocalControlApiManager;
+import com.espressif.local_control.LocalSessionManager;
 import com.espressif.local_control.mDNSManager;
 import com.espressif.matter.ChipClient;
 import com.espressif.matter.ChipClientHelper;
+import com.espressif.matter.ChipClientPool;
 import com.espressif.matter.ClustersHelper;
 import com.espressif.matter.DeviceMatterInfo;
 import com.espressif.matter.LevelControlClusterHelper;
 import com.espressif.matter.MatterFabricUtils;
+import com.espressif.matter.MatterSubscriptionManager;
 import com.espressif.provisioning.ESPProvisionManager;
 import com.espressif.rainmaker.BuildConfig;
 import com.espressif.rainmaker.R;
@@ -91,7 +97,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 import javax.security.auth.x500.X500Principal;
@@ -109,23 +117,31 @@ public class EspApplication extends Application {
 
     private AppState appState = AppState.NO_USER_LOGIN;
 
-    public HashMap<String, EspNode> nodeMap;
-    public HashMap<String, Schedule> scheduleMap;
-    public HashMap<String, Scene> sceneMap;
-    public HashMap<String, EspLocalDevice> localDeviceMap;
-    public HashMap<String, Group> groupMap;
-    public HashMap<String, Automation> automations;
+    // Maps below are backed by DeviceRegistry and can be accessed from any thread.
+    public ConcurrentHashMap<String, EspNode> nodeMap;
+    public ConcurrentHashMap<String, Schedule> scheduleMap;
+    public ConcurrentHashMap<String, Scene> sceneMap;
+    public ConcurrentHashMap<String, EspLocalDevice> localDeviceMap;
+    public ConcurrentHashMap<String, Group> groupMap;
+    public ConcurrentHashMap<String, Automation> automations;
 
     public HashMap<String, String> matterRmNodeIdMap;
     public HashMap<String, ChipClient> chipClientMap;
     public HashMap<String, List<DeviceMatterInfo>> matterDeviceInfoMap;
     public ArrayList<String> availableMatterDevices;
-    public HashMap<String, HashMap<String, String>> controllerDevices;
+    public ConcurrentHashMap<String, HashMap<String, String>> controllerDevices;
     public EspOtaUpdate otaUpdateInfo;
 
+    private DeviceRegistry deviceRegistry;
+
     private SharedPreferences appPreferences;
     private ApiManager apiManager;
     private mDNSManager mdnsManager;
+    private LocalAddressCache localAddressCache;
+    // Cached local devices which have responded at their cached address. Key is node id.
+    private final ConcurrentHashMap<String, LocalAddressCache.Entry> reachableCachedDevices = new ConcurrentHashMap<>();
+    // Nodes whose cached local address is being verified.
+    private final Set<String> verifyingLocalNodes = ConcurrentHashMap.newKeySet();
     private String deviceToken;
     private KeyStore keyStore = null;
 
@@ -266,24 +282,26 @@ public class EspApplication extends Application {
 
         initializeTheme();
 
-        nodeMap = new HashMap<>();
-        scheduleMap = new HashMap<>();
-        sceneMap = new HashMap<>();
-        localDeviceMap = new HashMap<>();
-        groupMap = new HashMap<>();
-        automations = new HashMap<>();
+        deviceRegistry = new DeviceRegistry();
+        nodeMap = deviceRegistry.getNodeMap();
+        scheduleMap = deviceRegistry.getScheduleMap();
+        sceneMap = deviceRegistry.getSceneMap();
+        localDeviceMap = deviceRegistry.getLocalDeviceMap();
+        groupMap = deviceRegistry.getGroupMap();
+        automations = deviceRegistry.getAutomations();
         matterRmNodeIdMap = new HashMap<>();
         chipClientMap = new HashMap<>();
         matterDeviceInfoMap = new HashMap<>();
         availableMatterDevices = new ArrayList<>();
-        controllerDevices = new HashMap<>();
+        controllerDevices = deviceRegistry.getControllerDevices();
 
         appPreferences = getSharedPreferences(AppConstants.ESP_PREFERENCES, Context.MODE_PRIVATE);
         BASE_URL = appPreferences.getString(AppConstants.KEY_BASE_URL, BuildConfig.BASE_URL);
         apiManager = ApiManager.getInstance(this);
         ESPProvisionManager.getInstance(this);
         if (BuildConfig.isLocalControlSupported) {
-            mdnsManager = mDNSManager.getInstance(getApplicationContext(), AppConstants.MDNS_SERVICE_TYPE, listener);
+            mdnsManager = new mDNSManager(getApplicationContext(), AppConstants.MDNS_SERVICE_TYPE, listener);
+            localAddressCache = LocalAddressCache.getInstance(this);
         }
 
         if (BuildConfig.isChinaRegion) {
@@ -300,6 +318,10 @@ public class EspApplication extends Application {
         com.espressif.ui.webrtc.WebRtcViewportManager.preInitializePeerConnectionFactory(this);
     }
 
+    public DeviceRegistry getDeviceRegistry() {
+        return deviceRegistry;
+    }
+
     public AppState getAppState() {
         return appState;
     }
@@ -314,6 +336,8 @@ public class EspApplication extends Application {
             case GETTING_DATA:
                 if (BuildConfig.isLocalControlSupported) {
                     mdnsManager.initializeNsd();
+                    // Check cached local addresses while nodes are being fetched from cloud.
+                    probeCachedLocalDevices();
                 }
             case REFRESH_DATA:
                 if (!appState.equals(newState)) {
@@ -335,6 +359,7 @@ public class EspApplication extends Application {
 
             case NO_USER_LOGIN:
                 com.espressif.ui.webrtc.WebRtcChannelInfoHelper.clearCache();
+                com.espressif.ui.webrtc.CameraSessionPrewarmer.clear();
                 Intent loginActivity = new Intent(this, ConsentActivity.class);
                 loginActivity.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP
                         | Intent.FLAG_ACTIVITY_CLEAR_TASK
@@ -350,6 +375,7 @@ public class EspApplication extends Application {
                 EventBus.getDefault().post(new UpdateEvent(UpdateEventType.EVENT_STATE_CHANGE_UPDATE));
                 startLocalDeviceDiscovery();
                 ArrayList<String> nodeIdCtrlDevices = new ArrayList<>();
+                HashMap<String, String> matterNodesToRead = new HashMap<>();
 
                 for (Map.Entry<String, String> entry : matterRmNodeIdMap.entrySet()) {
                     String nodeId = entry.getKey();
@@ -370,21 +396,19 @@ public class EspApplication extends Application {
                     }
 
                     if (!hasCtrlService) {
-                        ChipClientHelper clientHelper = new ChipClientHelper(this);
                         if (!chipClientMap.containsKey(matterNodeId)) {
+                            ChipClientHelper clientHelper = new ChipClientHelper(this);
                             clientHelper.initChipClientInBackground(matterNodeId);
-                        } else {
-                            try {
-                                if (nodeMap.get(nodeId) != null) {
-                                    clientHelper.getCurrentValues(nodeId, matterNodeId, nodeMap.get(nodeId));
-                                }
-                            } catch (ExecutionException e) {
-                                e.printStackTrace();
-                            }
+                        } else if (nodeMap.get(nodeId) != null) {
+                            matterNodesToRead.put(nodeId, matterNodeId);
                         }
                     }
                 }
 
+                if (!matterNodesToRead.isEmpty()) {
+                    new ChipClientHelper(this).getCurrentValuesForNodes(matterNodesToRead);
+                }
+
                 if (!nodeIdCtrlDevices.isEmpty()) {
                     for (String nodeId : nodeIdCtrlDevices) {
                         matterRmNodeIdMap.remove(nodeId);
@@ -747,6 +771,7 @@ public class EspApplication extends Application {
                                                     && isControllerOnline) {
                                                 Log.d(TAG, "Set Node status to remotely controllable for node id : " + rmNodeId);
                                                 nodeMap.get(rmNodeId).setNodeStatus(AppConstants.NODE_STATUS_REMOTELY_CONTROLLABLE);
+                                                deviceRegistry.notifyNodeUpdated(rmNodeId);
                                             }
                                         }
                                     }
@@ -796,7 +821,7 @@ public class EspApplication extends Application {
                             if (!chipClientMap.containsKey(matterNodeId)) {
                                 if (!TextUtils.isEmpty(fabricId) && !TextUtils.isEmpty(rootCa)
                                         && !TextUtils.isEmpty(ipk) && !TextUtils.isEmpty(matterNodeId) && !TextUtils.isEmpty(matterNodeId)) {
-                                    ChipClient chipClient = new ChipClient(this, g.getGroupId()
+                                    ChipClient chipClient = ChipClientPool.getInstance(this).getClient(g.getGroupId()
                                             , fabricId, rootCa, ipk, catIdOp, catIdAdmin);
                                     Log.d(TAG, "In it chip controller for matterNodeId id : " + matterNodeId);
                                     chipClientMap.put(matterNodeId, chipClient);
@@ -840,6 +865,7 @@ public class EspApplication extends Application {
                 matterDeviceInfoMap.put(matterNodeId, matterDeviceInfo);
                 nodeMap.get(nodeId).setOnline(true);
                 nodeMap.get(nodeId).setNodeStatus(AppConstants.NODE_STATUS_MATTER_LOCAL);
+                deviceRegistry.notifyNodeUpdated(nodeId);
                 availableMatterDevices.add(matterNodeId);
             } else {
                 matterDeviceInfoMap.remove(matterNodeId);
@@ -849,6 +875,7 @@ public class EspApplication extends Application {
                         AppConstants.NODE_STATUS_ONLINE).contains(nodeMap.get(nodeId).getNodeStatus())) {
                     nodeMap.get(nodeId).setNodeStatus(AppConstants.NODE_STATUS_OFFLINE);
                     nodeMap.get(nodeId).setOnline(false);
+                    deviceRegistry.notifyNodeUpdated(nodeId);
                 }
             }
         } catch (ExecutionException e) {
@@ -1255,6 +1282,11 @@ public class EspApplication extends Application {
 
         editor.apply();
 
+        TokenManager.getInstance(this).clear();
+        LocalSessionManager.getInstance(this).clear();
+        LocalAddressCache.getInstance(this).clear();
+        TimeSeriesStore.getInstance(this).clear();
+
         SharedPreferences wifiNetworkPref = getSharedPreferences(AppConstants.PREF_FILE_WIFI_NETWORKS, Context.MODE_PRIVATE);
         SharedPreferences.Editor wifiNetworkEditor = wifiNetworkPref.edit();
         wifiNetworkEditor.clear();
@@ -1278,8 +1310,11 @@ public class EspApplication extends Application {
     }
 
     private void clearData() {
+        // Pending writes must not add rows again after all data is deleted.
+        EspDbWriter.getInstance(this).clear();
         EspDatabase.getInstance(this).getNodeDao().deleteAll();
         EspDatabase.getInstance(this).getGroupDao().deleteAll();
+        EspDatabase.getInstance(this).getDeviceDao().deleteAll();
         EspDatabase.getInstance(this).getNotificationDao().deleteAll();
         nodeMap.clear();
         scheduleMap.clear();
@@ -1287,17 +1322,132 @@ public class EspApplication extends Application {
         localDeviceMap.clear();
         groupMap.clear();
         automations.clear();
+        chipClientMap.clear();
+        MatterSubscriptionManager.getInstance(this).clear();
+        ChipClientPool.getInstance(this).clear();
         loggedInUsingWeChat = false;
     }
 
     public void startLocalDeviceDiscovery() {
         if (BuildConfig.isLocalControlSupported) {
             if (nodeMap.size() > 0) {
+                for (LocalAddressCache.Entry entry : reachableCachedDevices.values()) {
+                    restoreLocalDevice(entry);
+                }
                 mdnsManager.discoverServices();
             }
         }
     }
 
+    private void probeCachedLocalDevices() {
+
+        reachableCachedDevices.clear();
+        for (LocalAddressCache.Entry entry : localAddressCache.getEntries()) {
+            localAddressCache.probe(entry, new LocalAddressCache.ProbeListener() {
+                @Override
+                public void onReachable(LocalAddressCache.Entry entry) {
+                    reachableCachedDevices.put(entry.getNodeId(), entry);
+                    restoreLocalDevice(entry);
+                }
+            });
+        }
+    }
+
+    /**
+     * Use cached local address of the node before it is discovered through mDNS.
+     * Nothing is done if nodes are not available yet, in that case device is restored when discovery is started.
+     * Device is used only after node id of its config is verified, another device may have got the cached address.
+     */
+    private void restoreLocalDevice(LocalAddressCache.Entry entry) {
+
+        final String nodeId = entry.getNodeId();
+        EspNode node = nodeMap.get(nodeId);
+        if (node == null || localDeviceMap.containsKey(nodeId) || !verifyingLocalNodes.add(nodeId)) {
+            return;
+        }
+
+        Log.d(TAG, "Verify node " + nodeId + " at cached local address : " + entry.getIpAddr());
+        final EspLocalDevice localDevice = new EspLocalDevice(nodeId, entry.getIpAddr(), entry.getPort());
+        localDevice.setServiceName(entry.getServiceName());
+        localDevice.setSessionManager(LocalSessionManager.getInstance(getApplicationContext()));
+        localDevice.setSecurityType(entry.getSecurityType());
+        if (entry.getPropertyCount() > 0) {
+            localDevice.setPropertyCount(entry.getPropertyCount());
+        }
+        setLocalControlParams(node, localDevice);
+
+        final LocalControlApiManager localControlApiManager = new LocalControlApiManager(getApplicationContext());
+        localControlApiManager.verifyNodeId(nodeId, localDevice, new ApiResponseListener() {
+
+            @Override
+            public void onSuccess(Bundle data) {
+                verifyingLocalNodes.remove(nodeId);
+                new Handler(Looper.getMainLooper()).post(() -> useRestoredLocalDevice(localControlApiManager, localDevice));
+            }
+
+            @Override
+            public void onResponseFailure(Exception exception) {
+                Log.e(TAG, "Cached local address of node " + nodeId + " is not used : " + exception.getMessage());
+                verifyingLocalNodes.remove(nodeId);
+                reachableCachedDevices.remove(nodeId);
+                localAddressCache.remove(nodeId);
+            }
+
+            @Override
+            public void onNetworkFailure(Exception exception) {
+                Log.e(TAG, "Failed to verify node " + nodeId + " at cached local address : " + exception.getMessage());
+                verifyingLocalNodes.remove(nodeId);
+            }
+        });
+    }
+
+    private void useRestoredLocalDevice(LocalControlApiManager localControlApiManager, EspLocalDevice localDevice) {
+
+        String nodeId = localDevice.getNodeId();
+        EspNode node = nodeMap.get(nodeId);
+        // Device may have been found through mDNS while it was being verified.
+        if (node == null || localDeviceMap.containsKey(nodeId)) {
+            return;
+        }
+
+        Log.d(TAG, "Restore node " + nodeId + " from cached local address : " + localDevice.getIpAddr());
+        localDeviceMap.put(nodeId, localDevice);
+        node.setAvailableLocally(true);
+        node.setIpAddress(localDevice.getIpAddr());
+        node.setPort(localDevice.getPort());
+        node.setOnline(true);
+        node.setNodeStatus(AppConstants.NODE_STATUS_LOCAL);
+        deviceRegistry.notifyNodeUpdated(nodeId);
+        EventBus.getDefault().post(new UpdateEvent(UpdateEventType.EVENT_LOCAL_DEVICE_UPDATE));
+
+        localAddressCache.save(localDevice);
+        LocalSessionManager.getInstance(getApplicationContext()).prewarm(localDevice);
+        getLocalNodeValues(localControlApiManager, localDevice);
+    }
+
+    private void setLocalControlParams(EspNode node, EspLocalDevice localDevice) {
+
+        Service localService = NodeUtils.Companion.getService(node, AppConstants.SERVICE_TYPE_LOCAL_CONTROL);
+        if (localService != null) {
+            ArrayList<Param> popParams = localService.getParams();
+            if (popParams != null) {
+                for (int paramIdx = 0; paramIdx < popParams.size(); paramIdx++) {
+                    Param param = popParams.get(paramIdx);
+                    if (AppConstants.PARAM_TYPE_LOCAL_CONTROL_POP.equalsIgnoreCase(param.getParamType())) {
+                        String popValue = param.getLabelValue();
+                        localDevice.setPop(popValue);
+                    } else if (AppConstants.PARAM_TYPE_LOCAL_CONTROL_SEC_TYPE.equalsIgnoreCase(param.getParamType())) {
+                        int type = (int) param.getValue();
+                        localDevice.setSecurityType(type);
+                    } else if (AppConstants.PARAM_TYPE_LOCAL_CONTROL_USERNAME.equalsIgnoreCase(param.getParamType())) {
+                        String userName = param.getLabelValue();
+                        localDevice.setUserName(userName);
+                    }
+                }
+            }
+        }
+    }
+
     public void stopLocalDeviceDiscovery() {
         if (BuildConfig.isLocalControlSupported) {
             mdnsManager.stopDiscovery();
@@ -1330,6 +1480,76 @@ public class EspApplication extends Application {
         return devices;
     }
 
+    private void getLocalNodeValues(LocalControlApiManager localControlApiManager, final EspLocalDevice localDevice) {
+
+        localControlApiManager.getPropertyValues(AppConstants.LOCAL_CONTROL_ENDPOINT, localDevice, new ApiResponseListener() {
+
+            @Override
+            public void onSuccess(Bundle data) {
+
+                if (data != null) {
+
+                    String configData = data.getString(AppConstants.KEY_CONFIG);
+                    String paramsData = data.getString(AppConstants.KEY_PARAMS);
+
+                    Log.d(TAG, "Config data : " + configData);
+                    Log.d(TAG, "Params data : " + paramsData);
+
+                    if (!TextUtils.isEmpty(configData)) {
+
+                        JSONObject configJson = null;
+                        try {
+                            configJson = new JSONObject(configData);
+                        } catch (JSONException e) {
+                            e.printStackTrace();
+                        }
+
+                        String id = configJson.optString(AppConstants.KEY_NODE_ID);
+                        EspNode node = nodeMap.get(id);
+
+                        EspNode localNode = JsonDataParser.setNodeConfig(node, configJson);
+                        localDevice.onConfigFetched(NodeUtils.Companion.getContentHash(configData));
+
+                        if (node != null) {
+                            Log.e(TAG, "Found node " + localNode.getNodeId() + " on local network.");
+                            localNode.setAvailableLocally(true);
+                            localNode.setIpAddress(localDevice.getIpAddr());
+                            localNode.setPort(localDevice.getPort());
+                            localNode.setOnline(true);
+                            localNode.setNodeStatus(AppConstants.NODE_STATUS_LOCAL);
+                            localDeviceMap.put(localNode.getNodeId(), localDevice);
+                            localAddressCache.save(localDevice);
+                        }
+
+                        if (!TextUtils.isEmpty(paramsData)) {
+
+                            JSONObject paramsJson = null;
+                            try {
+                                paramsJson = new JSONObject(paramsData);
+                            } catch (JSONException e) {
+                                e.printStackTrace();
+                            }
+                            JsonDataParser.setAllParams(EspApplication.this, localNode, paramsJson);
+                            localDevice.setParamsData(paramsData);
+                            nodeMap.put(localNode.getNodeId(), localNode);
+                            EventBus.getDefault().post(new UpdateEvent(UpdateEventType.EVENT_LOCAL_DEVICE_UPDATE));
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public void onResponseFailure(Exception exception) {
+                // Nothing to do
+            }
+
+            @Override
+            public void onNetworkFailure(Exception exception) {
+                // Nothing to do
+            }
+        });
+    }
+
     mDNSManager.mDNSEvenListener listener = new mDNSManager.mDNSEvenListener() {
 
         @Override
@@ -1345,33 +1565,21 @@ public class EspApplication extends Application {
             }
 
             Log.d(TAG, "Found node " + nodeId + " on local network.");
-            Service localService = NodeUtils.Companion.getService(node, AppConstants.SERVICE_TYPE_LOCAL_CONTROL);
 
-            if (localDeviceMap.containsKey(nodeId)) {
+            EspLocalDevice existingDevice = localDeviceMap.get(nodeId);
+            if (existingDevice != null && existingDevice.getIpAddr().equals(newDevice.getIpAddr())
+                    && existingDevice.getPort() == newDevice.getPort()) {
                 Log.e(TAG, "Local Device session is already available");
-                newDevice = localDeviceMap.get(nodeId);
+                newDevice = existingDevice;
             } else {
+                if (existingDevice != null) {
+                    // Cached address was not correct, use address received from mDNS.
+                    Log.d(TAG, "Address of node " + nodeId + " is changed to " + newDevice.getIpAddr());
+                }
                 localDeviceMap.put(nodeId, newDevice);
             }
 
-            if (localService != null) {
-                ArrayList<Param> popParams = localService.getParams();
-                if (popParams != null) {
-                    for (int paramIdx = 0; paramIdx < popParams.size(); paramIdx++) {
-                        Param param = popParams.get(paramIdx);
-                        if (AppConstants.PARAM_TYPE_LOCAL_CONTROL_POP.equalsIgnoreCase(param.getParamType())) {
-                            String popValue = param.getLabelValue();
-                            newDevice.setPop(popValue);
-                        } else if (AppConstants.PARAM_TYPE_LOCAL_CONTROL_SEC_TYPE.equalsIgnoreCase(param.getParamType())) {
-                            int type = (int) param.getValue();
-                            newDevice.setSecurityType(type);
-                        } else if (AppConstants.PARAM_TYPE_LOCAL_CONTROL_USERNAME.equalsIgnoreCase(param.getParamType())) {
-                            String userName = param.getLabelValue();
-                            newDevice.setUserName(userName);
-                        }
-                    }
-                }
-            }
+            setLocalControlParams(node, newDevice);
 
             final EspLocalDevice localDevice = newDevice;
 
@@ -1386,69 +1594,7 @@ public class EspApplication extends Application {
                             int count = data.getInt(AppConstants.KEY_PROPERTY_COUNT, 0);
                             localDevice.setPropertyCount(count);
 
-                            localControlApiManager.getPropertyValues(AppConstants.LOCAL_CONTROL_ENDPOINT, localDevice, new ApiResponseListener() {
-
-                                @Override
-                                public void onSuccess(Bundle data) {
-
-                                    if (data != null) {
-
-                                        String configData = data.getString(AppConstants.KEY_CONFIG);
-                                        String paramsData = data.getString(AppConstants.KEY_PARAMS);
-
-                                        Log.d(TAG, "Config data : " + configData);
-                                        Log.d(TAG, "Params data : " + paramsData);
-
-                                        if (!TextUtils.isEmpty(configData)) {
-
-                                            JSONObject configJson = null;
-                                            try {
-                                                configJson = new JSONObject(configData);
-                                            } catch (JSONException e) {
-                                                e.printStackTrace();
-                                            }
-
-                                            String id = configJson.optString(AppConstants.KEY_NODE_ID);
-                                            EspNode node = nodeMap.get(id);
-
-                                            EspNode localNode = JsonDataParser.setNodeConfig(node, configJson);
-
-                                            if (node != null) {
-                                                Log.e(TAG, "Found node " + localNode.getNodeId() + " on local network.");
-                                                localNode.setAvailableLocally(true);
-                                                localNode.setIpAddress(localDevice.getIpAddr());
-                                                localNode.setPort(localDevice.getPort());
-                                                localNode.setOnline(true);
-                                                localNode.setNodeStatus(AppConstants.NODE_STATUS_LOCAL);
-                                                localDeviceMap.put(localNode.getNodeId(), localDevice);
-                                            }
-
-                                            if (!TextUtils.isEmpty(paramsData)) {
-
-                                                JSONObject paramsJson = null;
-                                                try {
-                                                    paramsJson = new JSONObject(paramsData);
-                                                } catch (JSONException e) {
-                                                    e.printStackTrace();
-                                                }
-                                                JsonDataParser.setAllParams(EspApplication.this, localNode, paramsJson);
-                                                nodeMap.put(localNode.getNodeId(), localNode);
-                                                EventBus.getDefault().post(new UpdateEvent(UpdateEventType.EVENT_LOCAL_DEVICE_UPDATE));
-                                            }
-                                        }
-                                    }
-                                }
-
-                                @Override
-                                public void onResponseFailure(Exception exception) {
-                                    // Nothing to do
-                                }
-
-                                @Override
-                                public void onNetworkFailure(Exception exception) {
-                                    // Nothing to do
-                                }
-                            });
+                            getLocalNodeValues(localControlApiManager, localDevice);
                         }
                     }
 
@@ -1457,7 +1603,9 @@ public class EspApplication extends Application {
                         if (localDeviceMap.containsKey(nodeId)) {
                             Log.e(TAG, "Remove local device from list");
                             localDeviceMap.remove(nodeId);
+                            localAddressCache.remove(nodeId);
                             nodeMap.get(nodeId).setNodeStatus(AppConstants.NODE_STATUS_ONLINE);
+                            deviceRegistry.notifyNodeUpdated(nodeId);
                         }
                     }
 
@@ -1468,6 +1616,9 @@ public class EspApplication extends Application {
                 });
             } else {
                 Log.e(TAG, "Local device is already available and properties are already available");
+                localAddressCache.save(localDevice);
+                // Keep session of the device ready, if it has been used recently.
+                LocalSessionManager.getInstance(getApplicationContext()).prewarm(localDevice);
             }
         }
     };
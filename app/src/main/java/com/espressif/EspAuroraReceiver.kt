@@ -110,7 +110,9 @@ class EspAuroraReceiver : JPushMessageReceiver() {
                 Log.d(TAG, "Body : $body")
                 Log.d(TAG, "Event payload : $eventPayload")
 
-                if (eventPayload.isNotEmpty()) {
+                if (PushEventPipeline.getInstance(context).offer(eventPayload)) {
+                    Log.d(TAG, "Param update is queued")
+                } else if (eventPayload.isNotEmpty()) {
                     val data = Data.Builder()
                         .putString(AppConstants.KEY_TITLE, title)
                         .putString(AppConstants.KEY_BODY, body)
@@ -143,7 +145,9 @@ class EspAuroraReceiver : JPushMessageReceiver() {
                 Log.d(TAG, "Body : $body")
                 Log.d(TAG, "Event payload : $eventPayload")
 
-                if (eventPayload.isNotEmpty()) {
+                if (PushEventPipeline.getInstance(context).offer(eventPayload)) {
+                    Log.d(TAG, "Param update is queued")
+                } else if (eventPayload.isNotEmpty()) {
                     val data = Data.Builder()
                         .putString(AppConstants.KEY_TITLE, title)
                         .putString(AppConstants.KEY_BODY, body)
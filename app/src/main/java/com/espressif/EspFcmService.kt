@@ -55,7 +55,9 @@ class EspFcmService : FirebaseMessagingService() {
         Log.d(TAG, "Event payload : $eventPayload")
         Log.d(TAG, "remoteMessage : " + remoteMessage.data.toString())
 
-        if (eventPayload != null) {
+        if (PushEventPipeline.getInstance(applicationContext).offer(eventPayload)) {
+            Log.d(TAG, "Param update is queued")
+        } else if (eventPayload != null) {
             try {
                 val data = Data.Builder()
                     .putString(AppConstants.KEY_TITLE, title)
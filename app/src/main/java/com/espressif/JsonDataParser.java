@@ -424,6 +424,106 @@ public class JsonDataParser {
         return espNode;
     }
 
+    /**
+     * This method is used to apply only those param values which are different from the current values of the node.
+     * Device params are compared with the values of node params (which may have been changed by a write, cloud or push event).
+     * Services (schedules, scenes, etc.) are compared with the previous params JSON read from the node and all params are
+     * applied with {@link #setAllParams} if a service is changed.
+     *
+     * @param oldParamsJson Params JSON which has been read from the node previously, null to apply all params.
+     * @param paramsJson    New params JSON.
+     * @return Names of the devices / services whose params are changed.
+     */
+    public static ArrayList<String> setChangedParams(EspApplication espAppContext, EspNode node,
+                                                     JSONObject oldParamsJson, JSONObject paramsJson) {
+
+        ArrayList<String> changedKeys = new ArrayList<>();
+        if (oldParamsJson == null) {
+            setAllParams(espAppContext, node, paramsJson);
+            Iterator<String> keys = paramsJson.keys();
+            while (keys.hasNext()) {
+                changedKeys.add(keys.next());
+            }
+            return changedKeys;
+        }
+
+        HashMap<String, Device> deviceMap = new HashMap<>();
+        if (node.getDevices() != null) {
+            for (Device device : node.getDevices()) {
+                deviceMap.put(device.getDeviceName(), device);
+            }
+        }
+        boolean isServiceChanged = false;
+        Iterator<String> keys = paramsJson.keys();
+
+        while (keys.hasNext()) {
+
+            String key = keys.next();
+            JSONObject valuesJson = paramsJson.optJSONObject(key);
+            if (valuesJson == null) {
+                continue;
+            }
+            Device device = deviceMap.get(key);
+
+            if (device == null) {
+                JSONObject oldValuesJson = oldParamsJson.optJSONObject(key);
+                if (oldValuesJson == null || !valuesJson.toString().equals(oldValuesJson.toString())) {
+                    changedKeys.add(key);
+                    isServiceChanged = true;
+                }
+                continue;
+            }
+            if (device.getParams() == null) {
+                continue;
+            }
+            boolean isDeviceChanged = false;
+            for (Param param : device.getParams()) {
+                if (!param.isDynamicParam() || !valuesJson.has(param.getName())) {
+                    continue;
+                }
+                if (isParamValueChanged(valuesJson, param)) {
+                    setDeviceParamValue(valuesJson, device, param);
+                    isDeviceChanged = true;
+                }
+            }
+            if (isDeviceChanged) {
+                changedKeys.add(key);
+            }
+        }
+
+        if (isServiceChanged) {
+            setAllParams(espAppContext, node, paramsJson);
+        } else if (!changedKeys.isEmpty()) {
+            espAppContext.getDeviceRegistry().notifyNodeUpdated(node.getNodeId());
+        }
+        return changedKeys;
+    }
+
+    /**
+     * Check if value of the param in device JSON is different from the current value of the param.
+     * Values are compared in the same form as they are set by {@link #setDeviceParamValue}.
+     */
+    private static boolean isParamValueChanged(JSONObject deviceJson, Param param) {
+
+        String dataType = param.getDataType();
+        String paramName = param.getName();
+
+        if (TextUtils.isEmpty(dataType)) {
+            return true;
+        }
+        if (dataType.equalsIgnoreCase("bool") || dataType.equalsIgnoreCase("boolean")) {
+            boolean value = deviceJson.optBoolean(paramName);
+            return value != param.getSwitchStatus() || !String.valueOf(value).equals(param.getLabelValue());
+        } else if (dataType.equalsIgnoreCase("int") || dataType.equalsIgnoreCase("integer")) {
+            int value = deviceJson.optInt(paramName);
+            return value != (int) param.getValue() || !String.valueOf(value).equals(param.getLabelValue());
+        } else if (dataType.equalsIgnoreCase("float") || dataType.equalsIgnoreCase("double")) {
+            double value = deviceJson.optDouble(paramName);
+            return value != param.getValue() || !String.valueOf(value).equals(param.getLabelValue());
+        }
+        return !deviceJson.optString(paramName).equals(param.getLabelValue());
+    }
+
     public static void setAllParams(EspApplication espAppContext, EspNode node, JSONObject paramsJson) {
 
         String nodeId = node.getNodeId();
@@ -925,6 +1025,7 @@ public class JsonDataParser {
                 }
             }
         }
+        espAppContext.getDeviceRegistry().notifyNodeUpdated(nodeId);
     }
 
     private static void setRemoteDeviceParamValues(EspApplication espApp, String controllerNodeId, EspNode node, String controllerDataVersion) {
@@ -963,6 +1064,7 @@ public class JsonDataParser {
                                             if (enabled && reachable && isControllerOnline) {
                                                 Log.d(TAG, "Set Node status to remotely controllable for node id : " + rmNodeId);
                                                 remoteNode.setNodeStatus(AppConstants.NODE_STATUS_REMOTELY_CONTROLLABLE);
+                                                espApp.getDeviceRegistry().notifyNodeUpdated(rmNodeId);
                                             }
                                         }
 
@@ -22,6 +22,7 @@ import com.espressif.AppConstants.Companion.UpdateEventType;
 import com.espressif.ble.BleLocalControlManager;
 import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.db.EspDbWriter;
 import com.espressif.local_control.LocalControlApiManager;
 import com.espressif.ui.models.EspNode;
 import com.espressif.ui.models.UpdateEvent;
@@ -29,6 +30,13 @@ import com.google.gson.JsonObject;
 
 import org.greenrobot.eventbus.EventBus;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * This class will decide to call API on local network or on cloud.
  * If device is available on local network then API will be called using local network.
@@ -38,6 +46,14 @@ public class NetworkApiManager {
 
     private final String TAG = NetworkApiManager.class.getSimpleName();
 
+    // Max parallel param requests of a batch for local nodes and for cloud nodes (when bulk request is not used).
+    private static final int MAX_LOCAL_CONCURRENCY = 4;
+    private static final int MAX_CLOUD_CONCURRENCY = 4;
+    // Cloud nodes are fetched with node list requests if batch has at least this many cloud nodes.
+    private static final int CLOUD_BULK_THRESHOLD = 5;
+
+    private static volatile ParamFetchStats lastParamFetchStats;
+
     private Context context;
     private EspApplication espApp;
     private ApiManager apiManager;
@@ -68,13 +84,33 @@ public class NetworkApiManager {
     public void updateParamValue(final String nodeId, final JsonObject body, final ApiResponseListener listener,
                                  final boolean reportToProxy) {
 
+        final ApiResponseListener updateListener = new ApiResponseListener() {
+
+            @Override
+            public void onSuccess(Bundle data) {
+                // Only rows of the updated params are written.
+                EspDbWriter.getInstance(context).updateParamValues(nodeId, body);
+                listener.onSuccess(data);
+            }
+
+            @Override
+            public void onResponseFailure(Exception exception) {
+                listener.onResponseFailure(exception);
+            }
+
+            @Override
+            public void onNetworkFailure(Exception exception) {
+                listener.onNetworkFailure(exception);
+            }
+        };
+
         if (espApp.localDeviceMap.containsKey(nodeId)) {
 
             localControlApiManager.updateParamValue(nodeId, body, new ApiResponseListener() {
 
                 @Override
                 public void onSuccess(Bundle data) {
-                    listener.onSuccess(data);
+                    updateListener.onSuccess(data);
                 }
 
                 @Override
@@ -83,6 +119,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
                     espApp.nodeMap.get(nodeId).setNodeStatus(AppConstants.NODE_STATUS_ONLINE);
+                    espApp.getDeviceRegistry().notifyNodeUpdated(nodeId);
                     updateParamValue(nodeId, body, listener, reportToProxy);
                 }
 
@@ -92,6 +129,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
                     espApp.nodeMap.get(nodeId).setNodeStatus(AppConstants.NODE_STATUS_ONLINE);
+                    espApp.getDeviceRegistry().notifyNodeUpdated(nodeId);
                     updateParamValue(nodeId, body, listener, reportToProxy);
                 }
             });
@@ -105,7 +143,7 @@ public class NetworkApiManager {
                     @Override
                     public void onSuccess(Bundle data) {
                         Log.d(TAG, "BLE param update success for node: " + nodeId);
-                        listener.onSuccess(data);
+                        updateListener.onSuccess(data);
                         if (reportToProxy) {
                             reportParamsToProxy(nodeId);
                         }
@@ -115,19 +153,19 @@ public class NetworkApiManager {
                     public void onResponseFailure(Exception exception) {
                         Log.e(TAG, "BLE param update failed: " + exception.getMessage());
                         clearBleAndFallbackToCloud(nodeId);
-                        apiManager.updateParamValue(nodeId, body, listener);
+                        apiManager.updateParamValue(nodeId, body, updateListener);
                     }
 
                     @Override
                     public void onNetworkFailure(Exception exception) {
                         Log.e(TAG, "BLE connection failed: " + exception.getMessage());
                         clearBleAndFallbackToCloud(nodeId);
-                        apiManager.updateParamValue(nodeId, body, listener);
+                        apiManager.updateParamValue(nodeId, body, updateListener);
                     }
                 });
             } else {
                 // Priority 3: Cloud API
-                apiManager.updateParamValue(nodeId, body, listener);
+                apiManager.updateParamValue(nodeId, body, updateListener);
             }
         }
     }
@@ -155,6 +193,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
                     espApp.nodeMap.get(nodeId).setNodeStatus(AppConstants.NODE_STATUS_ONLINE);
+                    espApp.getDeviceRegistry().notifyNodeUpdated(nodeId);
                     getParamsValues(nodeId, listener);
                 }
 
@@ -164,6 +203,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
                     espApp.nodeMap.get(nodeId).setNodeStatus(AppConstants.NODE_STATUS_ONLINE);
+                    espApp.getDeviceRegistry().notifyNodeUpdated(nodeId);
                     getParamsValues(nodeId, listener);
                 }
             });
@@ -215,6 +255,176 @@ public class NetworkApiManager {
         }
     }
 
+    /**
+     * This method is used to get param values of multiple nodes.
+     * Local / BLE connected nodes are fetched in parallel with limited concurrency.
+     * Cloud nodes are fetched with node list requests if there are many and it is allowed, otherwise one request per node
+     * with limited concurrency.
+     * Offline nodes are skipped. One {@link UpdateEventType#EVENT_DEVICE_STATUS_UPDATE} event is posted after all nodes are done.
+     *
+     * @param nodeIds       Node ids.
+     * @param isBulkAllowed False to always fetch cloud nodes with one params request per node. Node list requests
+     *                      return config of all nodes, which is too much for periodic refresh of a few nodes.
+     * @param listener      Listener to send result. Bundle contains count of nodes for which params are received.
+     */
+    public void getParamsValuesForNodes(final Collection<String> nodeIds, boolean isBulkAllowed,
+                                        final ApiResponseListener listener) {
+
+        final ParamFetchStats stats = new ParamFetchStats();
+        final ArrayList<String> localNodeIds = new ArrayList<>();
+        final HashSet<String> cloudNodeIds = new HashSet<>();
+        int skipped = 0;
+        BleLocalControlManager bleManager = BleLocalControlManager.getInstance(context);
+
+        for (String nodeId : nodeIds) {
+            EspNode node = espApp.nodeMap.get(nodeId);
+            if (espApp.localDeviceMap.containsKey(nodeId) || bleManager.isConnected(nodeId)) {
+                localNodeIds.add(nodeId);
+            } else if (node == null || node.getNodeStatus() == AppConstants.NODE_STATUS_OFFLINE) {
+                skipped++;
+            } else {
+                cloudNodeIds.add(nodeId);
+            }
+        }
+
+        final boolean isCloudBulk = isBulkAllowed && cloudNodeIds.size() >= CLOUD_BULK_THRESHOLD;
+        stats.setNodeCounts(localNodeIds.size(), cloudNodeIds.size(), skipped, isCloudBulk);
+
+        final AtomicInteger pendingGroups = new AtomicInteger(2);
+        final Runnable onGroupDone = new Runnable() {
+            @Override
+            public void run() {
+                if (pendingGroups.decrementAndGet() == 0) {
+                    stats.onDone();
+                    lastParamFetchStats = stats;
+                    Log.d(TAG, "Batched param fetch : " + stats);
+                    EventBus.getDefault().post(new UpdateEvent(UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
+                    Bundle data = new Bundle();
+                    data.putInt(AppConstants.KEY_NODE_COUNT, stats.getLocalCount() + stats.getCloudCount() - stats.getFailedCount());
+                    listener.onSuccess(data);
+                }
+            }
+        };
+
+        // Local nodes
+        fetchParamsWithLimit(localNodeIds, MAX_LOCAL_CONCURRENCY, false, stats, new Runnable() {
+            @Override
+            public void run() {
+                stats.onLocalDone();
+                onGroupDone.run();
+            }
+        });
+
+        // Cloud nodes
+        final Runnable onCloudDone = new Runnable() {
+            @Override
+            public void run() {
+                stats.onCloudDone();
+                onGroupDone.run();
+            }
+        };
+
+        if (isCloudBulk) {
+            apiManager.getParamsValuesForNodes(cloudNodeIds, new ApiResponseListener() {
+
+                @Override
+                public void onSuccess(Bundle data) {
+                    int count = data != null ? data.getInt(AppConstants.KEY_NODE_COUNT, 0) : 0;
+                    stats.onFailure(cloudNodeIds.size() - count);
+                    onCloudDone.run();
+                }
+
+                @Override
+                public void onResponseFailure(Exception exception) {
+                    Log.e(TAG, "Bulk param fetch failed : " + exception.getMessage());
+                    stats.onFailure(cloudNodeIds.size());
+                    onCloudDone.run();
+                }
+
+                @Override
+                public void onNetworkFailure(Exception exception) {
+                    Log.e(TAG, "Bulk param fetch failed : " + exception.getMessage());
+                    stats.onFailure(cloudNodeIds.size());
+                    onCloudDone.run();
+                }
+            });
+        } else {
+            fetchParamsWithLimit(new ArrayList<>(cloudNodeIds), MAX_CLOUD_CONCURRENCY, true, stats, onCloudDone);
+        }
+    }
+
+    /**
+     * Returns latency and failure counters of the last completed batched param fetch. Null if there is no fetch yet.
+     */
+    public static ParamFetchStats getLastParamFetchStats() {
+        return lastParamFetchStats;
+    }
+
+    /**
+     * Get params of given nodes one by one, with max "limit" requests in progress at a time.
+     */
+    private void fetchParamsWithLimit(final List<String> nodeIds, int limit, final boolean isCloud,
+                                      final ParamFetchStats stats, final Runnable onDone) {
+
+        if (nodeIds.isEmpty()) {
+            onDone.run();
+            return;
+        }
+
+        final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>(nodeIds);
+        final AtomicInteger remaining = new AtomicInteger(nodeIds.size());
+
+        Runnable worker = new Runnable() {
+
+            @Override
+            public void run() {
+
+                String nodeId = queue.poll();
+                if (nodeId == null) {
+                    return;
+                }
+                final Runnable next = this;
+                ApiResponseListener nodeListener = new ApiResponseListener() {
+
+                    @Override
+                    public void onSuccess(Bundle data) {
+                        onNodeDone();
+                    }
+
+                    @Override
+                    public void onResponseFailure(Exception exception) {
+                        stats.onFailure(1);
+                        onNodeDone();
+                    }
+
+                    @Override
+                    public void onNetworkFailure(Exception exception) {
+                        stats.onFailure(1);
+                        onNodeDone();
+                    }
+
+                    private void onNodeDone() {
+                        if (remaining.decrementAndGet() == 0) {
+                            onDone.run();
+                        } else {
+                            next.run();
+                        }
+                    }
+                };
+
+                if (isCloud) {
+                    apiManager.getParamsValues(nodeId, nodeListener);
+                } else {
+                    getParamsValues(nodeId, nodeListener);
+                }
+            }
+        };
+
+        for (int i = 0; i < Math.min(limit, nodeIds.size()); i++) {
+            worker.run();
+        }
+    }
+
     /**
      * This method is used to get node details for a given node id.
      *
@@ -238,6 +448,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
                     espApp.nodeMap.get(nodeId).setNodeStatus(AppConstants.NODE_STATUS_ONLINE);
+                    espApp.getDeviceRegistry().notifyNodeUpdated(nodeId);
                     getParamsValues(nodeId, listener);
                 }
 
@@ -247,6 +458,7 @@ public class NetworkApiManager {
                     Log.e(TAG, "Removing Node id : " + nodeId);
                     espApp.localDeviceMap.remove(nodeId);
                     espApp.nodeMap.get(nodeId).setNodeStatus(AppConstants.NODE_STATUS_ONLINE);
+                    espApp.getDeviceRegistry().notifyNodeUpdated(nodeId);
                     getParamsValues(nodeId, listener);
                 }
             });
@@ -324,6 +536,7 @@ public class NetworkApiManager {
             } else {
                 node.setNodeStatus(AppConstants.NODE_STATUS_OFFLINE);
             }
+            espApp.getDeviceRegistry().notifyNodeUpdated(nodeId);
         }
         EventBus.getDefault().post(new UpdateEvent(UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
     }
@@ -179,31 +179,8 @@ public class NotificationWorker extends Worker {
 
                     } else if (AppConstants.EVENT_NODE_PARAM_MODIFIED.equals(eventType)) {
 
-                        String nodeId = jsonEventData.optString(AppConstants.KEY_NODE_ID);
-                        String payload = jsonEventData.optString(AppConstants.KEY_PAYLOAD);
-                        Log.d(TAG, "Node Id : " + nodeId);
-                        Log.d(TAG, "Payload : " + payload);
-                        JSONObject payloadJson = null;
-                        try {
-                            payloadJson = new JSONObject(payload);
-                        } catch (JSONException e) {
-                            e.printStackTrace();
-                        }
-
-                        if (!espApp.nodeMap.containsKey(nodeId)) {
-                            ApiManager.getInstance(espApp).getNodeDetails(nodeId);
-                        }
-
-                        if (!espApp.nodeMap.containsKey(nodeId)) {
-                            loadDataFromLocalStorage();
-                        }
-
-                        if (payloadJson != null && espApp.nodeMap.containsKey(nodeId)) {
-                            EspNode node = espApp.nodeMap.get(nodeId);
-                            JsonDataParser.setAllParams(espApp, node, payloadJson);
-                            // Send event for UI update
-                            EventBus.getDefault().post(new UpdateEvent(UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
-                        }
+                        // Param updates are normally queued by push receiver itself, this is for events received in worker.
+                        PushEventPipeline.getInstance(espApp).offer(eventPayload);
                     } else if (AppConstants.EVENT_ALERT.equals(eventType)) {
                         processAlertEvent(title, notificationEvent, jsonEventData);
                     } else if (AppConstants.EVENT_GROUP_SHARING_ADD.equals(eventType)) {
@@ -266,6 +243,7 @@ public class NotificationWorker extends Worker {
                         node.setNodeStatus(AppConstants.NODE_STATUS_OFFLINE);
                     }
                 }
+                espApp.getDeviceRegistry().notifyNodeUpdated(nodeId);
 
                 ArrayList<Device> devices = node.getDevices();
                 ArrayList<String> deviceNames = new ArrayList<>();
@@ -1183,6 +1161,7 @@ public class NotificationWorker extends Worker {
 
         EspDatabase espDatabase = EspDatabase.getInstance(getApplicationContext());
         ArrayList<EspNode> nodeList = (ArrayList<EspNode>) espDatabase.getNodeDao().getNodesFromStorage();
+        ArrayList<EspNode> storedNodes = new ArrayList<>();
 
         for (int nodeIndex = 0; nodeIndex < nodeList.size(); nodeIndex++) {
 
@@ -1202,7 +1181,7 @@ public class NotificationWorker extends Worker {
                         } else {
                             Log.e(TAG, "Param configuration is not available.");
                         }
-                        espApp.nodeMap.put(node.getNodeId(), node);
+                        storedNodes.add(node);
 
                     } catch (JSONException e) {
                         e.printStackTrace();
@@ -1213,6 +1192,11 @@ public class NotificationWorker extends Worker {
             }
         }
 
+        espDatabase.getDeviceDao().applyParamValues(storedNodes);
+        for (EspNode node : storedNodes) {
+            espApp.nodeMap.put(node.getNodeId(), node);
+        }
+
         if (BuildConfig.isNodeGroupingSupported) {
             ArrayList<Group> groupList = (ArrayList<Group>) espDatabase.getGroupDao().getGroupsFromStorage();
             for (int groupIndex = 0; groupIndex < groupList.size(); groupIndex++) {
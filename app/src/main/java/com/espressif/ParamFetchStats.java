@@ -0,0 +1,110 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency and failure counters of one batched param fetch.
+ * Local : Nodes fetched on local network / BLE.
+ * Cloud : Nodes fetched from cloud, with node list requests (bulk) or one request per node.
+ * Skipped : Offline nodes, not fetched.
+ */
+public class ParamFetchStats {
+
+    private final long startTime = System.currentTimeMillis();
+
+    private final AtomicInteger localCount = new AtomicInteger();
+    private final AtomicInteger cloudCount = new AtomicInteger();
+    private final AtomicInteger skippedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+
+    private volatile boolean isCloudBulk;
+    private volatile long localLatency;
+    private volatile long cloudLatency;
+    private volatile long totalLatency;
+
+    void setNodeCounts(int local, int cloud, int skipped, boolean cloudBulk) {
+        localCount.set(local);
+        cloudCount.set(cloud);
+        skippedCount.set(skipped);
+        isCloudBulk = cloudBulk;
+    }
+
+    void onFailure(int count) {
+        failedCount.addAndGet(count);
+    }
+
+    void onLocalDone() {
+        localLatency = System.currentTimeMillis() - startTime;
+    }
+
+    void onCloudDone() {
+        cloudLatency = System.currentTimeMillis() - startTime;
+    }
+
+    void onDone() {
+        totalLatency = System.currentTimeMillis() - startTime;
+    }
+
+    public int getLocalCount() {
+        return localCount.get();
+    }
+
+    public int getCloudCount() {
+        return cloudCount.get();
+    }
+
+    public int getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    public boolean isCloudBulk() {
+        return isCloudBulk;
+    }
+
+    public long getLocalLatency() {
+        return localLatency;
+    }
+
+    public long getCloudLatency() {
+        return cloudLatency;
+    }
+
+    public long getTotalLatency() {
+        return totalLatency;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "ParamFetchStats{" +
+                "local=" + localCount.get() +
+                ", cloud=" + cloudCount.get() +
+                ", skipped=" + skippedCount.get() +
+                ", failed=" + failedCount.get() +
+                ", cloudBulk=" + isCloudBulk +
+                ", localLatency=" + localLatency + "ms" +
+                ", cloudLatency=" + cloudLatency + "ms" +
+                ", totalLatency=" + totalLatency + "ms" +
+                '}';
+    }
+}
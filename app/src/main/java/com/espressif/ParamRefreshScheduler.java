@@ -0,0 +1,451 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.espressif.ble.BleLocalControlManager;
+import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Param;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * Central scheduler for periodic refresh of param values.
+ * <p>
+ * Screens subscribe for a node and get callbacks after each refresh. Each node has its own cadence :
+ * local / BLE connected nodes are polled faster than cloud nodes, and the interval is doubled
+ * when values have not changed or node is offline. One fetch is shared by all subscribers of a node.
+ * Polling of a node stops when its last subscriber is removed (e.g. screen is paused).
+ * <p>
+ * Device grid can subscribe for its visible nodes (see {@link #setVisibleNodes(Collection)}), only those are fetched
+ * with {@link NetworkApiManager#getParamsValuesForNodes} at a slower cadence, using the params request of each node.
+ * <p>
+ * Methods must be called from main thread, unless mentioned otherwise. Listener callbacks are delivered on main thread.
+ */
+public class ParamRefreshScheduler {
+
+    private static final String TAG = ParamRefreshScheduler.class.getSimpleName();
+
+    private static final long LOCAL_INTERVAL_MS = 2000;
+    private static final long CLOUD_INTERVAL_MS = 5000;
+    private static final long MAX_LOCAL_INTERVAL_MS = 10000;
+    private static final long MAX_CLOUD_INTERVAL_MS = 60000;
+    private static final long VISIBLE_NODES_INTERVAL_MS = 30000;
+    private static final long MAX_VISIBLE_NODES_INTERVAL_MS = 120000;
+    // Max nodes fetched in one refresh of visible nodes.
+    private static final int MAX_VISIBLE_NODES = 20;
+
+    private static ParamRefreshScheduler scheduler;
+
+    private final EspApplication espApp;
+    private final NetworkApiManager networkApiManager;
+    private final Handler handler;
+    private final HashMap<String, NodeRefresh> nodeRefreshMap = new HashMap<>();
+    private final VisibleNodesRefresh visibleNodesRefresh = new VisibleNodesRefresh();
+
+    public static synchronized ParamRefreshScheduler getInstance(Context context) {
+        if (scheduler == null) {
+            scheduler = new ParamRefreshScheduler(context.getApplicationContext());
+        }
+        return scheduler;
+    }
+
+    private ParamRefreshScheduler(Context context) {
+        espApp = (EspApplication) context;
+        networkApiManager = new NetworkApiManager(context);
+        handler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Start periodic refresh of param values for given node. First refresh happens after the current interval of the node.
+     *
+     * @param nodeId   Node id.
+     * @param listener Listener to get refresh result.
+     */
+    public void subscribe(String nodeId, ApiResponseListener listener) {
+
+        NodeRefresh nodeRefresh = nodeRefreshMap.get(nodeId);
+        if (nodeRefresh == null) {
+            nodeRefresh = new NodeRefresh(nodeId);
+            nodeRefreshMap.put(nodeId, nodeRefresh);
+        }
+        if (!nodeRefresh.listeners.contains(listener)) {
+            nodeRefresh.listeners.add(listener);
+        }
+        if (!nodeRefresh.isFetchInProgress) {
+            nodeRefresh.schedule(nodeRefresh.interval);
+        }
+        Log.d(TAG, "Subscribed for node : " + nodeId + ", listeners : " + nodeRefresh.listeners.size());
+    }
+
+    /**
+     * Remove listener. Polling of the node is stopped if there is no other listener.
+     *
+     * @param nodeId   Node id.
+     * @param listener Listener added with {@link #subscribe(String, ApiResponseListener)}.
+     */
+    public void unsubscribe(String nodeId, ApiResponseListener listener) {
+
+        NodeRefresh nodeRefresh = nodeRefreshMap.get(nodeId);
+        if (nodeRefresh == null) {
+            return;
+        }
+        nodeRefresh.listeners.remove(listener);
+        if (nodeRefresh.listeners.isEmpty()) {
+            handler.removeCallbacks(nodeRefresh);
+            nodeRefreshMap.remove(nodeId);
+            Log.d(TAG, "Stopped polling for node : " + nodeId);
+        }
+    }
+
+    /**
+     * Start periodic refresh of param values for visible nodes, e.g. while device grid is shown.
+     * First refresh happens after the current interval, nodes are fetched by full refresh when screen is resumed.
+     * Listener gets count of nodes for which params are received, EVENT_DEVICE_STATUS_UPDATE event
+     * is also posted after each refresh.
+     *
+     * @param listener Listener to get refresh result.
+     */
+    public void subscribeVisibleNodes(ApiResponseListener listener) {
+
+        if (!visibleNodesRefresh.listeners.contains(listener)) {
+            visibleNodesRefresh.listeners.add(listener);
+        }
+        if (!visibleNodesRefresh.isFetchInProgress) {
+            visibleNodesRefresh.schedule(visibleNodesRefresh.interval);
+        }
+    }
+
+    /**
+     * Remove listener added with {@link #subscribeVisibleNodes(ApiResponseListener)}.
+     * Polling of visible nodes is stopped if there is no other listener.
+     *
+     * @param listener Listener to remove.
+     */
+    public void unsubscribeVisibleNodes(ApiResponseListener listener) {
+
+        visibleNodesRefresh.listeners.remove(listener);
+        if (visibleNodesRefresh.listeners.isEmpty()) {
+            handler.removeCallbacks(visibleNodesRefresh);
+            Log.d(TAG, "Stopped polling for visible nodes");
+        }
+    }
+
+    /**
+     * Set nodes shown by device grid. Only first {@link #MAX_VISIBLE_NODES} nodes are polled.
+     *
+     * @param nodeIds Node ids in the order they are shown.
+     */
+    public void setVisibleNodes(Collection<String> nodeIds) {
+
+        visibleNodesRefresh.nodeIds.clear();
+        for (String nodeId : nodeIds) {
+            if (visibleNodesRefresh.nodeIds.size() == MAX_VISIBLE_NODES) {
+                break;
+            }
+            visibleNodesRefresh.nodeIds.add(nodeId);
+        }
+    }
+
+    /**
+     * Reset interval of the node to its base value, e.g. after user has changed a param value.
+     * Can be called from any thread.
+     *
+     * @param nodeId Node id.
+     */
+    public void resetInterval(final String nodeId) {
+
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                NodeRefresh nodeRefresh = nodeRefreshMap.get(nodeId);
+                if (nodeRefresh != null) {
+                    nodeRefresh.interval = getBaseInterval(nodeId);
+                    if (!nodeRefresh.isFetchInProgress) {
+                        nodeRefresh.schedule(nodeRefresh.interval);
+                    }
+                }
+            }
+        });
+    }
+
+    private long getBaseInterval(String nodeId) {
+        if (isLocal(nodeId)) {
+            return LOCAL_INTERVAL_MS;
+        }
+        return CLOUD_INTERVAL_MS;
+    }
+
+    private long getMaxInterval(String nodeId) {
+        if (isLocal(nodeId)) {
+            return MAX_LOCAL_INTERVAL_MS;
+        }
+        return MAX_CLOUD_INTERVAL_MS;
+    }
+
+    private boolean isLocal(String nodeId) {
+        return espApp.localDeviceMap.containsKey(nodeId)
+                || BleLocalControlManager.getInstance(espApp).isConnected(nodeId);
+    }
+
+    private boolean isOffline(String nodeId) {
+        if (isLocal(nodeId)) {
+            return false;
+        }
+        EspNode node = espApp.nodeMap.get(nodeId);
+        return node != null && node.getNodeStatus() == AppConstants.NODE_STATUS_OFFLINE;
+    }
+
+    /**
+     * Hash of all param values of the node, used to find out if values have been changed by last refresh.
+     */
+    private int getValuesHash(String nodeId) {
+
+        EspNode node = espApp.nodeMap.get(nodeId);
+        if (node == null || node.getDevices() == null) {
+            return 0;
+        }
+        int hash = 1;
+        for (Device device : node.getDevices()) {
+            ArrayList<Param> params = device.getParams();
+            if (params == null) {
+                continue;
+            }
+            for (Param param : params) {
+                hash = 31 * hash + Double.valueOf(param.getValue()).hashCode();
+                hash = 31 * hash + (param.getSwitchStatus() ? 1 : 0);
+                hash = 31 * hash + (param.getLabelValue() != null ? param.getLabelValue().hashCode() : 0);
+            }
+        }
+        return hash;
+    }
+
+    private class NodeRefresh implements Runnable {
+
+        private final String nodeId;
+        private final ArrayList<ApiResponseListener> listeners = new ArrayList<>();
+        private long interval;
+        private int lastValuesHash;
+        private boolean isFetchInProgress;
+
+        NodeRefresh(String nodeId) {
+            this.nodeId = nodeId;
+            this.interval = getBaseInterval(nodeId);
+            this.lastValuesHash = getValuesHash(nodeId);
+        }
+
+        void schedule(long delay) {
+            handler.removeCallbacks(this);
+            handler.postDelayed(this, delay);
+        }
+
+        @Override
+        public void run() {
+
+            if (nodeRefreshMap.get(nodeId) != this) {
+                return;
+            }
+
+            if (isOffline(nodeId)) {
+                // Don't poll for offline nodes, check status again later.
+                backOff();
+                schedule(interval);
+                return;
+            }
+
+            isFetchInProgress = true;
+            networkApiManager.getParamsValues(nodeId, new ApiResponseListener() {
+
+                @Override
+                public void onSuccess(final Bundle data) {
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onFetchDone(true);
+                            if (data != null && data.containsKey(AppConstants.KEY_PARAMS_CHANGED)
+                                    && !data.getBoolean(AppConstants.KEY_PARAMS_CHANGED)) {
+                                // Values read from local device are same as before, nothing to update.
+                                return;
+                            }
+                            for (ApiResponseListener listener : new ArrayList<>(listeners)) {
+                                listener.onSuccess(data);
+                            }
+                        }
+                    });
+                }
+
+                @Override
+                public void onResponseFailure(final Exception exception) {
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onFetchDone(false);
+                            for (ApiResponseListener listener : new ArrayList<>(listeners)) {
+                                listener.onResponseFailure(exception);
+                            }
+                        }
+                    });
+                }
+
+                @Override
+                public void onNetworkFailure(final Exception exception) {
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onFetchDone(false);
+                            for (ApiResponseListener listener : new ArrayList<>(listeners)) {
+                                listener.onNetworkFailure(exception);
+                            }
+                        }
+                    });
+                }
+            });
+        }
+
+        private void onFetchDone(boolean isSuccess) {
+
+            isFetchInProgress = false;
+            if (isSuccess) {
+                int valuesHash = getValuesHash(nodeId);
+                if (valuesHash != lastValuesHash) {
+                    lastValuesHash = valuesHash;
+                    interval = getBaseInterval(nodeId);
+                } else {
+                    backOff();
+                }
+            } else {
+                backOff();
+            }
+            Log.d(TAG, "Next refresh for node " + nodeId + " in " + interval + " ms");
+            if (nodeRefreshMap.get(nodeId) == this) {
+                schedule(interval);
+            }
+        }
+
+        private void backOff() {
+            interval = Math.max(interval, getBaseInterval(nodeId));
+            interval = Math.min(interval * 2, getMaxInterval(nodeId));
+        }
+    }
+
+    private int getValuesHash(Collection<String> nodeIds) {
+
+        int hash = 1;
+        for (String nodeId : nodeIds) {
+            hash += 31 * nodeId.hashCode() + getValuesHash(nodeId);
+        }
+        return hash;
+    }
+
+    private class VisibleNodesRefresh implements Runnable {
+
+        private final ArrayList<ApiResponseListener> listeners = new ArrayList<>();
+        private final LinkedHashSet<String> nodeIds = new LinkedHashSet<>();
+        private long interval = VISIBLE_NODES_INTERVAL_MS;
+        private int lastValuesHash;
+        private boolean isFetchInProgress;
+
+        void schedule(long delay) {
+            handler.removeCallbacks(this);
+            handler.postDelayed(this, delay);
+        }
+
+        @Override
+        public void run() {
+
+            if (listeners.isEmpty()) {
+                return;
+            }
+
+            EspApplication.AppState appState = espApp.getAppState();
+            if (appState == EspApplication.AppState.GETTING_DATA || appState == EspApplication.AppState.REFRESH_DATA
+                    || nodeIds.isEmpty()) {
+                // Node list is being fetched with params, check again later.
+                schedule(interval);
+                return;
+            }
+
+            isFetchInProgress = true;
+            // Node list requests return config of all nodes, so visible nodes are fetched with params request of each node.
+            networkApiManager.getParamsValuesForNodes(new ArrayList<>(nodeIds), false, new ApiResponseListener() {
+
+                @Override
+                public void onSuccess(final Bundle data) {
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onFetchDone();
+                            for (ApiResponseListener listener : new ArrayList<>(listeners)) {
+                                listener.onSuccess(data);
+                            }
+                        }
+                    });
+                }
+
+                @Override
+                public void onResponseFailure(final Exception exception) {
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onFetchDone();
+                            for (ApiResponseListener listener : new ArrayList<>(listeners)) {
+                                listener.onResponseFailure(exception);
+                            }
+                        }
+                    });
+                }
+
+                @Override
+                public void onNetworkFailure(final Exception exception) {
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onFetchDone();
+                            for (ApiResponseListener listener : new ArrayList<>(listeners)) {
+                                listener.onNetworkFailure(exception);
+                            }
+                        }
+                    });
+                }
+            });
+        }
+
+        private void onFetchDone() {
+
+            isFetchInProgress = false;
+            int valuesHash = getValuesHash(nodeIds);
+            if (valuesHash != lastValuesHash) {
+                lastValuesHash = valuesHash;
+                interval = VISIBLE_NODES_INTERVAL_MS;
+            } else {
+                interval = Math.min(interval * 2, MAX_VISIBLE_NODES_INTERVAL_MS);
+            }
+            Log.d(TAG, "Next refresh for visible nodes in " + interval + " ms");
+            if (!listeners.isEmpty()) {
+                schedule(interval);
+            }
+        }
+    }
+}
@@ -0,0 +1,358 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.espressif.ble.BleLocalControlManager;
+import com.espressif.cloudapi.ApiManager;
+import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.cloudapi.CloudException;
+import com.espressif.db.EspDbWriter;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Coalesces param writes of multiple nodes.
+ * <p>
+ * Write submitted when nothing is queued is sent right away, writes submitted within {@link #WRITE_WINDOW_MS} after it are collected.
+ * Multiple writes for the same node are merged in one payload. Writes with array / object values (e.g. schedule and scene
+ * operations) of the same node are never merged with each other, queued write of the node is sent before the next one is queued.
+ * Writes of nodes controlled from cloud are sent in a single multi node request, writes of local / BLE nodes are sent in parallel.
+ * Each caller gets the result of its node. Listener callbacks are delivered on main thread.
+ */
+public class ParamWritePipeline {
+
+    private static final String TAG = ParamWritePipeline.class.getSimpleName();
+
+    private static final long WRITE_WINDOW_MS = 40;
+
+    private static ParamWritePipeline pipeline;
+
+    private final EspApplication espApp;
+    private final NetworkApiManager networkApiManager;
+    private final ApiManager apiManager;
+    private final Handler handler;
+
+    // Key is node id. Accessed on main thread only.
+    private LinkedHashMap<String, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    // True while writes are collected for the next flush. Accessed on main thread only.
+    private boolean isWindowOpen;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    public static synchronized ParamWritePipeline getInstance(Context context) {
+        if (pipeline == null) {
+            pipeline = new ParamWritePipeline(context.getApplicationContext());
+        }
+        return pipeline;
+    }
+
+    private ParamWritePipeline(Context context) {
+        espApp = (EspApplication) context;
+        networkApiManager = new NetworkApiManager(context);
+        apiManager = ApiManager.getInstance(context);
+        handler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Queue param values to be written. Can be called from any thread.
+     *
+     * @param nodeId   Node id.
+     * @param body     Param values in the format of param update request ({"device": {"param": value}}).
+     * @param listener Listener to get the result for this node.
+     */
+    public void submit(final String nodeId, final JsonObject body, final ApiResponseListener listener) {
+
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                boolean isStructured = hasStructuredValues(body);
+
+                if (!isWindowOpen) {
+                    // Nothing is queued, send right away and collect the writes which follow.
+                    isWindowOpen = true;
+                    handler.postDelayed(flushTask, WRITE_WINDOW_MS);
+                    sendToNode(nodeId, new PendingWrite(body, listener));
+                    return;
+                }
+
+                PendingWrite pendingWrite = pendingWrites.get(nodeId);
+                if (pendingWrite != null && isStructured && pendingWrite.isStructured) {
+                    // Two operations of the same node can't be merged, queued one is sent first to keep the order of writes.
+                    pendingWrites.remove(nodeId);
+                    sendToNode(nodeId, pendingWrite);
+                    pendingWrite = null;
+                }
+                if (pendingWrite == null) {
+                    pendingWrite = new PendingWrite();
+                    pendingWrites.put(nodeId, pendingWrite);
+                }
+                mergePayload(pendingWrite.payload, body);
+                pendingWrite.listeners.add(listener);
+                pendingWrite.isStructured |= isStructured;
+            }
+        });
+    }
+
+    private void flush() {
+
+        isWindowOpen = false;
+        LinkedHashMap<String, PendingWrite> writes = pendingWrites;
+        if (writes.isEmpty()) {
+            return;
+        }
+        pendingWrites = new LinkedHashMap<>();
+
+        HashMap<String, JsonObject> cloudPayloads = new HashMap<>();
+        HashMap<String, PendingWrite> cloudWrites = new HashMap<>();
+        BleLocalControlManager bleManager = BleLocalControlManager.getInstance(espApp);
+
+        for (Map.Entry<String, PendingWrite> entry : writes.entrySet()) {
+
+            String nodeId = entry.getKey();
+            PendingWrite pendingWrite = entry.getValue();
+
+            if (espApp.localDeviceMap.containsKey(nodeId)
+                    || bleManager.isConnected(nodeId) || bleManager.isDiscovered(nodeId)) {
+                sendToNode(nodeId, pendingWrite);
+            } else {
+                cloudPayloads.put(nodeId, pendingWrite.payload);
+                cloudWrites.put(nodeId, pendingWrite);
+            }
+        }
+
+        Log.d(TAG, "Flushing param writes, nodes : " + writes.size() + ", cloud nodes : " + cloudWrites.size());
+
+        if (cloudWrites.size() == 1) {
+            String nodeId = cloudWrites.keySet().iterator().next();
+            sendToNode(nodeId, cloudWrites.get(nodeId));
+        } else if (cloudWrites.size() > 1) {
+            sendToCloud(cloudPayloads, cloudWrites);
+        }
+    }
+
+    /**
+     * Send payload of one node. NetworkApiManager selects local, BLE or cloud route.
+     */
+    private void sendToNode(String nodeId, final PendingWrite pendingWrite) {
+
+        networkApiManager.updateParamValue(nodeId, pendingWrite.payload, new ApiResponseListener() {
+
+            @Override
+            public void onSuccess(final Bundle data) {
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        pendingWrite.notifySuccess(data);
+                    }
+                });
+            }
+
+            @Override
+            public void onResponseFailure(final Exception exception) {
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        pendingWrite.notifyResponseFailure(exception);
+                    }
+                });
+            }
+
+            @Override
+            public void onNetworkFailure(final Exception exception) {
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        pendingWrite.notifyNetworkFailure(exception);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Send payloads of all cloud nodes in one multi node request.
+     */
+    private void sendToCloud(final HashMap<String, JsonObject> payloads, final HashMap<String, PendingWrite> writes) {
+
+        apiManager.updateParamsForMultiNode(payloads, new ApiResponseListener() {
+
+            @Override
+            public void onSuccess(Bundle data) {
+
+                HashMap<String, String> failedNodes = getFailedNodes(data);
+
+                for (Map.Entry<String, PendingWrite> entry : writes.entrySet()) {
+
+                    String nodeId = entry.getKey();
+                    PendingWrite pendingWrite = entry.getValue();
+
+                    if (failedNodes.containsKey(nodeId)) {
+                        String description = failedNodes.get(nodeId);
+                        pendingWrite.notifyResponseFailure(new CloudException(TextUtils.isEmpty(description)
+                                ? "Failed to update param values" : description));
+                    } else {
+                        EspDbWriter.getInstance(espApp).updateParamValues(nodeId, payloads.get(nodeId));
+                        pendingWrite.notifySuccess(null);
+                    }
+                }
+            }
+
+            @Override
+            public void onResponseFailure(Exception exception) {
+                for (PendingWrite pendingWrite : writes.values()) {
+                    pendingWrite.notifyResponseFailure(exception);
+                }
+            }
+
+            @Override
+            public void onNetworkFailure(Exception exception) {
+                for (PendingWrite pendingWrite : writes.values()) {
+                    pendingWrite.notifyNetworkFailure(exception);
+                }
+            }
+        });
+    }
+
+    /**
+     * Multi node response contains status of each node. Returns node ids (and error description) for which update failed.
+     */
+    private HashMap<String, String> getFailedNodes(Bundle data) {
+
+        HashMap<String, String> failedNodes = new HashMap<>();
+        String response = data != null ? data.getString(AppConstants.KEY_RESPONSE) : null;
+        if (TextUtils.isEmpty(response)) {
+            return failedNodes;
+        }
+
+        try {
+            JsonElement responseJson = JsonParser.parseString(response);
+            if (!responseJson.isJsonArray()) {
+                return failedNodes;
+            }
+            JsonArray nodesJson = responseJson.getAsJsonArray();
+            for (JsonElement element : nodesJson) {
+                if (!element.isJsonObject()) {
+                    continue;
+                }
+                JsonObject nodeJson = element.getAsJsonObject();
+                String nodeId = nodeJson.has(AppConstants.KEY_NODE_ID) ? nodeJson.get(AppConstants.KEY_NODE_ID).getAsString() : null;
+                String status = nodeJson.has(AppConstants.KEY_STATUS) ? nodeJson.get(AppConstants.KEY_STATUS).getAsString() : null;
+                if (nodeId != null && status != null && AppConstants.KEY_FAILURE_RESPONSE.equalsIgnoreCase(status)) {
+                    String description = nodeJson.has(AppConstants.KEY_DESCRIPTION) ? nodeJson.get(AppConstants.KEY_DESCRIPTION).getAsString() : "";
+                    failedNodes.put(nodeId, description);
+                }
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Failed to parse multi node param update response");
+            e.printStackTrace();
+        }
+        return failedNodes;
+    }
+
+    /**
+     * @return true if any param value is an array or object. Such values are operations (e.g. add / edit schedule)
+     * which can not be merged with other operations of the same node.
+     */
+    private static boolean hasStructuredValues(JsonObject body) {
+
+        for (Map.Entry<String, JsonElement> entry : body.entrySet()) {
+
+            if (!entry.getValue().isJsonObject()) {
+                return true;
+            }
+            for (Map.Entry<String, JsonElement> paramEntry : entry.getValue().getAsJsonObject().entrySet()) {
+                if (paramEntry.getValue().isJsonArray() || paramEntry.getValue().isJsonObject()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Merge param values of source into target. Values of source replace existing values of same params.
+     */
+    private static void mergePayload(JsonObject target, JsonObject source) {
+
+        for (Map.Entry<String, JsonElement> entry : source.entrySet()) {
+
+            String key = entry.getKey();
+            JsonElement value = entry.getValue();
+
+            if (value.isJsonObject() && target.has(key) && target.get(key).isJsonObject()) {
+                JsonObject targetParams = target.getAsJsonObject(key);
+                for (Map.Entry<String, JsonElement> paramEntry : value.getAsJsonObject().entrySet()) {
+                    targetParams.add(paramEntry.getKey(), paramEntry.getValue());
+                }
+            } else {
+                target.add(key, value.deepCopy());
+            }
+        }
+    }
+
+    private static class PendingWrite {
+
+        private final JsonObject payload = new JsonObject();
+        private final ArrayList<ApiResponseListener> listeners = new ArrayList<>();
+        // True if payload contains array / object values.
+        private boolean isStructured;
+
+        PendingWrite() {
+        }
+
+        PendingWrite(JsonObject body, ApiResponseListener listener) {
+            mergePayload(payload, body);
+            listeners.add(listener);
+            isStructured = hasStructuredValues(body);
+        }
+
+        void notifySuccess(Bundle data) {
+            for (ApiResponseListener listener : listeners) {
+                listener.onSuccess(data);
+            }
+        }
+
+        void notifyResponseFailure(Exception exception) {
+            for (ApiResponseListener listener : listeners) {
+                listener.onResponseFailure(exception);
+            }
+        }
+
+        void notifyNetworkFailure(Exception exception) {
+            for (ApiResponseListener listener : listeners) {
+                listener.onNetworkFailure(exception);
+            }
+        }
+    }
+}
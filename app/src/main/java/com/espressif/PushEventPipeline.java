@@ -0,0 +1,276 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.espressif.AppConstants.Companion.UpdateEventType;
+import com.espressif.cloudapi.ApiManager;
+import com.espressif.cloudapi.CommandResponseClient;
+import com.espressif.db.EspDatabase;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.UpdateEvent;
+
+import org.greenrobot.eventbus.EventBus;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces param modified push events. Events with command-response results are delivered to {@link CommandResponseClient}.
+ * <p>
+ * Events received within {@link #BATCH_WINDOW_MS} are collected and param values of the same node are merged
+ * (last value wins for each param). Merged values are applied to nodes in one pass on a background thread and
+ * a single {@link UpdateEventType#EVENT_DEVICE_STATUS_UPDATE} event is posted with ids of updated nodes.
+ * If node is not available in app, only this node is fetched from cloud or loaded from local storage.
+ */
+public class PushEventPipeline {
+
+    private static final String TAG = PushEventPipeline.class.getSimpleName();
+
+    private static final long BATCH_WINDOW_MS = 300;
+
+    private static PushEventPipeline pipeline;
+
+    private final EspApplication espApp;
+    private final Handler handler;
+
+    // Key is node id, value is merged params payload. Accessed on pipeline thread only.
+    private LinkedHashMap<String, JSONObject> pendingParams = new LinkedHashMap<>();
+    private boolean isFlushScheduled;
+
+    private final AtomicInteger eventsIn = new AtomicInteger();
+    private final AtomicInteger nodesUpdated = new AtomicInteger();
+    private final AtomicInteger updatesOut = new AtomicInteger();
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    public static synchronized PushEventPipeline getInstance(Context context) {
+        if (pipeline == null) {
+            pipeline = new PushEventPipeline(context.getApplicationContext());
+        }
+        return pipeline;
+    }
+
+    private PushEventPipeline(Context context) {
+        espApp = (EspApplication) context;
+        HandlerThread handlerThread = new HandlerThread("push-events");
+        handlerThread.start();
+        handler = new Handler(handlerThread.getLooper());
+    }
+
+    /**
+     * Queue the event if it is a param modified event. Can be called from any thread.
+     *
+     * @param eventPayload Event data payload received in push notification.
+     * @return true if event is queued (or delivered as command-response result), false if it should be processed by {@link NotificationWorker}.
+     */
+    public boolean offer(String eventPayload) {
+
+        if (TextUtils.isEmpty(eventPayload)) {
+            return false;
+        }
+        try {
+            JSONObject eventDataJson = new JSONObject(eventPayload);
+            String eventType = eventDataJson.optString(AppConstants.KEY_EVENT_TYPE);
+            JSONObject jsonEventData = eventDataJson.optJSONObject(AppConstants.KEY_EVENT_DATA);
+
+            if (jsonEventData != null && deliverCommandResponse(jsonEventData)) {
+                return true;
+            }
+            if (!AppConstants.EVENT_NODE_PARAM_MODIFIED.equals(eventType) || jsonEventData == null) {
+                return false;
+            }
+            String nodeId = jsonEventData.optString(AppConstants.KEY_NODE_ID);
+            JSONObject payloadJson = new JSONObject(jsonEventData.optString(AppConstants.KEY_PAYLOAD));
+            submit(nodeId, payloadJson);
+        } catch (JSONException e) {
+            e.printStackTrace();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Queue param values received for the node. Can be called from any thread.
+     *
+     * @param nodeId      Node id.
+     * @param payloadJson Param values in the format {"device": {"param": value}}.
+     */
+    public void submit(final String nodeId, final JSONObject payloadJson) {
+
+        if (TextUtils.isEmpty(nodeId) || payloadJson == null) {
+            return;
+        }
+        eventsIn.incrementAndGet();
+
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                JSONObject merged = pendingParams.get(nodeId);
+                if (merged == null) {
+                    merged = new JSONObject();
+                    pendingParams.put(nodeId, merged);
+                }
+                mergePayload(merged, payloadJson);
+
+                if (!isFlushScheduled) {
+                    isFlushScheduled = true;
+                    handler.postDelayed(flushTask, BATCH_WINDOW_MS);
+                }
+            }
+        });
+    }
+
+    /**
+     * Deliver command-response result to {@link CommandResponseClient}, if event has result of a request in progress.
+     */
+    private boolean deliverCommandResponse(JSONObject jsonEventData) {
+
+        String requestId = jsonEventData.optString(AppConstants.KEY_REQUEST_ID);
+        String status = jsonEventData.optString(AppConstants.KEY_STATUS);
+        if (TextUtils.isEmpty(requestId) || TextUtils.isEmpty(status)) {
+            return false;
+        }
+        Bundle data = new Bundle();
+        data.putString(AppConstants.KEY_STATUS, status);
+        Object responseData = jsonEventData.opt(AppConstants.KEY_RESPONSE_DATA);
+        if (responseData != null) {
+            data.putString(AppConstants.KEY_RESPONSE_DATA, responseData.toString());
+        }
+        data.putString(AppConstants.KEY_STATUS_DESCRIPTION, jsonEventData.optString(AppConstants.KEY_STATUS_DESCRIPTION, null));
+        return CommandResponseClient.getInstance(espApp).onResponseReceived(requestId, data);
+    }
+
+    public int getEventsIn() {
+        return eventsIn.get();
+    }
+
+    public int getNodesUpdated() {
+        return nodesUpdated.get();
+    }
+
+    public int getUpdatesOut() {
+        return updatesOut.get();
+    }
+
+    private void flush() {
+
+        LinkedHashMap<String, JSONObject> params = pendingParams;
+        pendingParams = new LinkedHashMap<>();
+        isFlushScheduled = false;
+        ArrayList<String> updatedNodeIds = new ArrayList<>();
+
+        for (Map.Entry<String, JSONObject> entry : params.entrySet()) {
+
+            String nodeId = entry.getKey();
+            EspNode node = getNode(nodeId);
+
+            if (node != null) {
+                JsonDataParser.setAllParams(espApp, node, entry.getValue());
+                updatedNodeIds.add(nodeId);
+            } else {
+                Log.e(TAG, "Node " + nodeId + " is not available, param update is ignored");
+            }
+        }
+
+        if (!updatedNodeIds.isEmpty()) {
+            nodesUpdated.addAndGet(updatedNodeIds.size());
+            updatesOut.incrementAndGet();
+            Bundle data = new Bundle();
+            data.putStringArrayList(AppConstants.KEY_NODE_IDS, updatedNodeIds);
+            // Send event for UI update
+            EventBus.getDefault().post(new UpdateEvent(UpdateEventType.EVENT_DEVICE_STATUS_UPDATE, data));
+        }
+        Log.d(TAG, "Push events : " + eventsIn.get() + ", nodes updated : " + nodesUpdated.get()
+                + ", UI updates : " + updatesOut.get() + " (batch nodes : " + params.size() + ")");
+    }
+
+    /**
+     * Returns the node from app data. If it is not available (e.g. app is started by push notification),
+     * node is fetched from cloud and then loaded from local storage.
+     */
+    private EspNode getNode(String nodeId) {
+
+        if (!espApp.nodeMap.containsKey(nodeId)) {
+            ApiManager.getInstance(espApp).getNodeDetails(nodeId);
+        }
+        if (!espApp.nodeMap.containsKey(nodeId)) {
+            loadNodeFromLocalStorage(nodeId);
+        }
+        return espApp.nodeMap.get(nodeId);
+    }
+
+    private void loadNodeFromLocalStorage(String nodeId) {
+
+        EspNode node = EspDatabase.getInstance(espApp).getNodeDao().getNodeFromStorage(nodeId);
+        if (node == null || node.getConfigData() == null) {
+            Log.e(TAG, "Node configuration is not available for node : " + nodeId);
+            return;
+        }
+        try {
+            node = JsonDataParser.setNodeConfig(node, new JSONObject(node.getConfigData()));
+            if (node.getParamData() != null) {
+                JsonDataParser.setAllParams(espApp, node, new JSONObject(node.getParamData()));
+            }
+            espApp.nodeMap.put(nodeId, node);
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void mergePayload(JSONObject target, JSONObject source) {
+
+        Iterator<String> keys = source.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            JSONObject sourceValues = source.optJSONObject(key);
+            try {
+                if (sourceValues == null) {
+                    target.put(key, source.opt(key));
+                    continue;
+                }
+                JSONObject targetValues = target.optJSONObject(key);
+                if (targetValues == null) {
+                    targetValues = new JSONObject();
+                    target.put(key, targetValues);
+                }
+                Iterator<String> paramNames = sourceValues.keys();
+                while (paramNames.hasNext()) {
+                    String paramName = paramNames.next();
+                    targetValues.put(paramName, sourceValues.opt(paramName));
+                }
+            } catch (JSONException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
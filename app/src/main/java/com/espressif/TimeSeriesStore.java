@@ -0,0 +1,592 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.espressif.cloudapi.ApiManager;
+import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.ui.models.TsColumns;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cache of time series data, per node, param, aggregate and time interval.
+ * <p>
+ * Points are kept in primitive columns together with the time ranges which have been fetched from cloud.
+ * Only the missing sub ranges of a request are fetched, so paging back to an already viewed
+ * day / week / month is served from cache. Series are kept in memory (LRU) and in files in cache directory.
+ * <p>
+ * Methods must be called from main thread. Listener callbacks are delivered on main thread.
+ */
+public class TimeSeriesStore {
+
+    private static final String TAG = TimeSeriesStore.class.getSimpleName();
+
+    private static final String CACHE_DIR = "ts_cache";
+    private static final int FILE_VERSION = 1;
+    private static final int MAX_MEMORY_SERIES = 8;
+
+    private static TimeSeriesStore timeSeriesStore;
+
+    private final ApiManager apiManager;
+    private final File cacheDir;
+    private final Handler handler;
+    private final ExecutorService diskExecutor;
+
+    private final LinkedHashMap<String, Series> memoryCache = new LinkedHashMap<String, Series>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Series> eldest) {
+            return size() > MAX_MEMORY_SERIES;
+        }
+    };
+    // Requests which are not done yet, they are cancelled on clear.
+    private final Set<TsRequest> runningRequests = Collections.synchronizedSet(new HashSet<TsRequest>());
+
+    public static synchronized TimeSeriesStore getInstance(Context context) {
+        if (timeSeriesStore == null) {
+            timeSeriesStore = new TimeSeriesStore(context.getApplicationContext());
+        }
+        return timeSeriesStore;
+    }
+
+    private TimeSeriesStore(Context context) {
+        apiManager = ApiManager.getInstance(context);
+        cacheDir = new File(context.getCacheDir(), CACHE_DIR);
+        handler = new Handler(Looper.getMainLooper());
+        diskExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Listener to get points of the requested range while its missing pages are being received.
+     */
+    public interface ProgressListener {
+
+        /**
+         * @param points Cached points of the range, together with the pages received so far.
+         */
+        void onProgress(TsColumns points);
+    }
+
+    /**
+     * Get time series data of given range. Data is returned in bundle as
+     * {@link AppConstants#KEY_TS_TIMESTAMPS} (long array, in seconds) and {@link AppConstants#KEY_TS_VALUES} (double array).
+     *
+     * @param completeUntil    Time (in seconds) till which data of the range is final. Data after this time
+     *                         (e.g. current hour / day) is fetched again with each request.
+     * @param progressListener Listener to get partial data after each page. Can be null.
+     * @param listener         Listener to get complete data of the range. Can be null (e.g. for prefetch).
+     * @return Request, which can be cancelled or whose listeners can be replaced.
+     */
+    public TsRequest getTimeSeriesData(final String nodeId, final String paramName, final String dataType,
+                                       final String aggregate, final String timeInterval, final long startTime,
+                                       final long endTime, final String weekStart, final String timezone,
+                                       final String tsType, final long completeUntil,
+                                       final ProgressListener progressListener, final ApiResponseListener listener) {
+
+        final TsRequest request = new TsRequest(nodeId, paramName, dataType, aggregate, timeInterval,
+                startTime, endTime, weekStart, timezone, tsType, completeUntil);
+        request.setListeners(progressListener, listener);
+        runningRequests.add(request);
+
+        getSeries(request.getKey(), series -> {
+            if (request.isCancelled()) {
+                finish(request);
+                return;
+            }
+            ArrayList<long[]> missingRanges = series.getMissingRanges(startTime, endTime);
+            Log.d(TAG, "Missing ranges : " + missingRanges.size() + ", cached points : " + series.points.size());
+            fetchRanges(request, series, missingRanges, 0);
+        });
+        return request;
+    }
+
+    /**
+     * Remove all cached data. Should be called on logout.
+     */
+    public void clear() {
+        // Running requests must not save their data again after files are deleted.
+        synchronized (runningRequests) {
+            for (TsRequest request : runningRequests) {
+                request.cancel();
+            }
+            runningRequests.clear();
+        }
+        memoryCache.clear();
+        diskExecutor.execute(() -> {
+            File[] files = cacheDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    private void fetchRanges(final TsRequest request, final Series series, final ArrayList<long[]> ranges, final int index) {
+
+        if (request.isCancelled()) {
+            finish(request);
+            return;
+        }
+
+        if (index >= ranges.size()) {
+            if (!ranges.isEmpty()) {
+                save(series);
+            }
+            finish(request);
+            if (request.listener != null) {
+                TsColumns points = series.getPoints(request.startTime, request.endTime);
+                Bundle result = new Bundle();
+                result.putLongArray(AppConstants.KEY_TS_TIMESTAMPS, points.getTimestamps());
+                result.putDoubleArray(AppConstants.KEY_TS_VALUES, points.getValues());
+                request.listener.onSuccess(result);
+            }
+            return;
+        }
+
+        final long start = ranges.get(index)[0];
+        final long end = ranges.get(index)[1];
+        final TsColumns received = new TsColumns();
+
+        apiManager.getTimeSeriesData(request.nodeId, request.paramName, request.dataType, request.aggregate,
+                request.timeInterval, start, end, request.weekStart, request.timezone, request.tsType,
+                page -> {
+                    if (request.isCancelled()) {
+                        return false;
+                    }
+                    received.addAll(page);
+                    if (request.progressListener != null) {
+                        request.progressListener.onProgress(series.getPoints(request.startTime, request.endTime,
+                                start, end, received));
+                    }
+                    return true;
+                },
+                new ApiResponseListener() {
+
+                    @Override
+                    public void onSuccess(Bundle data) {
+                        if (request.isCancelled()) {
+                            finish(request);
+                            return;
+                        }
+                        if (data != null) {
+                            TsColumns fetched = new TsColumns(data.getLongArray(AppConstants.KEY_TS_TIMESTAMPS),
+                                    data.getDoubleArray(AppConstants.KEY_TS_VALUES));
+                            series.merge(start, end, fetched, request.completeUntil);
+                        }
+                        fetchRanges(request, series, ranges, index + 1);
+                    }
+
+                    @Override
+                    public void onResponseFailure(Exception exception) {
+                        finish(request);
+                        if (!request.isCancelled() && request.listener != null) {
+                            request.listener.onResponseFailure(exception);
+                        }
+                    }
+
+                    @Override
+                    public void onNetworkFailure(Exception exception) {
+                        finish(request);
+                        if (!request.isCancelled() && request.listener != null) {
+                            request.listener.onNetworkFailure(exception);
+                        }
+                    }
+                });
+    }
+
+    private void finish(TsRequest request) {
+        request.isDone = true;
+        runningRequests.remove(request);
+    }
+
+    private interface SeriesCallback {
+        void onSeries(Series series);
+    }
+
+    private void getSeries(final String key, final SeriesCallback callback) {
+
+        Series series = memoryCache.get(key);
+        if (series != null) {
+            callback.onSeries(series);
+            return;
+        }
+
+        diskExecutor.execute(() -> {
+            Series loaded = load(key);
+            handler.post(() -> {
+                // Series may have been created by another request while it was being loaded.
+                Series cached = memoryCache.get(key);
+                if (cached == null) {
+                    cached = loaded;
+                    memoryCache.put(key, cached);
+                }
+                callback.onSeries(cached);
+            });
+        });
+    }
+
+    private File getFile(String key) {
+        return new File(cacheDir, Integer.toHexString(key.hashCode()) + ".bin");
+    }
+
+    private void save(Series series) {
+
+        // Copy on main thread, so that file is written with consistent data.
+        final String key = series.key;
+        final long[] ranges = series.getRanges();
+        final long[] timestamps = series.points.getTimestamps();
+        final double[] values = series.points.getValues();
+
+        diskExecutor.execute(() -> {
+            if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+                Log.e(TAG, "Failed to create cache directory");
+                return;
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getFile(key))))) {
+                out.writeInt(FILE_VERSION);
+                out.writeUTF(key);
+                out.writeInt(ranges.length);
+                for (long value : ranges) {
+                    out.writeLong(value);
+                }
+                out.writeInt(timestamps.length);
+                for (long timestamp : timestamps) {
+                    out.writeLong(timestamp);
+                }
+                for (double value : values) {
+                    out.writeDouble(value);
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to save time series : " + e.getMessage());
+            }
+        });
+    }
+
+    private Series load(String key) {
+
+        Series series = new Series(key);
+        File file = getFile(key);
+        if (!file.exists()) {
+            return series;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION || !key.equals(in.readUTF())) {
+                return series;
+            }
+            int rangeValues = in.readInt();
+            long[] ranges = new long[rangeValues];
+            for (int i = 0; i < rangeValues; i++) {
+                ranges[i] = in.readLong();
+            }
+            int size = in.readInt();
+            long[] timestamps = new long[size];
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                timestamps[i] = in.readLong();
+            }
+            for (int i = 0; i < size; i++) {
+                values[i] = in.readDouble();
+            }
+            for (int i = 0; i + 1 < rangeValues; i += 2) {
+                series.ranges.add(new long[]{ranges[i], ranges[i + 1]});
+            }
+            series.points = new TsColumns(timestamps, values);
+            Log.d(TAG, "Loaded " + size + " cached points");
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to load time series : " + e.getMessage());
+            return new Series(key);
+        }
+        return series;
+    }
+
+    /**
+     * Down sample points to given number of buckets by keeping min and max point of each bucket.
+     * Buckets are of equal time width between start and end time.
+     *
+     * @return Indices of points to be plotted, in ascending order. At most 2 points per bucket.
+     */
+    public static int[] downsampleMinMax(long[] timestamps, double[] values, long startTime, long endTime, int buckets) {
+
+        int size = timestamps.length;
+        if (size <= buckets * 2 || endTime <= startTime) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] result = new int[buckets * 2];
+        int count = 0;
+        long range = endTime - startTime;
+        long currentBucket = -1;
+        int minIndex = -1, maxIndex = -1;
+
+        for (int i = 0; i < size; i++) {
+            long bucket = (timestamps[i] - startTime) * buckets / range;
+            if (bucket != currentBucket) {
+                count = addBucketPoints(result, count, minIndex, maxIndex);
+                currentBucket = bucket;
+                minIndex = i;
+                maxIndex = i;
+            } else {
+                if (values[i] < values[minIndex]) {
+                    minIndex = i;
+                }
+                if (values[i] > values[maxIndex]) {
+                    maxIndex = i;
+                }
+            }
+        }
+        count = addBucketPoints(result, count, minIndex, maxIndex);
+        int[] indices = new int[count];
+        System.arraycopy(result, 0, indices, 0, count);
+        return indices;
+    }
+
+    private static int addBucketPoints(int[] result, int count, int minIndex, int maxIndex) {
+        if (minIndex < 0 || count + 2 > result.length) {
+            return count;
+        }
+        if (minIndex == maxIndex) {
+            result[count++] = minIndex;
+        } else {
+            result[count++] = Math.min(minIndex, maxIndex);
+            result[count++] = Math.max(minIndex, maxIndex);
+        }
+        return count;
+    }
+
+    /**
+     * Time series request. Request can be cancelled, e.g. when user changes the interval or aggregate type.
+     * Listeners can be replaced, so that a running prefetch request can be used when user moves to its range.
+     */
+    public static class TsRequest {
+
+        private final String nodeId, paramName, dataType, aggregate, timeInterval, weekStart, timezone, tsType;
+        private final long startTime, endTime, completeUntil;
+
+        private ProgressListener progressListener;
+        private ApiResponseListener listener;
+        private boolean isCancelled, isDone;
+
+        TsRequest(String nodeId, String paramName, String dataType, String aggregate, String timeInterval,
+                  long startTime, long endTime, String weekStart, String timezone, String tsType, long completeUntil) {
+            this.nodeId = nodeId;
+            this.paramName = paramName;
+            this.dataType = dataType;
+            this.aggregate = aggregate;
+            this.timeInterval = timeInterval;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.weekStart = weekStart;
+            this.timezone = timezone;
+            this.tsType = tsType;
+            this.completeUntil = completeUntil;
+        }
+
+        /**
+         * Key of the series. Buckets of aggregated data depend on time interval, week start and time zone.
+         */
+        String getKey() {
+            return nodeId + "|" + paramName + "|" + aggregate + "|" + timeInterval + "|"
+                    + weekStart + "|" + timezone + "|" + tsType;
+        }
+
+        public void setListeners(ProgressListener progressListener, ApiResponseListener listener) {
+            this.progressListener = progressListener;
+            this.listener = listener;
+        }
+
+        /**
+         * Cancel the request. Remaining pages are not fetched and listeners are not called anymore.
+         */
+        public void cancel() {
+            isCancelled = true;
+            progressListener = null;
+            listener = null;
+        }
+
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+
+        /**
+         * @return true if request is still running and it is for the same data and range.
+         */
+        public boolean isRunningFor(String aggregate, String timeInterval, long startTime, long endTime, String weekStart) {
+            return !isCancelled && !isDone && this.aggregate.equals(aggregate) && this.timeInterval.equals(timeInterval)
+                    && this.startTime == startTime && this.endTime == endTime
+                    && (weekStart == null ? this.weekStart == null : weekStart.equals(this.weekStart));
+        }
+    }
+
+    /**
+     * Points of one series sorted by timestamp, with the time ranges which have been fetched.
+     */
+    private static class Series {
+
+        private final String key;
+        private TsColumns points = new TsColumns(0);
+
+        // Sorted, non overlapping ranges of {start, end} (inclusive, in seconds).
+        private final ArrayList<long[]> ranges = new ArrayList<>();
+
+        Series(String key) {
+            this.key = key;
+        }
+
+        ArrayList<long[]> getMissingRanges(long start, long end) {
+
+            ArrayList<long[]> missing = new ArrayList<>();
+            long current = start;
+            for (long[] range : ranges) {
+                if (range[1] < current) {
+                    continue;
+                }
+                if (range[0] > end) {
+                    break;
+                }
+                if (range[0] > current) {
+                    missing.add(new long[]{current, range[0] - 1});
+                }
+                current = range[1] + 1;
+                if (current > end) {
+                    break;
+                }
+            }
+            if (current <= end) {
+                missing.add(new long[]{current, end});
+            }
+            return missing;
+        }
+
+        /**
+         * Replace points of the range with fetched points. Range is marked as fetched only till completeUntil.
+         */
+        void merge(long start, long end, TsColumns fetched, long completeUntil) {
+
+            int from = points.lowerBound(start);
+            int to = points.lowerBound(end + 1);
+            TsColumns merged = new TsColumns(points.size() - (to - from) + fetched.size());
+
+            for (int i = 0; i < from; i++) {
+                merged.add(points.getTimestamp(i), points.getValue(i));
+            }
+            for (int i = 0; i < fetched.size(); i++) {
+                long timestamp = fetched.getTimestamp(i);
+                if (timestamp >= start && timestamp <= end) {
+                    merged.add(timestamp, fetched.getValue(i));
+                }
+            }
+            for (int i = to; i < points.size(); i++) {
+                merged.add(points.getTimestamp(i), points.getValue(i));
+            }
+            points = merged;
+
+            long coveredEnd = Math.min(end, completeUntil - 1);
+            if (coveredEnd >= start) {
+                addRange(start, coveredEnd);
+            }
+        }
+
+        TsColumns getPoints(long start, long end) {
+            int from = points.lowerBound(start);
+            int to = points.lowerBound(end + 1);
+            TsColumns result = new TsColumns(to - from);
+            for (int i = from; i < to; i++) {
+                result.add(points.getTimestamp(i), points.getValue(i));
+            }
+            return result;
+        }
+
+        /**
+         * Get points of range [start, end], with points of [pendingStart, pendingEnd] replaced by pending points.
+         */
+        TsColumns getPoints(long start, long end, long pendingStart, long pendingEnd, TsColumns pending) {
+            int from = points.lowerBound(start);
+            int pendingFrom = points.lowerBound(pendingStart);
+            int pendingTo = points.lowerBound(pendingEnd + 1);
+            int to = points.lowerBound(end + 1);
+            TsColumns result = new TsColumns(Math.max(pendingFrom - from, 0) + pending.size() + Math.max(to - pendingTo, 0));
+            for (int i = from; i < pendingFrom; i++) {
+                result.add(points.getTimestamp(i), points.getValue(i));
+            }
+            result.addAll(pending);
+            for (int i = Math.max(pendingTo, from); i < to; i++) {
+                result.add(points.getTimestamp(i), points.getValue(i));
+            }
+            result.sort();
+            return result;
+        }
+
+        long[] getRanges() {
+            long[] values = new long[ranges.size() * 2];
+            for (int i = 0; i < ranges.size(); i++) {
+                values[i * 2] = ranges.get(i)[0];
+                values[i * 2 + 1] = ranges.get(i)[1];
+            }
+            return values;
+        }
+
+        private void addRange(long start, long end) {
+
+            ArrayList<long[]> result = new ArrayList<>();
+            long[] added = new long[]{start, end};
+            boolean isAdded = false;
+            for (long[] range : ranges) {
+                if (range[1] + 1 < added[0]) {
+                    result.add(range);
+                } else if (added[1] + 1 < range[0]) {
+                    if (!isAdded) {
+                        result.add(added);
+                        isAdded = true;
+                    }
+                    result.add(range);
+                } else {
+                    added[0] = Math.min(added[0], range[0]);
+                    added[1] = Math.max(added[1], range[1]);
+                }
+            }
+            if (!isAdded) {
+                result.add(added);
+            }
+            ranges.clear();
+            ranges.addAll(result);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+// Copyright 2026 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.ble
+
+import com.google.protobuf.ByteString
+import rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl
+import java.io.IOException
+
+/**
+ * Reassembles one chunked get_params transfer.
+ *
+ * Buffer is allocated once, with the total length reported in the first chunk,
+ * and payload of each chunk is copied directly at its offset.
+ * Request of each chunk is built with [buildRequest] and its response is added with [appendResponse].
+ */
+class BleChunkTransfer {
+
+    private var buffer: ByteArray? = null
+    private val startTime = System.currentTimeMillis()
+
+    /** Number of bytes received so far, which is also the offset of next chunk. */
+    var receivedLen = 0
+        private set
+
+    /** Total length reported by the device in the first chunk. */
+    var totalLen = 0
+        private set
+
+    var chunkCount = 0
+        private set
+
+    /**
+     * Build get_params request of the next chunk, at offset [receivedLen].
+     *
+     * @param timestamp Timestamp for signed response (proxy reporting), sent only with the first chunk.
+     */
+    fun buildRequest(timestamp: Long?): ByteArray {
+        val cmdBuilder = EspRmakerProvLocalCtrl.CmdGetData.newBuilder()
+            .setDataType(EspRmakerProvLocalCtrl.RMakerLocalCtrlDataType.TypeParams)
+            .setOffset(receivedLen)
+
+        if (timestamp != null) {
+            cmdBuilder.setTimestamp(timestamp)
+            cmdBuilder.setHasTimestamp(true)
+        } else {
+            cmdBuilder.setHasTimestamp(false)
+        }
+
+        return EspRmakerProvLocalCtrl.RMakerLocalCtrlPayload.newBuilder()
+            .setMsg(EspRmakerProvLocalCtrl.RMakerLocalCtrlMsgType.TypeCmdGetData)
+            .setCmdGetData(cmdBuilder.build())
+            .build()
+            .toByteArray()
+    }
+
+    /**
+     * Validate get_params response of the chunk requested at [receivedLen] and append its payload.
+     *
+     * @throws IOException if response is invalid or the device returned an error.
+     */
+    @Throws(IOException::class)
+    fun appendResponse(returnData: ByteArray?) {
+        if (returnData == null || returnData.isEmpty()) {
+            throw IOException("Empty response")
+        }
+        val response = EspRmakerProvLocalCtrl.RMakerLocalCtrlPayload.parseFrom(returnData)
+        if (response.msg != EspRmakerProvLocalCtrl.RMakerLocalCtrlMsgType.TypeRespGetData) {
+            throw IOException("Unexpected message type : ${response.msg}")
+        }
+        val respGetData = response.respGetData
+        if (respGetData.status != EspRmakerProvLocalCtrl.RMakerLocalCtrlStatus.Success) {
+            throw IOException("Device returned error : ${respGetData.status}")
+        }
+        val buf = respGetData.buf
+        if (buf.offset != receivedLen) {
+            throw IOException("Offset mismatch, expected $receivedLen, got ${buf.offset}")
+        }
+        append(buf.payload, buf.totalLen)
+    }
+
+    /**
+     * Append payload of the chunk received at [receivedLen].
+     *
+     * @param payload Chunk payload.
+     * @param respTotalLen Total length reported in the chunk. Only the value of first chunk is used.
+     * @throws IOException if chunk is empty while more data is expected, next chunk would be requested
+     * at the same offset forever.
+     */
+    @Throws(IOException::class)
+    fun append(payload: ByteString, respTotalLen: Int) {
+        val expectedLen = if (buffer == null) respTotalLen else totalLen
+        if (payload.isEmpty && receivedLen < expectedLen) {
+            throw IOException("Empty chunk at offset $receivedLen of $expectedLen bytes")
+        }
+        var buf = buffer
+        if (buf == null) {
+            totalLen = respTotalLen
+            buf = ByteArray(maxOf(respTotalLen, payload.size()))
+            buffer = buf
+        }
+        val required = receivedLen + payload.size()
+        if (required > buf.size) {
+            // Device sent more than the length it has reported.
+            buf = buf.copyOf(required)
+            buffer = buf
+        }
+        payload.copyTo(buf, receivedLen)
+        receivedLen = required
+        chunkCount++
+    }
+
+    fun isComplete(): Boolean {
+        return buffer != null && receivedLen >= totalLen
+    }
+
+    fun getElapsedTime(): Long {
+        return System.currentTimeMillis() - startTime
+    }
+
+    /**
+     * Decode the complete data as JSON object.
+     */
+    @Throws(org.json.JSONException::class)
+    fun toJson(): org.json.JSONObject {
+        val buf = buffer ?: ByteArray(0)
+        return org.json.JSONObject(String(buf, 0, receivedLen, Charsets.UTF_8))
+    }
+}
+
+/**
+ * Throughput and chunk counters of BLE get_params transfers of one node.
+ */
+class BleTransferStats {
+
+    var transferCount = 0
+        private set
+    var failedCount = 0
+        private set
+    var chunkCount = 0L
+        private set
+    var byteCount = 0L
+        private set
+    var totalTime = 0L
+        private set
+    var lastChunkCount = 0
+        private set
+
+    @Synchronized
+    fun onTransferDone(transfer: BleChunkTransfer) {
+        transferCount++
+        chunkCount += transfer.chunkCount
+        byteCount += transfer.receivedLen
+        totalTime += transfer.getElapsedTime()
+        lastChunkCount = transfer.chunkCount
+    }
+
+    @Synchronized
+    fun onTransferFailed() {
+        failedCount++
+    }
+
+    /** Average throughput in bytes per second. */
+    @Synchronized
+    fun getThroughput(): Long {
+        return if (totalTime == 0L) 0 else byteCount * 1000 / totalTime
+    }
+
+    @Synchronized
+    override fun toString(): String {
+        return "BleTransferStats{transfers=$transferCount, failed=$failedCount, chunks=$chunkCount, " +
+                "bytes=$byteCount, throughput=${getThroughput()}B/s, lastChunks=$lastChunkCount}"
+    }
+}
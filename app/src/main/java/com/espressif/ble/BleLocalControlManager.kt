@@ -18,6 +18,7 @@ import android.Manifest
 import android.app.Activity
 import android.bluetooth.BluetoothDevice
 import android.bluetooth.BluetoothManager
+import android.bluetooth.BluetoothProfile
 import android.bluetooth.le.ScanResult
 import android.content.Context
 import android.content.pm.PackageManager
@@ -52,6 +53,12 @@ import java.util.concurrent.atomic.AtomicBoolean
  *    and marked DISCOVERED (shown as "Reachable on BLE" — no GATT connection yet)
  * 3. Actual BLE connection + session init happens on demand when the user
  *    controls a param or opens the device detail screen
+ *
+ * Several devices can stay connected at the same time, up to [maxConnections].
+ * GATT connect events of the provisioning library do not carry the device identity,
+ * so connect requests are queued and executed one after another (user requests first).
+ * When the limit is reached, least recently used idle link is released.
+ * Operations of each node are executed serially through [BleOperationQueue].
  */
 class BleLocalControlManager private constructor(private val appContext: Context) {
 
@@ -62,6 +69,9 @@ class BleLocalControlManager private constructor(private val appContext: Context
         private const val MAX_SCAN_RETRIES = 3
         private const val BLE_DEVICE_PREFIX = "PROV_"
         private const val BLE_OPERATION_TIMEOUT_MS = 5000L
+        private const val DEFAULT_MAX_CONNECTIONS = 3
+        // Disconnect event of a link released by the app is expected within this time.
+        private const val RELEASED_LINK_EVENT_TIMEOUT_MS = 3000L
 
         @Volatile
         private var instance: BleLocalControlManager? = null
@@ -106,12 +116,28 @@ class BleLocalControlManager private constructor(private val appContext: Context
 
     private val listeners = mutableListOf<BleConnectionListener>()
 
-    // Callback for on-demand connectDevice() / connectAndSendParams()
-    private var connectCallback: ((Boolean) -> Unit)? = null
+    // Callbacks of on-demand connectDevice() / connectAndSendParams(), key is node id. Accessed on main thread.
+    private val connectCallbacks = HashMap<String, MutableList<(Boolean) -> Unit>>()
+
+    // Node ids waiting for GATT connect. Accessed on main thread.
+    private val pendingConnects = ArrayDeque<String>()
+    private var connectStartTime = 0L
+
+    // Devices of links disconnected by the app, value is release time. Their disconnect events are ignored.
+    private val releasedDevices = ConcurrentHashMap<BluetoothDevice, Long>()
+
+    private val operationQueues = ConcurrentHashMap<String, BleOperationQueue>()
+    private val connectionStats = ConnectionStats()
+
+    /** Maximum number of BLE links kept connected at the same time. */
+    var maxConnections = DEFAULT_MAX_CONNECTIONS
 
     // Tracks nodes that have getParamsWithTimestamp in progress to avoid concurrent BLE reads
     private val proxyReadInProgress = ConcurrentHashMap<String, AtomicBoolean>()
 
+    // get_params transfer counters, key is node id
+    private val transferStats = ConcurrentHashMap<String, BleTransferStats>()
+
     // --- Public API ---
 
     fun addListener(listener: BleConnectionListener) {
@@ -137,6 +163,32 @@ class BleLocalControlManager private constructor(private val appContext: Context
         return if (conn?.state == ConnectionState.CONNECTED) conn.espDevice else null
     }
 
+    /**
+     * Returns throughput and chunk counters of get_params transfers of the node.
+     */
+    fun getTransferStats(nodeId: String): BleTransferStats? {
+        return transferStats[nodeId]
+    }
+
+    /**
+     * Returns number of operations of the node waiting or in flight.
+     */
+    fun getQueueDepth(nodeId: String): Int {
+        return operationQueues[nodeId]?.getDepth() ?: 0
+    }
+
+    /**
+     * Returns number of nodes waiting for GATT connect, including the node being connected.
+     * Must be called on main thread.
+     */
+    private fun getPendingConnectCount(): Int {
+        return pendingConnects.size + (if (currentConnectingNodeId != null) 1 else 0)
+    }
+
+    fun getConnectionStats(): ConnectionStats {
+        return connectionStats
+    }
+
     fun getDeviceCapabilities(nodeId: String): ArrayList<String>? {
         return getEspDevice(nodeId)?.deviceCapabilities
     }
@@ -214,8 +266,9 @@ class BleLocalControlManager private constructor(private val appContext: Context
     /**
      * Connect to a single discovered device on demand.
      * Call this when the user opens a device detail screen or needs BLE access.
+     * If another device is being connected, request is queued. User initiated requests are served first.
      */
-    fun connectDevice(nodeId: String, callback: (Boolean) -> Unit) {
+    fun connectDevice(nodeId: String, isUserInitiated: Boolean = true, callback: (Boolean) -> Unit) {
         val conn = connectionMap[nodeId]
         if (conn == null || conn.bluetoothDevice == null) {
             Log.e(TAG, "connectDevice: no discovered device for node $nodeId")
@@ -229,25 +282,7 @@ class BleLocalControlManager private constructor(private val appContext: Context
             return
         }
 
-        if (conn.state == ConnectionState.CONNECTING || conn.state == ConnectionState.SESSION_INIT) {
-            Log.d(TAG, "connectDevice: connection already in progress for $nodeId")
-            callback(false)
-            return
-        }
-
-        if (currentConnectingNodeId != null) {
-            Log.d(TAG, "connectDevice: another device is connecting ($currentConnectingNodeId), queuing")
-            callback(false)
-            return
-        }
-
-        if (!EventBus.getDefault().isRegistered(this)) {
-            EventBus.getDefault().register(this)
-        }
-
-        currentConnectingNodeId = nodeId
-        connectCallback = callback
-        connectToBleDevice(conn)
+        handler.post { enqueueConnect(nodeId, isUserInitiated, callback) }
     }
 
     /**
@@ -280,15 +315,16 @@ class BleLocalControlManager private constructor(private val appContext: Context
         Log.d(TAG, "Disconnecting all BLE devices")
         stopBleScan()
         currentConnectingNodeId = null
-        connectCallback = null
+        pendingConnects.clear()
+        val callbacks = connectCallbacks.values.flatten()
+        connectCallbacks.clear()
+        for (cb in callbacks) {
+            cb(false)
+        }
 
         for ((nodeId, conn) in connectionMap) {
             if (conn.state == ConnectionState.CONNECTED) {
-                try {
-                    conn.espDevice?.disconnectDevice()
-                } catch (e: Exception) {
-                    Log.e(TAG, "Error disconnecting device $nodeId: ${e.message}")
-                }
+                releaseLink(conn)
                 notifyDeviceDisconnected(nodeId)
             }
             val node = espApp.nodeMap[nodeId]
@@ -306,11 +342,7 @@ class BleLocalControlManager private constructor(private val appContext: Context
     fun disconnectDevice(nodeId: String) {
         val conn = connectionMap[nodeId] ?: return
         if (conn.state == ConnectionState.CONNECTED) {
-            try {
-                conn.espDevice?.disconnectDevice()
-            } catch (e: Exception) {
-                Log.e(TAG, "Error disconnecting device $nodeId: ${e.message}")
-            }
+            releaseLink(conn)
             val node = espApp.nodeMap[nodeId]
             if (node != null) {
                 node.nodeStatus = AppConstants.NODE_STATUS_OFFLINE
@@ -322,9 +354,19 @@ class BleLocalControlManager private constructor(private val appContext: Context
         connectionMap.remove(nodeId)
     }
 
+    /**
+     * Send params to the device. Writes are executed before any queued read of the node.
+     */
     fun sendParams(nodeId: String, body: JsonObject, listener: ApiResponseListener) {
+        getOperationQueue(nodeId).enqueue(true) { done ->
+            writeParams(nodeId, body, listener, done)
+        }
+    }
+
+    private fun writeParams(nodeId: String, body: JsonObject, listener: ApiResponseListener, done: () -> Unit) {
         val espDevice = getEspDevice(nodeId)
         if (espDevice == null) {
+            done()
             listener.onNetworkFailure(Exception("BLE not connected for node $nodeId"))
             return
         }
@@ -339,6 +381,7 @@ class BleLocalControlManager private constructor(private val appContext: Context
             if (callbackFired.compareAndSet(false, true)) {
                 Log.e(TAG, "BLE set_params timed out for $nodeId, marking disconnected")
                 handleBleOperationTimeout(nodeId)
+                done()
                 listener.onNetworkFailure(Exception("BLE operation timed out for $nodeId"))
             }
         }
@@ -352,6 +395,7 @@ class BleLocalControlManager private constructor(private val appContext: Context
                     if (callbackFired.compareAndSet(false, true)) {
                         handler.removeCallbacks(timeoutRunnable)
                         Log.d(TAG, "BLE set_params success for $nodeId")
+                        done()
                         handler.post { listener.onSuccess(null) }
                     }
                 }
@@ -361,6 +405,7 @@ class BleLocalControlManager private constructor(private val appContext: Context
                         handler.removeCallbacks(timeoutRunnable)
                         Log.e(TAG, "BLE set_params failed for $nodeId: ${e.message}")
                         handleBleOperationTimeout(nodeId)
+                        done()
                         handler.post { listener.onResponseFailure(e) }
                     }
                 }
@@ -368,48 +413,56 @@ class BleLocalControlManager private constructor(private val appContext: Context
         )
     }
 
+    /**
+     * Read params of the device. Read is queued behind pending operations of the node.
+     */
     fun queryParams(
         nodeId: String,
         onResult: (org.json.JSONObject?) -> Unit
     ) {
-        if (isProxyReadInProgress(nodeId)) {
-            Log.w(TAG, "Skipping queryParams for $nodeId — getParamsWithTimestamp is in progress")
-            onResult(null)
-            return
+        getOperationQueue(nodeId).enqueue(false) { done ->
+            readParams(nodeId, null) { json ->
+                done()
+                onResult(json)
+            }
         }
+    }
 
+    /**
+     * Read params with [BLE_OPERATION_TIMEOUT_MS] timeout. Link is marked disconnected on timeout.
+     */
+    private fun readParams(nodeId: String, timestamp: Long?, onResult: (org.json.JSONObject?) -> Unit) {
         val espDevice = getEspDevice(nodeId)
         if (espDevice == null) {
-            Log.e(TAG, "Cannot query params: BLE not connected for node $nodeId")
+            Log.e(TAG, "Cannot read params: BLE not connected for node $nodeId")
             onResult(null)
             return
         }
 
-        Log.d(TAG, "Querying params via BLE for $nodeId")
-        val dataBuffer = ArrayList<Byte>()
+        Log.d(TAG, "Reading params via BLE for $nodeId")
         val callbackFired = AtomicBoolean(false)
 
-        val wrappedResult: (org.json.JSONObject?) -> Unit = { json ->
-            if (callbackFired.compareAndSet(false, true)) {
-                onResult(json)
-            }
-        }
-
         val timeoutRunnable = Runnable {
             if (callbackFired.compareAndSet(false, true)) {
-                Log.e(TAG, "BLE queryParams timed out for $nodeId, marking disconnected")
+                Log.e(TAG, "BLE get_params timed out for $nodeId, marking disconnected")
                 handleBleOperationTimeout(nodeId)
                 onResult(null)
             }
         }
         handler.postDelayed(timeoutRunnable, BLE_OPERATION_TIMEOUT_MS)
 
-        getParamsChunk(espDevice, nodeId, 0, dataBuffer, null) { json ->
+        getParamsChunk(espDevice, nodeId, timestamp, BleChunkTransfer()) { json ->
             handler.removeCallbacks(timeoutRunnable)
-            wrappedResult(json)
+            if (callbackFired.compareAndSet(false, true)) {
+                onResult(json)
+            }
         }
     }
 
+    private fun getOperationQueue(nodeId: String): BleOperationQueue {
+        return operationQueues.getOrPut(nodeId) { BleOperationQueue() }
+    }
+
     // --- Internal: scan phase ---
 
     private fun collectBleDevices(): Map<String, EspNode.BleLocalCtrlInfo> {
@@ -497,6 +550,108 @@ class BleLocalControlManager private constructor(private val appContext: Context
 
     // --- Internal: on-demand connect ---
 
+    private fun enqueueConnect(nodeId: String, isUserInitiated: Boolean, callback: (Boolean) -> Unit) {
+        val callbacks = connectCallbacks.getOrPut(nodeId) { mutableListOf() }
+        callbacks.add(callback)
+        if (callbacks.size > 1) {
+            Log.d(TAG, "connectDevice: connection already requested for $nodeId, waiting for it")
+            return
+        }
+
+        if (isUserInitiated) {
+            pendingConnects.addFirst(nodeId)
+        } else {
+            pendingConnects.addLast(nodeId)
+        }
+        Log.d(TAG, "connectDevice: queued $nodeId, pending connects : ${getPendingConnectCount()}")
+        startNextConnect()
+    }
+
+    private fun startNextConnect() {
+        if (currentConnectingNodeId != null) {
+            return
+        }
+
+        while (true) {
+            val nodeId = pendingConnects.removeFirstOrNull() ?: return
+            val conn = connectionMap[nodeId]
+            if (conn == null || conn.bluetoothDevice == null) {
+                deliverConnectResult(nodeId, false)
+                continue
+            }
+            if (conn.state == ConnectionState.CONNECTED) {
+                deliverConnectResult(nodeId, true)
+                continue
+            }
+
+            if (!EventBus.getDefault().isRegistered(this)) {
+                EventBus.getDefault().register(this)
+            }
+
+            currentConnectingNodeId = nodeId
+            connectStartTime = System.currentTimeMillis()
+            connectToBleDevice(conn)
+            return
+        }
+    }
+
+    private fun finishConnect(isSuccess: Boolean) {
+        val nodeId = currentConnectingNodeId ?: return
+        currentConnectingNodeId = null
+
+        val latency = System.currentTimeMillis() - connectStartTime
+        connectionStats.onConnectDone(latency, isSuccess)
+        Log.d(TAG, "Connect done for $nodeId, success : $isSuccess, latency : $latency ms, $connectionStats")
+
+        deliverConnectResult(nodeId, isSuccess)
+
+        if (isSuccess) {
+            releaseIdleLinks(nodeId)
+        }
+        startNextConnect()
+    }
+
+    private fun deliverConnectResult(nodeId: String, isSuccess: Boolean) {
+        val callbacks = connectCallbacks.remove(nodeId) ?: return
+        for (cb in callbacks) {
+            cb(isSuccess)
+        }
+    }
+
+    /**
+     * Release least recently used idle links above [maxConnections].
+     */
+    private fun releaseIdleLinks(connectedNodeId: String) {
+        val connected = connectionMap.values.filter { it.state == ConnectionState.CONNECTED }
+        var excess = connected.size - maxConnections
+        if (excess <= 0) {
+            return
+        }
+
+        val idleLinks = connected
+            .filter { it.nodeId != connectedNodeId && getOperationQueue(it.nodeId).isIdle() }
+            .sortedBy { getOperationQueue(it.nodeId).lastUsedTime }
+
+        for (conn in idleLinks) {
+            if (excess <= 0) {
+                break
+            }
+            Log.d(TAG, "Releasing idle BLE link of ${conn.nodeId}, connected links : ${connected.size}")
+            releaseLink(conn)
+            conn.state = ConnectionState.DISCOVERED
+            conn.espDevice = null
+            val node = espApp.nodeMap[conn.nodeId]
+            if (node != null) {
+                node.nodeStatus = AppConstants.NODE_STATUS_BLE_DISCOVERABLE
+            }
+            notifyDeviceDisconnected(conn.nodeId)
+            excess--
+        }
+        if (excess > 0) {
+            Log.w(TAG, "BLE links are busy, $excess links above the limit of $maxConnections")
+        }
+    }
+
     private fun connectToBleDevice(conn: BleDeviceConnection) {
         val bluetoothDevice = conn.bluetoothDevice ?: return
 
@@ -531,11 +686,7 @@ class BleLocalControlManager private constructor(private val appContext: Context
                     }
 
                     notifyDeviceConnected(nodeId)
-
-                    val cb = connectCallback
-                    connectCallback = null
-                    currentConnectingNodeId = null
-                    cb?.invoke(true)
+                    finishConnect(true)
                 }
             }
 
@@ -544,11 +695,7 @@ class BleLocalControlManager private constructor(private val appContext: Context
                 handler.post {
                     conn.state = ConnectionState.DISCOVERED
                     conn.espDevice = null
-
-                    val cb = connectCallback
-                    connectCallback = null
-                    currentConnectingNodeId = null
-                    cb?.invoke(false)
+                    finishConnect(false)
                 }
             }
         })
@@ -605,142 +752,151 @@ class BleLocalControlManager private constructor(private val appContext: Context
 
     // --- EventBus: DeviceConnectionEvent ---
 
+    // DeviceConnectionEvent doesn't identify the device. Connected and connection failed events are sent only
+    // for the link being connected, disconnected event can be sent for any link.
     @Subscribe(threadMode = ThreadMode.MAIN)
     fun onEvent(event: DeviceConnectionEvent) {
-        val nodeId = currentConnectingNodeId ?: return
-
         when (event.eventType) {
             ESPConstants.EVENT_DEVICE_CONNECTED -> {
+                val nodeId = currentConnectingNodeId ?: return
                 Log.d(TAG, "BLE device connected for node $nodeId - initializing session")
                 initBleSession(nodeId)
             }
-            ESPConstants.EVENT_DEVICE_DISCONNECTED -> {
-                Log.d(TAG, "BLE device disconnected for node $nodeId")
-                val conn = connectionMap[nodeId]
-                if (conn != null && conn.state == ConnectionState.CONNECTED) {
-                    conn.state = ConnectionState.DISCOVERED
-                    conn.espDevice = null
-                    val espNode = espApp.nodeMap[nodeId]
-                    if (espNode != null) {
-                        espNode.nodeStatus = AppConstants.NODE_STATUS_BLE_DISCOVERABLE
-                    }
-                    notifyDeviceDisconnected(nodeId)
-                } else {
-                    conn?.state = ConnectionState.DISCOVERED
-                    conn?.espDevice = null
-                    val cb = connectCallback
-                    connectCallback = null
-                    currentConnectingNodeId = null
-                    cb?.invoke(false)
-                }
-            }
+            ESPConstants.EVENT_DEVICE_DISCONNECTED -> onLinkDisconnected()
             ESPConstants.EVENT_DEVICE_CONNECTION_FAILED -> {
+                val nodeId = currentConnectingNodeId ?: return
                 Log.e(TAG, "BLE device connection failed for node $nodeId")
                 val conn = connectionMap[nodeId]
                 conn?.state = ConnectionState.DISCOVERED
                 conn?.espDevice = null
-                val cb = connectCallback
-                connectCallback = null
-                currentConnectingNodeId = null
-                cb?.invoke(false)
+                finishConnect(false)
             }
         }
     }
 
+    /**
+     * Find the link of a disconnected event from GATT connection state of the devices.
+     * Connected links which are no longer connected are marked as lost. Event is attributed to the link
+     * being connected only if it is not explained by a connected link or a link released by the app.
+     */
+    private fun onLinkDisconnected() {
+        var isLinkLost = false
+        for (conn in connectionMap.values) {
+            if (conn.state == ConnectionState.CONNECTED && !isGattConnected(conn.bluetoothDevice)) {
+                Log.d(TAG, "BLE device disconnected for node ${conn.nodeId}")
+                conn.state = ConnectionState.DISCOVERED
+                conn.espDevice = null
+                val espNode = espApp.nodeMap[conn.nodeId]
+                if (espNode != null) {
+                    espNode.nodeStatus = AppConstants.NODE_STATUS_BLE_DISCOVERABLE
+                }
+                notifyDeviceDisconnected(conn.nodeId)
+                isLinkLost = true
+            }
+        }
+        if (isLinkLost || consumeReleasedDevice()) {
+            return
+        }
+
+        val nodeId = currentConnectingNodeId ?: return
+        val conn = connectionMap[nodeId]
+        if (conn != null && isGattConnected(conn.bluetoothDevice)) {
+            Log.d(TAG, "Disconnected event is not for node $nodeId, it is still connected")
+            return
+        }
+        Log.d(TAG, "BLE device disconnected while connecting node $nodeId")
+        conn?.state = ConnectionState.DISCOVERED
+        conn?.espDevice = null
+        finishConnect(false)
+    }
+
+    /**
+     * Disconnect the link and remember its device, so that its disconnected event is not attributed to other links.
+     */
+    private fun releaseLink(conn: BleDeviceConnection) {
+        val espDevice = conn.espDevice ?: return
+        conn.bluetoothDevice?.let { releasedDevices[it] = System.currentTimeMillis() }
+        try {
+            espDevice.disconnectDevice()
+        } catch (e: Exception) {
+            Log.e(TAG, "Error disconnecting device ${conn.nodeId}: ${e.message}")
+        }
+    }
+
+    /**
+     * @return true if a device released by the app is disconnected and its event was not received yet.
+     */
+    private fun consumeReleasedDevice(): Boolean {
+        val now = System.currentTimeMillis()
+        releasedDevices.entries.removeAll { now - it.value > RELEASED_LINK_EVENT_TIMEOUT_MS }
+        val device = releasedDevices.keys.firstOrNull { !isGattConnected(it) } ?: return false
+        releasedDevices.remove(device)
+        return true
+    }
+
+    private fun isGattConnected(device: BluetoothDevice?): Boolean {
+        device ?: return false
+        val bluetoothManager = appContext.getSystemService(Context.BLUETOOTH_SERVICE) as? BluetoothManager
+            ?: return false
+        return try {
+            bluetoothManager.getConnectionState(device, BluetoothProfile.GATT) == BluetoothProfile.STATE_CONNECTED
+        } catch (e: SecurityException) {
+            Log.e(TAG, "Bluetooth connect permission is not available: ${e.message}")
+            false
+        }
+    }
+
     // --- Chunked get_params via protobuf ---
 
+    /**
+     * Read next chunk of params, starting at the offset of already received data.
+     * Timestamp (for proxy reporting) is sent only with the first chunk.
+     */
     private fun getParamsChunk(
         espDevice: ESPDevice,
         nodeId: String,
-        offset: Int,
-        dataBuffer: ArrayList<Byte>,
-        totalLen: Int?,
+        timestamp: Long?,
+        transfer: BleChunkTransfer,
         onResult: (org.json.JSONObject?) -> Unit
     ) {
-        val cmdGetData = rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.CmdGetData.newBuilder()
-            .setDataType(rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlDataType.TypeParams)
-            .setOffset(offset)
-            .setHasTimestamp(false)
-            .build()
-
-        val payload = rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlPayload.newBuilder()
-            .setMsg(rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlMsgType.TypeCmdGetData)
-            .setCmdGetData(cmdGetData)
-            .build()
+        val offset = transfer.receivedLen
+        val stats = transferStats.getOrPut(nodeId) { BleTransferStats() }
+        val failTransfer = {
+            stats.onTransferFailed()
+            handler.post { onResult(null) }
+        }
 
         espDevice.sendDataToCustomEndPoint(
             AppConstants.HANDLER_GET_PARAMS,
-            payload.toByteArray(),
+            transfer.buildRequest(timestamp),
             object : ResponseListener {
                 override fun onSuccess(returnData: ByteArray?) {
-                    if (returnData == null || returnData.isEmpty()) {
-                        Log.w(TAG, "get_params returned empty data for $nodeId")
-                        handler.post { onResult(null) }
-                        return
-                    }
-
                     try {
-                        val response = rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlPayload.parseFrom(returnData)
-                        if (response.msg != rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlMsgType.TypeRespGetData) {
-                            Log.e(TAG, "Unexpected message type for $nodeId: ${response.msg}")
-                            handler.post { onResult(null) }
-                            return
-                        }
-
-                        val respGetData = response.respGetData
-                        if (respGetData.status != rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlStatus.Success) {
-                            Log.e(TAG, "Device returned error for $nodeId: ${respGetData.status}")
-                            handler.post { onResult(null) }
-                            return
-                        }
-
-                        val buf = respGetData.buf
-                        val respOffset = buf.offset
-                        val payloadBytes = buf.payload.toByteArray()
-                        val respTotalLen = buf.totalLen
-
-                        if (respOffset != offset) {
-                            Log.e(TAG, "Offset mismatch for $nodeId: expected $offset, got $respOffset")
-                            handler.post { onResult(null) }
-                            return
-                        }
-
-                        val currentTotalLen = totalLen ?: respTotalLen
-
-                        for (b in payloadBytes) {
-                            dataBuffer.add(b)
-                        }
-                        val newOffset = offset + payloadBytes.size
-
-                        Log.d(TAG, "Params chunk for $nodeId: offset=$respOffset, len=${payloadBytes.size}, progress=$newOffset/$currentTotalLen")
-
-                        if (newOffset >= currentTotalLen) {
-                            val completeData = ByteArray(dataBuffer.size)
-                            for (i in dataBuffer.indices) {
-                                completeData[i] = dataBuffer[i]
-                            }
-                            val jsonStr = String(completeData, Charsets.UTF_8)
-                            Log.d(TAG, "Complete params JSON for $nodeId: $jsonStr")
+                        transfer.appendResponse(returnData)
+                        Log.d(TAG, "Params chunk for $nodeId: offset=$offset, len=${transfer.receivedLen - offset}, progress=${transfer.receivedLen}/${transfer.totalLen}")
 
+                        if (transfer.isComplete()) {
                             try {
-                                val jsonObject = org.json.JSONObject(jsonStr)
+                                val jsonObject = transfer.toJson()
+                                stats.onTransferDone(transfer)
+                                Log.d(TAG, "Received params of $nodeId, ${transfer.receivedLen} bytes in ${transfer.chunkCount} chunks, $stats")
                                 handler.post { onResult(jsonObject) }
                             } catch (e: org.json.JSONException) {
                                 Log.e(TAG, "Failed to parse params JSON for $nodeId: ${e.message}")
-                                handler.post { onResult(null) }
+                                failTransfer()
                             }
                         } else {
-                            getParamsChunk(espDevice, nodeId, newOffset, dataBuffer, currentTotalLen, onResult)
+                            getParamsChunk(espDevice, nodeId, null, transfer, onResult)
                         }
                     } catch (e: Exception) {
-                        Log.e(TAG, "Failed to parse get_params response for $nodeId: ${e.message}")
-                        handler.post { onResult(null) }
+                        Log.e(TAG, "Invalid get_params response for $nodeId: ${e.message}")
+                        failTransfer()
                     }
                 }
 
                 override fun onFailure(e: Exception) {
                     Log.e(TAG, "get_params chunk failed for $nodeId: ${e.message}")
-                    handler.post { onResult(null) }
+                    failTransfer()
                 }
             }
         )
@@ -753,8 +909,7 @@ class BleLocalControlManager private constructor(private val appContext: Context
     }
 
     fun getParamsWithTimestamp(nodeId: String, onResult: (org.json.JSONObject?) -> Unit) {
-        val espDevice = getEspDevice(nodeId)
-        if (espDevice == null) {
+        if (!isConnected(nodeId)) {
             Log.e(TAG, "Cannot get params with timestamp: BLE not connected for node $nodeId")
             onResult(null)
             return
@@ -767,118 +922,15 @@ class BleLocalControlManager private constructor(private val appContext: Context
             return
         }
 
-        val wrappedResult: (org.json.JSONObject?) -> Unit = { json ->
-            busy.set(false)
-            onResult(json)
-        }
-
-        val timestamp = System.currentTimeMillis() / 1000
-        Log.d(TAG, "Getting params with timestamp=$timestamp for $nodeId")
-        getParamsChunkWithTimestamp(espDevice, nodeId, 0, timestamp, ArrayList(), null, wrappedResult)
-    }
-
-    private fun getParamsChunkWithTimestamp(
-        espDevice: ESPDevice,
-        nodeId: String,
-        offset: Int,
-        timestamp: Long?,
-        dataBuffer: ArrayList<Byte>,
-        totalLen: Int?,
-        onResult: (org.json.JSONObject?) -> Unit
-    ) {
-        val cmdBuilder = rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.CmdGetData.newBuilder()
-            .setDataType(rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlDataType.TypeParams)
-            .setOffset(offset)
-
-        if (timestamp != null) {
-            cmdBuilder.setTimestamp(timestamp)
-            cmdBuilder.setHasTimestamp(true)
-        } else {
-            cmdBuilder.setTimestamp(0)
-            cmdBuilder.setHasTimestamp(false)
-        }
-
-        val payload = rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlPayload.newBuilder()
-            .setMsg(rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlMsgType.TypeCmdGetData)
-            .setCmdGetData(cmdBuilder.build())
-            .build()
-
-        espDevice.sendDataToCustomEndPoint(
-            AppConstants.HANDLER_GET_PARAMS,
-            payload.toByteArray(),
-            object : ResponseListener {
-                override fun onSuccess(returnData: ByteArray?) {
-                    if (returnData == null || returnData.isEmpty()) {
-                        Log.w(TAG, "get_params (timestamped) returned empty data for $nodeId")
-                        handler.post { onResult(null) }
-                        return
-                    }
-
-                    try {
-                        val response = rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlPayload.parseFrom(returnData)
-                        if (response.msg != rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlMsgType.TypeRespGetData) {
-                            Log.e(TAG, "Unexpected message type (timestamped) for $nodeId: ${response.msg}")
-                            handler.post { onResult(null) }
-                            return
-                        }
-
-                        val respGetData = response.respGetData
-                        if (respGetData.status != rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl.RMakerLocalCtrlStatus.Success) {
-                            Log.e(TAG, "Device returned error (timestamped) for $nodeId: ${respGetData.status}")
-                            handler.post { onResult(null) }
-                            return
-                        }
-
-                        val buf = respGetData.buf
-                        val respOffset = buf.offset
-                        val payloadBytes = buf.payload.toByteArray()
-                        val respTotalLen = buf.totalLen
-
-                        if (respOffset != offset) {
-                            Log.e(TAG, "Offset mismatch (timestamped) for $nodeId: expected $offset, got $respOffset")
-                            handler.post { onResult(null) }
-                            return
-                        }
-
-                        val currentTotalLen = totalLen ?: respTotalLen
-
-                        for (b in payloadBytes) {
-                            dataBuffer.add(b)
-                        }
-                        val newOffset = offset + payloadBytes.size
-
-                        Log.d(TAG, "Timestamped params chunk for $nodeId: offset=$respOffset, len=${payloadBytes.size}, progress=$newOffset/$currentTotalLen")
-
-                        if (newOffset >= currentTotalLen) {
-                            val completeData = ByteArray(dataBuffer.size)
-                            for (i in dataBuffer.indices) {
-                                completeData[i] = dataBuffer[i]
-                            }
-                            val jsonStr = String(completeData, Charsets.UTF_8)
-                            Log.d(TAG, "Complete timestamped params JSON for $nodeId: $jsonStr")
-
-                            try {
-                                val jsonObject = org.json.JSONObject(jsonStr)
-                                handler.post { onResult(jsonObject) }
-                            } catch (e: org.json.JSONException) {
-                                Log.e(TAG, "Failed to parse timestamped params JSON for $nodeId: ${e.message}")
-                                handler.post { onResult(null) }
-                            }
-                        } else {
-                            getParamsChunkWithTimestamp(espDevice, nodeId, newOffset, null, dataBuffer, currentTotalLen, onResult)
-                        }
-                    } catch (e: Exception) {
-                        Log.e(TAG, "Failed to parse timestamped get_params response for $nodeId: ${e.message}")
-                        handler.post { onResult(null) }
-                    }
-                }
-
-                override fun onFailure(e: Exception) {
-                    Log.e(TAG, "get_params (timestamped) chunk failed for $nodeId: ${e.message}")
-                    handler.post { onResult(null) }
-                }
+        getOperationQueue(nodeId).enqueue(false) { done ->
+            val timestamp = System.currentTimeMillis() / 1000
+            Log.d(TAG, "Getting params with timestamp=$timestamp for $nodeId")
+            readParams(nodeId, timestamp) { json ->
+                busy.set(false)
+                done()
+                onResult(json)
             }
-        )
+        }
     }
 
     // --- Permissions ---
@@ -901,11 +953,7 @@ class BleLocalControlManager private constructor(private val appContext: Context
     private fun handleBleOperationTimeout(nodeId: String) {
         val conn = connectionMap[nodeId] ?: return
         Log.w(TAG, "Cleaning up stale BLE connection for $nodeId")
-        try {
-            conn.espDevice?.disconnectDevice()
-        } catch (e: Exception) {
-            Log.e(TAG, "Error disconnecting stale device $nodeId: ${e.message}")
-        }
+        releaseLink(conn)
         conn.espDevice = null
         if (conn.bluetoothDevice != null) {
             conn.state = ConnectionState.DISCOVERED
@@ -928,6 +976,43 @@ class BleLocalControlManager private constructor(private val appContext: Context
         notifyDeviceDisconnected(nodeId)
     }
 
+    /**
+     * Latency and failure counters of GATT connect + session init.
+     */
+    class ConnectionStats {
+
+        var connectCount = 0
+            private set
+        var failedCount = 0
+            private set
+        var maxLatency = 0L
+            private set
+        private var totalLatency = 0L
+
+        @Synchronized
+        fun onConnectDone(latency: Long, isSuccess: Boolean) {
+            connectCount++
+            if (!isSuccess) {
+                failedCount++
+            }
+            totalLatency += latency
+            if (latency > maxLatency) {
+                maxLatency = latency
+            }
+        }
+
+        @Synchronized
+        fun getAverageLatency(): Long {
+            return if (connectCount == 0) 0 else totalLatency / connectCount
+        }
+
+        @Synchronized
+        override fun toString(): String {
+            return "BleConnectionStats{connects=$connectCount, failed=$failedCount, " +
+                    "avgLatency=${getAverageLatency()}ms, maxLatency=${maxLatency}ms}"
+        }
+    }
+
     // --- Listener notifications ---
 
     private fun notifyDeviceConnected(nodeId: String) {
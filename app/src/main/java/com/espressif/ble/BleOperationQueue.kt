@@ -0,0 +1,82 @@
+// Copyright 2026 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.ble
+
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Serial queue of BLE operations of one node.
+ *
+ * Only one operation of a node is in flight at a time, so param writes and param reads never
+ * interleave on the same GATT link. User operations (param writes) are executed before
+ * queued background operations (param reads and proxy reports).
+ *
+ * An operation gets a `done` function, which must be called when its response is received or it times out.
+ */
+class BleOperationQueue {
+
+    private val userOperations = ArrayDeque<(() -> Unit) -> Unit>()
+    private val backgroundOperations = ArrayDeque<(() -> Unit) -> Unit>()
+    private var isRunning = false
+
+    var lastUsedTime = System.currentTimeMillis()
+        private set
+
+    fun enqueue(isUserOperation: Boolean, operation: (done: () -> Unit) -> Unit) {
+        synchronized(this) {
+            if (isUserOperation) {
+                userOperations.addLast(operation)
+            } else {
+                backgroundOperations.addLast(operation)
+            }
+            lastUsedTime = System.currentTimeMillis()
+            if (isRunning) {
+                return
+            }
+            isRunning = true
+        }
+        runNext()
+    }
+
+    /** Number of operations waiting or in flight. */
+    @Synchronized
+    fun getDepth(): Int {
+        return userOperations.size + backgroundOperations.size + (if (isRunning) 1 else 0)
+    }
+
+    @Synchronized
+    fun isIdle(): Boolean {
+        return !isRunning
+    }
+
+    private fun runNext() {
+        val operation: (() -> Unit) -> Unit
+        synchronized(this) {
+            operation = userOperations.removeFirstOrNull() ?: backgroundOperations.removeFirstOrNull() ?: run {
+                isRunning = false
+                return
+            }
+        }
+        val isDone = AtomicBoolean(false)
+        operation {
+            if (isDone.compareAndSet(false, true)) {
+                synchronized(this) {
+                    lastUsedTime = System.currentTimeMillis()
+                }
+                runNext()
+            }
+        }
+    }
+}
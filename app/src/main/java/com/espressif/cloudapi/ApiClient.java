@@ -97,6 +97,7 @@ public class ApiClient {
 
             // creating an OkHttpClient that uses our SSLSocketFactory
             okHttpClient = new OkHttpClient.Builder()
+                    .addInterceptor(TokenManager.getInstance(context).getAuthInterceptor())
                     .authenticator(authAuthenticator)
                     .sslSocketFactory(sslContext.getSocketFactory(), systemDefaultTrustManager())
                     .connectTimeout(15, TimeUnit.SECONDS)
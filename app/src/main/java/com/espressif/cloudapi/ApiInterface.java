@@ -29,6 +29,7 @@ import retrofit2.http.Field;
 import retrofit2.http.FormUrlEncoded;
 import retrofit2.http.GET;
 import retrofit2.http.Header;
+import retrofit2.http.Headers;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
 import retrofit2.http.Query;
@@ -36,38 +37,44 @@ import retrofit2.http.Url;
 
 /**
  * This class represents interface for all APIs.
+ * Access token is added to requests by {@link TokenManager}, except requests marked with {@link TokenManager#HEADER_NO_AUTH}.
  */
 public interface ApiInterface {
 
     @POST
+    @Headers(TokenManager.HEADER_NO_AUTH)
     Call<ResponseBody> login(@Url String url, @Body JsonObject body);
 
     @POST
-    Call<ResponseBody> logout(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token);
+    Call<ResponseBody> logout(@Url String url);
 
     @POST
+    @Headers(TokenManager.HEADER_NO_AUTH)
     Call<ResponseBody> createUser(@Url String url, @Body JsonObject body);
 
     @POST
+    @Headers(TokenManager.HEADER_NO_AUTH)
     Call<ResponseBody> confirmUser(@Url String url, @Body JsonObject body);
 
     @DELETE
-    Call<ResponseBody> deleteUserRequest(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> deleteUserRequest(@Url String url,
                                          @Query(AppConstants.KEY_REQUEST) boolean request);
 
     @DELETE
-    Call<ResponseBody> deleteUserConfirm(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> deleteUserConfirm(@Url String url,
                                          @Query(AppConstants.KEY_VERIFICATION_CODE) String verificationCode);
 
     @PUT
+    @Headers(TokenManager.HEADER_NO_AUTH)
     Call<ResponseBody> forgotPassword(@Url String url, @Body JsonObject body);
 
     @PUT
-    Call<ResponseBody> changePassword(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> changePassword(@Url String url,
                                       @Body JsonObject body);
 
     @FormUrlEncoded
     @POST
+    @Headers(TokenManager.HEADER_NO_AUTH)
     Call<ResponseBody> oauthLogin(@Url String url, @Header("Content-type") String contentType,
                                   @Field("grant_type") String grant_type,
                                   @Field("client_id") String client_id,
@@ -76,6 +83,7 @@ public interface ApiInterface {
 
     @FormUrlEncoded
     @POST
+    @Headers(TokenManager.HEADER_NO_AUTH)
     Call<ResponseBody> oauthLoginForWeChat(@Url String url, @Header("Content-type") String contentType,
                                            @Field("grant_type") String grant_type,
                                            @Field("client_id") String client_id,
@@ -85,101 +93,103 @@ public interface ApiInterface {
 
     // Get Supported Versions
     @GET
+    @Headers(TokenManager.HEADER_NO_AUTH)
     Call<ResponseBody> getSupportedVersions(@Url String url);
 
     // Do login (for GitHub / Google login)
     @POST
+    @Headers(TokenManager.HEADER_NO_AUTH)
     Call<ResponseBody> getOAuthLoginToken(@Url String url, @Body HashMap<String, String> body);
 
     // Get Nodes
     @GET
-    Call<ResponseBody> getNodes(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Query(AppConstants.KEY_START_ID) String startId);
+    Call<ResponseBody> getNodes(@Url String url, @Query(AppConstants.KEY_START_ID) String startId);
 
     // Get Node Details
     @GET
-    Call<ResponseBody> getNode(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Query(AppConstants.KEY_NODE_ID) String nodeId);
+    Call<ResponseBody> getNode(@Url String url, @Query(AppConstants.KEY_NODE_ID) String nodeId);
 
 
     // Update metadata
     @PUT
-    Call<ResponseBody> updateNodeMetadata(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> updateNodeMetadata(@Url String url,
                                           @Query(AppConstants.KEY_NODE_ID) String nodeId,
                                           @Body JsonObject body);
 
     // Get Node Status
     @GET
-    Call<ResponseBody> getNodeStatus(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getNodeStatus(@Url String url,
                                      @Query(AppConstants.KEY_NODE_ID) String nodeId);
 
     // Add Node
     @PUT
-    Call<ResponseBody> addNode(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body DeviceOperationRequest rawJsonString);
+    Call<ResponseBody> addNode(@Url String url, @Body DeviceOperationRequest rawJsonString);
 
     // Get Add Node request status
     @GET
-    Call<ResponseBody> getAddNodeRequestStatus(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getAddNodeRequestStatus(@Url String url,
                                                @Query(AppConstants.KEY_REQ_ID) String requestId, @Query(AppConstants.KEY_USER_REQUEST) boolean userReq);
 
     // Get param values
     @GET
-    Call<ResponseBody> getParamValue(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Query(AppConstants.KEY_NODE_ID) String nodeId);
+    Call<ResponseBody> getParamValue(@Url String url, @Query(AppConstants.KEY_NODE_ID) String nodeId);
 
     // Update param value
     @PUT
-    Call<ResponseBody> updateParamValue(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Query(AppConstants.KEY_NODE_ID) String nodeId, @Body JsonObject body);
+    Call<ResponseBody> updateParamValue(@Url String url, @Query(AppConstants.KEY_NODE_ID) String nodeId, @Body JsonObject body);
 
     // Update schedules / scenes
     @PUT
-    Call<ResponseBody> updateParamsForMultiNode(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body JsonArray body);
+    Call<ResponseBody> updateParamsForMultiNode(@Url String url, @Body JsonArray body);
 
     // Remove Node
     @PUT
-    Call<ResponseBody> removeNode(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body DeviceOperationRequest rawJsonString);
+    Call<ResponseBody> removeNode(@Url String url, @Body DeviceOperationRequest rawJsonString);
 
     // Claiming initiate
     @POST
-    Call<ResponseBody> initiateClaiming(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body JsonObject body);
+    Call<ResponseBody> initiateClaiming(@Url String url, @Body JsonObject body);
 
     // Claiming verify
     @POST
-    Call<ResponseBody> verifyClaiming(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body JsonObject body);
+    Call<ResponseBody> verifyClaiming(@Url String url, @Body JsonObject body);
 
     // Mapping initiate
     @POST
-    Call<ResponseBody> initiateMapping(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body JsonObject body);
+    Call<ResponseBody> initiateMapping(@Url String url, @Body JsonObject body);
 
     // Verify user node mapping
     @POST
-    Call<ResponseBody> verifyUserNodeMapping(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body JsonObject body);
+    Call<ResponseBody> verifyUserNodeMapping(@Url String url, @Body JsonObject body);
 
     // Feature : Node Grouping
 
     // Create group
     @POST
-    Call<ResponseBody> createGroup(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> createGroup(@Url String url,
                                    @Body JsonObject body);
 
     // Update group
     @PUT
-    Call<ResponseBody> updateGroup(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> updateGroup(@Url String url,
                                    @Query(AppConstants.KEY_GROUP_ID) String groupId,
                                    @Body JsonObject body);
 
     // Removes group
     @DELETE
-    Call<ResponseBody> removeGroup(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> removeGroup(@Url String url,
                                    @Query(AppConstants.KEY_GROUP_ID) String groupId);
 
     // Get user group
     @GET
-    Call<ResponseBody> getUserGroups(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getUserGroups(@Url String url,
                                      @Query(AppConstants.KEY_START_ID) String startId,
                                      @Query(AppConstants.KEY_GROUP_ID) String groupId,
                                      @Query(AppConstants.KEY_FABRIC_DETAILS) boolean isFabricDetails,
                                      @Query(AppConstants.KEY_NODE_LIST) boolean shouldGetNodeList);
 
     @GET
-    Call<ResponseBody> getFabricDetailsForGroup(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getFabricDetailsForGroup(@Url String url,
                                                 @Query(AppConstants.KEY_GROUP_ID) String groupId,
                                                 @Query(AppConstants.KEY_NODE_LIST) boolean shouldGetNodeList,
                                                 @Query(AppConstants.KEY_IS_MATTER) boolean isMatter,
@@ -187,7 +197,7 @@ public interface ApiInterface {
                                                 @Query(AppConstants.KEY_NODE_DETAILS) boolean isNodeDetails);
 
     @GET
-    Observable<ResponseBody> getAllFabricDetails(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Observable<ResponseBody> getAllFabricDetails(@Url String url,
                                                  @Query(AppConstants.KEY_GROUP_ID) String groupId,
                                                  @Query(AppConstants.KEY_NODE_LIST) boolean shouldGetNodeList,
                                                  @Query(AppConstants.KEY_IS_MATTER) boolean isMatter,
@@ -196,19 +206,19 @@ public interface ApiInterface {
 
 
     @PUT
-    Call<ResponseBody> getUserNoc(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getUserNoc(@Url String url,
                                   @Body JsonObject requestBody);
 
     @PUT
-    Observable<ResponseBody> getAllUserNOCs(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Observable<ResponseBody> getAllUserNOCs(@Url String url,
                                             @Body JsonObject requestBody);
 
     @PUT
-    Call<ResponseBody> getNodeNoc(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getNodeNoc(@Url String url,
                                   @Body JsonObject requestBody);
 
     @PUT
-    Call<ResponseBody> confirmPureMatterNode(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> confirmPureMatterNode(@Url String url,
                                              @Query(AppConstants.KEY_GROUP_ID) String groupId,
                                              @Body JsonObject requestBody);
 
@@ -217,79 +227,79 @@ public interface ApiInterface {
 
     // Get sharing requests
     @GET
-    Call<ResponseBody> getSharingRequests(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getSharingRequests(@Url String url,
                                           @Query(AppConstants.KEY_PRIMARY_USER) boolean isPrimaryUser,
                                           @Query(AppConstants.KEY_START_REQ_ID) String startRequestId,
                                           @Query(AppConstants.KEY_START_USER_NAME) String startUserName);
 
     // Update sharing request
     @PUT
-    Call<ResponseBody> updateSharingRequest(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> updateSharingRequest(@Url String url,
                                             @Body JsonObject body);
 
     // Remove sharing request
     @DELETE
-    Call<ResponseBody> removeSharingRequest(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> removeSharingRequest(@Url String url,
                                             @Query(AppConstants.KEY_REQ_ID) String requestId);
 
     // Share node with the user
     @PUT
-    Call<ResponseBody> shareNodeWithUser(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body JsonObject body);
+    Call<ResponseBody> shareNodeWithUser(@Url String url, @Body JsonObject body);
 
     // Get node sharing information
     @GET
-    Call<ResponseBody> getNodeSharing(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getNodeSharing(@Url String url,
                                       @Query(AppConstants.KEY_NODE_ID) String nodeId);
 
     // Remove the sharing of node
     @DELETE
-    Call<ResponseBody> removeSharing(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> removeSharing(@Url String url,
                                      @Query(AppConstants.KEY_NODES) String nodes, @Query(AppConstants.KEY_USER_NAME) String userName);
 
     @POST
-    Call<ResponseBody> registerDeviceToken(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> registerDeviceToken(@Url String url,
                                            @Body JsonObject body);
 
     @DELETE
-    Call<ResponseBody> unregisterDeviceToken(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> unregisterDeviceToken(@Url String url,
                                              @Query(AppConstants.KEY_MOBILE_DEVICE_TOKEN) String deviceToken);
 
     // Feature : Group Sharing
 
     // Share group with user
     @PUT
-    Call<ResponseBody> shareGroupWithUser(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body JsonObject body);
+    Call<ResponseBody> shareGroupWithUser(@Url String url, @Body JsonObject body);
 
     // Get group sharing request
     @GET
-    Call<ResponseBody> getGroupSharingRequests(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getGroupSharingRequests(@Url String url,
                                                @Query(AppConstants.KEY_PRIMARY_USER) boolean isPrimaryUser,
                                                @Query(AppConstants.KEY_START_REQ_ID) String startRequestId,
                                                @Query(AppConstants.KEY_START_USER_NAME) String startUserName);
 
     // Update group sharing request
     @PUT
-    Call<ResponseBody> updateGroupSharingRequest(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> updateGroupSharingRequest(@Url String url,
                                                  @Body JsonObject body);
 
     // Remove group sharing request
     @DELETE
-    Call<ResponseBody> removeGroupSharingRequest(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> removeGroupSharingRequest(@Url String url,
                                                  @Query(AppConstants.KEY_REQ_ID) String requestId);
 
     // Get group sharing information
     @GET
-    Call<ResponseBody> getGroupSharing(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getGroupSharing(@Url String url,
                                        @Query(AppConstants.KEY_GROUP_ID) String groupId);
 
     // Remove group sharing
     @DELETE
-    Call<ResponseBody> removeGroupSharing(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> removeGroupSharing(@Url String url,
                                           @Query(AppConstants.KEY_GROUPS) String groups, @Query(AppConstants.KEY_USER_NAME) String userName);
 
     // Get time series data
     @GET
-    Call<ResponseBody> getTimeSeriesData(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getTimeSeriesData(@Url String url,
                                          @Query(AppConstants.KEY_NODE_ID) String nodeId,
                                          @Query(AppConstants.KEY_PARAM_NAME) String paramName,
                                          @Query(AppConstants.KEY_TYPE) String dataType,
@@ -302,7 +312,7 @@ public interface ApiInterface {
                                          @Query(AppConstants.KEY_START_ID) String startId);
 
     @GET
-    Call<ResponseBody> getSimpleTimeSeriesData(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getSimpleTimeSeriesData(@Url String url,
                                                @Query(AppConstants.KEY_NODE_ID) String nodeId,
                                                @Query(AppConstants.KEY_PARAM_NAME) String paramName,
                                                @Query(AppConstants.KEY_DATA_TYPE) String dataType,
@@ -314,84 +324,83 @@ public interface ApiInterface {
 
     // Device Automation
     @POST
-    Call<ResponseBody> addAutomations(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> addAutomations(@Url String url,
                                       @Body JsonObject body);
 
     @PUT
-    Call<ResponseBody> updateAutomations(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> updateAutomations(@Url String url,
                                          @Query(AppConstants.KEY_START_ID) String startId,
                                          @Query(AppConstants.KEY_NODE_ID) String nodeId,
                                          @Query(AppConstants.KEY_AUTOMATION_ID) String automationId);
 
     // GET
     @GET
-    Call<ResponseBody> getAutomations(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getAutomations(@Url String url,
                                       @Query(AppConstants.KEY_START_ID) String startId);
 
     // GET
     @GET
-    Call<ResponseBody> getAutomationWithId(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getAutomationWithId(@Url String url,
                                            @Query(AppConstants.KEY_START_ID) String startId,
                                            @Query(AppConstants.KEY_NODE_ID) String nodeId,
                                            @Query(AppConstants.KEY_AUTOMATION_ID) String automationId);
 
     // Update automation
     @PUT
-    Call<ResponseBody> updateAutomation(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> updateAutomation(@Url String url,
                                         @Query(AppConstants.KEY_AUTOMATION_ID) String automationId,
                                         @Body JsonObject body);
 
     // DELETE
     @DELETE
-    Call<ResponseBody> deleteAutomation(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> deleteAutomation(@Url String url,
                                         @Query(AppConstants.KEY_AUTOMATION_ID) String automationId);
 
     // OTA Update
     @GET
-    Call<ResponseBody> checkFwUpdate(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> checkFwUpdate(@Url String url,
                                      @Query(AppConstants.KEY_NODE_ID) String nodeId);
 
     @GET
-    Call<ResponseBody> getFwUpdateStatus(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> getFwUpdateStatus(@Url String url,
                                          @Query(AppConstants.KEY_NODE_ID) String nodeId,
                                          @Query(AppConstants.KEY_OTA_JOB_ID) String otaJobId);
 
     @POST
-    Call<ResponseBody> pushFwUpdate(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> pushFwUpdate(@Url String url,
                                     @Body JsonObject body);
 
     // Matter APIs
     @PUT
-    Call<ResponseBody> addControllerToGroup(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token, @Body JsonObject body);
+    Call<ResponseBody> addControllerToGroup(@Url String url, @Body JsonObject body);
 
     @PUT
-    Call<ResponseBody> convertGroupToFabric(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> convertGroupToFabric(@Url String url,
                                             @Query(AppConstants.KEY_GROUP_ID) String groupId,
                                             @Body JsonObject body);
 
     @POST
-    Call<ResponseBody> sendCommandResponse(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> sendCommandResponse(@Url String url,
                                            @Body JsonObject requestBody);
 
     @GET
     Call<ResponseBody> getCommandResponseStatus(
-            @Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
-            @Query(AppConstants.KEY_REQUEST_ID) String requestId);
+            @Url String url, @Query(AppConstants.KEY_REQUEST_ID) String requestId);
 
     @POST
-    Call<ResponseBody> assumeRole(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> assumeRole(@Url String url,
                                   @Body JsonObject body);
 
     // Proxy APIs for BLE local control
     @POST
-    Call<ResponseBody> reportProxyConfig(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> reportProxyConfig(@Url String url,
                                          @Body JsonObject body);
 
     @POST
-    Call<ResponseBody> reportProxyParams(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> reportProxyParams(@Url String url,
                                          @Body JsonObject body);
 
     @POST
-    Call<ResponseBody> reportProxyInitParams(@Url String url, @Header(AppConstants.HEADER_AUTHORIZATION) String token,
+    Call<ResponseBody> reportProxyInitParams(@Url String url,
                                              @Body JsonObject body);
 }
@@ -32,6 +32,7 @@ import com.espressif.AppConstants.Companion.UpdateEventType;
 import com.espressif.EspApplication;
 import com.espressif.JsonDataParser;
 import com.espressif.db.EspDatabase;
+import com.espressif.db.EspDbWriter;
 import com.espressif.matter.FabricDetails;
 import com.espressif.rainmaker.BuildConfig;
 import com.espressif.ui.models.Action;
@@ -49,7 +50,7 @@ import com.espressif.ui.models.Scene;
 import com.espressif.ui.models.Schedule;
 import com.espressif.ui.models.Service;
 import com.espressif.ui.models.SharingRequest;
-import com.espressif.ui.models.TsData;
+import com.espressif.ui.models.TsColumns;
 import com.espressif.ui.models.UpdateEvent;
 import com.espressif.utils.NodeUtils;
 import com.espressif.utils.ParamUtils;
@@ -71,9 +72,11 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import io.reactivex.Observable;
 import io.reactivex.functions.Consumer;
@@ -94,7 +97,6 @@ public class ApiManager {
     public static String userId = "";
     private static String userName = "";
     private static String idToken = "";
-    private static String accessToken = "";
     private static String refreshToken = "";
     private static HashMap<String, String> requestIds = new HashMap<>(); // Map of node id and request id.
 
@@ -103,6 +105,7 @@ public class ApiManager {
     private Handler handler;
     private ApiInterface apiInterface;
     private EspDatabase espDatabase;
+    private EspDbWriter espDbWriter;
     private SharedPreferences sharedPreferences;
     private static ArrayList<String> nodeIds = new ArrayList<>();
     private static ArrayList<String> scheduleIds = new ArrayList<>();
@@ -110,6 +113,12 @@ public class ApiManager {
     private static ArrayList<String> automationIds = new ArrayList<>();
     private static ArrayList<String> groupIds = new ArrayList<>();
 
+    // Skip rebuilding devices / params of the node if its config is not changed.
+    private static boolean isIncrementalSyncEnabled = true;
+    private static final NodeSyncStats nodeSyncStats = new NodeSyncStats();
+    // Incremented when all nodes have been received from cloud and removed nodes have been deleted.
+    private static volatile int nodeSyncGeneration;
+
     private static ApiManager apiManager;
 
     /**
@@ -138,6 +147,7 @@ public class ApiManager {
         handler = new Handler();
         espApp = (EspApplication) context.getApplicationContext();
         espDatabase = EspDatabase.getInstance(context);
+        espDbWriter = EspDbWriter.getInstance(context);
         apiInterface = ApiClient.getClient(context).create(ApiInterface.class);
         sharedPreferences = context.getSharedPreferences(AppConstants.ESP_PREFERENCES, Context.MODE_PRIVATE);
         getTokenAndUserId();
@@ -214,7 +224,7 @@ public class ApiManager {
                         String jsonResponse = response.body().string();
                         JSONObject jsonObject = new JSONObject(jsonResponse);
                         idToken = jsonObject.getString("idtoken");
-                        accessToken = jsonObject.getString("accesstoken");
+                        String accessToken = jsonObject.getString("accesstoken");
                         refreshToken = jsonObject.getString("refreshtoken");
                         isOAuthLogin = false;
 
@@ -232,11 +242,9 @@ public class ApiManager {
                     } else {
                         String jsonErrResponse = response.errorBody().string();
                         processError(jsonErrResponse, listener, "Failed to login");
-                        accessToken = null;
                     }
                 } catch (Exception e) {
                     e.printStackTrace();
-                    accessToken = null;
                     listener.onResponseFailure(new RuntimeException("Failed to login"));
                 }
             }
@@ -244,7 +252,6 @@ public class ApiManager {
             @Override
             public void onFailure(Call<ResponseBody> call, Throwable t) {
                 t.printStackTrace();
-                accessToken = null;
                 listener.onNetworkFailure(new RuntimeException("Failed to login"));
             }
         });
@@ -317,7 +324,7 @@ public class ApiManager {
                             String jsonResponse = response.body().string();
                             JSONObject jsonObject = new JSONObject(jsonResponse);
                             idToken = jsonObject.getString(AppConstants.KEY_ID_TOKEN);
-                            accessToken = jsonObject.getString(AppConstants.KEY_ACCESS_TOKEN);
+                            String accessToken = jsonObject.getString(AppConstants.KEY_ACCESS_TOKEN);
                             refreshToken = jsonObject.getString(AppConstants.KEY_REFRESH_TOKEN);
                             isOAuthLogin = true;
 
@@ -375,7 +382,7 @@ public class ApiManager {
                             String jsonResponse = response.body().string();
                             JSONObject jsonObject = new JSONObject(jsonResponse);
                             idToken = jsonObject.getString(AppConstants.KEY_ID_TOKEN);
-                            accessToken = jsonObject.getString(AppConstants.KEY_ACCESS_TOKEN);
+                            String accessToken = jsonObject.getString(AppConstants.KEY_ACCESS_TOKEN);
                             refreshToken = jsonObject.getString(AppConstants.KEY_REFRESH_TOKEN);
                             isOAuthLogin = true;
 
@@ -542,7 +549,7 @@ public class ApiManager {
         Log.d(TAG, "Delete user request...");
         String userEndpointUrl = getUserEndpointUrl();
 
-        apiInterface.deleteUserRequest(userEndpointUrl, accessToken, request).enqueue(new Callback<ResponseBody>() {
+        apiInterface.deleteUserRequest(userEndpointUrl, request).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -575,7 +582,7 @@ public class ApiManager {
         Log.d(TAG, "Delete user confirm...");
         String userEndpointUrl = getUserEndpointUrl();
 
-        apiInterface.deleteUserConfirm(userEndpointUrl, accessToken, verificationCode).enqueue(new Callback<ResponseBody>() {
+        apiInterface.deleteUserConfirm(userEndpointUrl, verificationCode).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -689,7 +696,7 @@ public class ApiManager {
         body.addProperty(AppConstants.KEY_PASSWORD, oldPassword);
         body.addProperty(AppConstants.KEY_NEW_PASSWORD, newPassword);
 
-        apiInterface.changePassword(changePasswordUrl, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.changePassword(changePasswordUrl, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -721,9 +728,10 @@ public class ApiManager {
 
         userName = sharedPreferences.getString(AppConstants.KEY_EMAIL, "");
         idToken = sharedPreferences.getString(AppConstants.KEY_ID_TOKEN, "");
-        accessToken = sharedPreferences.getString(AppConstants.KEY_ACCESS_TOKEN, "");
+        String accessToken = sharedPreferences.getString(AppConstants.KEY_ACCESS_TOKEN, "");
         refreshToken = sharedPreferences.getString(AppConstants.KEY_REFRESH_TOKEN, "");
         isOAuthLogin = sharedPreferences.getBoolean(AppConstants.KEY_IS_OAUTH_LOGIN, false);
+        Date expiresAt = null;
 
         if (!TextUtils.isEmpty(idToken)) {
 
@@ -754,12 +762,17 @@ public class ApiManager {
             } catch (DecodeException e) {
                 e.printStackTrace();
             }
-            Date expiresAt = jwt.getExpiresAt();
+            expiresAt = jwt.getExpiresAt();
             Log.d(TAG, "==============>>>>>>>>>>> USER ID : " + userId);
             Log.d(TAG, "Token expires At : " + expiresAt);
         }
+        TokenManager.getInstance(context).setAccessToken(accessToken, expiresAt);
     }
 
+    /**
+     * Get new access token with refresh token. This is a blocking call.
+     * API requests should use {@link TokenManager}, which makes sure that only one refresh is in progress.
+     */
     public String getNewToken() {
         String newAccToken = "";
         Log.d(TAG, "Getting new access token ");
@@ -779,6 +792,7 @@ public class ApiManager {
 
         JsonObject body = new JsonObject();
         body.addProperty("refreshtoken", refreshToken);
+        String accessToken = null;
 
         try {
             Response<ResponseBody> response = apiInterface.login(loginUrl, body).execute();
@@ -807,13 +821,9 @@ public class ApiManager {
                 editor.putBoolean(AppConstants.KEY_IS_OAUTH_LOGIN, false);
                 editor.apply();
                 getTokenAndUserId();
-
-            } else {
-                accessToken = null;
             }
         } catch (IOException e) {
             e.printStackTrace();
-            accessToken = null;
         }
         return accessToken;
     }
@@ -833,6 +843,7 @@ public class ApiManager {
                 ResponseBody responseBody = response.body();
                 String jsonResponse = responseBody.string();
                 JSONObject jsonObject;
+                String accessToken;
                 try {
                     jsonObject = new JSONObject(jsonResponse);
                     idToken = jsonObject.getString("idtoken");
@@ -865,7 +876,7 @@ public class ApiManager {
         String endpoint = Integer.valueOf(BuildConfig.USER_POOL) == AppConstants.USER_POOL_1 ? AppConstants.URL_LOGOUT : AppConstants.URL_LOGOUT_2;
         String logoutUrl = getBaseUrl() + endpoint;
 
-        apiInterface.logout(logoutUrl, accessToken).enqueue(new Callback<ResponseBody>() {
+        apiInterface.logout(logoutUrl).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -974,15 +985,65 @@ public class ApiManager {
         nodeIds.clear();
         scheduleIds.clear();
         sceneIds.clear();
+        nodeSyncStats.reset();
         getNodesFromCloud("", listener);
     }
 
+    /**
+     * Enable / disable incremental node sync. When enabled, devices and params of the node are not created again
+     * if config version and config content are same as the config available in local storage.
+     *
+     * @param enabled True to enable incremental sync.
+     */
+    public static void setIncrementalSyncEnabled(boolean enabled) {
+        isIncrementalSyncEnabled = enabled;
+    }
+
+    /**
+     * Returns counters of skipped, patched and rebuilt nodes for the last get nodes call.
+     */
+    public static NodeSyncStats getNodeSyncStats() {
+        return nodeSyncStats;
+    }
+
+    /**
+     * Returns number of completed node syncs. Used to know whether nodes have been synced with cloud in between.
+     */
+    public static int getNodeSyncGeneration() {
+        return nodeSyncGeneration;
+    }
+
+    /**
+     * Checks whether node config received from cloud is same as the config of the node available in app.
+     */
+    private boolean isNodeConfigUnchanged(EspNode espNode, EspNode config, String configHash) {
+
+        String nodeType = espNode.getNewNodeType();
+        if (!TextUtils.isEmpty(nodeType) && (nodeType.equals(AppConstants.NODE_TYPE_PURE_MATTER)
+                || nodeType.equals(AppConstants.NODE_TYPE_RM_MATTER))) {
+            // Devices of Matter nodes are updated from metadata as well, so always rebuild them.
+            return false;
+        }
+
+        if (espNode.getDevices() == null || espNode.getDevices().isEmpty()
+                || !TextUtils.equals(espNode.getConfigVersion(), config.getConfigVersion())) {
+            return false;
+        }
+
+        String storedHash = espNode.getConfigHash();
+        if (TextUtils.isEmpty(storedHash)) {
+            storedHash = NodeUtils.Companion.getContentHash(espNode.getConfigData());
+            espNode.setConfigHash(storedHash);
+        }
+        return !TextUtils.isEmpty(configHash) && configHash.equals(storedHash);
+    }
+
     private void getNodesFromCloud(final String startId, final ApiResponseListener listener) {
 
         Log.d(TAG, "Get Nodes from cloud with start id : " + startId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_DETAILS;
 
-        apiInterface.getNodes(url, accessToken, startId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getNodes(url, startId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -995,823 +1056,937 @@ public class ApiManager {
 
                         if (response.body() != null) {
 
-                            String jsonResponse = response.body().string();
-                            JSONObject jsonObject = new JSONObject(jsonResponse);
-                            JSONArray nodeJsonArray = jsonObject.optJSONArray(AppConstants.KEY_NODE_DETAILS);
-                            HashMap<String, Schedule> scheduleMap = new HashMap<>();
-                            HashMap<String, Scene> sceneMap = new HashMap<>();
+                            final HashMap<String, Schedule> scheduleMap = new HashMap<>();
+                            final HashMap<String, Scene> sceneMap = new HashMap<>();
 
-                            if (nodeJsonArray != null) {
+                            String nextId = NodeDetailsStreamParser.parsePage(response.body().charStream(),
+                                    new NodeDetailsStreamParser.NodeDetailsCallback() {
 
-                                for (int nodeIndex = 0; nodeIndex < nodeJsonArray.length(); nodeIndex++) {
+                                        @Override
+                                        public void onNodeDetails(NodeDetailsStreamParser.NodeDetails nodeDetails) throws JSONException {
+                                            processNodeDetails(nodeDetails, scheduleMap, sceneMap);
+                                        }
+                                    });
 
-                                    JSONObject nodeJson = nodeJsonArray.optJSONObject(nodeIndex);
+                            espApp.scheduleMap.putAll(scheduleMap);
+                            espApp.sceneMap.putAll(sceneMap);
 
-                                    if (nodeJson != null) {
+                            Log.d(TAG, "Start next id : " + nextId);
 
-                                        // Node ID
-                                        String nodeId = nodeJson.optString(AppConstants.KEY_ID);
-                                        Log.d(TAG, "Node id : " + nodeId);
-                                        nodeIds.add(nodeId);
-                                        EspNode espNode;
+                            if (!TextUtils.isEmpty(nextId)) {
+                                getNodesFromCloud(nextId, listener);
+                            } else {
+                                Iterator<Map.Entry<String, EspNode>> itr = espApp.nodeMap.entrySet().iterator();
 
-                                        if (espApp.nodeMap.get(nodeId) != null) {
-                                            espNode = espApp.nodeMap.get(nodeId);
-                                        } else {
-                                            espNode = new EspNode(nodeId);
-                                        }
+                                // iterate and remove items simultaneously
+                                while (itr.hasNext()) {
 
-                                        // User role
-                                        String role = nodeJson.optString(AppConstants.KEY_ROLE);
-                                        String nodeType = nodeJson.optString(AppConstants.KEY_NODE_TYPE);
-                                        espNode.setUserRole(role);
-                                        espNode.setNewNodeType(nodeType);
-                                        espNode.setMatterNode(nodeJson.optBoolean(AppConstants.KEY_IS_MATTER));
+                                    Map.Entry<String, EspNode> entry = itr.next();
+                                    String key = entry.getKey();
 
-                                        // Node metadata
-                                        JSONObject metadataJson = nodeJson.optJSONObject(AppConstants.KEY_METADATA);
-                                        JSONObject matterMetadataJson = (metadataJson != null) ? metadataJson.optJSONObject(AppConstants.KEY_MATTER) : null;
+                                    if (!nodeIds.contains(key)) {
+                                        EspNode node = entry.getValue();
+                                        espDbWriter.deleteNode(node);
+                                        espApp.nodeMap.remove(key);
+                                    }
+                                }
 
-                                        /* Store full metadata JSON for all nodes (for BLE local control, etc.) */
-                                        if (metadataJson != null) {
-                                            espNode.setNodeMetadataJson(metadataJson.toString());
-                                        }
+                                Iterator<Map.Entry<String, Schedule>> schItr = espApp.scheduleMap.entrySet().iterator();
 
-                                        if (matterMetadataJson != null) {
-                                            NodeMetadata metadata = new NodeMetadata();
-                                            metadata.setDeviceName(matterMetadataJson.optString(AppConstants.KEY_DEVICENAME));
-                                            metadata.setGroupId(matterMetadataJson.optString(AppConstants.KEY_GROUP_ID));
-                                            metadata.setServersData(matterMetadataJson.optString(AppConstants.KEY_SERVERS_DATA));
-                                            espNode.setNodeMetadata(metadata);
-                                        }
+                                // iterate and remove items simultaneously
+                                while (schItr.hasNext()) {
 
-                                        if (!TextUtils.isEmpty(nodeType) &&
-                                                (nodeType.equals(AppConstants.NODE_TYPE_PURE_MATTER)
-                                                        || nodeType.equals(AppConstants.NODE_TYPE_RM_MATTER))) {
+                                    Map.Entry<String, Schedule> entry = schItr.next();
+                                    String key = entry.getKey();
 
-                                            ArrayList<Device> devices = espNode.getDevices();
-                                            if (devices == null || devices.size() == 0) {
-                                                Device device = new Device(nodeId);
-                                                devices = new ArrayList<>();
-                                                devices.add(device);
-                                                espNode.setDevices(devices);
-                                            }
-                                            Device device = devices.get(0);
+                                    if (!scheduleIds.contains(key)) {
+                                        espApp.scheduleMap.remove(key);
+                                    }
+                                }
 
-                                            if (matterMetadataJson != null) {
+                                Iterator<Map.Entry<String, Scene>> sceneItr = espApp.sceneMap.entrySet().iterator();
 
-                                                NodeMetadata metadata = espNode.getNodeMetadata();
-                                                String deviceName = matterMetadataJson.optString(AppConstants.KEY_DEVICENAME);
-                                                if (nodeType.equals(AppConstants.NODE_TYPE_PURE_MATTER)) {
-                                                    device.setDeviceName(deviceName);
-                                                }
-                                                device.setUserVisibleName(deviceName);
-
-                                                int type = (int) matterMetadataJson.optDouble(AppConstants.KEY_DEVICETYPE);
-                                                String matterDeviceType = NodeUtils.Companion.getEspDeviceTypeForMatterDevice(type);
-                                                device.setDeviceType(matterDeviceType);
-                                                metadata.setDeviceType(matterDeviceType);
-                                                metadata.setProductId(matterMetadataJson.optString(AppConstants.KEY_PRODUCT_ID));
-                                                metadata.setVendorId(matterMetadataJson.optString(AppConstants.KEY_VENDOR_ID));
-                                                espNode.setNodeMetadata(metadata);
-                                                espNode.setNodeMetadataJson(metadataJson.toString());
-
-                                                MatterDeviceInfo matterDeviceInfo = new MatterDeviceInfo();
-                                                matterDeviceInfo.setDeviceType(String.valueOf(matterMetadataJson.optDouble(AppConstants.KEY_DEVICETYPE)));
-
-                                                // Check if it's new format with endpoints
-                                                JSONObject endpointsJson = matterMetadataJson.optJSONObject("endpoints");
-                                                JSONObject serverClustersJson = null;
-                                                JSONObject clientClustersJson = null;
-                                                HashMap<String, ArrayList<Long>> serverClusters = new HashMap<>();
-                                                HashMap<String, ArrayList<Long>> clientClusters = new HashMap<>();
-
-                                                if (endpointsJson != null) {
-                                                    // New format with endpoints
-                                                    Iterator<String> endpointKeys = endpointsJson.keys();
-
-                                                    while (endpointKeys.hasNext()) {
-
-                                                        String endpointHex = endpointKeys.next();
-                                                        // Convert hex endpoint to decimal
-                                                        int endpointDecimal = Integer.parseInt(endpointHex.replace("0x", ""), 16);
-                                                        Log.d(TAG, "Processing endpoint : " + endpointHex + " (decimal: " + endpointDecimal + ")");
-
-                                                        JSONObject endpointJson = endpointsJson.optJSONObject(endpointHex);
-                                                        if (endpointJson != null) {
-                                                            JSONObject clustersJson = endpointJson.optJSONObject("clusters");
-
-                                                            if (clustersJson != null) {
-                                                                serverClustersJson = clustersJson.optJSONObject("servers");
-                                                                clientClustersJson = clustersJson.optJSONObject("clients");
-
-                                                                // Process server clusters for this endpoint
-                                                                if (serverClustersJson != null) {
-                                                                    ClusterProcessingResult serverResult = processClusters(serverClustersJson, true);
-                                                                    matterDeviceInfo.setServerClusterAttributes(serverResult.attributes);
-                                                                    serverClusters.put(String.valueOf(endpointDecimal), serverResult.clusterIds);
-                                                                }
+                                // iterate and remove items simultaneously
+                                while (sceneItr.hasNext()) {
 
-                                                                // Process client clusters for this endpoint
-                                                                if (clientClustersJson != null) {
-                                                                    ClusterProcessingResult clientResult = processClusters(clientClustersJson, false);
-                                                                    // TODO: Store client attributes for future use if needed
-                                                                    clientClusters.put(String.valueOf(endpointDecimal), clientResult.clusterIds);
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                    matterDeviceInfo.setServerClusters(serverClusters);
-                                                    matterDeviceInfo.setClientClusters(clientClusters);
-
-                                                } else {
-                                                    // Old format
-                                                    serverClustersJson = matterMetadataJson.optJSONObject(AppConstants.KEY_SERVERS_DATA);
-                                                    clientClustersJson = matterMetadataJson.optJSONObject(AppConstants.KEY_CLIENTS_DATA);
-
-                                                    // Old format - clusters are in array
-                                                    ArrayList<Long> serverClusterIds, clientClusterIds;
-
-                                                    if (serverClustersJson != null) {
-                                                        Iterator<String> serverClustersIt = serverClustersJson.keys();
-                                                        while (serverClustersIt.hasNext()) {
-
-                                                            String endpointId = serverClustersIt.next();
-                                                            JSONArray clusterArrayJson = serverClustersJson.optJSONArray(endpointId);
-                                                            serverClusterIds = new Gson().fromJson(clusterArrayJson.toString(), new TypeToken<List<Long>>() {
-                                                            }.getType());
-                                                            serverClusters.put(endpointId, serverClusterIds);
-                                                        }
-                                                    }
-                                                    matterDeviceInfo.setServerClusters(serverClusters);
+                                    Map.Entry<String, Scene> entry = sceneItr.next();
+                                    String key = entry.getKey();
 
-                                                    if (clientClustersJson != null) {
-                                                        Iterator<String> clientClustersIt = clientClustersJson.keys();
-                                                        while (clientClustersIt.hasNext()) {
+                                    if (!sceneIds.contains(key)) {
+                                        espApp.sceneMap.remove(key);
+                                    }
+                                }
+                                nodeSyncGeneration++;
+                                Log.d(TAG, "Node sync : " + nodeSyncStats);
+                                listener.onSuccess(null);
+                            }
 
-                                                            String endpointId = clientClustersIt.next();
-                                                            JSONArray clusterArrayJson = serverClustersJson.optJSONArray(endpointId);
-                                                            clientClusterIds = new Gson().fromJson(clusterArrayJson.toString(), new TypeToken<List<Long>>() {
-                                                            }.getType());
-                                                            clientClusters.put(endpointId, clientClusterIds);
-                                                        }
-                                                    }
-                                                    matterDeviceInfo.setClientClusters(clientClusters);
-                                                }
+                        } else {
+                            Log.e(TAG, "Response received : null");
+                            listener.onResponseFailure(new RuntimeException("Failed to get User device mapping"));
+                        }
 
-                                                device.setMatterDeviceInfo(matterDeviceInfo);
+                    } else {
+                        String jsonErrResponse = response.errorBody().string();
+                        processError(jsonErrResponse, listener, "Failed to get User device mapping");
+                    }
+                } catch (JSONException e) {
+                    e.printStackTrace();
+                    listener.onResponseFailure(e);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    listener.onResponseFailure(e);
+                } catch (IllegalStateException e) {
+                    // Unexpected token in node list response
+                    e.printStackTrace();
+                    listener.onResponseFailure(e);
+                }
+            }
 
-                                                if (nodeType.equals(AppConstants.NODE_TYPE_PURE_MATTER)) {
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                t.printStackTrace();
+                listener.onNetworkFailure(new Exception(t));
+            }
+        });
+    }
 
-                                                    if (matterDeviceInfo.getServerClusters() != null && matterDeviceInfo.getServerClusters().containsKey(String.valueOf(AppConstants.ENDPOINT_1))) {
+    /**
+     * This method is used to get param values of multiple nodes with node list requests,
+     * instead of one param request for each node. Only params of the given nodes are updated.
+     *
+     * @param nodeIds  Node ids.
+     * @param listener Listener to send success or failure. Bundle contains count of updated nodes.
+     */
+    public void getParamsValuesForNodes(final Set<String> nodeIds, final ApiResponseListener listener) {
+        getParamsValuesForNodes("", nodeIds, new HashSet<String>(), listener);
+    }
 
-                                                        ArrayList<String> properties = new ArrayList<>();
-                                                        properties.add(AppConstants.KEY_PROPERTY_WRITE);
-                                                        properties.add(AppConstants.KEY_PROPERTY_READ);
+    private void getParamsValuesForNodes(final String startId, final Set<String> nodeIds,
+                                         final HashSet<String> updatedNodeIds, final ApiResponseListener listener) {
 
-                                                        ArrayList<Long> clusters = matterDeviceInfo.getServerClusters().get(String.valueOf(AppConstants.ENDPOINT_1));
-                                                        boolean isAttributesSupported = endpointsJson != null;
-                                                        espNode = NodeUtils.Companion.addParamsForMatterClusters(espNode, clusters, type, isAttributesSupported);
-                                                    }
-                                                }
-                                            }
-                                            espApp.nodeMap.put(nodeId, espNode);
-                                            Log.d(TAG, "Matter supported node added in Node Map : " + nodeId);
-                                        }
+        Log.d(TAG, "Get param values for " + nodeIds.size() + " nodes with start id : " + startId);
+        String url = getBaseUrl() + AppConstants.URL_USER_NODES_DETAILS;
 
-                                        // Node Config
-                                        JSONObject configJson = nodeJson.optJSONObject(AppConstants.KEY_CONFIG);
-                                        if (configJson != null) {
+        apiInterface.getNodes(url, startId).enqueue(new Callback<ResponseBody>() {
 
-                                            // If node is available on local network then ignore configuration received from cloud.
-                                            if (!espApp.localDeviceMap.containsKey(nodeId)) {
-                                                espNode = JsonDataParser.setNodeConfig(espNode, configJson);
-                                            } else {
-                                                Log.d(TAG, "Ignore config values for local node :" + nodeId);
-                                            }
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
-                                            espNode.setConfigData(configJson.toString());
-                                            espApp.nodeMap.put(nodeId, espNode);
-                                        }
+                Log.d(TAG, "Get param values for nodes, Response code : " + response.code());
 
-                                        if (matterMetadataJson != null) {
+                try {
 
-                                            String deviceName = matterMetadataJson.optString(AppConstants.KEY_DEVICENAME);
-                                            List<Device> devices = espNode.getDevices();
-                                            if (devices == null || devices.isEmpty()) {
-                                                Log.e(TAG, "Matter device list is empty for node : " + nodeId);
-                                                continue;
-                                            }
-                                            Device device = devices.get(0);
+                    if (response.isSuccessful()) {
+
+                        if (response.body() != null) {
+
+                            String nextId = NodeDetailsStreamParser.parsePage(response.body().charStream(),
+                                    new NodeDetailsStreamParser.NodeDetailsCallback() {
 
-                                            if (nodeType.equals(AppConstants.NODE_TYPE_PURE_MATTER)) {
-                                                device.setDeviceName(deviceName);
+                                        @Override
+                                        public void onNodeDetails(NodeDetailsStreamParser.NodeDetails nodeDetails) throws JSONException {
+
+                                            EspNode node = espApp.nodeMap.get(nodeDetails.nodeId);
+                                            if (node == null || !nodeIds.contains(nodeDetails.nodeId)
+                                                    || nodeDetails.paramsJson == null) {
+                                                return;
                                             }
-                                            device.setUserVisibleName(deviceName);
+                                            JsonDataParser.setAllParams(espApp, node, new JSONObject(nodeDetails.paramsJson));
+                                            node.setParamData(nodeDetails.paramsJson);
+                                            espDbWriter.updateNode(node);
+                                            updatedNodeIds.add(nodeDetails.nodeId);
                                         }
+                                    });
 
-                                        // Node Status
-                                        JSONObject statusJson = nodeJson.optJSONObject(AppConstants.KEY_STATUS);
-                                        setDeviceConnectivity(nodeId, espNode, statusJson);
-                                        espDatabase.getNodeDao().insertOrUpdate(espNode);
+                            // Stop paging as soon as all requested nodes are received.
+                            if (!TextUtils.isEmpty(nextId) && updatedNodeIds.size() < nodeIds.size()) {
+                                getParamsValuesForNodes(nextId, nodeIds, updatedNodeIds, listener);
+                            } else {
+                                Bundle data = new Bundle();
+                                data.putInt(AppConstants.KEY_NODE_COUNT, updatedNodeIds.size());
+                                listener.onSuccess(data);
+                            }
 
-                                        // Node Params values
-                                        JSONObject paramsJson = nodeJson.optJSONObject(AppConstants.KEY_PARAMS);
-                                        if (paramsJson != null) {
+                        } else {
+                            Log.e(TAG, "Response received : null");
+                            listener.onResponseFailure(new RuntimeException("Failed to get param values"));
+                        }
 
-                                            espNode.setParamData(paramsJson.toString());
+                    } else {
+                        String jsonErrResponse = response.errorBody().string();
+                        processError(jsonErrResponse, listener, "Failed to get param values");
+                    }
+                } catch (JSONException e) {
+                    e.printStackTrace();
+                    listener.onResponseFailure(e);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    listener.onResponseFailure(e);
+                } catch (IllegalStateException e) {
+                    e.printStackTrace();
+                    listener.onResponseFailure(e);
+                }
+            }
 
-                                            ArrayList<Device> devices = espNode.getDevices();
-                                            ArrayList<Service> services = espNode.getServices();
-                                            JSONObject scheduleJson = paramsJson.optJSONObject(AppConstants.KEY_SCHEDULE);
-                                            JSONObject sceneJson = paramsJson.optJSONObject(AppConstants.KEY_SCENES);
-                                            JSONObject timeJson = paramsJson.optJSONObject(AppConstants.KEY_TIME);
-                                            JSONObject localControlJson = paramsJson.optJSONObject(AppConstants.KEY_LOCAL_CONTROL);
-                                            JSONObject controllerJson = paramsJson.optJSONObject(AppConstants.KEY_MATTER_CONTROLLER);
-                                            JSONObject ctlServiceJson = paramsJson.optJSONObject(AppConstants.KEY_MATTER_CTL);
-                                            JSONObject ctlSetupServiceJson = paramsJson.optJSONObject(AppConstants.KEY_MATTER_CTL_SETUP);
-                                            JSONObject rmCtrlServiceJson = paramsJson.optJSONObject(AppConstants.KEY_RMAKER_CTL);
-                                            JSONObject groupsServiceJson = paramsJson.optJSONObject(AppConstants.KEY_GROUPS_SERVICE);
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                t.printStackTrace();
+                listener.onNetworkFailure(new Exception(t));
+            }
+        });
+    }
 
-                                            // If node is available on local network then ignore param values received from cloud.
-                                            if (!espApp.localDeviceMap.containsKey(nodeId) && devices != null) {
+    /**
+     * Updates the node in node map from node details received in node list page.
+     * Schedules and scenes of the node are collected in given maps.
+     */
+    private void processNodeDetails(NodeDetailsStreamParser.NodeDetails nodeDetails,
+                                    HashMap<String, Schedule> scheduleMap,
+                                    HashMap<String, Scene> sceneMap) throws JSONException {
+
+        // Node ID
+        String nodeId = nodeDetails.nodeId;
+        Log.d(TAG, "Node id : " + nodeId);
+        nodeIds.add(nodeId);
+        EspNode espNode;
+
+        if (espApp.nodeMap.get(nodeId) != null) {
+            espNode = espApp.nodeMap.get(nodeId);
+        } else {
+            espNode = new EspNode(nodeId);
+        }
 
-                                                for (int i = 0; i < devices.size(); i++) {
+        // User role
+        String role = nodeDetails.role;
+        String nodeType = nodeDetails.nodeType;
+        espNode.setUserRole(role);
+        espNode.setNewNodeType(nodeType);
+        espNode.setMatterNode(nodeDetails.isMatter);
 
-                                                    ArrayList<Param> params = devices.get(i).getParams();
-                                                    String deviceName = devices.get(i).getDeviceName();
-                                                    JSONObject deviceJson = paramsJson.optJSONObject(deviceName);
+        // Node metadata
+        JSONObject metadataJson = (nodeDetails.metadataJson != null) ? new JSONObject(nodeDetails.metadataJson) : null;
+        JSONObject matterMetadataJson = (metadataJson != null) ? metadataJson.optJSONObject(AppConstants.KEY_MATTER) : null;
 
-                                                    if (deviceJson != null) {
+        /* Store full metadata JSON for all nodes (for BLE local control, etc.) */
+        if (metadataJson != null) {
+            espNode.setNodeMetadataJson(metadataJson.toString());
+        }
 
-                                                        for (int j = 0; j < params.size(); j++) {
+        if (matterMetadataJson != null) {
+            NodeMetadata metadata = new NodeMetadata();
+            metadata.setDeviceName(matterMetadataJson.optString(AppConstants.KEY_DEVICENAME));
+            metadata.setGroupId(matterMetadataJson.optString(AppConstants.KEY_GROUP_ID));
+            metadata.setServersData(matterMetadataJson.optString(AppConstants.KEY_SERVERS_DATA));
+            espNode.setNodeMetadata(metadata);
+        }
 
-                                                            Param param = params.get(j);
-                                                            String key = param.getName();
+        if (!TextUtils.isEmpty(nodeType) &&
+                (nodeType.equals(AppConstants.NODE_TYPE_PURE_MATTER)
+                        || nodeType.equals(AppConstants.NODE_TYPE_RM_MATTER))) {
 
-                                                            if (!param.isDynamicParam()) {
-                                                                continue;
-                                                            }
+            ArrayList<Device> devices = espNode.getDevices();
+            if (devices == null || devices.size() == 0) {
+                Device device = new Device(nodeId);
+                devices = new ArrayList<>();
+                devices.add(device);
+                espNode.setDevices(devices);
+            }
+            Device device = devices.get(0);
 
-                                                            if (deviceJson.has(key)) {
-                                                                JsonDataParser.setDeviceParamValue(deviceJson, devices.get(i), param);
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            } else {
-                                                Log.d(TAG, "Ignore param values for local node :" + nodeId);
-                                            }
+            if (matterMetadataJson != null) {
 
-                                            // Schedules
-                                            JSONArray scheduleArrayJson = (scheduleJson != null) ? scheduleJson.optJSONArray(AppConstants.KEY_SCHEDULES) : null;
+                NodeMetadata metadata = espNode.getNodeMetadata();
+                String deviceName = matterMetadataJson.optString(AppConstants.KEY_DEVICENAME);
+                if (nodeType.equals(AppConstants.NODE_TYPE_PURE_MATTER)) {
+                    device.setDeviceName(deviceName);
+                }
+                device.setUserVisibleName(deviceName);
+
+                int type = (int) matterMetadataJson.optDouble(AppConstants.KEY_DEVICETYPE);
+                String matterDeviceType = NodeUtils.Companion.getEspDeviceTypeForMatterDevice(type);
+                device.setDeviceType(matterDeviceType);
+                metadata.setDeviceType(matterDeviceType);
+                metadata.setProductId(matterMetadataJson.optString(AppConstants.KEY_PRODUCT_ID));
+                metadata.setVendorId(matterMetadataJson.optString(AppConstants.KEY_VENDOR_ID));
+                espNode.setNodeMetadata(metadata);
+                espNode.setNodeMetadataJson(metadataJson.toString());
+
+                MatterDeviceInfo matterDeviceInfo = new MatterDeviceInfo();
+                matterDeviceInfo.setDeviceType(String.valueOf(matterMetadataJson.optDouble(AppConstants.KEY_DEVICETYPE)));
+
+                // Check if it's new format with endpoints
+                JSONObject endpointsJson = matterMetadataJson.optJSONObject("endpoints");
+                JSONObject serverClustersJson = null;
+                JSONObject clientClustersJson = null;
+                HashMap<String, ArrayList<Long>> serverClusters = new HashMap<>();
+                HashMap<String, ArrayList<Long>> clientClusters = new HashMap<>();
+
+                if (endpointsJson != null) {
+                    // New format with endpoints
+                    Iterator<String> endpointKeys = endpointsJson.keys();
+
+                    while (endpointKeys.hasNext()) {
+
+                        String endpointHex = endpointKeys.next();
+                        // Convert hex endpoint to decimal
+                        int endpointDecimal = Integer.parseInt(endpointHex.replace("0x", ""), 16);
+                        Log.d(TAG, "Processing endpoint : " + endpointHex + " (decimal: " + endpointDecimal + ")");
+
+                        JSONObject endpointJson = endpointsJson.optJSONObject(endpointHex);
+                        if (endpointJson != null) {
+                            JSONObject clustersJson = endpointJson.optJSONObject("clusters");
+
+                            if (clustersJson != null) {
+                                serverClustersJson = clustersJson.optJSONObject("servers");
+                                clientClustersJson = clustersJson.optJSONObject("clients");
+
+                                // Process server clusters for this endpoint
+                                if (serverClustersJson != null) {
+                                    ClusterProcessingResult serverResult = processClusters(serverClustersJson, true);
+                                    matterDeviceInfo.setServerClusterAttributes(serverResult.attributes);
+                                    serverClusters.put(String.valueOf(endpointDecimal), serverResult.clusterIds);
+                                }
 
-                                            if (scheduleArrayJson != null) {
+                                // Process client clusters for this endpoint
+                                if (clientClustersJson != null) {
+                                    ClusterProcessingResult clientResult = processClusters(clientClustersJson, false);
+                                    // TODO: Store client attributes for future use if needed
+                                    clientClusters.put(String.valueOf(endpointDecimal), clientResult.clusterIds);
+                                }
+                            }
+                        }
+                    }
+                    matterDeviceInfo.setServerClusters(serverClusters);
+                    matterDeviceInfo.setClientClusters(clientClusters);
 
-                                                for (int index = 0; index < scheduleArrayJson.length(); index++) {
+                } else {
+                    // Old format
+                    serverClustersJson = matterMetadataJson.optJSONObject(AppConstants.KEY_SERVERS_DATA);
+                    clientClustersJson = matterMetadataJson.optJSONObject(AppConstants.KEY_CLIENTS_DATA);
+
+                    // Old format - clusters are in array
+                    ArrayList<Long> serverClusterIds, clientClusterIds;
+
+                    if (serverClustersJson != null) {
+                        Iterator<String> serverClustersIt = serverClustersJson.keys();
+                        while (serverClustersIt.hasNext()) {
+
+                            String endpointId = serverClustersIt.next();
+                            JSONArray clusterArrayJson = serverClustersJson.optJSONArray(endpointId);
+                            serverClusterIds = new Gson().fromJson(clusterArrayJson.toString(), new TypeToken<List<Long>>() {
+                            }.getType());
+                            serverClusters.put(endpointId, serverClusterIds);
+                        }
+                    }
+                    matterDeviceInfo.setServerClusters(serverClusters);
 
-                                                    JSONObject schJson = scheduleArrayJson.getJSONObject(index);
-                                                    String scheduleId = schJson.optString(AppConstants.KEY_ID);
-                                                    String key = scheduleId;
+                    if (clientClustersJson != null) {
+                        Iterator<String> clientClustersIt = clientClustersJson.keys();
+                        while (clientClustersIt.hasNext()) {
 
-                                                    if (!TextUtils.isEmpty(scheduleId)) {
+                            String endpointId = clientClustersIt.next();
+                            JSONArray clusterArrayJson = serverClustersJson.optJSONArray(endpointId);
+                            clientClusterIds = new Gson().fromJson(clusterArrayJson.toString(), new TypeToken<List<Long>>() {
+                            }.getType());
+                            clientClusters.put(endpointId, clientClusterIds);
+                        }
+                    }
+                    matterDeviceInfo.setClientClusters(clientClusters);
+                }
 
-                                                        String name = schJson.optString(AppConstants.KEY_NAME);
-                                                        key = key + "_" + name + "_" + schJson.optBoolean(AppConstants.KEY_ENABLED);
+                device.setMatterDeviceInfo(matterDeviceInfo);
 
-                                                        HashMap<String, Integer> triggers = new HashMap<>();
-                                                        JSONArray triggerArray = schJson.optJSONArray(AppConstants.KEY_TRIGGERS);
-                                                        for (int t = 0; t < triggerArray.length(); t++) {
-                                                            JSONObject triggerJson = triggerArray.optJSONObject(t);
-                                                            int days = triggerJson.optInt(AppConstants.KEY_DAYS);
-                                                            int mins = triggerJson.optInt(AppConstants.KEY_MINUTES);
-                                                            triggers.put(AppConstants.KEY_DAYS, days);
-                                                            triggers.put(AppConstants.KEY_MINUTES, mins);
-                                                            key = key + "_" + days + "_" + mins;
-                                                        }
+                if (nodeType.equals(AppConstants.NODE_TYPE_PURE_MATTER)) {
 
-                                                        Schedule schedule = scheduleMap.get(key);
-                                                        if (schedule == null) {
-                                                            schedule = new Schedule();
-                                                        }
+                    if (matterDeviceInfo.getServerClusters() != null && matterDeviceInfo.getServerClusters().containsKey(String.valueOf(AppConstants.ENDPOINT_1))) {
 
-                                                        schedule.setId(scheduleId);
-                                                        schedule.setName(schJson.optString(AppConstants.KEY_NAME));
-                                                        schedule.setEnabled(schJson.optBoolean(AppConstants.KEY_ENABLED));
+                        ArrayList<String> properties = new ArrayList<>();
+                        properties.add(AppConstants.KEY_PROPERTY_WRITE);
+                        properties.add(AppConstants.KEY_PROPERTY_READ);
 
-                                                        scheduleIds.add(key);
-                                                        schedule.setTriggers(triggers);
-                                                        Log.d(TAG, "=============== Schedule : " + schedule.getName() + " ===============");
+                        ArrayList<Long> clusters = matterDeviceInfo.getServerClusters().get(String.valueOf(AppConstants.ENDPOINT_1));
+                        boolean isAttributesSupported = endpointsJson != null;
+                        espNode = NodeUtils.Companion.addParamsForMatterClusters(espNode, clusters, type, isAttributesSupported);
+                    }
+                }
+            }
+            espApp.nodeMap.put(nodeId, espNode);
+            Log.d(TAG, "Matter supported node added in Node Map : " + nodeId);
+        }
 
-                                                        // Actions
-                                                        JSONObject actionsSchJson = schJson.optJSONObject(AppConstants.KEY_ACTION);
+        // Node Config
+        boolean isConfigUnchanged = false;
+        boolean isParamsUnchanged = TextUtils.equals(espNode.getParamData(), nodeDetails.paramsJson);
 
-                                                        if (actionsSchJson != null) {
+        if (nodeDetails.config != null) {
 
-                                                            ArrayList<Action> actions = schedule.getActions();
-                                                            if (actions == null) {
-                                                                actions = new ArrayList<>();
-                                                                schedule.setActions(actions);
-                                                            }
+            String configHash = NodeUtils.Companion.getContentHash(nodeDetails.configJson);
+            isConfigUnchanged = isIncrementalSyncEnabled && isNodeConfigUnchanged(espNode, nodeDetails.config, configHash);
 
-                                                            for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
+            // If node is available on local network then ignore configuration received from cloud.
+            if (isConfigUnchanged) {
+                Log.d(TAG, "Config is not changed for node :" + nodeId);
+            } else if (!espApp.localDeviceMap.containsKey(nodeId)) {
+                NodeDetailsStreamParser.applyNodeConfig(espNode, nodeDetails.config);
+            } else {
+                Log.d(TAG, "Ignore config values for local node :" + nodeId);
+            }
 
-                                                                Device d = new Device(devices.get(deviceIndex));
-                                                                ArrayList<Param> params = d.getParams();
-                                                                String deviceName = d.getDeviceName();
-                                                                JSONObject deviceAction = actionsSchJson.optJSONObject(deviceName);
+            espNode.setConfigData(nodeDetails.configJson);
+            espNode.setConfigHash(configHash);
+            espApp.nodeMap.put(nodeId, espNode);
+        }
 
-                                                                if (deviceAction != null) {
+        if (!isConfigUnchanged) {
+            nodeSyncStats.onNodeRebuilt();
+        } else if (isParamsUnchanged) {
+            nodeSyncStats.onNodeSkipped();
+        } else {
+            nodeSyncStats.onNodePatched();
+        }
 
-                                                                    Action action = null;
-                                                                    Device actionDevice = null;
-                                                                    int actionIndex = -1;
+        if (matterMetadataJson != null) {
 
-                                                                    for (int aIndex = 0; aIndex < actions.size(); aIndex++) {
+            String deviceName = matterMetadataJson.optString(AppConstants.KEY_DEVICENAME);
+            List<Device> devices = espNode.getDevices();
+            if (devices == null || devices.isEmpty()) {
+                Log.e(TAG, "Matter device list is empty for node : " + nodeId);
+                return;
+            }
+            Device device = devices.get(0);
 
-                                                                        Action a = actions.get(aIndex);
-                                                                        if (a.getDevice().getNodeId().equals(nodeId) && deviceName.equals(a.getDevice().getDeviceName())) {
-                                                                            action = actions.get(aIndex);
-                                                                            actionIndex = aIndex;
-                                                                        }
-                                                                    }
+            if (nodeType.equals(AppConstants.NODE_TYPE_PURE_MATTER)) {
+                device.setDeviceName(deviceName);
+            }
+            device.setUserVisibleName(deviceName);
+        }
 
-                                                                    if (action == null) {
-                                                                        action = new Action();
-                                                                        action.setNodeId(nodeId);
-
-                                                                        for (int k = 0; k < devices.size(); k++) {
-
-                                                                            if (devices.get(k).getNodeId().equals(nodeId) && devices.get(k).getDeviceName().equals(deviceName)) {
-                                                                                actionDevice = new Device(devices.get(k));
-                                                                                actionDevice.setSelectedState(AppConstants.ACTION_SELECTED_ALL);
-                                                                                break;
-                                                                            }
-                                                                        }
-
-                                                                        if (actionDevice == null) {
-                                                                            actionDevice = new Device(nodeId);
-                                                                        }
-                                                                        action.setDevice(actionDevice);
-                                                                    } else {
-                                                                        actionDevice = action.getDevice();
-                                                                    }
+        // Node Status
+        JSONObject statusJson = (nodeDetails.statusJson != null) ? new JSONObject(nodeDetails.statusJson) : null;
+        setDeviceConnectivity(nodeId, espNode, statusJson);
+        if (!isConfigUnchanged || !isParamsUnchanged) {
+            // Stored config and param data is same for skipped nodes.
+            espDbWriter.updateNode(espNode);
+        }
 
-                                                                    ArrayList<Param> actionParams = new ArrayList<>();
-                                                                    if (params != null) {
-                                                                        actionParams = ParamUtils.Companion.filterActionParams(params);
-                                                                    }
-                                                                    actionDevice.setParams(actionParams);
+        // Node Params values
+        JSONObject paramsJson = (nodeDetails.paramsJson != null) ? new JSONObject(nodeDetails.paramsJson) : null;
+        if (paramsJson != null) {
 
-                                                                    for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
+            espNode.setParamData(nodeDetails.paramsJson);
 
-                                                                        Param p = actionParams.get(paramIndex);
-                                                                        String paramName = p.getName();
+            ArrayList<Device> devices = espNode.getDevices();
+            ArrayList<Service> services = espNode.getServices();
+            JSONObject scheduleJson = paramsJson.optJSONObject(AppConstants.KEY_SCHEDULE);
+            JSONObject sceneJson = paramsJson.optJSONObject(AppConstants.KEY_SCENES);
+            JSONObject timeJson = paramsJson.optJSONObject(AppConstants.KEY_TIME);
+            JSONObject localControlJson = paramsJson.optJSONObject(AppConstants.KEY_LOCAL_CONTROL);
+            JSONObject controllerJson = paramsJson.optJSONObject(AppConstants.KEY_MATTER_CONTROLLER);
+            JSONObject ctlServiceJson = paramsJson.optJSONObject(AppConstants.KEY_MATTER_CTL);
+            JSONObject ctlSetupServiceJson = paramsJson.optJSONObject(AppConstants.KEY_MATTER_CTL_SETUP);
+            JSONObject rmCtrlServiceJson = paramsJson.optJSONObject(AppConstants.KEY_RMAKER_CTL);
+            JSONObject groupsServiceJson = paramsJson.optJSONObject(AppConstants.KEY_GROUPS_SERVICE);
 
-                                                                        if (deviceAction.has(paramName)) {
+            // If node is available on local network then ignore param values received from cloud.
+            if (!espApp.localDeviceMap.containsKey(nodeId) && devices != null) {
 
-                                                                            p.setSelected(true);
-                                                                            JsonDataParser.setDeviceParamValue(deviceAction, devices.get(deviceIndex), p);
-                                                                        }
-                                                                    }
+                for (int i = 0; i < devices.size(); i++) {
 
-                                                                    for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
+                    ArrayList<Param> params = devices.get(i).getParams();
+                    String deviceName = devices.get(i).getDeviceName();
+                    JSONObject deviceJson = paramsJson.optJSONObject(deviceName);
 
-                                                                        if (!actionParams.get(paramIndex).isSelected()) {
-                                                                            actionDevice.setSelectedState(AppConstants.ACTION_SELECTED_PARTIAL);
-                                                                        }
-                                                                    }
+                    if (deviceJson != null) {
 
-                                                                    if (actionIndex == -1) {
-                                                                        actions.add(action);
-                                                                    } else {
-                                                                        actions.set(actionIndex, action);
-                                                                    }
-                                                                    schedule.setActions(actions);
+                        for (int j = 0; j < params.size(); j++) {
 
-                                                                }
-                                                            }
-                                                        }
-                                                        scheduleMap.put(key, schedule);
-                                                    }
-                                                }
-                                            }
+                            Param param = params.get(j);
+                            String key = param.getName();
 
-                                            // Scenes
-                                            JSONArray sceneArrayJson = (sceneJson != null) ? sceneJson.optJSONArray(AppConstants.KEY_SCENES) : null;
+                            if (!param.isDynamicParam()) {
+                                continue;
+                            }
 
-                                            if (sceneArrayJson != null) {
+                            if (deviceJson.has(key)) {
+                                JsonDataParser.setDeviceParamValue(deviceJson, devices.get(i), param);
+                            }
+                        }
+                    }
+                }
+            } else {
+                Log.d(TAG, "Ignore param values for local node :" + nodeId);
+            }
 
-                                                for (int index = 0; index < sceneArrayJson.length(); index++) {
+            // Schedules
+            JSONArray scheduleArrayJson = (scheduleJson != null) ? scheduleJson.optJSONArray(AppConstants.KEY_SCHEDULES) : null;
 
-                                                    JSONObject scJson = sceneArrayJson.getJSONObject(index);
-                                                    String sceneId = scJson.optString(AppConstants.KEY_ID);
-                                                    String key = sceneId;
+            if (scheduleArrayJson != null) {
 
-                                                    if (!TextUtils.isEmpty(sceneId)) {
+                for (int index = 0; index < scheduleArrayJson.length(); index++) {
 
-                                                        String name = scJson.optString(AppConstants.KEY_NAME);
-                                                        String info = scJson.optString(AppConstants.KEY_INFO);
-                                                        key = key + "_" + name + "_" + info;
+                    JSONObject schJson = scheduleArrayJson.getJSONObject(index);
+                    String scheduleId = schJson.optString(AppConstants.KEY_ID);
+                    String key = scheduleId;
 
-                                                        Scene scene = sceneMap.get(key);
-                                                        if (scene == null) {
-                                                            scene = new Scene();
-                                                        }
+                    if (!TextUtils.isEmpty(scheduleId)) {
 
-                                                        scene.setId(sceneId);
-                                                        scene.setName(name);
-                                                        scene.setInfo(info);
-                                                        sceneIds.add(key);
+                        String name = schJson.optString(AppConstants.KEY_NAME);
+                        key = key + "_" + name + "_" + schJson.optBoolean(AppConstants.KEY_ENABLED);
 
-                                                        Log.d(TAG, "=============== Scene : " + scene.getName() + " ===============");
+                        HashMap<String, Integer> triggers = new HashMap<>();
+                        JSONArray triggerArray = schJson.optJSONArray(AppConstants.KEY_TRIGGERS);
+                        for (int t = 0; t < triggerArray.length(); t++) {
+                            JSONObject triggerJson = triggerArray.optJSONObject(t);
+                            int days = triggerJson.optInt(AppConstants.KEY_DAYS);
+                            int mins = triggerJson.optInt(AppConstants.KEY_MINUTES);
+                            triggers.put(AppConstants.KEY_DAYS, days);
+                            triggers.put(AppConstants.KEY_MINUTES, mins);
+                            key = key + "_" + days + "_" + mins;
+                        }
 
-                                                        // Actions
-                                                        JSONObject actionsSceneJson = scJson.optJSONObject(AppConstants.KEY_ACTION);
+                        Schedule schedule = scheduleMap.get(key);
+                        if (schedule == null) {
+                            schedule = new Schedule();
+                        }
 
-                                                        if (actionsSceneJson != null) {
+                        schedule.setId(scheduleId);
+                        schedule.setName(schJson.optString(AppConstants.KEY_NAME));
+                        schedule.setEnabled(schJson.optBoolean(AppConstants.KEY_ENABLED));
 
-                                                            ArrayList<Action> actions = scene.getActions();
-                                                            if (actions == null) {
-                                                                actions = new ArrayList<>();
-                                                                scene.setActions(actions);
-                                                            }
+                        scheduleIds.add(key);
+                        schedule.setTriggers(triggers);
+                        Log.d(TAG, "=============== Schedule : " + schedule.getName() + " ===============");
 
-                                                            for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
+                        // Actions
+                        JSONObject actionsSchJson = schJson.optJSONObject(AppConstants.KEY_ACTION);
 
-                                                                Device d = new Device(devices.get(deviceIndex));
-                                                                ArrayList<Param> params = d.getParams();
-                                                                String deviceName = d.getDeviceName();
-                                                                JSONObject deviceAction = actionsSceneJson.optJSONObject(deviceName);
+                        if (actionsSchJson != null) {
 
-                                                                if (deviceAction != null) {
+                            ArrayList<Action> actions = schedule.getActions();
+                            if (actions == null) {
+                                actions = new ArrayList<>();
+                                schedule.setActions(actions);
+                            }
 
-                                                                    Action action = null;
-                                                                    Device actionDevice = null;
-                                                                    int actionIndex = -1;
+                            for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
 
-                                                                    for (int aIndex = 0; aIndex < actions.size(); aIndex++) {
+                                Device d = new Device(devices.get(deviceIndex));
+                                ArrayList<Param> params = d.getParams();
+                                String deviceName = d.getDeviceName();
+                                JSONObject deviceAction = actionsSchJson.optJSONObject(deviceName);
 
-                                                                        Action a = actions.get(aIndex);
-                                                                        if (a.getDevice().getNodeId().equals(nodeId) && deviceName.equals(a.getDevice().getDeviceName())) {
-                                                                            action = actions.get(aIndex);
-                                                                            actionIndex = aIndex;
-                                                                        }
-                                                                    }
+                                if (deviceAction != null) {
 
-                                                                    if (action == null) {
-                                                                        action = new Action();
-                                                                        action.setNodeId(nodeId);
-
-                                                                        for (int k = 0; k < devices.size(); k++) {
-
-                                                                            if (devices.get(k).getNodeId().equals(nodeId) && devices.get(k).getDeviceName().equals(deviceName)) {
-                                                                                actionDevice = new Device(devices.get(k));
-                                                                                actionDevice.setSelectedState(AppConstants.ACTION_SELECTED_ALL);
-                                                                                break;
-                                                                            }
-                                                                        }
-
-                                                                        if (actionDevice == null) {
-                                                                            actionDevice = new Device(nodeId);
-                                                                        }
-                                                                        action.setDevice(actionDevice);
-                                                                    } else {
-                                                                        actionDevice = action.getDevice();
-                                                                    }
+                                    Action action = null;
+                                    Device actionDevice = null;
+                                    int actionIndex = -1;
 
-                                                                    ArrayList<Param> actionParams = new ArrayList<>();
-                                                                    if (params != null) {
-                                                                        actionParams = ParamUtils.Companion.filterActionParams(params);
-                                                                    }
-                                                                    actionDevice.setParams(actionParams);
+                                    for (int aIndex = 0; aIndex < actions.size(); aIndex++) {
 
-                                                                    for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
+                                        Action a = actions.get(aIndex);
+                                        if (a.getDevice().getNodeId().equals(nodeId) && deviceName.equals(a.getDevice().getDeviceName())) {
+                                            action = actions.get(aIndex);
+                                            actionIndex = aIndex;
+                                        }
+                                    }
 
-                                                                        Param p = actionParams.get(paramIndex);
-                                                                        String paramName = p.getName();
+                                    if (action == null) {
+                                        action = new Action();
+                                        action.setNodeId(nodeId);
 
-                                                                        if (deviceAction.has(paramName)) {
+                                        for (int k = 0; k < devices.size(); k++) {
 
-                                                                            p.setSelected(true);
-                                                                            JsonDataParser.setDeviceParamValue(deviceAction, devices.get(deviceIndex), p);
-                                                                        }
-                                                                    }
+                                            if (devices.get(k).getNodeId().equals(nodeId) && devices.get(k).getDeviceName().equals(deviceName)) {
+                                                actionDevice = new Device(devices.get(k));
+                                                actionDevice.setSelectedState(AppConstants.ACTION_SELECTED_ALL);
+                                                break;
+                                            }
+                                        }
 
-                                                                    for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
+                                        if (actionDevice == null) {
+                                            actionDevice = new Device(nodeId);
+                                        }
+                                        action.setDevice(actionDevice);
+                                    } else {
+                                        actionDevice = action.getDevice();
+                                    }
 
-                                                                        if (!actionParams.get(paramIndex).isSelected()) {
-                                                                            actionDevice.setSelectedState(AppConstants.ACTION_SELECTED_PARTIAL);
-                                                                        }
-                                                                    }
+                                    ArrayList<Param> actionParams = new ArrayList<>();
+                                    if (params != null) {
+                                        actionParams = ParamUtils.Companion.filterActionParams(params);
+                                    }
+                                    actionDevice.setParams(actionParams);
 
-                                                                    if (actionIndex == -1) {
-                                                                        actions.add(action);
-                                                                    } else {
-                                                                        actions.set(actionIndex, action);
-                                                                    }
-                                                                    scene.setActions(actions);
-                                                                }
-                                                            }
-                                                        }
-                                                        sceneMap.put(key, scene);
-                                                    }
-                                                }
-                                            }
+                                    for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
 
-                                            // Timezone
-                                            if (timeJson != null && services != null) {
-                                                for (int serviceIdx = 0; serviceIdx < services.size(); serviceIdx++) {
-                                                    Service service = services.get(serviceIdx);
-                                                    if (AppConstants.SERVICE_TYPE_TIME.equals(service.getType())) {
-                                                        ArrayList<Param> timeParams = service.getParams();
-                                                        if (timeParams != null) {
-                                                            for (int paramIdx = 0; paramIdx < timeParams.size(); paramIdx++) {
-                                                                Param timeParam = timeParams.get(paramIdx);
-                                                                String dataType = timeParam.getDataType();
-                                                                if (!TextUtils.isEmpty(dataType)) {
-                                                                    if (dataType.equalsIgnoreCase("string")) {
-                                                                        timeParam.setLabelValue(timeJson.optString(timeParam.getName()));
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            }
+                                        Param p = actionParams.get(paramIndex);
+                                        String paramName = p.getName();
 
-                                            // Local control
-                                            if (localControlJson != null && services != null) {
-                                                for (int serviceIdx = 0; serviceIdx < services.size(); serviceIdx++) {
-                                                    Service service = services.get(serviceIdx);
-                                                    if (AppConstants.SERVICE_TYPE_LOCAL_CONTROL.equals(service.getType())) {
-                                                        ArrayList<Param> localParams = service.getParams();
-                                                        if (localParams != null) {
-                                                            for (int paramIdx = 0; paramIdx < localParams.size(); paramIdx++) {
-                                                                Param localParam = localParams.get(paramIdx);
-                                                                String dataType = localParam.getDataType();
-                                                                if (!TextUtils.isEmpty(dataType)) {
-                                                                    if (dataType.equalsIgnoreCase("string")) {
-                                                                        localParam.setLabelValue(localControlJson.optString(localParam.getName()));
-                                                                    }
-                                                                    if (dataType.equalsIgnoreCase("int") || dataType.equalsIgnoreCase("integer")) {
-                                                                        localParam.setValue(localControlJson.optInt(localParam.getName()));
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            }
+                                        if (deviceAction.has(paramName)) {
 
-                                            // Matter controller
-                                            if (controllerJson != null && services != null) {
+                                            p.setSelected(true);
+                                            JsonDataParser.setDeviceParamValue(deviceAction, devices.get(deviceIndex), p);
+                                        }
+                                    }
 
-                                                for (Service service : services) {
+                                    for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
 
-                                                    if (AppConstants.SERVICE_TYPE_MATTER_CONTROLLER.equals(service.getType())) {
+                                        if (!actionParams.get(paramIndex).isSelected()) {
+                                            actionDevice.setSelectedState(AppConstants.ACTION_SELECTED_PARTIAL);
+                                        }
+                                    }
 
-                                                        ArrayList<Param> controllerParams = service.getParams();
+                                    if (actionIndex == -1) {
+                                        actions.add(action);
+                                    } else {
+                                        actions.set(actionIndex, action);
+                                    }
+                                    schedule.setActions(actions);
 
-                                                        if (controllerParams != null) {
+                                }
+                            }
+                        }
+                        scheduleMap.put(key, schedule);
+                    }
+                }
+            }
 
-                                                            for (Param controllerParam : controllerParams) {
+            // Scenes
+            JSONArray sceneArrayJson = (sceneJson != null) ? sceneJson.optJSONArray(AppConstants.KEY_SCENES) : null;
 
-                                                                String type = controllerParam.getParamType();
+            if (sceneArrayJson != null) {
 
-                                                                if (!TextUtils.isEmpty(type) && AppConstants.PARAM_TYPE_MATTER_CTRL_DATA_VERSION.equals(type)) {
+                for (int index = 0; index < sceneArrayJson.length(); index++) {
 
-                                                                    controllerParam.setLabelValue(controllerJson.optString(controllerParam.getName()));
+                    JSONObject scJson = sceneArrayJson.getJSONObject(index);
+                    String sceneId = scJson.optString(AppConstants.KEY_ID);
+                    String key = sceneId;
 
-                                                                } else if (!TextUtils.isEmpty(type) && AppConstants.PARAM_TYPE_MATTER_DEVICES.equals(type)) {
+                    if (!TextUtils.isEmpty(sceneId)) {
 
-                                                                    JSONObject matterDevicesJson = controllerJson.getJSONObject(controllerParam.getName());
-                                                                    Iterator<String> keys = matterDevicesJson.keys();
-                                                                    HashMap<String, String> matterDevices = new HashMap<>();
+                        String name = scJson.optString(AppConstants.KEY_NAME);
+                        String info = scJson.optString(AppConstants.KEY_INFO);
+                        key = key + "_" + name + "_" + info;
 
-                                                                    while (keys.hasNext()) {
-                                                                        String matterDeviceId = keys.next();
-                                                                        JSONObject matterDeviceJson = matterDevicesJson.optJSONObject(matterDeviceId);
+                        Scene scene = sceneMap.get(key);
+                        if (scene == null) {
+                            scene = new Scene();
+                        }
 
-                                                                        if (matterDeviceId != null && matterDeviceJson != null) {
-                                                                            String value = matterDeviceJson.toString();
-                                                                            matterDevices.put(matterDeviceId, value);
-                                                                        }
-                                                                    }
+                        scene.setId(sceneId);
+                        scene.setName(name);
+                        scene.setInfo(info);
+                        sceneIds.add(key);
 
-                                                                    if (!matterDevices.isEmpty()) {
-                                                                        espApp.controllerDevices.put(nodeId, matterDevices);
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            }
+                        Log.d(TAG, "=============== Scene : " + scene.getName() + " ===============");
 
-                                            // Client only controller
-                                            if (ctlServiceJson != null && services != null) {
+                        // Actions
+                        JSONObject actionsSceneJson = scJson.optJSONObject(AppConstants.KEY_ACTION);
 
-                                                for (Service service : services) {
+                        if (actionsSceneJson != null) {
 
-                                                    if (AppConstants.SERVICE_TYPE_MATTER_CONTROLLER.equals(service.getType())) {
+                            ArrayList<Action> actions = scene.getActions();
+                            if (actions == null) {
+                                actions = new ArrayList<>();
+                                scene.setActions(actions);
+                            }
 
-                                                        ArrayList<Param> controllerParams = service.getParams();
+                            for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
 
-                                                        if (controllerParams != null) {
+                                Device d = new Device(devices.get(deviceIndex));
+                                ArrayList<Param> params = d.getParams();
+                                String deviceName = d.getDeviceName();
+                                JSONObject deviceAction = actionsSceneJson.optJSONObject(deviceName);
 
-                                                            for (Param controllerParam : controllerParams) {
+                                if (deviceAction != null) {
 
-                                                                String type = controllerParam.getParamType();
-                                                                boolean isSupportedType = (!TextUtils.isEmpty(type)) && (AppConstants.PARAM_TYPE_BASE_URL.equals(type)
-                                                                        || AppConstants.PARAM_TYPE_USER_TOKEN.equals(type)
-                                                                        || AppConstants.PARAM_TYPE_RMAKER_GROUP_ID.equals(type)
-                                                                        || AppConstants.PARAM_TYPE_GROUP_ID.equals(type));
+                                    Action action = null;
+                                    Device actionDevice = null;
+                                    int actionIndex = -1;
 
-                                                                if (isSupportedType) {
-                                                                    if (!TextUtils.isEmpty(ctlServiceJson.optString(controllerParam.getName()))) {
-                                                                        String value = ctlServiceJson.optString(controllerParam.getName());
-                                                                        controllerParam.setLabelValue(value);
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            }
+                                    for (int aIndex = 0; aIndex < actions.size(); aIndex++) {
 
-                                            // RainMaker Controller service
-                                            if (rmCtrlServiceJson != null && services != null) {
+                                        Action a = actions.get(aIndex);
+                                        if (a.getDevice().getNodeId().equals(nodeId) && deviceName.equals(a.getDevice().getDeviceName())) {
+                                            action = actions.get(aIndex);
+                                            actionIndex = aIndex;
+                                        }
+                                    }
 
-                                                for (Service service : services) {
+                                    if (action == null) {
+                                        action = new Action();
+                                        action.setNodeId(nodeId);
 
-                                                    if (AppConstants.SERVICE_TYPE_RMAKER_USER_AUTH.equals(service.getType())) {
+                                        for (int k = 0; k < devices.size(); k++) {
 
-                                                        ArrayList<Param> controllerParams = service.getParams();
+                                            if (devices.get(k).getNodeId().equals(nodeId) && devices.get(k).getDeviceName().equals(deviceName)) {
+                                                actionDevice = new Device(devices.get(k));
+                                                actionDevice.setSelectedState(AppConstants.ACTION_SELECTED_ALL);
+                                                break;
+                                            }
+                                        }
 
-                                                        if (controllerParams != null) {
+                                        if (actionDevice == null) {
+                                            actionDevice = new Device(nodeId);
+                                        }
+                                        action.setDevice(actionDevice);
+                                    } else {
+                                        actionDevice = action.getDevice();
+                                    }
 
-                                                            for (Param controllerParam : controllerParams) {
+                                    ArrayList<Param> actionParams = new ArrayList<>();
+                                    if (params != null) {
+                                        actionParams = ParamUtils.Companion.filterActionParams(params);
+                                    }
+                                    actionDevice.setParams(actionParams);
 
-                                                                String type = controllerParam.getParamType();
-                                                                boolean isSupportedType = (!TextUtils.isEmpty(type)) && (AppConstants.PARAM_TYPE_BASE_URL.equals(type)
-                                                                        || AppConstants.PARAM_TYPE_USER_TOKEN.equals(type));
+                                    for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
 
-                                                                if (isSupportedType) {
-                                                                    if (!TextUtils.isEmpty(rmCtrlServiceJson.optString(controllerParam.getName()))) {
-                                                                        String value = rmCtrlServiceJson.optString(controllerParam.getName());
-                                                                        controllerParam.setLabelValue(value);
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            }
+                                        Param p = actionParams.get(paramIndex);
+                                        String paramName = p.getName();
 
-                                            // Matter controller setup service
-                                            if (ctlSetupServiceJson != null && services != null) {
+                                        if (deviceAction.has(paramName)) {
 
-                                                for (Service service : services) {
+                                            p.setSelected(true);
+                                            JsonDataParser.setDeviceParamValue(deviceAction, devices.get(deviceIndex), p);
+                                        }
+                                    }
 
-                                                    if (AppConstants.SERVICE_TYPE_MATTER_CONTROLLER_SETUP.equals(service.getType())) {
+                                    for (int paramIndex = 0; paramIndex < actionParams.size(); paramIndex++) {
 
-                                                        ArrayList<Param> setupParams = service.getParams();
+                                        if (!actionParams.get(paramIndex).isSelected()) {
+                                            actionDevice.setSelectedState(AppConstants.ACTION_SELECTED_PARTIAL);
+                                        }
+                                    }
 
-                                                        if (setupParams != null) {
+                                    if (actionIndex == -1) {
+                                        actions.add(action);
+                                    } else {
+                                        actions.set(actionIndex, action);
+                                    }
+                                    scene.setActions(actions);
+                                }
+                            }
+                        }
+                        sceneMap.put(key, scene);
+                    }
+                }
+            }
 
-                                                            for (Param setupParam : setupParams) {
+            // Timezone
+            if (timeJson != null && services != null) {
+                for (int serviceIdx = 0; serviceIdx < services.size(); serviceIdx++) {
+                    Service service = services.get(serviceIdx);
+                    if (AppConstants.SERVICE_TYPE_TIME.equals(service.getType())) {
+                        ArrayList<Param> timeParams = service.getParams();
+                        if (timeParams != null) {
+                            for (int paramIdx = 0; paramIdx < timeParams.size(); paramIdx++) {
+                                Param timeParam = timeParams.get(paramIdx);
+                                String dataType = timeParam.getDataType();
+                                if (!TextUtils.isEmpty(dataType)) {
+                                    if (dataType.equalsIgnoreCase("string")) {
+                                        timeParam.setLabelValue(timeJson.optString(timeParam.getName()));
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
 
-                                                                String type = setupParam.getParamType();
-                                                                boolean isSupportedType = (!TextUtils.isEmpty(type)) && (AppConstants.PARAM_TYPE_RMAKER_GROUP_ID.equals(type)
-                                                                        || AppConstants.PARAM_TYPE_MATTER_CTL_CMD.equals(type)
-                                                                        || AppConstants.PARAM_TYPE_MATTER_CTL_STATUS.equals(type));
+            // Local control
+            if (localControlJson != null && services != null) {
+                for (int serviceIdx = 0; serviceIdx < services.size(); serviceIdx++) {
+                    Service service = services.get(serviceIdx);
+                    if (AppConstants.SERVICE_TYPE_LOCAL_CONTROL.equals(service.getType())) {
+                        ArrayList<Param> localParams = service.getParams();
+                        if (localParams != null) {
+                            for (int paramIdx = 0; paramIdx < localParams.size(); paramIdx++) {
+                                Param localParam = localParams.get(paramIdx);
+                                String dataType = localParam.getDataType();
+                                if (!TextUtils.isEmpty(dataType)) {
+                                    if (dataType.equalsIgnoreCase("string")) {
+                                        localParam.setLabelValue(localControlJson.optString(localParam.getName()));
+                                    }
+                                    if (dataType.equalsIgnoreCase("int") || dataType.equalsIgnoreCase("integer")) {
+                                        localParam.setValue(localControlJson.optInt(localParam.getName()));
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
 
-                                                                if (isSupportedType) {
-                                                                    if (!TextUtils.isEmpty(ctlSetupServiceJson.optString(setupParam.getName()))) {
-                                                                        String value = ctlSetupServiceJson.optString(setupParam.getName());
-                                                                        setupParam.setLabelValue(value);
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            }
+            // Matter controller
+            if (controllerJson != null && services != null) {
 
-                                            // Groups service
-                                            if (groupsServiceJson != null && services != null) {
+                for (Service service : services) {
 
-                                                for (Service service : services) {
+                    if (AppConstants.SERVICE_TYPE_MATTER_CONTROLLER.equals(service.getType())) {
 
-                                                    if (!AppConstants.SERVICE_TYPE_GROUPS.equals(service.getType())) {
-                                                        continue;
-                                                    }
+                        ArrayList<Param> controllerParams = service.getParams();
 
-                                                    ArrayList<Param> groupsParams = service.getParams();
+                        if (controllerParams != null) {
 
-                                                    if (groupsParams == null) {
-                                                        continue;
-                                                    }
+                            for (Param controllerParam : controllerParams) {
 
-                                                    for (Param groupsParam : groupsParams) {
+                                String type = controllerParam.getParamType();
 
-                                                        String type = groupsParam.getParamType();
-                                                        boolean isSupportedType = (!TextUtils.isEmpty(type)) && (AppConstants.PARAM_TYPE_RMAKER_GROUP_ID.equals(type)
-                                                                || AppConstants.PARAM_TYPE_GROUP_ID.equals(type));
+                                if (!TextUtils.isEmpty(type) && AppConstants.PARAM_TYPE_MATTER_CTRL_DATA_VERSION.equals(type)) {
 
-                                                        if (!isSupportedType) {
-                                                            continue;
-                                                        }
+                                    controllerParam.setLabelValue(controllerJson.optString(controllerParam.getName()));
 
-                                                        String value = groupsServiceJson.optString(groupsParam.getName());
-                                                        if (!TextUtils.isEmpty(value)) {
-                                                            groupsParam.setLabelValue(value);
-                                                        }
-                                                    }
-                                                }
-                                            }
+                                } else if (!TextUtils.isEmpty(type) && AppConstants.PARAM_TYPE_MATTER_DEVICES.equals(type)) {
+
+                                    JSONObject matterDevicesJson = controllerJson.getJSONObject(controllerParam.getName());
+                                    Iterator<String> keys = matterDevicesJson.keys();
+                                    HashMap<String, String> matterDevices = new HashMap<>();
+
+                                    while (keys.hasNext()) {
+                                        String matterDeviceId = keys.next();
+                                        JSONObject matterDeviceJson = matterDevicesJson.optJSONObject(matterDeviceId);
+
+                                        if (matterDeviceId != null && matterDeviceJson != null) {
+                                            String value = matterDeviceJson.toString();
+                                            matterDevices.put(matterDeviceId, value);
                                         }
                                     }
+
+                                    if (!matterDevices.isEmpty()) {
+                                        espApp.controllerDevices.put(nodeId, matterDevices);
+                                    }
                                 }
                             }
+                        }
+                    }
+                }
+            }
 
-                            espApp.scheduleMap.putAll(scheduleMap);
-                            espApp.sceneMap.putAll(sceneMap);
+            // Client only controller
+            if (ctlServiceJson != null && services != null) {
 
-                            String nextId = jsonObject.optString(AppConstants.KEY_NEXT_ID);
-                            Log.d(TAG, "Start next id : " + nextId);
+                for (Service service : services) {
 
-                            if (!TextUtils.isEmpty(nextId)) {
-                                getNodesFromCloud(nextId, listener);
-                            } else {
-                                Iterator<Map.Entry<String, EspNode>> itr = espApp.nodeMap.entrySet().iterator();
+                    if (AppConstants.SERVICE_TYPE_MATTER_CONTROLLER.equals(service.getType())) {
 
-                                // iterate and remove items simultaneously
-                                while (itr.hasNext()) {
+                        ArrayList<Param> controllerParams = service.getParams();
 
-                                    Map.Entry<String, EspNode> entry = itr.next();
-                                    String key = entry.getKey();
+                        if (controllerParams != null) {
 
-                                    if (!nodeIds.contains(key)) {
-                                        EspNode node = entry.getValue();
-                                        espDatabase.getNodeDao().delete(node);
-                                        itr.remove();
+                            for (Param controllerParam : controllerParams) {
+
+                                String type = controllerParam.getParamType();
+                                boolean isSupportedType = (!TextUtils.isEmpty(type)) && (AppConstants.PARAM_TYPE_BASE_URL.equals(type)
+                                        || AppConstants.PARAM_TYPE_USER_TOKEN.equals(type)
+                                        || AppConstants.PARAM_TYPE_RMAKER_GROUP_ID.equals(type)
+                                        || AppConstants.PARAM_TYPE_GROUP_ID.equals(type));
+
+                                if (isSupportedType) {
+                                    if (!TextUtils.isEmpty(ctlServiceJson.optString(controllerParam.getName()))) {
+                                        String value = ctlServiceJson.optString(controllerParam.getName());
+                                        controllerParam.setLabelValue(value);
                                     }
                                 }
+                            }
+                        }
+                    }
+                }
+            }
 
-                                Iterator<Map.Entry<String, Schedule>> schItr = espApp.scheduleMap.entrySet().iterator();
+            // RainMaker Controller service
+            if (rmCtrlServiceJson != null && services != null) {
 
-                                // iterate and remove items simultaneously
-                                while (schItr.hasNext()) {
+                for (Service service : services) {
 
-                                    Map.Entry<String, Schedule> entry = schItr.next();
-                                    String key = entry.getKey();
+                    if (AppConstants.SERVICE_TYPE_RMAKER_USER_AUTH.equals(service.getType())) {
 
-                                    if (!scheduleIds.contains(key)) {
-                                        schItr.remove();
+                        ArrayList<Param> controllerParams = service.getParams();
+
+                        if (controllerParams != null) {
+
+                            for (Param controllerParam : controllerParams) {
+
+                                String type = controllerParam.getParamType();
+                                boolean isSupportedType = (!TextUtils.isEmpty(type)) && (AppConstants.PARAM_TYPE_BASE_URL.equals(type)
+                                        || AppConstants.PARAM_TYPE_USER_TOKEN.equals(type));
+
+                                if (isSupportedType) {
+                                    if (!TextUtils.isEmpty(rmCtrlServiceJson.optString(controllerParam.getName()))) {
+                                        String value = rmCtrlServiceJson.optString(controllerParam.getName());
+                                        controllerParam.setLabelValue(value);
                                     }
                                 }
+                            }
+                        }
+                    }
+                }
+            }
 
-                                Iterator<Map.Entry<String, Scene>> sceneItr = espApp.sceneMap.entrySet().iterator();
+            // Matter controller setup service
+            if (ctlSetupServiceJson != null && services != null) {
 
-                                // iterate and remove items simultaneously
-                                while (sceneItr.hasNext()) {
+                for (Service service : services) {
 
-                                    Map.Entry<String, Scene> entry = sceneItr.next();
-                                    String key = entry.getKey();
+                    if (AppConstants.SERVICE_TYPE_MATTER_CONTROLLER_SETUP.equals(service.getType())) {
 
-                                    if (!sceneIds.contains(key)) {
-                                        sceneItr.remove();
+                        ArrayList<Param> setupParams = service.getParams();
+
+                        if (setupParams != null) {
+
+                            for (Param setupParam : setupParams) {
+
+                                String type = setupParam.getParamType();
+                                boolean isSupportedType = (!TextUtils.isEmpty(type)) && (AppConstants.PARAM_TYPE_RMAKER_GROUP_ID.equals(type)
+                                        || AppConstants.PARAM_TYPE_MATTER_CTL_CMD.equals(type)
+                                        || AppConstants.PARAM_TYPE_MATTER_CTL_STATUS.equals(type));
+
+                                if (isSupportedType) {
+                                    if (!TextUtils.isEmpty(ctlSetupServiceJson.optString(setupParam.getName()))) {
+                                        String value = ctlSetupServiceJson.optString(setupParam.getName());
+                                        setupParam.setLabelValue(value);
                                     }
                                 }
-                                listener.onSuccess(null);
                             }
-
-                        } else {
-                            Log.e(TAG, "Response received : null");
-                            listener.onResponseFailure(new RuntimeException("Failed to get User device mapping"));
                         }
-
-                    } else {
-                        String jsonErrResponse = response.errorBody().string();
-                        processError(jsonErrResponse, listener, "Failed to get User device mapping");
                     }
-                } catch (JSONException e) {
-                    e.printStackTrace();
-                    listener.onResponseFailure(e);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    listener.onResponseFailure(e);
                 }
             }
 
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable t) {
-                t.printStackTrace();
-                listener.onNetworkFailure(new Exception(t));
+            // Groups service
+            if (groupsServiceJson != null && services != null) {
+
+                for (Service service : services) {
+
+                    if (!AppConstants.SERVICE_TYPE_GROUPS.equals(service.getType())) {
+                        continue;
+                    }
+
+                    ArrayList<Param> groupsParams = service.getParams();
+
+                    if (groupsParams == null) {
+                        continue;
+                    }
+
+                    for (Param groupsParam : groupsParams) {
+
+                        String type = groupsParam.getParamType();
+                        boolean isSupportedType = (!TextUtils.isEmpty(type)) && (AppConstants.PARAM_TYPE_RMAKER_GROUP_ID.equals(type)
+                                || AppConstants.PARAM_TYPE_GROUP_ID.equals(type));
+
+                        if (!isSupportedType) {
+                            continue;
+                        }
+
+                        String value = groupsServiceJson.optString(groupsParam.getName());
+                        if (!TextUtils.isEmpty(value)) {
+                            groupsParam.setLabelValue(value);
+                        }
+                    }
+                }
             }
-        });
+        }
     }
 
     private void setDeviceConnectivity(String nodeId, EspNode espNode, JSONObject statusJson) {
@@ -1823,28 +1998,26 @@ public class ApiManager {
 
         if (!TextUtils.isEmpty(matterNodeId) && espNode.getNodeStatus() != AppConstants.NODE_STATUS_MATTER_LOCAL) {
 
-            for (Map.Entry<String, HashMap<String, String>> entry : espApp.controllerDevices.entrySet()) {
-
-                String controllerNodeId = entry.getKey();
-                HashMap<String, String> controllerDevices = entry.getValue();
-                boolean isControllerOnline = espApp.nodeMap.get(controllerNodeId).isOnline();
+            // Controller lookup is done from registry index instead of scanning all controllers for each node.
+            String controllerNodeId = espApp.getDeviceRegistry().getControllerForMatterNode(matterNodeId);
+            HashMap<String, String> controllerDevices = (controllerNodeId != null) ? espApp.controllerDevices.get(controllerNodeId) : null;
+            EspNode controllerNode = espApp.nodeMap.get(controllerNodeId);
 
-                if (controllerDevices.containsKey(matterNodeId)) {
-                    String jsonStr = controllerDevices.get(matterNodeId);
-                    if (jsonStr != null) {
-                        try {
-                            JSONObject deviceJson = new JSONObject(jsonStr);
-                            boolean enabled = deviceJson.optBoolean(AppConstants.KEY_ENABLED);
-                            boolean reachable = deviceJson.optBoolean(AppConstants.KEY_REACHABLE);
+            if (controllerDevices != null && controllerNode != null) {
+                boolean isControllerOnline = controllerNode.isOnline();
+                String jsonStr = controllerDevices.get(matterNodeId);
+                if (jsonStr != null) {
+                    try {
+                        JSONObject deviceJson = new JSONObject(jsonStr);
+                        boolean enabled = deviceJson.optBoolean(AppConstants.KEY_ENABLED);
+                        boolean reachable = deviceJson.optBoolean(AppConstants.KEY_REACHABLE);
 
-                            if (enabled && reachable && isControllerOnline) {
-                                espNode.setNodeStatus(AppConstants.NODE_STATUS_REMOTELY_CONTROLLABLE);
-                            }
-                        } catch (JSONException e) {
-                            e.printStackTrace();
+                        if (enabled && reachable && isControllerOnline) {
+                            espNode.setNodeStatus(AppConstants.NODE_STATUS_REMOTELY_CONTROLLABLE);
                         }
+                    } catch (JSONException e) {
+                        e.printStackTrace();
                     }
-                    break;
                 }
             }
         }
@@ -1872,6 +2045,7 @@ public class ApiManager {
                 }
             }
         }
+        espApp.getDeviceRegistry().notifyNodeUpdated(nodeId);
     }
 
     private boolean isParamAvailableInList(ArrayList<Param> params, String type) {
@@ -1911,7 +2085,7 @@ public class ApiManager {
         String url = getBaseUrl() + AppConstants.URL_USER_NODES;
 
         try {
-            Response<ResponseBody> response = apiInterface.getNode(url, accessToken, nodeId).execute();
+            Response<ResponseBody> response = apiInterface.getNode(url, nodeId).execute();
             Log.d(TAG, "Get Node Details, Response code : " + response.code());
 
             try {
@@ -1961,6 +2135,7 @@ public class ApiManager {
                                         JsonDataParser.setAllParams(espApp, espNode, paramsJson);
                                         espNode.setParamData(paramsJson.toString());
                                         espDatabase.getNodeDao().insertOrUpdate(espNode);
+                                        espDatabase.getDeviceDao().replaceNode(espNode);
                                     }
 
                                     // Node Status
@@ -1992,7 +2167,7 @@ public class ApiManager {
         Log.d(TAG, "Get Node Details for id : " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES;
 
-        apiInterface.getNode(url, accessToken, nodeId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getNode(url, nodeId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -2046,6 +2221,7 @@ public class ApiManager {
                                             JsonDataParser.setAllParams(espApp, espNode, paramsJson);
                                             espNode.setParamData(paramsJson.toString());
                                             espDatabase.getNodeDao().insertOrUpdate(espNode);
+                                            espDatabase.getDeviceDao().replaceNode(espNode);
                                         }
 
                                         // Node Status
@@ -2112,7 +2288,7 @@ public class ApiManager {
         Log.d(TAG, "Update Node Metadata for id : " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES;
 
-        apiInterface.updateNodeMetadata(url, accessToken, nodeId, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.updateNodeMetadata(url, nodeId, body).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                 Log.d(TAG, "Update Node Metadata, Response code : " + response.code());
@@ -2142,7 +2318,7 @@ public class ApiManager {
         Log.d(TAG, "Report proxy config for node: " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_PROXY_CONFIG.replace("{node_id}", nodeId);
 
-        apiInterface.reportProxyConfig(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.reportProxyConfig(url, body).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                 Log.d(TAG, "Report proxy config, Response code : " + response.code());
@@ -2174,7 +2350,7 @@ public class ApiManager {
         Log.d(TAG, "Report proxy initparams for node: " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_PROXY_INITPARAMS.replace("{node_id}", nodeId);
 
-        apiInterface.reportProxyInitParams(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.reportProxyInitParams(url, body).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                 Log.d(TAG, "Report proxy initparams, Response code : " + response.code());
@@ -2206,7 +2382,7 @@ public class ApiManager {
         Log.d(TAG, "Report proxy params for node: " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_PROXY_PARAMS.replace("{node_id}", nodeId);
 
-        apiInterface.reportProxyParams(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.reportProxyParams(url, body).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                 Log.d(TAG, "Report proxy params, Response code : " + response.code());
@@ -2240,7 +2416,7 @@ public class ApiManager {
         Log.d(TAG, "Get Node connectivity status for id : " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_STATUS;
 
-        apiInterface.getNodeStatus(url, accessToken, nodeId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getNodeStatus(url, nodeId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -2320,7 +2496,7 @@ public class ApiManager {
         req.setSecretKey(secretKey);
         req.setOperation(AppConstants.KEY_OPERATION_ADD);
 
-        apiInterface.addNode(url, accessToken, req).enqueue(new Callback<ResponseBody>() {
+        apiInterface.addNode(url, req).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -2381,7 +2557,7 @@ public class ApiManager {
         req.setNodeId(nodeId);
         req.setOperation(AppConstants.KEY_OPERATION_REMOVE);
 
-        apiInterface.removeNode(url, accessToken, req).enqueue(new Callback<ResponseBody>() {
+        apiInterface.removeNode(url, req).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -2420,7 +2596,7 @@ public class ApiManager {
         Log.d(TAG, "Get Param values for node : " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_PARAMS;
 
-        apiInterface.getParamValue(url, accessToken, nodeId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getParamValue(url, nodeId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -2474,10 +2650,6 @@ public class ApiManager {
 
                                     if (scheduleArrayJson != null) {
 
-                                        if (espApp.scheduleMap == null) {
-                                            espApp.scheduleMap = new HashMap<>();
-                                        }
-
                                         for (int index = 0; index < scheduleArrayJson.length(); index++) {
 
                                             JSONObject schJson = scheduleArrayJson.getJSONObject(index);
@@ -2612,10 +2784,6 @@ public class ApiManager {
 
                                     if (sceneArrayJson != null) {
 
-                                        if (espApp.sceneMap == null) {
-                                            espApp.sceneMap = new HashMap<>();
-                                        }
-
                                         for (int index = 0; index < sceneArrayJson.length(); index++) {
 
                                             JSONObject scJson = sceneArrayJson.getJSONObject(index);
@@ -2763,7 +2931,7 @@ public class ApiManager {
         Log.d(TAG, "Updating param value");
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_PARAMS;
 
-        apiInterface.updateParamValue(url, accessToken, nodeId, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.updateParamValue(url, nodeId, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -2806,7 +2974,7 @@ public class ApiManager {
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_OPERATION, "subscribe");
 
-        apiInterface.addControllerToGroup(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.addControllerToGroup(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -2860,7 +3028,7 @@ public class ApiManager {
             finalArray.add(nodeObj);
         }
 
-        apiInterface.updateParamsForMultiNode(url, accessToken, finalArray).enqueue(new Callback<ResponseBody>() {
+        apiInterface.updateParamsForMultiNode(url, finalArray).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                 Log.d(TAG, "Update multi node param status, Response code : " + response.code());
@@ -2895,7 +3063,7 @@ public class ApiManager {
         Log.d(TAG, "Get Node mapping status");
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_MAPPING;
 
-        apiInterface.getAddNodeRequestStatus(url, accessToken, requestId, true).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getAddNodeRequestStatus(url, requestId, true).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -2978,7 +3146,7 @@ public class ApiManager {
         Log.d(TAG, "Initiate Claiming...");
         String url = getClaimBaseUrl() + AppConstants.URL_CLAIM_INITIATE;
 
-        apiInterface.initiateClaiming(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.initiateClaiming(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -3019,7 +3187,7 @@ public class ApiManager {
         JsonObject body = new JsonObject();
         body.addProperty("timeout", 360);
 
-        apiInterface.initiateMapping(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.initiateMapping(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -3064,7 +3232,7 @@ public class ApiManager {
         body.addProperty(AppConstants.KEY_NODE_ID, nodeId);
         body.addProperty(AppConstants.KEY_CHALLENGE_RESP, challengeResponse);
 
-        apiInterface.verifyUserNodeMapping(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.verifyUserNodeMapping(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -3104,7 +3272,7 @@ public class ApiManager {
         Log.d(TAG, "Verifying Claiming...");
         String url = getClaimBaseUrl() + AppConstants.URL_CLAIM_VERIFY;
 
-        apiInterface.verifyClaiming(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.verifyClaiming(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -3142,7 +3310,7 @@ public class ApiManager {
         Log.d(TAG, "Create Group...");
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_GROUP;
 
-        apiInterface.createGroup(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.createGroup(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -3196,7 +3364,7 @@ public class ApiManager {
         Log.d(TAG, "Update Group for group id : " + groupId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_GROUP;
 
-        apiInterface.updateGroup(url, accessToken, groupId, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.updateGroup(url, groupId, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -3232,7 +3400,7 @@ public class ApiManager {
         Log.d(TAG, "Remove Group, group id : " + groupId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_GROUP;
 
-        apiInterface.removeGroup(url, accessToken, groupId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.removeGroup(url, groupId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -3279,7 +3447,7 @@ public class ApiManager {
         Log.d(TAG, "Get user groups from cloud with start id : " + startId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_GROUP;
 
-        apiInterface.getUserGroups(url, accessToken, startId, groupId,
+        apiInterface.getUserGroups(url, startId, groupId,
                 isFabricDetails, true).enqueue(new Callback<ResponseBody>() {
 
             @Override
@@ -3345,7 +3513,7 @@ public class ApiManager {
                                     }
 
                                     espApp.groupMap.put(gId, group);
-                                    espDatabase.getGroupDao().insertOrUpdate(group);
+                                    espDbWriter.updateGroup(group);
                                 }
                             }
                         }
@@ -3363,8 +3531,8 @@ public class ApiManager {
 
                                 if (!groupIds.contains(key)) {
                                     Group group = entry.getValue();
-                                    espDatabase.getGroupDao().delete(group);
-                                    itr.remove();
+                                    espDbWriter.deleteGroup(group);
+                                    espApp.groupMap.remove(key);
                                 }
                             }
                             listener.onSuccess(null);
@@ -3401,7 +3569,7 @@ public class ApiManager {
             final String groupId = entry.getKey();
 
             requests.add(
-                    apiInterface.getAllFabricDetails(url, accessToken,
+                    apiInterface.getAllFabricDetails(url,
                                     groupId, true, true, true, true)
 
                             .map(new Function<ResponseBody, ApiResponse>() {
@@ -3523,7 +3691,7 @@ public class ApiManager {
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_GROUP;
         Bundle result = new Bundle();
         try {
-            Response<ResponseBody> response = apiInterface.confirmPureMatterNode(url, accessToken, groupId, body).execute();
+            Response<ResponseBody> response = apiInterface.confirmPureMatterNode(url, groupId, body).execute();
 
             Log.d(TAG, "Confirming matter node, Response Code : " + response.code());
 
@@ -3563,7 +3731,7 @@ public class ApiManager {
             JsonObject jsonBody = entry.getValue();
 
             requests.add(
-                    apiInterface.getAllUserNOCs(url, accessToken, jsonBody)
+                    apiInterface.getAllUserNOCs(url, jsonBody)
                             .map(new Function<ResponseBody, ApiResponse>() {
 
                                 @Override
@@ -3635,7 +3803,7 @@ public class ApiManager {
 
         Response<ResponseBody> response = null;
         try {
-            response = apiInterface.getNodeNoc(url, accessToken, requestBody).execute();
+            response = apiInterface.getNodeNoc(url, requestBody).execute();
             Log.d(TAG, "Get node NOC, Response Code : " + response.code());
 
             if (response.isSuccessful()) {
@@ -3680,7 +3848,7 @@ public class ApiManager {
         Log.d(TAG, "Get sharing request, start request id : " + startReqId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_SHARING_REQUESTS;
 
-        apiInterface.getSharingRequests(url, accessToken, isPrimaryUser,
+        apiInterface.getSharingRequests(url, isPrimaryUser,
                 startReqId, startUserName).enqueue(new Callback<ResponseBody>() {
 
             @Override
@@ -3780,7 +3948,7 @@ public class ApiManager {
         body.addProperty(AppConstants.KEY_REQ_ACCEPT, requestAccepted);
         body.addProperty(AppConstants.KEY_REQ_ID, requestId);
 
-        apiInterface.updateSharingRequest(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.updateSharingRequest(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -3813,7 +3981,7 @@ public class ApiManager {
         Log.d(TAG, "Remove sharing request : " + requestId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_SHARING_REQUESTS;
 
-        apiInterface.removeSharingRequest(url, accessToken, requestId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.removeSharingRequest(url, requestId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -3867,7 +4035,7 @@ public class ApiManager {
         metadataJson.add(AppConstants.KEY_DEVICES, devicesJsonArr);
         body.add(AppConstants.KEY_METADATA, metadataJson);
 
-        apiInterface.shareNodeWithUser(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.shareNodeWithUser(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -3906,7 +4074,7 @@ public class ApiManager {
         Log.d(TAG, "Get Node Sharing information for node : " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_SHARING;
 
-        apiInterface.getNodeSharing(url, accessToken, nodeId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getNodeSharing(url, nodeId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -4000,7 +4168,7 @@ public class ApiManager {
         Log.d(TAG, "Remove user : " + email + " from sharing, for nodes : " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_SHARING;
 
-        apiInterface.removeSharing(url, accessToken, nodeId, email).enqueue(new Callback<ResponseBody>() {
+        apiInterface.removeSharing(url, nodeId, email).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -4044,7 +4212,7 @@ public class ApiManager {
         Log.d(TAG, "Get sharing request, Start request id: " + startReqId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_GROUP_SHARING_REQUESTS;
 
-        apiInterface.getGroupSharingRequests(url, accessToken, isPrimaryUser, startReqId,
+        apiInterface.getGroupSharingRequests(url, isPrimaryUser, startReqId,
                 startUserName).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -4141,7 +4309,7 @@ public class ApiManager {
         body.addProperty(AppConstants.KEY_REQ_ACCEPT, requestAccepted);
         body.addProperty(AppConstants.KEY_REQ_ID, requestId);
 
-        apiInterface.updateGroupSharingRequest(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.updateGroupSharingRequest(url, body).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
 
@@ -4188,7 +4356,7 @@ public class ApiManager {
             groupName = espApp.groupMap.get(groupId).getGroupName();
         }
 
-        apiInterface.shareGroupWithUser(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.shareGroupWithUser(url, body).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                 Log.d(TAG, "Share Group with user, Response code" + response.code());
@@ -4225,7 +4393,7 @@ public class ApiManager {
         Log.d(TAG, "Remove Group Sharing Request : requestId: " + requestId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_GROUP_SHARING_REQUESTS;
 
-        apiInterface.removeGroupSharingRequest(url, accessToken, requestId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.removeGroupSharingRequest(url, requestId).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                 Log.d(TAG, "Remove Sharing Request, Response code" + response.code());
@@ -4257,7 +4425,7 @@ public class ApiManager {
         Log.d(TAG, "Get Group Sharing for group: " + groupId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_GROUP_SHARING;
 
-        apiInterface.getGroupSharing(url, accessToken, groupId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getGroupSharing(url, groupId).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                 Log.d(TAG, "Get Group Sharing info, Response code: " + response.code());
@@ -4328,7 +4496,7 @@ public class ApiManager {
         Log.d(TAG, "Remove Group Sharing for group: " + groupId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_GROUP_SHARING;
 
-        apiInterface.removeGroupSharing(url, accessToken, groupId, email).enqueue(new Callback<ResponseBody>() {
+        apiInterface.removeGroupSharing(url, groupId, email).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                 Log.d(TAG, "Remove Group Sharing request, Response code: " + response.code());
@@ -4364,7 +4532,7 @@ public class ApiManager {
         body.addProperty(AppConstants.KEY_PLATFORM, AppConstants.KEY_GCM);
         body.addProperty(AppConstants.KEY_MOBILE_DEVICE_TOKEN, deviceToken);
 
-        apiInterface.registerDeviceToken(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.registerDeviceToken(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -4397,7 +4565,7 @@ public class ApiManager {
         Log.d(TAG, "Unregister FCM token...");
         String url = getBaseUrl() + "/user/push_notification/mobile_platform_endpoint";
 
-        apiInterface.unregisterDeviceToken(url, accessToken, deviceToken).enqueue(new Callback<ResponseBody>() {
+        apiInterface.unregisterDeviceToken(url, deviceToken).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -4428,16 +4596,28 @@ public class ApiManager {
     public void getTimeSeriesData(String nodeId, String paramName, String dataType, String aggregate,
                                   String timeInterval, long startTime, long endTime, String weekStart,
                                   String timezone, String tsType, final ApiResponseListener listener) {
-        ArrayList<TsData> tsData = new ArrayList<>();
+        getTimeSeriesData(nodeId, paramName, dataType, aggregate, timeInterval, startTime, endTime, weekStart,
+                timezone, tsType, null, listener);
+    }
+
+    /**
+     * Get time series data. Page listener (if not null) gets each page as soon as it is received
+     * and can stop fetching of remaining pages. Response listener gets all points after the last page.
+     */
+    public void getTimeSeriesData(String nodeId, String paramName, String dataType, String aggregate,
+                                  String timeInterval, long startTime, long endTime, String weekStart,
+                                  String timezone, String tsType, final TsPageListener pageListener,
+                                  final ApiResponseListener listener) {
+        TsColumns tsData = new TsColumns();
         getTimeSeriesDataForOnePage(nodeId, paramName, dataType, aggregate, timeInterval, startTime, endTime,
-                weekStart, timezone, "", tsType, listener, tsData);
+                weekStart, timezone, "", tsType, pageListener, listener, tsData);
     }
 
     private void getTimeSeriesDataForOnePage(String nodeId, String paramName, String dataType,
                                              String aggregate, String timeInterval, long startTime,
                                              long endTime, String weekStart, String timezone,
-                                             String startId, String tsType, final ApiResponseListener listener,
-                                             ArrayList<TsData> tsData) {
+                                             String startId, String tsType, final TsPageListener pageListener,
+                                             final ApiResponseListener listener, TsColumns tsData) {
 
         Log.d(TAG, "Get time series data...");
         String url = getBaseUrl() + AppConstants.URL_USER_NODES_TS;
@@ -4455,6 +4635,7 @@ public class ApiManager {
                         JSONObject jsonObject = new JSONObject(jsonResponse);
                         JSONArray jsonArray = jsonObject.optJSONArray("ts_data");
                         String nextId = "";
+                        TsColumns page = new TsColumns();
 
                         if (jsonArray != null) {
                             for (int arrayIndex = 0; arrayIndex < jsonArray.length(); arrayIndex++) {
@@ -4481,7 +4662,7 @@ public class ApiManager {
                                                         if (valueJson != null) {
                                                             long ts = valueJson.optLong("ts");
                                                             float value = (float) valueJson.optDouble("val");
-                                                            tsData.add(new TsData(ts, (double) value));
+                                                            page.add(ts, value);
                                                         }
                                                     }
                                                 }
@@ -4492,14 +4673,23 @@ public class ApiManager {
                             }
                         }
 
+                        page.sort();
+                        tsData.addAll(page);
+                        if (pageListener != null && !pageListener.onPage(page)) {
+                            Log.d(TAG, "Time series request is stopped after " + tsData.size() + " points");
+                            return;
+                        }
+
                         Log.d(TAG, "Start next id : " + nextId);
                         if (!TextUtils.isEmpty(nextId)) {
                             getTimeSeriesDataForOnePage(nodeId, paramName, dataType, aggregate, timeInterval, startTime, endTime,
-                                    weekStart, timezone, nextId, tsType, listener, tsData);
+                                    weekStart, timezone, nextId, tsType, pageListener, listener, tsData);
                         } else {
-                            Log.e(TAG, "TS DATA Array list size : " + tsData.size());
+                            Log.d(TAG, "TS data size : " + tsData.size());
+                            tsData.sort();
                             Bundle data = new Bundle();
-                            data.putParcelableArrayList("ts_data", tsData);
+                            data.putLongArray(AppConstants.KEY_TS_TIMESTAMPS, tsData.getTimestamps());
+                            data.putDoubleArray(AppConstants.KEY_TS_VALUES, tsData.getValues());
                             listener.onSuccess(data);
                         }
                     } else {
@@ -4521,10 +4711,10 @@ public class ApiManager {
 
         if (AppConstants.KEY_PROPERTY_TS_SIMPLE.equals(tsType)) {
             url = getBaseUrl() + AppConstants.URL_USER_NODES_TS_SIMPLE;
-            apiInterface.getSimpleTimeSeriesData(url, accessToken, nodeId, paramName, dataType,
+            apiInterface.getSimpleTimeSeriesData(url, nodeId, paramName, dataType,
                     aggregate, startTime, endTime, weekStart, startId).enqueue(responseCallback);
         } else {
-            apiInterface.getTimeSeriesData(url, accessToken, nodeId, paramName, dataType,
+            apiInterface.getTimeSeriesData(url, nodeId, paramName, dataType,
                     aggregate, timeInterval, startTime, endTime, weekStart, timezone, startId).enqueue(responseCallback);
         }
     }
@@ -4534,7 +4724,7 @@ public class ApiManager {
         Log.d(TAG, "Create automation...");
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_AUTOMATION;
 
-        apiInterface.addAutomations(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.addAutomations(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -4576,7 +4766,7 @@ public class ApiManager {
         Log.d(TAG, "Get automations from cloud with start id : " + startId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_AUTOMATION;
 
-        apiInterface.getAutomations(url, accessToken, startId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getAutomations(url, startId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -4801,7 +4991,7 @@ public class ApiManager {
                                 String key = entry.getKey();
 
                                 if (!automationIds.contains(key)) {
-                                    itr.remove();
+                                    espApp.automations.remove(key);
                                 }
                             }
                             listener.onSuccess(null);
@@ -4830,7 +5020,7 @@ public class ApiManager {
         Log.d(TAG, "Update automation for automation id : " + automationId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_AUTOMATION;
 
-        apiInterface.updateAutomation(url, accessToken, automationId, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.updateAutomation(url, automationId, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -4867,7 +5057,7 @@ public class ApiManager {
         Log.d(TAG, "Delete automation for automation id : " + automationId);
         String url = getBaseUrl() + AppConstants.URL_USER_NODE_AUTOMATION;
 
-        apiInterface.deleteAutomation(url, accessToken, automationId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.deleteAutomation(url, automationId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -4904,7 +5094,7 @@ public class ApiManager {
         Log.d(TAG, "Check OTA update for node id : " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_NODE_OTA_UPDATE;
 
-        apiInterface.checkFwUpdate(url, accessToken, nodeId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.checkFwUpdate(url, nodeId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -4954,7 +5144,7 @@ public class ApiManager {
         Log.d(TAG, "Get OTA update status for node id : " + nodeId);
         String url = getBaseUrl() + AppConstants.URL_NODE_OTA_STATUS;
 
-        apiInterface.getFwUpdateStatus(url, accessToken, nodeId, otaJobId).enqueue(new Callback<ResponseBody>() {
+        apiInterface.getFwUpdateStatus(url, nodeId, otaJobId).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -5009,7 +5199,7 @@ public class ApiManager {
         body.addProperty(AppConstants.KEY_NODE_ID, nodeId);
         body.addProperty(AppConstants.KEY_OTA_JOB_ID, otaJobId);
 
-        apiInterface.pushFwUpdate(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.pushFwUpdate(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -5062,7 +5252,7 @@ public class ApiManager {
         JsonObject body = new JsonObject();
         body.addProperty(AppConstants.KEY_IS_MATTER, true);
 
-        apiInterface.convertGroupToFabric(url, accessToken, groupId, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.convertGroupToFabric(url, groupId, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -5129,7 +5319,7 @@ public class ApiManager {
             body.add("node_ids", nodeIdsArr);
         }
 
-        apiInterface.assumeRole(url, accessToken, body).enqueue(new Callback<ResponseBody>() {
+        apiInterface.assumeRole(url, body).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -5236,7 +5426,7 @@ public class ApiManager {
         Log.d(TAG, "Send command response");
 
         apiInterface.sendCommandResponse(getBaseUrl() + AppConstants.URL_USER_NODES_CMD,
-                accessToken, requestBody).enqueue(new Callback<ResponseBody>() {
+                requestBody).enqueue(new Callback<ResponseBody>() {
 
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -5271,7 +5461,7 @@ public class ApiManager {
         Log.d(TAG, "Get command response status");
 
         apiInterface.getCommandResponseStatus(
-                getBaseUrl() + AppConstants.URL_USER_NODES_CMD, accessToken,
+                getBaseUrl() + AppConstants.URL_USER_NODES_CMD,
                 requestId).enqueue(new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
@@ -0,0 +1,346 @@
+// Copyright 2020 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.cloudapi;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.espressif.AppConstants;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends command-response requests to nodes and delivers their results as futures.
+ * <p>
+ * Result of a request is taken from the first source which has it :
+ * push notification / local transport ({@link #onResponseReceived}) or status polling.
+ * Status is polled with increasing interval, starting with {@link #INITIAL_POLL_INTERVAL_MS}, so that quick responses
+ * are received without waiting for a fixed poll interval. When results of a node have been received via push notification,
+ * polling of its requests starts later ({@link #PUSH_FALLBACK_DELAY_MS}) and is used only if result does not arrive.
+ * Node is polled early again once its result is received by polling.
+ * <p>
+ * Many requests can be in progress at a time. Each request has its own timeout and can be cancelled.
+ * Futures are completed and status listeners are called on main thread.
+ */
+public class CommandResponseClient {
+
+    private static final String TAG = CommandResponseClient.class.getSimpleName();
+
+    public static final String STATUS_REQUESTED = "requested";
+    public static final String STATUS_IN_PROGRESS = "in_progress";
+    public static final String STATUS_SUCCESS = "success";
+    public static final String STATUS_FAILURE = "failure";
+    public static final String STATUS_TIMED_OUT = "timed_out";
+
+    private static final long INITIAL_POLL_INTERVAL_MS = 300;
+    private static final long MAX_POLL_INTERVAL_MS = 3000;
+    private static final long PUSH_FALLBACK_DELAY_MS = 2000;
+
+    private static CommandResponseClient commandClient;
+
+    private final ApiManager apiManager;
+    private final Handler handler;
+
+    // Key is request id.
+    private final ConcurrentHashMap<String, CommandRequest> inFlightRequests = new ConcurrentHashMap<>();
+    // Ids of nodes whose results are received via push notification.
+    private final Set<String> pushResultNodeIds = ConcurrentHashMap.newKeySet();
+
+    public static synchronized CommandResponseClient getInstance(Context context) {
+        if (commandClient == null) {
+            commandClient = new CommandResponseClient(context.getApplicationContext());
+        }
+        return commandClient;
+    }
+
+    private CommandResponseClient(Context context) {
+        apiManager = ApiManager.getInstance(context);
+        handler = new Handler(Looper.getMainLooper());
+    }
+
+    public interface StatusListener {
+
+        /**
+         * Called for intermediate status of the request (requested / in progress).
+         */
+        void onStatus(String status);
+    }
+
+    /**
+     * Command-response request in progress.
+     * Future is completed with result data (status, response data and status description) for final status
+     * (success, failure, timed out) and completed exceptionally if request could not be sent / status could not be received.
+     */
+    public class CommandRequest {
+
+        private final CompletableFuture<Bundle> future = new CompletableFuture<>();
+        private final StatusListener statusListener;
+        private final long timeoutMs;
+        private final ArrayList<String> nodeIds;
+        private String requestId;
+        private long pollInterval;
+        private String lastStatus;
+
+        private final Runnable pollTask = new Runnable() {
+            @Override
+            public void run() {
+                pollStatus(CommandRequest.this);
+            }
+        };
+
+        private final Runnable timeoutTask = new Runnable() {
+            @Override
+            public void run() {
+                Log.d(TAG, "Request " + requestId + " is timed out");
+                Bundle data = new Bundle();
+                data.putString(AppConstants.KEY_STATUS, STATUS_TIMED_OUT);
+                complete(CommandRequest.this, data);
+            }
+        };
+
+        CommandRequest(ArrayList<String> nodeIds, long timeoutMs, StatusListener statusListener) {
+            this.nodeIds = nodeIds;
+            this.timeoutMs = timeoutMs;
+            this.statusListener = statusListener;
+        }
+
+        public CompletableFuture<Bundle> getFuture() {
+            return future;
+        }
+
+        /**
+         * @return Request id received from cloud, null till the request is sent.
+         */
+        public String getRequestId() {
+            return requestId;
+        }
+
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        /**
+         * Stop waiting for the result. Future is cancelled.
+         */
+        public void cancel() {
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (future.cancel(false)) {
+                        Log.d(TAG, "Request " + requestId + " is cancelled");
+                    }
+                    finish(CommandRequest.this);
+                }
+            });
+        }
+    }
+
+    /**
+     * Send command-response request.
+     *
+     * @param requestBody    Request body of command-response API (node ids, cmd, data, timeout).
+     * @param timeoutMs      Time to wait for the result, after which future is completed with timed out status.
+     * @param statusListener Optional listener for intermediate status.
+     * @return Request which has the future of its result.
+     */
+    public CommandRequest send(final JsonObject requestBody, long timeoutMs, @Nullable StatusListener statusListener) {
+
+        final CommandRequest request = new CommandRequest(getNodeIds(requestBody), timeoutMs, statusListener);
+
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                handler.postDelayed(request.timeoutTask, request.timeoutMs);
+
+                apiManager.sendCommandResponse(requestBody, new ApiResponseListener() {
+
+                    @Override
+                    public void onSuccess(@Nullable Bundle data) {
+                        String reqId = data != null ? data.getString(AppConstants.KEY_REQUEST_ID) : null;
+                        if (request.isDone()) {
+                            return;
+                        }
+                        if (TextUtils.isEmpty(reqId)) {
+                            completeExceptionally(request, new RuntimeException("Request id is not received"));
+                            return;
+                        }
+                        request.requestId = reqId;
+                        inFlightRequests.put(reqId, request);
+                        notifyStatus(request, STATUS_REQUESTED);
+                        request.pollInterval = INITIAL_POLL_INTERVAL_MS;
+                        handler.postDelayed(request.pollTask, isPushResultExpected(request) ? PUSH_FALLBACK_DELAY_MS : INITIAL_POLL_INTERVAL_MS);
+                    }
+
+                    @Override
+                    public void onResponseFailure(Exception exception) {
+                        completeExceptionally(request, exception);
+                    }
+
+                    @Override
+                    public void onNetworkFailure(Exception exception) {
+                        completeExceptionally(request, exception);
+                    }
+                });
+            }
+        });
+        return request;
+    }
+
+    /**
+     * Deliver result of a request received from push notification or local transport. Can be called from any thread.
+     *
+     * @param requestId Request id.
+     * @param data      Result data with status, response data and status description.
+     * @return true if request is in progress and result is delivered to it.
+     */
+    public boolean onResponseReceived(String requestId, final Bundle data) {
+
+        final CommandRequest request = requestId != null ? inFlightRequests.get(requestId) : null;
+        if (request == null) {
+            return false;
+        }
+        pushResultNodeIds.addAll(request.nodeIds);
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                handleStatus(request, data);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * @return Number of requests for which result is awaited.
+     */
+    public int getInFlightCount() {
+        return inFlightRequests.size();
+    }
+
+    private void pollStatus(final CommandRequest request) {
+
+        if (request.isDone()) {
+            return;
+        }
+        apiManager.getCommandResponseStatus(request.requestId, new ApiResponseListener() {
+
+            @Override
+            public void onSuccess(@Nullable Bundle data) {
+                if (data != null) {
+                    handleStatus(request, data);
+                    if (request.isDone()) {
+                        // Result of these nodes was not received via push, poll them early from now on.
+                        pushResultNodeIds.removeAll(request.nodeIds);
+                    }
+                }
+                scheduleNextPoll(request);
+            }
+
+            @Override
+            public void onResponseFailure(Exception exception) {
+                completeExceptionally(request, exception);
+            }
+
+            @Override
+            public void onNetworkFailure(Exception exception) {
+                // Retry till the request is timed out.
+                Log.e(TAG, "Failed to get status of " + request.requestId + " : " + exception.getMessage());
+                scheduleNextPoll(request);
+            }
+        });
+    }
+
+    /**
+     * @return true if results of all nodes of the request have been received via push notification.
+     */
+    private boolean isPushResultExpected(CommandRequest request) {
+        return !request.nodeIds.isEmpty() && pushResultNodeIds.containsAll(request.nodeIds);
+    }
+
+    private static ArrayList<String> getNodeIds(JsonObject requestBody) {
+
+        ArrayList<String> nodeIds = new ArrayList<>();
+        if (requestBody.has(AppConstants.KEY_NODE_IDS) && requestBody.get(AppConstants.KEY_NODE_IDS).isJsonArray()) {
+            JsonArray nodeIdsJson = requestBody.getAsJsonArray(AppConstants.KEY_NODE_IDS);
+            for (JsonElement nodeId : nodeIdsJson) {
+                if (nodeId.isJsonPrimitive()) {
+                    nodeIds.add(nodeId.getAsString());
+                }
+            }
+        }
+        return nodeIds;
+    }
+
+    private void scheduleNextPoll(CommandRequest request) {
+
+        if (request.isDone()) {
+            return;
+        }
+        request.pollInterval = Math.min(request.pollInterval * 2, MAX_POLL_INTERVAL_MS);
+        handler.removeCallbacks(request.pollTask);
+        handler.postDelayed(request.pollTask, request.pollInterval);
+    }
+
+    private void handleStatus(CommandRequest request, Bundle data) {
+
+        if (request.isDone()) {
+            return;
+        }
+        String status = data.getString(AppConstants.KEY_STATUS);
+        if (STATUS_SUCCESS.equals(status) || STATUS_FAILURE.equals(status) || STATUS_TIMED_OUT.equals(status)) {
+            complete(request, data);
+        } else {
+            notifyStatus(request, status);
+        }
+    }
+
+    private void notifyStatus(CommandRequest request, String status) {
+
+        if (request.statusListener != null && status != null && !status.equals(request.lastStatus)) {
+            request.lastStatus = status;
+            request.statusListener.onStatus(status);
+        }
+    }
+
+    private void complete(CommandRequest request, Bundle data) {
+        finish(request);
+        request.future.complete(data);
+    }
+
+    private void completeExceptionally(CommandRequest request, Exception exception) {
+        finish(request);
+        request.future.completeExceptionally(exception);
+    }
+
+    private void finish(CommandRequest request) {
+        handler.removeCallbacks(request.pollTask);
+        handler.removeCallbacks(request.timeoutTask);
+        if (request.requestId != null) {
+            inFlightRequests.remove(request.requestId);
+        }
+    }
+}
@@ -0,0 +1,754 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import android.text.TextUtils;
+
+import com.espressif.AppConstants;
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Param;
+import com.espressif.ui.models.Service;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+
+/**
+ * Streaming decoder for one page of the "/user/nodes" response (node details).
+ * Node config is decoded directly into {@link EspNode}, {@link Device}, {@link Param} and {@link Service}
+ * objects while reading, so the full page is never held as a String or JSONObject tree.
+ * Small per-node sections (metadata, status, params) are handed over as raw JSON strings.
+ */
+public class NodeDetailsStreamParser {
+
+    /**
+     * Node details of a single node from the node list page.
+     */
+    public static class NodeDetails {
+
+        public String nodeId = "";
+        public String role = "";
+        public String nodeType = "";
+        public boolean isMatter;
+        public String metadataJson;
+        public String statusJson;
+        public String paramsJson;
+
+        /* Decoded node config. Null if config is not available in response. */
+        public EspNode config;
+        public String configJson;
+    }
+
+    public interface NodeDetailsCallback {
+
+        void onNodeDetails(NodeDetails nodeDetails) throws JSONException;
+    }
+
+    /**
+     * Decodes one page of node details and gives each node to the callback as soon as it is decoded.
+     *
+     * @param in       Reader of response body.
+     * @param callback Callback to receive decoded node.
+     * @return Value of "next_id" for the next page, empty string if this is the last page.
+     */
+    public static String parsePage(Reader in, NodeDetailsCallback callback) throws IOException, JSONException {
+
+        String nextId = "";
+        JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+
+                String name = reader.nextName();
+
+                if (AppConstants.KEY_NODE_DETAILS.equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                            reader.skipValue();
+                            continue;
+                        }
+                        callback.onNodeDetails(readNodeDetails(reader));
+                    }
+                    reader.endArray();
+
+                } else if (AppConstants.KEY_NEXT_ID.equals(name)) {
+                    nextId = readString(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } finally {
+            reader.close();
+        }
+        return nextId;
+    }
+
+    /**
+     * Copies decoded node config into the node which is available in node map.
+     *
+     * @param espNode Node in which config to be set.
+     * @param config  Node config decoded from node list.
+     */
+    public static void applyNodeConfig(EspNode espNode, EspNode config) {
+
+        espNode.setConfigVersion(config.getConfigVersion());
+        if (config.getNodeName() != null) {
+            espNode.setNodeName(config.getNodeName());
+            espNode.setFwVersion(config.getFwVersion());
+            espNode.setNodeType(config.getNodeType());
+        }
+        espNode.setDevices(config.getDevices());
+        espNode.setServices(config.getServices());
+        espNode.setAttributes(config.getAttributes());
+
+        if (config.getScheduleMaxCnt() != 0) {
+            espNode.setScheduleMaxCnt(config.getScheduleMaxCnt());
+        }
+        if (config.getSceneMaxCnt() != 0) {
+            espNode.setSceneMaxCnt(config.getSceneMaxCnt());
+        }
+    }
+
+    private static NodeDetails readNodeDetails(JsonReader reader) throws IOException {
+
+        NodeDetails nodeDetails = new NodeDetails();
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+
+            String name = reader.nextName();
+
+            switch (name) {
+                case AppConstants.KEY_ID:
+                    nodeDetails.nodeId = readString(reader);
+                    break;
+
+                case AppConstants.KEY_ROLE:
+                    nodeDetails.role = readString(reader);
+                    break;
+
+                case AppConstants.KEY_NODE_TYPE:
+                    nodeDetails.nodeType = readString(reader);
+                    break;
+
+                case AppConstants.KEY_IS_MATTER:
+                    nodeDetails.isMatter = readBoolean(reader);
+                    break;
+
+                case AppConstants.KEY_METADATA:
+                    nodeDetails.metadataJson = readObjectAsString(reader);
+                    break;
+
+                case AppConstants.KEY_STATUS:
+                    nodeDetails.statusJson = readObjectAsString(reader);
+                    break;
+
+                case AppConstants.KEY_PARAMS:
+                    nodeDetails.paramsJson = readObjectAsString(reader);
+                    break;
+
+                case AppConstants.KEY_CONFIG:
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        StringWriter configWriter = new StringWriter();
+                        ConfigReader configReader = new ConfigReader(reader, new JsonWriter(configWriter));
+                        nodeDetails.config = configReader.readNodeConfig();
+                        nodeDetails.configJson = configWriter.toString();
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (nodeDetails.config != null) {
+            // Devices and services are created before node id is known, set it now.
+            String nodeId = nodeDetails.config.getNodeId();
+            if (TextUtils.isEmpty(nodeId)) {
+                nodeId = nodeDetails.nodeId;
+                nodeDetails.config.setNodeId(nodeId);
+            }
+            if (nodeDetails.config.getDevices() != null) {
+                for (Device device : nodeDetails.config.getDevices()) {
+                    device.setNodeId(nodeId);
+                }
+            }
+            if (nodeDetails.config.getServices() != null) {
+                for (Service service : nodeDetails.config.getServices()) {
+                    service.setNodeId(nodeId);
+                }
+            }
+        }
+        return nodeDetails;
+    }
+
+    private static String readString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return "";
+        } else if (token == JsonToken.BOOLEAN) {
+            return String.valueOf(reader.nextBoolean());
+        } else if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return "";
+    }
+
+    private static boolean readBoolean(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BOOLEAN) {
+            return reader.nextBoolean();
+        } else if (token == JsonToken.STRING) {
+            return "true".equalsIgnoreCase(reader.nextString());
+        }
+        reader.skipValue();
+        return false;
+    }
+
+    private static String readObjectAsString(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        StringWriter stringWriter = new StringWriter();
+        JsonWriter writer = new JsonWriter(stringWriter);
+        copyValue(reader, writer);
+        writer.flush();
+        return stringWriter.toString();
+    }
+
+    private static void copyValue(JsonReader reader, JsonWriter writer) throws IOException {
+
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                writer.beginObject();
+                while (reader.hasNext()) {
+                    writer.name(reader.nextName());
+                    copyValue(reader, writer);
+                }
+                reader.endObject();
+                writer.endObject();
+                break;
+
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                writer.beginArray();
+                while (reader.hasNext()) {
+                    copyValue(reader, writer);
+                }
+                reader.endArray();
+                writer.endArray();
+                break;
+
+            case STRING:
+                writer.value(reader.nextString());
+                break;
+
+            case NUMBER:
+                writer.jsonValue(reader.nextString());
+                break;
+
+            case BOOLEAN:
+                writer.value(reader.nextBoolean());
+                break;
+
+            case NULL:
+                reader.nextNull();
+                writer.nullValue();
+                break;
+
+            default:
+                reader.skipValue();
+                break;
+        }
+    }
+
+    /**
+     * Decodes node config into model objects (same as {@link com.espressif.JsonDataParser#setNodeConfig})
+     * and writes every consumed token to the given writer, so that config JSON can be stored in local database.
+     */
+    private static class ConfigReader {
+
+        private final JsonReader reader;
+        private final JsonWriter writer;
+
+        ConfigReader(JsonReader reader, JsonWriter writer) {
+            this.reader = reader;
+            this.writer = writer;
+        }
+
+        EspNode readNodeConfig() throws IOException {
+
+            // Missing values are empty strings, same as optString() of JsonDataParser.
+            EspNode espNode = new EspNode();
+            espNode.setConfigVersion("");
+            ArrayList<Device> devices = new ArrayList<>();
+            ArrayList<Service> services = new ArrayList<>();
+            ArrayList<Param> nodeAttributes = new ArrayList<>();
+
+            beginObject();
+            while (hasNext()) {
+
+                String name = nextName();
+
+                switch (name) {
+                    case AppConstants.KEY_NODE_ID:
+                        espNode.setNodeId(nextString());
+                        break;
+
+                    case AppConstants.KEY_CONFIG_VERSION:
+                        espNode.setConfigVersion(nextString());
+                        break;
+
+                    case AppConstants.KEY_INFO:
+                        if (!isObject()) {
+                            copy();
+                            break;
+                        }
+                        espNode.setNodeName("");
+                        espNode.setFwVersion("");
+                        espNode.setNodeType("");
+                        beginObject();
+                        while (hasNext()) {
+                            String infoKey = nextName();
+                            if (AppConstants.KEY_NAME.equals(infoKey)) {
+                                espNode.setNodeName(nextString());
+                            } else if (AppConstants.KEY_FW_VERSION.equals(infoKey)) {
+                                espNode.setFwVersion(nextString());
+                            } else if (AppConstants.KEY_TYPE.equals(infoKey)) {
+                                espNode.setNodeType(nextString());
+                            } else if (AppConstants.KEY_ATTRIBUTES.equals(infoKey) && isArray()) {
+                                readAttributes(nodeAttributes, false);
+                            } else {
+                                copy();
+                            }
+                        }
+                        endObject();
+                        break;
+
+                    case AppConstants.KEY_DEVICES:
+                        if (!isArray()) {
+                            copy();
+                            break;
+                        }
+                        beginArray();
+                        while (hasNext()) {
+                            if (isObject()) {
+                                devices.add(readDevice());
+                            } else {
+                                copy();
+                            }
+                        }
+                        endArray();
+                        break;
+
+                    case AppConstants.KEY_SERVICES:
+                        if (!isArray()) {
+                            copy();
+                            break;
+                        }
+                        beginArray();
+                        while (hasNext()) {
+                            if (isObject()) {
+                                services.add(readService(espNode));
+                            } else {
+                                copy();
+                            }
+                        }
+                        endArray();
+                        break;
+
+                    default:
+                        copy();
+                        break;
+                }
+            }
+            endObject();
+            writer.flush();
+
+            espNode.setDevices(devices);
+            espNode.setServices(services);
+            espNode.setAttributes(nodeAttributes);
+            return espNode;
+        }
+
+        private Device readDevice() throws IOException {
+
+            Device device = new Device((String) null);
+            device.setDeviceName("");
+            device.setUserVisibleName("");
+            device.setDeviceType("");
+            device.setPrimaryParamName("");
+            ArrayList<Param> params = new ArrayList<>();
+            ArrayList<Param> attributes = new ArrayList<>();
+
+            beginObject();
+            while (hasNext()) {
+
+                String name = nextName();
+
+                if (AppConstants.KEY_NAME.equals(name)) {
+                    String deviceName = nextString();
+                    device.setDeviceName(deviceName);
+                    device.setUserVisibleName(deviceName);
+                } else if (AppConstants.KEY_TYPE.equals(name)) {
+                    device.setDeviceType(nextString());
+                } else if (AppConstants.KEY_PRIMARY.equals(name)) {
+                    device.setPrimaryParamName(nextString());
+                } else if (AppConstants.KEY_PARAMS.equals(name) && isArray()) {
+                    beginArray();
+                    while (hasNext()) {
+                        if (isObject()) {
+                            params.add(readDeviceParam());
+                        } else {
+                            copy();
+                        }
+                    }
+                    endArray();
+                } else if (AppConstants.KEY_ATTRIBUTES.equals(name) && isArray()) {
+                    readAttributes(attributes, true);
+                } else {
+                    copy();
+                }
+            }
+            endObject();
+
+            // Device attributes are always kept after params.
+            params.addAll(attributes);
+            device.setParams(params);
+            return device;
+        }
+
+        private Param readDeviceParam() throws IOException {
+
+            Param param = new Param();
+            param.setName("");
+            param.setParamType("");
+            param.setDataType("");
+            param.setUiType("");
+            param.setDynamicParam(true);
+            param.setProperties(new ArrayList<>());
+            param.setValidStrings(new ArrayList<>());
+
+            beginObject();
+            while (hasNext()) {
+
+                String name = nextName();
+
+                switch (name) {
+                    case AppConstants.KEY_NAME:
+                        param.setName(nextString());
+                        break;
+
+                    case AppConstants.KEY_TYPE:
+                        param.setParamType(nextString());
+                        break;
+
+                    case AppConstants.KEY_DATA_TYPE:
+                        param.setDataType(nextString());
+                        break;
+
+                    case AppConstants.KEY_UI_TYPE:
+                        param.setUiType(nextString());
+                        break;
+
+                    case AppConstants.KEY_PROPERTIES:
+                        param.setProperties(readStringArray());
+                        break;
+
+                    case AppConstants.KEY_VALID_STRS:
+                        param.setValidStrings(readStringArray());
+                        break;
+
+                    case AppConstants.KEY_DEPENDENCIES:
+                        if (isObject()) {
+                            param.setDependencies(copyAsString());
+                        } else {
+                            copy();
+                        }
+                        break;
+
+                    case AppConstants.KEY_BOUNDS:
+                        if (!isObject()) {
+                            copy();
+                            break;
+                        }
+                        beginObject();
+                        while (hasNext()) {
+                            String boundsKey = nextName();
+                            if (AppConstants.KEY_MAX.equals(boundsKey)) {
+                                param.setMaxBounds((int) nextDouble(0));
+                            } else if (AppConstants.KEY_MIN.equals(boundsKey)) {
+                                param.setMinBounds((int) nextDouble(0));
+                            } else if (AppConstants.KEY_STEP.equals(boundsKey)) {
+                                param.setStepCount((float) nextDouble(0));
+                            } else {
+                                copy();
+                            }
+                        }
+                        endObject();
+                        break;
+
+                    default:
+                        copy();
+                        break;
+                }
+            }
+            endObject();
+            return param;
+        }
+
+        private Service readService(EspNode espNode) throws IOException {
+
+            Service service = new Service((String) null);
+            service.setName("");
+            service.setType("");
+            ArrayList<Param> params = new ArrayList<>();
+            int boundsMax = -1;
+
+            beginObject();
+            while (hasNext()) {
+
+                String name = nextName();
+
+                if (AppConstants.KEY_NAME.equals(name)) {
+                    service.setName(nextString());
+                } else if (AppConstants.KEY_TYPE.equals(name)) {
+                    service.setType(nextString());
+                } else if (AppConstants.KEY_PARAMS.equals(name) && isArray()) {
+
+                    beginArray();
+                    while (hasNext()) {
+
+                        if (!isObject()) {
+                            copy();
+                            continue;
+                        }
+
+                        Param param = new Param();
+                        param.setName("");
+                        param.setParamType("");
+                        param.setDataType("");
+                        param.setDynamicParam(true);
+                        param.setProperties(new ArrayList<>());
+
+                        beginObject();
+                        while (hasNext()) {
+                            String paramKey = nextName();
+                            if (AppConstants.KEY_NAME.equals(paramKey)) {
+                                param.setName(nextString());
+                            } else if (AppConstants.KEY_TYPE.equals(paramKey)) {
+                                param.setParamType(nextString());
+                            } else if (AppConstants.KEY_DATA_TYPE.equals(paramKey)) {
+                                param.setDataType(nextString());
+                            } else if (AppConstants.KEY_PROPERTIES.equals(paramKey)) {
+                                param.setProperties(readStringArray());
+                            } else if (AppConstants.KEY_BOUNDS.equals(paramKey) && isObject()) {
+                                beginObject();
+                                while (hasNext()) {
+                                    if (AppConstants.KEY_MAX.equals(nextName())) {
+                                        boundsMax = (int) nextDouble(0);
+                                    } else {
+                                        copy();
+                                    }
+                                }
+                                endObject();
+                            } else {
+                                copy();
+                            }
+                        }
+                        endObject();
+                        params.add(param);
+                    }
+                    endArray();
+                } else {
+                    copy();
+                }
+            }
+            endObject();
+
+            // Service type may come after params, so max count is set once service is fully read.
+            if (boundsMax != -1) {
+                if (AppConstants.SERVICE_TYPE_SCHEDULE.equals(service.getType())) {
+                    espNode.setScheduleMaxCnt(boundsMax);
+                } else if (AppConstants.SERVICE_TYPE_SCENES.equals(service.getType())) {
+                    espNode.setSceneMaxCnt(boundsMax);
+                }
+            }
+            service.setParams(params);
+            return service;
+        }
+
+        private void readAttributes(ArrayList<Param> attributes, boolean isDeviceAttribute) throws IOException {
+
+            beginArray();
+            while (hasNext()) {
+
+                if (!isObject()) {
+                    copy();
+                    continue;
+                }
+
+                Param param = new Param();
+                param.setName("");
+                param.setLabelValue("");
+                if (isDeviceAttribute) {
+                    param.setDataType("");
+                }
+
+                beginObject();
+                while (hasNext()) {
+                    String name = nextName();
+                    if (AppConstants.KEY_NAME.equals(name)) {
+                        param.setName(nextString());
+                    } else if (AppConstants.KEY_VALUE.equals(name)) {
+                        param.setLabelValue(nextString());
+                    } else if (isDeviceAttribute && AppConstants.KEY_DATA_TYPE.equals(name)) {
+                        param.setDataType(nextString());
+                    } else {
+                        copy();
+                    }
+                }
+                endObject();
+                attributes.add(param);
+            }
+            endArray();
+        }
+
+        private ArrayList<String> readStringArray() throws IOException {
+            ArrayList<String> values = new ArrayList<>();
+            if (!isArray()) {
+                copy();
+                return values;
+            }
+            beginArray();
+            while (hasNext()) {
+                values.add(nextString());
+            }
+            endArray();
+            return values;
+        }
+
+        private boolean isObject() throws IOException {
+            return reader.peek() == JsonToken.BEGIN_OBJECT;
+        }
+
+        private boolean isArray() throws IOException {
+            return reader.peek() == JsonToken.BEGIN_ARRAY;
+        }
+
+        private boolean hasNext() throws IOException {
+            return reader.hasNext();
+        }
+
+        private void beginObject() throws IOException {
+            reader.beginObject();
+            writer.beginObject();
+        }
+
+        private void endObject() throws IOException {
+            reader.endObject();
+            writer.endObject();
+        }
+
+        private void beginArray() throws IOException {
+            reader.beginArray();
+            writer.beginArray();
+        }
+
+        private void endArray() throws IOException {
+            reader.endArray();
+            writer.endArray();
+        }
+
+        private String nextName() throws IOException {
+            String name = reader.nextName();
+            writer.name(name);
+            return name;
+        }
+
+        private String nextString() throws IOException {
+            JsonToken token = reader.peek();
+            switch (token) {
+                case STRING:
+                    String value = reader.nextString();
+                    writer.value(value);
+                    return value;
+
+                case NUMBER:
+                    String number = reader.nextString();
+                    writer.jsonValue(number);
+                    return number;
+
+                case BOOLEAN:
+                    boolean bool = reader.nextBoolean();
+                    writer.value(bool);
+                    return String.valueOf(bool);
+
+                case NULL:
+                    reader.nextNull();
+                    writer.nullValue();
+                    return "";
+
+                default:
+                    copy();
+                    return "";
+            }
+        }
+
+        private double nextDouble(double fallback) throws IOException {
+            JsonToken token = reader.peek();
+            if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+                String value = nextString();
+                try {
+                    return Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    return fallback;
+                }
+            }
+            copy();
+            return fallback;
+        }
+
+        private void copy() throws IOException {
+            copyValue(reader, writer);
+        }
+
+        private String copyAsString() throws IOException {
+            String json = readObjectAsString(reader);
+            writer.jsonValue(json);
+            return json;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counters of the last node list sync.
+ * Skipped : Node config and params are same as available in app.
+ * Patched : Node config is same, only param values are updated.
+ * Rebuilt : Devices / params are created again from node config.
+ */
+public class NodeSyncStats {
+
+    private final AtomicInteger skippedCount = new AtomicInteger();
+    private final AtomicInteger patchedCount = new AtomicInteger();
+    private final AtomicInteger rebuiltCount = new AtomicInteger();
+
+    void reset() {
+        skippedCount.set(0);
+        patchedCount.set(0);
+        rebuiltCount.set(0);
+    }
+
+    void onNodeSkipped() {
+        skippedCount.incrementAndGet();
+    }
+
+    void onNodePatched() {
+        patchedCount.incrementAndGet();
+    }
+
+    void onNodeRebuilt() {
+        rebuiltCount.incrementAndGet();
+    }
+
+    public int getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public int getPatchedCount() {
+        return patchedCount.get();
+    }
+
+    public int getRebuiltCount() {
+        return rebuiltCount.get();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "NodeSyncStats{" +
+                "skipped=" + skippedCount.get() +
+                ", patched=" + patchedCount.get() +
+                ", rebuilt=" + rebuiltCount.get() +
+                '}';
+    }
+}
@@ -32,7 +32,19 @@ class TokenAuthenticator(private val appContext: EspApplication) : Authenticator
     override fun authenticate(route: Route?, response: Response): Request? {
         Log.d(TAG, "=============== Authenticate callback ===============")
         Log.d(TAG, "Response code : " + response.code)
-        val newToken = ApiManager.getInstance(appContext).newToken
+        val failedToken = response.request.header(AppConstants.HEADER_AUTHORIZATION)
+
+        if (TextUtils.isEmpty(failedToken)) {
+            // Request without access token (e.g. login) has been rejected, new token will not help.
+            return null
+        }
+        if (response.priorResponse != null) {
+            Log.e(TAG, "Request is rejected with refreshed token")
+            return null
+        }
+
+        // Waits for refresh in progress, if any, so only one login request is done for concurrent failures.
+        val newToken = TokenManager.getInstance(appContext).refreshToken(failedToken, false)
 
         if (!TextUtils.isEmpty(newToken)) {
             Log.d(TAG, "Retrying with new token")
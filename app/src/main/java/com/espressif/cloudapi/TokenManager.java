@@ -0,0 +1,205 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.cloudapi;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.espressif.AppConstants;
+
+import java.io.IOException;
+import java.util.Date;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Keeps current access token, adds it to API requests and refreshes it.
+ * <p>
+ * Only one refresh runs at a time. Requests which need a new token while refresh is in progress wait for it
+ * and use its result, instead of doing their own login request. Token is refreshed proactively
+ * {@link #REFRESH_AHEAD_MS} before it expires (from "exp" claim), so requests are not rejected with 401 on expiry.
+ */
+public class TokenManager {
+
+    private static final String TAG = TokenManager.class.getSimpleName();
+
+    private static final String HEADER_NO_AUTH_NAME = "No-Authentication";
+
+    /**
+     * Marker header for APIs which are called without access token (e.g. login).
+     * It is removed by the interceptor before request is sent.
+     */
+    static final String HEADER_NO_AUTH = HEADER_NO_AUTH_NAME + ": true";
+
+    private static final long REFRESH_AHEAD_MS = 2 * 60 * 1000;
+
+    // Requests waiting for a failed refresh do not start a new login request for this time.
+    private static final long FAILED_REFRESH_HOLD_MS = 10 * 1000;
+
+    private static TokenManager tokenManager;
+
+    private final Context context;
+    private final Object refreshLock = new Object();
+    private final TokenRefreshStats refreshStats = new TokenRefreshStats();
+
+    private volatile String accessToken = "";
+    private volatile long expiresAt;
+
+    // Below values are accessed with refreshLock.
+    private String failedToken;
+    private long failedTime;
+
+    public static synchronized TokenManager getInstance(Context context) {
+        if (tokenManager == null) {
+            tokenManager = new TokenManager(context.getApplicationContext());
+        }
+        return tokenManager;
+    }
+
+    private TokenManager(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Set current access token. Called when token is received from login or loaded from preferences.
+     *
+     * @param token     Access token.
+     * @param expiresAt Expiry time of the token from "exp" claim, null if it is not available.
+     */
+    void setAccessToken(String token, Date expiresAt) {
+        this.expiresAt = expiresAt != null ? expiresAt.getTime() : 0;
+        this.accessToken = token != null ? token : "";
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    /**
+     * Returns counters of token refresh and wait time of requests.
+     */
+    public TokenRefreshStats getRefreshStats() {
+        return refreshStats;
+    }
+
+    /**
+     * Remove current token and result of the last failed refresh. Should be called on logout.
+     */
+    public void clear() {
+        synchronized (refreshLock) {
+            accessToken = "";
+            expiresAt = 0;
+            failedToken = null;
+            failedTime = 0;
+        }
+    }
+
+    Interceptor getAuthInterceptor() {
+        return new AuthInterceptor();
+    }
+
+    /**
+     * Get new access token in place of the stale token. If token has been already refreshed by another request
+     * after stale token was used, the current token is returned without refreshing it again.
+     * This is a blocking call and must not be called on main thread.
+     *
+     * @param staleToken  Token which has expired or has been rejected.
+     * @param isProactive True if token is refreshed before it expires.
+     * @return New access token or null if refresh has failed.
+     */
+    String refreshToken(String staleToken, boolean isProactive) {
+
+        long startTime = SystemClock.elapsedRealtime();
+
+        synchronized (refreshLock) {
+
+            long waitTime = SystemClock.elapsedRealtime() - startTime;
+            String currentToken = accessToken;
+
+            if (!TextUtils.isEmpty(currentToken) && !currentToken.equals(staleToken)) {
+                Log.d(TAG, "Token is already refreshed, waited " + waitTime + " ms");
+                refreshStats.onShared(waitTime);
+                return currentToken;
+            }
+
+            if (failedToken != null && failedToken.equals(staleToken)
+                    && SystemClock.elapsedRealtime() - failedTime < FAILED_REFRESH_HOLD_MS) {
+                Log.d(TAG, "Token refresh has failed recently, waited " + waitTime + " ms");
+                refreshStats.onShared(waitTime);
+                return null;
+            }
+
+            Log.d(TAG, (isProactive ? "Proactive" : "Reactive") + " token refresh");
+            long refreshStartTime = SystemClock.elapsedRealtime();
+            String newToken = ApiManager.getInstance(context).getNewToken();
+            boolean isSuccess = !TextUtils.isEmpty(newToken);
+
+            if (isSuccess) {
+                failedToken = null;
+            } else {
+                failedToken = staleToken;
+                failedTime = SystemClock.elapsedRealtime();
+            }
+            refreshStats.onRefresh(isProactive, isSuccess, SystemClock.elapsedRealtime() - refreshStartTime, waitTime);
+            Log.d(TAG, "Token refresh : " + refreshStats);
+            return isSuccess ? newToken : null;
+        }
+    }
+
+    private boolean isTokenExpiring() {
+        long expiryTime = expiresAt;
+        return expiryTime > 0 && System.currentTimeMillis() >= expiryTime - REFRESH_AHEAD_MS;
+    }
+
+    /**
+     * Adds current access token to requests and refreshes the token before sending request, if it is about to expire.
+     */
+    private class AuthInterceptor implements Interceptor {
+
+        @NonNull
+        @Override
+        public Response intercept(@NonNull Chain chain) throws IOException {
+
+            Request request = chain.request();
+
+            if (request.header(HEADER_NO_AUTH_NAME) != null) {
+                return chain.proceed(request.newBuilder().removeHeader(HEADER_NO_AUTH_NAME).build());
+            }
+
+            String token = accessToken;
+            if (TextUtils.isEmpty(token)) {
+                return chain.proceed(request);
+            }
+
+            if (isTokenExpiring()) {
+                String newToken = refreshToken(token, true);
+                // Use current token if refresh has failed, it may still be valid for a short time.
+                if (!TextUtils.isEmpty(newToken)) {
+                    token = newToken;
+                }
+            }
+            return chain.proceed(request.newBuilder()
+                    .header(AppConstants.HEADER_AUTHORIZATION, token)
+                    .build());
+        }
+    }
+}
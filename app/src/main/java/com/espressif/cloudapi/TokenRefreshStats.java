@@ -0,0 +1,115 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.espressif.cloudapi;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of access token refresh.
+ * Refreshed : Token is refreshed with a login request (proactive refreshes are counted separately as well).
+ * Shared : Request has waited for refresh started by another request and has used its result.
+ * Wait time : Time for which requests have waited for a refresh in progress.
+ * Counters are written to debug log after each refresh.
+ */
+public class TokenRefreshStats {
+
+    private final AtomicInteger refreshCount = new AtomicInteger();
+    private final AtomicInteger proactiveRefreshCount = new AtomicInteger();
+    private final AtomicInteger failedRefreshCount = new AtomicInteger();
+    private final AtomicInteger sharedCount = new AtomicInteger();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+    private final AtomicLong lastRefreshDuration = new AtomicLong();
+
+    void onRefresh(boolean isProactive, boolean isSuccess, long duration, long waitTime) {
+        refreshCount.incrementAndGet();
+        if (isProactive) {
+            proactiveRefreshCount.incrementAndGet();
+        }
+        if (!isSuccess) {
+            failedRefreshCount.incrementAndGet();
+        }
+        lastRefreshDuration.set(duration);
+        onWait(waitTime);
+    }
+
+    void onShared(long waitTime) {
+        sharedCount.incrementAndGet();
+        onWait(waitTime);
+    }
+
+    private void onWait(long waitTime) {
+        totalWaitTime.addAndGet(waitTime);
+        long max;
+        do {
+            max = maxWaitTime.get();
+        } while (waitTime > max && !maxWaitTime.compareAndSet(max, waitTime));
+    }
+
+    public int getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    public int getProactiveRefreshCount() {
+        return proactiveRefreshCount.get();
+    }
+
+    public int getFailedRefreshCount() {
+        return failedRefreshCount.get();
+    }
+
+    public int getSharedCount() {
+        return sharedCount.get();
+    }
+
+    /**
+     * @return Total wait time of all requests in milliseconds.
+     */
+    public long getTotalWaitTime() {
+        return totalWaitTime.get();
+    }
+
+    /**
+     * @return Longest wait time of a request in milliseconds.
+     */
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    /**
+     * @return Duration of the last login request for refresh in milliseconds.
+     */
+    public long getLastRefreshDuration() {
+        return lastRefreshDuration.get();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "TokenRefreshStats{" +
+                "refreshed=" + refreshCount.get() +
+                ", proactive=" + proactiveRefreshCount.get() +
+                ", failed=" + failedRefreshCount.get() +
+                ", shared=" + sharedCount.get() +
+                ", totalWait=" + totalWaitTime.get() + "ms" +
+                ", maxWait=" + maxWaitTime.get() + "ms" +
+                ", lastRefresh=" + lastRefreshDuration.get() + "ms" +
+                '}';
+    }
+}
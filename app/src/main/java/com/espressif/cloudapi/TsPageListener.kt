@@ -12,13 +12,18 @@
 // See the License for the specific language governing permissions and
 // limitations under the License.
 
-package com.espressif.ui.models
+package com.espressif.cloudapi
 
-import android.os.Parcelable
-import kotlinx.parcelize.Parcelize
+import com.espressif.ui.models.TsColumns
 
-@Parcelize
-data class TsData(
-    val timeStamp: Long,
-    val value: Double?
-) : Parcelable
+/**
+ * This listener is used to pass each page of time series data from ApiManager, as soon as it is received.
+ */
+interface TsPageListener {
+
+    /**
+     * @param page Points of the received page.
+     * @return false to stop fetching remaining pages. Response listener is not called in that case.
+     */
+    fun onPage(page: TsColumns): Boolean
+}
@@ -0,0 +1,237 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.espressif.AppConstants;
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Param;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * DAO for normalized device, service and param tables.
+ * Allows reading / updating params of a single device without parsing the whole node config.
+ * Param writes update only param rows, so stored param values are applied over param_data of the node while loading it.
+ */
+@Dao
+public interface DeviceDao {
+
+    // SQLite limits number of query arguments.
+    int MAX_QUERY_NODES = 500;
+
+    @Query("SELECT * FROM " + AppConstants.DEVICE_TABLE + " WHERE node_id = :nodeId ORDER BY position")
+    List<DeviceEntity> getDevices(String nodeId);
+
+    @Query("SELECT * FROM " + AppConstants.DEVICE_TABLE + " WHERE node_id = :nodeId AND device_name = :deviceName")
+    DeviceEntity getDevice(String nodeId, String deviceName);
+
+    @Query("SELECT * FROM " + AppConstants.SERVICE_TABLE + " WHERE node_id = :nodeId ORDER BY position")
+    List<ServiceEntity> getServices(String nodeId);
+
+    /**
+     * Get all params of a device.
+     *
+     * @param nodeId     Node id.
+     * @param deviceName Device name.
+     * @return List of params.
+     */
+    @Query("SELECT * FROM " + AppConstants.PARAM_TABLE + " WHERE node_id = :nodeId AND owner_type = "
+            + ParamEntity.OWNER_DEVICE + " AND owner_name = :deviceName ORDER BY position")
+    List<ParamEntity> getDeviceParams(String nodeId, String deviceName);
+
+    /**
+     * Get only dynamic params of a device.
+     *
+     * @param nodeId     Node id.
+     * @param deviceName Device name.
+     * @return List of dynamic params.
+     */
+    @Query("SELECT * FROM " + AppConstants.PARAM_TABLE + " WHERE node_id = :nodeId AND owner_type = "
+            + ParamEntity.OWNER_DEVICE + " AND owner_name = :deviceName AND is_dynamic = 1 ORDER BY position")
+    List<ParamEntity> getDynamicDeviceParams(String nodeId, String deviceName);
+
+    /**
+     * Get dynamic params of all devices of a node.
+     *
+     * @param nodeId Node id.
+     * @return List of dynamic params.
+     */
+    @Query("SELECT * FROM " + AppConstants.PARAM_TABLE + " WHERE node_id = :nodeId AND owner_type = "
+            + ParamEntity.OWNER_DEVICE + " AND is_dynamic = 1 ORDER BY owner_name, position")
+    List<ParamEntity> getDynamicParams(String nodeId);
+
+    /**
+     * Get dynamic params of all devices of given nodes.
+     *
+     * @param nodeIds Node ids.
+     * @return List of dynamic params.
+     */
+    @Query("SELECT * FROM " + AppConstants.PARAM_TABLE + " WHERE node_id IN (:nodeIds) AND owner_type = "
+            + ParamEntity.OWNER_DEVICE + " AND is_dynamic = 1")
+    List<ParamEntity> getDynamicParams(List<String> nodeIds);
+
+    @Query("SELECT * FROM " + AppConstants.PARAM_TABLE + " WHERE node_id = :nodeId AND owner_type = "
+            + ParamEntity.OWNER_DEVICE + " AND owner_name = :deviceName AND param_name = :paramName")
+    ParamEntity getDeviceParam(String nodeId, String deviceName, String paramName);
+
+    @Query("SELECT * FROM " + AppConstants.PARAM_TABLE + " WHERE node_id = :nodeId AND owner_type = "
+            + ParamEntity.OWNER_SERVICE + " AND owner_name = :serviceName ORDER BY position")
+    List<ParamEntity> getServiceParams(String nodeId, String serviceName);
+
+    @Query("SELECT * FROM " + AppConstants.PARAM_TABLE + " WHERE node_id = :nodeId AND owner_type = "
+            + ParamEntity.OWNER_NODE + " ORDER BY position")
+    List<ParamEntity> getNodeAttributes(String nodeId);
+
+    @Query("UPDATE " + AppConstants.PARAM_TABLE + " SET value = :value, label_value = :labelValue WHERE node_id = :nodeId"
+            + " AND owner_type = " + ParamEntity.OWNER_DEVICE + " AND owner_name = :deviceName AND param_name = :paramName")
+    int updateParamValue(String nodeId, String deviceName, String paramName, double value, String labelValue);
+
+    @Query("UPDATE " + AppConstants.PARAM_TABLE + " SET switch_status = :switchStatus, label_value = :labelValue WHERE node_id = :nodeId"
+            + " AND owner_type = " + ParamEntity.OWNER_DEVICE + " AND owner_name = :deviceName AND param_name = :paramName")
+    int updateParamSwitchStatus(String nodeId, String deviceName, String paramName, boolean switchStatus, String labelValue);
+
+    @Query("UPDATE " + AppConstants.PARAM_TABLE + " SET label_value = :labelValue WHERE node_id = :nodeId AND owner_type = "
+            + ParamEntity.OWNER_DEVICE + " AND owner_name = :deviceName AND param_name = :paramName")
+    int updateParamLabelValue(String nodeId, String deviceName, String paramName, String labelValue);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertDevices(List<DeviceEntity> devices);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertServices(List<ServiceEntity> services);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertParams(List<ParamEntity> params);
+
+    @Query("DELETE FROM " + AppConstants.DEVICE_TABLE + " WHERE node_id = :nodeId")
+    void deleteDevices(String nodeId);
+
+    @Query("DELETE FROM " + AppConstants.SERVICE_TABLE + " WHERE node_id = :nodeId")
+    void deleteServices(String nodeId);
+
+    @Query("DELETE FROM " + AppConstants.PARAM_TABLE + " WHERE node_id = :nodeId")
+    void deleteParams(String nodeId);
+
+    /**
+     * Apply stored values of dynamic device params to the nodes. Values of up to {@link #MAX_QUERY_NODES} nodes
+     * are read in one query.
+     * Rows are updated by param writes, so these values can be newer than param_data of the nodes.
+     *
+     * @param nodes Nodes built from stored config and params.
+     */
+    @Transaction
+    default void applyParamValues(List<EspNode> nodes) {
+
+        for (int start = 0; start < nodes.size(); start += MAX_QUERY_NODES) {
+
+            List<EspNode> batch = nodes.subList(start, Math.min(start + MAX_QUERY_NODES, nodes.size()));
+            ArrayList<String> nodeIds = new ArrayList<>();
+            for (EspNode node : batch) {
+                nodeIds.add(node.getNodeId());
+            }
+
+            HashMap<String, ParamEntity> paramRows = new HashMap<>();
+            for (ParamEntity paramEntity : getDynamicParams(nodeIds)) {
+                paramRows.put(paramEntity.getNodeId() + "/" + paramEntity.getOwnerName() + "/" + paramEntity.getParamName(), paramEntity);
+            }
+            if (paramRows.isEmpty()) {
+                continue;
+            }
+
+            for (EspNode node : batch) {
+                ArrayList<Device> devices = node.getDevices();
+                if (devices == null) {
+                    continue;
+                }
+                for (Device device : devices) {
+                    if (device.getParams() == null) {
+                        continue;
+                    }
+                    for (Param param : device.getParams()) {
+                        ParamEntity paramEntity = paramRows.get(node.getNodeId() + "/" + device.getDeviceName() + "/" + param.getName());
+                        if (paramEntity != null && param.isDynamicParam()) {
+                            param.setValue(paramEntity.getValue());
+                            param.setSwitchStatus(paramEntity.getSwitchStatus());
+                            param.setLabelValue(paramEntity.getLabelValue());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace all rows of the node with devices, services and attributes of given node.
+     *
+     * @param node Node to be stored.
+     */
+    @Transaction
+    default void replaceNode(EspNode node) {
+        replaceNode(new NodeRows(node));
+    }
+
+    /**
+     * Replace all rows of the node with given rows.
+     *
+     * @param nodeRows Rows copied from the node.
+     */
+    @Transaction
+    default void replaceNode(NodeRows nodeRows) {
+        deleteNode(nodeRows.getNodeId());
+        insertDevices(nodeRows.deviceRows);
+        insertServices(nodeRows.serviceRows);
+        insertParams(nodeRows.paramRows);
+    }
+
+    /**
+     * Delete all rows of the node from device, service and param tables.
+     *
+     * @param nodeId Node id.
+     */
+    @Transaction
+    default void deleteNode(String nodeId) {
+        deleteParams(nodeId);
+        deleteServices(nodeId);
+        deleteDevices(nodeId);
+    }
+
+    @Query("DELETE FROM " + AppConstants.DEVICE_TABLE)
+    void deleteAllDevices();
+
+    @Query("DELETE FROM " + AppConstants.SERVICE_TABLE)
+    void deleteAllServices();
+
+    @Query("DELETE FROM " + AppConstants.PARAM_TABLE)
+    void deleteAllParams();
+
+    /**
+     * Delete all rows from device, service and param tables.
+     */
+    @Transaction
+    default void deleteAll() {
+        deleteAllParams();
+        deleteAllServices();
+        deleteAllDevices();
+    }
+}
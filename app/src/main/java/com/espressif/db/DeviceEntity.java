@@ -0,0 +1,126 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+import com.espressif.AppConstants;
+import com.espressif.ui.models.Device;
+
+/**
+ * Row of device table. Params of the device are stored in param table.
+ */
+@Entity(tableName = AppConstants.DEVICE_TABLE, primaryKeys = {"node_id", "device_name"})
+public class DeviceEntity {
+
+    @ColumnInfo(name = "node_id")
+    @NonNull
+    private String nodeId = "";
+
+    @ColumnInfo(name = "device_name")
+    @NonNull
+    private String deviceName = "";
+
+    @ColumnInfo(name = "user_visible_name")
+    private String userVisibleName;
+
+    @ColumnInfo(name = "device_type")
+    private String deviceType;
+
+    @ColumnInfo(name = "primary_param")
+    private String primaryParamName;
+
+    // Index of the device in node config.
+    @ColumnInfo(name = "position")
+    private int position;
+
+    public DeviceEntity() {
+    }
+
+    public DeviceEntity(@NonNull String nodeId, Device device, int position) {
+        this.nodeId = nodeId;
+        this.deviceName = device.getDeviceName() != null ? device.getDeviceName() : "";
+        this.userVisibleName = device.getUserVisibleName();
+        this.deviceType = device.getDeviceType();
+        this.primaryParamName = device.getPrimaryParamName();
+        this.position = position;
+    }
+
+    /**
+     * Create device model from this row. Params are not set.
+     *
+     * @return Device.
+     */
+    public Device toDevice() {
+        Device device = new Device(nodeId);
+        device.setDeviceName(deviceName);
+        device.setUserVisibleName(userVisibleName);
+        device.setDeviceType(deviceType);
+        device.setPrimaryParamName(primaryParamName);
+        return device;
+    }
+
+    @NonNull
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(@NonNull String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    @NonNull
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public void setDeviceName(@NonNull String deviceName) {
+        this.deviceName = deviceName;
+    }
+
+    public String getUserVisibleName() {
+        return userVisibleName;
+    }
+
+    public void setUserVisibleName(String userVisibleName) {
+        this.userVisibleName = userVisibleName;
+    }
+
+    public String getDeviceType() {
+        return deviceType;
+    }
+
+    public void setDeviceType(String deviceType) {
+        this.deviceType = deviceType;
+    }
+
+    public String getPrimaryParamName() {
+        return primaryParamName;
+    }
+
+    public void setPrimaryParamName(String primaryParamName) {
+        this.primaryParamName = primaryParamName;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
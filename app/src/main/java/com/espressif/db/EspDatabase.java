@@ -28,7 +28,8 @@ import com.espressif.ui.models.EspNode;
 import com.espressif.ui.models.Group;
 import com.espressif.ui.models.NotificationEvent;
 
-@Database(entities = {EspNode.class, Group.class, NotificationEvent.class}, version = 3, exportSchema = false)
+@Database(entities = {EspNode.class, Group.class, NotificationEvent.class,
+        DeviceEntity.class, ServiceEntity.class, ParamEntity.class}, version = 4, exportSchema = false)
 @TypeConverters({StringArrayListConverters.class})
 public abstract class EspDatabase extends RoomDatabase {
 
@@ -37,6 +38,7 @@ public abstract class EspDatabase extends RoomDatabase {
     public abstract NodeDao getNodeDao();
     public abstract GroupDao getGroupDao();
     public abstract NotificationDao getNotificationDao();
+    public abstract DeviceDao getDeviceDao();
 
     public static EspDatabase getInstance(Context context) {
         if (null == espDatabase) {
@@ -51,6 +53,7 @@ public abstract class EspDatabase extends RoomDatabase {
                 AppConstants.ESP_DATABASE_NAME)
                 .addMigrations(MIGRATION_2_3)
                 .addMigrations(MIGRATION_1_3)
+                .addMigrations(MIGRATION_3_4)
                 .allowMainThreadQueries().build();
     }
 
@@ -72,4 +75,14 @@ public abstract class EspDatabase extends RoomDatabase {
             database.execSQL("CREATE TABLE IF NOT EXISTS `" + AppConstants.NOTIFICATION_TABLE + "` (`notificationId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `event_version` TEXT, `event_type` TEXT, `description` TEXT, `id` TEXT, `event_data` TEXT, `timestamp` INTEGER NOT NULL, `notification_msg` TEXT)");
         }
     };
+
+    // Normalized device, service and param tables. Rows are filled with next node sync.
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `" + AppConstants.DEVICE_TABLE + "` (`node_id` TEXT NOT NULL, `device_name` TEXT NOT NULL, `user_visible_name` TEXT, `device_type` TEXT, `primary_param` TEXT, `position` INTEGER NOT NULL, PRIMARY KEY(`node_id`, `device_name`))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `" + AppConstants.SERVICE_TABLE + "` (`node_id` TEXT NOT NULL, `service_name` TEXT NOT NULL, `service_type` TEXT, `position` INTEGER NOT NULL, PRIMARY KEY(`node_id`, `service_name`))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `" + AppConstants.PARAM_TABLE + "` (`node_id` TEXT NOT NULL, `owner_type` INTEGER NOT NULL, `owner_name` TEXT NOT NULL, `param_name` TEXT NOT NULL, `param_type` TEXT, `data_type` TEXT, `ui_type` TEXT, `properties` TEXT, `min_bounds` INTEGER NOT NULL, `max_bounds` INTEGER NOT NULL, `step_count` REAL NOT NULL, `value` REAL NOT NULL, `switch_status` INTEGER NOT NULL, `label_value` TEXT, `valid_strings` TEXT, `is_dynamic` INTEGER NOT NULL, `dependencies` TEXT, `position` INTEGER NOT NULL, PRIMARY KEY(`node_id`, `owner_type`, `owner_name`, `param_name`))");
+        }
+    };
 }
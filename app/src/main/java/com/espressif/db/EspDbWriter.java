@@ -0,0 +1,318 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.db;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Group;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence of nodes and groups.
+ * Changed nodes / groups are marked dirty and written in batches on a background thread.
+ * Multiple changes of the same row before a flush are coalesced into one write.
+ * Rows of a changed node are copied on the caller's thread, so the node is never read while it is written.
+ * Pending writes are flushed after {@link #FLUSH_DELAY_MS} or as soon as {@link #FLUSH_BATCH_SIZE} rows are dirty.
+ */
+public class EspDbWriter {
+
+    private static final String TAG = EspDbWriter.class.getSimpleName();
+
+    private static final long FLUSH_DELAY_MS = 500;
+    private static final int FLUSH_BATCH_SIZE = 100;
+
+    private static EspDbWriter dbWriter;
+
+    private final EspDatabase espDatabase;
+    private final ScheduledExecutorService executor;
+
+    // Key is node id / group id. Value is null-free, deleted rows are kept in separate maps.
+    private final ConcurrentHashMap<String, NodeRows> dirtyNodes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, EspNode> deletedNodes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Group> dirtyGroups = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Group> deletedGroups = new ConcurrentHashMap<>();
+    // Ids of deleted nodes which are being written in database.
+    private final Set<String> deletingNodeIds = ConcurrentHashMap.newKeySet();
+
+    private ScheduledFuture<?> scheduledFlush;
+
+    public static synchronized EspDbWriter getInstance(Context context) {
+        if (dbWriter == null) {
+            dbWriter = new EspDbWriter(EspDatabase.getInstance(context));
+        }
+        return dbWriter;
+    }
+
+    private EspDbWriter(EspDatabase espDatabase) {
+        this.espDatabase = espDatabase;
+        this.executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Mark node as dirty. Node will be inserted / updated in database with next flush.
+     *
+     * @param node Node to be inserted / updated.
+     */
+    public void updateNode(EspNode node) {
+        if (node == null || node.getNodeId() == null) {
+            return;
+        }
+        NodeRows nodeRows = new NodeRows(node);
+        deletedNodes.remove(node.getNodeId());
+        dirtyNodes.put(node.getNodeId(), nodeRows);
+        scheduleFlush();
+    }
+
+    /**
+     * Node will be deleted from database with next flush.
+     *
+     * @param node Node to be deleted.
+     */
+    public void deleteNode(EspNode node) {
+        if (node == null || node.getNodeId() == null) {
+            return;
+        }
+        dirtyNodes.remove(node.getNodeId());
+        deletedNodes.put(node.getNodeId(), node);
+        scheduleFlush();
+    }
+
+    /**
+     * @return true if node has been deleted and it is not yet removed from database.
+     */
+    public boolean isNodeDeletePending(String nodeId) {
+        return deletedNodes.containsKey(nodeId) || deletingNodeIds.contains(nodeId);
+    }
+
+    /**
+     * Mark group as dirty. Group will be inserted / updated in database with next flush.
+     *
+     * @param group Group to be inserted / updated.
+     */
+    public void updateGroup(Group group) {
+        if (group == null || group.getGroupId() == null) {
+            return;
+        }
+        deletedGroups.remove(group.getGroupId());
+        dirtyGroups.put(group.getGroupId(), group);
+        scheduleFlush();
+    }
+
+    /**
+     * Group will be deleted from database with next flush.
+     *
+     * @param group Group to be deleted.
+     */
+    public void deleteGroup(Group group) {
+        if (group == null || group.getGroupId() == null) {
+            return;
+        }
+        dirtyGroups.remove(group.getGroupId());
+        deletedGroups.put(group.getGroupId(), group);
+        scheduleFlush();
+    }
+
+    /**
+     * Update values of params in param table. Only the rows of changed params are written.
+     *
+     * @param nodeId Node id.
+     * @param body   Param values in the format used for param update request ({"device": {"param": value}}).
+     */
+    public void updateParamValues(final String nodeId, final JsonObject body) {
+        if (nodeId == null || body == null) {
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    espDatabase.runInTransaction(new Runnable() {
+                        @Override
+                        public void run() {
+                            writeParamValues(nodeId, body);
+                        }
+                    });
+                } catch (Exception e) {
+                    Log.e(TAG, "Failed to update param values in database");
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Discard all pending writes. Used when all data is removed from database (e.g. on logout).
+     */
+    public synchronized void clear() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        dirtyNodes.clear();
+        deletedNodes.clear();
+        dirtyGroups.clear();
+        deletedGroups.clear();
+
+        // Wait for the write which may be in progress.
+        try {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).get();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Write all pending changes now.
+     *
+     * @return Future to wait for completion of the flush.
+     */
+    public synchronized Future<?> flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return executor.submit(this::writePendingChanges);
+    }
+
+    private synchronized void scheduleFlush() {
+
+        int pendingCount = dirtyNodes.size() + deletedNodes.size() + dirtyGroups.size() + deletedGroups.size();
+
+        if (pendingCount >= FLUSH_BATCH_SIZE) {
+            flush();
+        } else if (scheduledFlush == null || scheduledFlush.isDone()) {
+            scheduledFlush = executor.schedule(this::writePendingChanges, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void writePendingChanges() {
+
+        final ArrayList<NodeRows> nodes = drain(dirtyNodes);
+        final ArrayList<EspNode> nodesToDelete = drain(deletedNodes);
+        final ArrayList<Group> groups = drain(dirtyGroups);
+        final ArrayList<Group> groupsToDelete = drain(deletedGroups);
+
+        if (nodes.isEmpty() && nodesToDelete.isEmpty() && groups.isEmpty() && groupsToDelete.isEmpty()) {
+            return;
+        }
+
+        for (EspNode node : nodesToDelete) {
+            deletingNodeIds.add(node.getNodeId());
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            espDatabase.runInTransaction(new Runnable() {
+                @Override
+                public void run() {
+                    ArrayList<EspNode> nodeRows = new ArrayList<>();
+                    for (NodeRows node : nodes) {
+                        nodeRows.add(node.getNodeRow());
+                    }
+                    espDatabase.getNodeDao().updateNodes(nodeRows, nodesToDelete);
+                    DeviceDao deviceDao = espDatabase.getDeviceDao();
+                    for (NodeRows node : nodes) {
+                        deviceDao.replaceNode(node);
+                    }
+                    for (EspNode node : nodesToDelete) {
+                        deviceDao.deleteNode(node.getNodeId());
+                    }
+                    espDatabase.getGroupDao().updateGroups(groups, groupsToDelete);
+                }
+            });
+            Log.d(TAG, "Flushed " + nodes.size() + " nodes, " + groups.size() + " groups, deleted "
+                    + nodesToDelete.size() + " nodes, " + groupsToDelete.size() + " groups in "
+                    + (System.currentTimeMillis() - startTime) + " ms");
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to write pending changes in database");
+            e.printStackTrace();
+        } finally {
+            for (EspNode node : nodesToDelete) {
+                deletingNodeIds.remove(node.getNodeId());
+            }
+        }
+    }
+
+    private void writeParamValues(String nodeId, JsonObject body) {
+
+        DeviceDao deviceDao = espDatabase.getDeviceDao();
+
+        for (Map.Entry<String, JsonElement> deviceEntry : body.entrySet()) {
+
+            if (!deviceEntry.getValue().isJsonObject()) {
+                continue;
+            }
+            String deviceName = deviceEntry.getKey();
+
+            for (Map.Entry<String, JsonElement> paramEntry : deviceEntry.getValue().getAsJsonObject().entrySet()) {
+
+                if (!paramEntry.getValue().isJsonPrimitive()) {
+                    continue;
+                }
+                String paramName = paramEntry.getKey();
+                JsonPrimitive value = paramEntry.getValue().getAsJsonPrimitive();
+
+                // Label is written in the same format as JsonDataParser sets it.
+                if (value.isBoolean()) {
+                    boolean switchStatus = value.getAsBoolean();
+                    deviceDao.updateParamSwitchStatus(nodeId, deviceName, paramName, switchStatus, String.valueOf(switchStatus));
+                } else if (value.isNumber()) {
+                    ParamEntity paramEntity = deviceDao.getDeviceParam(nodeId, deviceName, paramName);
+                    if (paramEntity == null) {
+                        continue;
+                    }
+                    String dataType = paramEntity.getDataType();
+                    double paramValue = value.getAsDouble();
+                    String labelValue = ("int".equalsIgnoreCase(dataType) || "integer".equalsIgnoreCase(dataType))
+                            ? String.valueOf((int) paramValue) : String.valueOf(paramValue);
+                    deviceDao.updateParamValue(nodeId, deviceName, paramName, paramValue, labelValue);
+                } else {
+                    deviceDao.updateParamLabelValue(nodeId, deviceName, paramName, value.getAsString());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all entries from the map and returns their values.
+     * Entry is removed only if it has not been replaced in between, so a newer change is kept for next flush.
+     */
+    private static <T> ArrayList<T> drain(ConcurrentHashMap<String, T> map) {
+        ArrayList<T> values = new ArrayList<>();
+        for (Map.Entry<String, T> entry : map.entrySet()) {
+            if (map.remove(entry.getKey(), entry.getValue())) {
+                values.add(entry.getValue());
+            }
+        }
+        return values;
+    }
+}
@@ -19,6 +19,7 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 
 import com.espressif.AppConstants;
 import com.espressif.ui.models.Group;
@@ -39,6 +40,14 @@ public interface GroupDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertOrUpdate(Group group);
 
+    /**
+     * Update groups if they exist in database, insert groups otherwise.
+     *
+     * @param groups Groups to be inserted / updated.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertOrUpdate(List<Group> groups);
+
     /**
      * Delete the group from database.
      *
@@ -47,6 +56,30 @@ public interface GroupDao {
     @Delete
     void delete(Group group);
 
+    /**
+     * Delete groups from database.
+     *
+     * @param groups Groups to be deleted.
+     */
+    @Delete
+    void delete(List<Group> groups);
+
+    /**
+     * Insert / update and delete groups in a single transaction.
+     *
+     * @param groups        Groups to be inserted / updated.
+     * @param deletedGroups Groups to be deleted.
+     */
+    @Transaction
+    default void updateGroups(List<Group> groups, List<Group> deletedGroups) {
+        if (!groups.isEmpty()) {
+            insertOrUpdate(groups);
+        }
+        if (!deletedGroups.isEmpty()) {
+            delete(deletedGroups);
+        }
+    }
+
     /**
      * Delete all groups from group table.
      */
@@ -19,6 +19,7 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 
 import com.espressif.AppConstants;
 import com.espressif.ui.models.EspNode;
@@ -31,6 +32,29 @@ public interface NodeDao {
     @Query("SELECT * FROM " + AppConstants.NODE_TABLE)
     List<EspNode> getNodesFromStorage();
 
+    /**
+     * Get one page of nodes from database, ordered by node id.
+     * Pages are read by key, so rows inserted / deleted in between don't shift the next page.
+     *
+     * @param lastNodeId Node id of the last node of previous page, empty string for first page.
+     * @param limit      Max number of nodes.
+     * @return List of nodes.
+     */
+    @Query("SELECT * FROM " + AppConstants.NODE_TABLE + " WHERE nodeId > :lastNodeId ORDER BY nodeId LIMIT :limit")
+    List<EspNode> getNodesFromStorage(String lastNodeId, int limit);
+
+    /**
+     * Get node from database.
+     *
+     * @param nodeId Node id.
+     * @return Node or null if it is not available.
+     */
+    @Query("SELECT * FROM " + AppConstants.NODE_TABLE + " WHERE nodeId = :nodeId")
+    EspNode getNodeFromStorage(String nodeId);
+
+    @Query("SELECT COUNT(*) FROM " + AppConstants.NODE_TABLE)
+    int getNodeCount();
+
     /**
      * Update node if it exist in database, insert node otherwise.
      *
@@ -39,6 +63,14 @@ public interface NodeDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertOrUpdate(EspNode node);
 
+    /**
+     * Update nodes if they exist in database, insert nodes otherwise.
+     *
+     * @param nodes Nodes to be inserted / updated.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertOrUpdate(List<EspNode> nodes);
+
     /**
      * Delete the node from database.
      *
@@ -47,6 +79,30 @@ public interface NodeDao {
     @Delete
     void delete(EspNode node);
 
+    /**
+     * Delete nodes from database.
+     *
+     * @param nodes Nodes to be deleted.
+     */
+    @Delete
+    void delete(List<EspNode> nodes);
+
+    /**
+     * Insert / update and delete nodes in a single transaction.
+     *
+     * @param nodes        Nodes to be inserted / updated.
+     * @param deletedNodes Nodes to be deleted.
+     */
+    @Transaction
+    default void updateNodes(List<EspNode> nodes, List<EspNode> deletedNodes) {
+        if (!nodes.isEmpty()) {
+            insertOrUpdate(nodes);
+        }
+        if (!deletedNodes.isEmpty()) {
+            delete(deletedNodes);
+        }
+    }
+
     /**
      * Delete all nodes from node table.
      */
@@ -0,0 +1,72 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.db;
+
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Service;
+
+import java.util.ArrayList;
+
+/**
+ * Rows of a node in node, device, service and param tables.
+ * Rows are copied from the node when this object is created, so the node can be modified while rows are written.
+ */
+public class NodeRows {
+
+    final EspNode nodeRow;
+    final ArrayList<DeviceEntity> deviceRows = new ArrayList<>();
+    final ArrayList<ServiceEntity> serviceRows = new ArrayList<>();
+    final ArrayList<ParamEntity> paramRows = new ArrayList<>();
+
+    public NodeRows(EspNode node) {
+
+        String nodeId = node.getNodeId();
+        nodeRow = new EspNode(nodeId);
+        nodeRow.setConfigData(node.getConfigData());
+        nodeRow.setParamData(node.getParamData());
+
+        ArrayList<Device> devices = node.getDevices();
+        if (devices != null) {
+            for (int i = 0; i < devices.size(); i++) {
+                Device device = devices.get(i);
+                deviceRows.add(new DeviceEntity(nodeId, device, i));
+                ParamEntity.addRows(paramRows, nodeId, ParamEntity.OWNER_DEVICE, device.getDeviceName(), device.getParams());
+            }
+        }
+
+        ArrayList<Service> services = node.getServices();
+        if (services != null) {
+            for (int i = 0; i < services.size(); i++) {
+                Service service = services.get(i);
+                serviceRows.add(new ServiceEntity(nodeId, service, i));
+                ParamEntity.addRows(paramRows, nodeId, ParamEntity.OWNER_SERVICE, service.getName(), service.getParams());
+            }
+        }
+
+        ParamEntity.addRows(paramRows, nodeId, ParamEntity.OWNER_NODE, "", node.getAttributes());
+    }
+
+    public String getNodeId() {
+        return nodeRow.getNodeId();
+    }
+
+    /**
+     * @return Row of node table.
+     */
+    public EspNode getNodeRow() {
+        return nodeRow;
+    }
+}
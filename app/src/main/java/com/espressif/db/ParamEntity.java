@@ -0,0 +1,299 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+import com.espressif.AppConstants;
+import com.espressif.ui.models.Param;
+
+import java.util.ArrayList;
+
+/**
+ * Row of param table. Param can belong to a device, a service or the node itself (node attribute).
+ */
+@Entity(tableName = AppConstants.PARAM_TABLE, primaryKeys = {"node_id", "owner_type", "owner_name", "param_name"})
+public class ParamEntity {
+
+    public static final int OWNER_NODE = 0;
+    public static final int OWNER_DEVICE = 1;
+    public static final int OWNER_SERVICE = 2;
+
+    @ColumnInfo(name = "node_id")
+    @NonNull
+    private String nodeId = "";
+
+    @ColumnInfo(name = "owner_type")
+    private int ownerType;
+
+    // Device name / service name. Empty for node attributes.
+    @ColumnInfo(name = "owner_name")
+    @NonNull
+    private String ownerName = "";
+
+    @ColumnInfo(name = "param_name")
+    @NonNull
+    private String paramName = "";
+
+    @ColumnInfo(name = "param_type")
+    private String paramType;
+
+    @ColumnInfo(name = "data_type")
+    private String dataType;
+
+    @ColumnInfo(name = "ui_type")
+    private String uiType;
+
+    @ColumnInfo(name = "properties")
+    private ArrayList<String> properties;
+
+    @ColumnInfo(name = "min_bounds")
+    private int minBounds;
+
+    @ColumnInfo(name = "max_bounds")
+    private int maxBounds;
+
+    @ColumnInfo(name = "step_count")
+    private float stepCount;
+
+    @ColumnInfo(name = "value")
+    private double value;
+
+    @ColumnInfo(name = "switch_status")
+    private boolean switchStatus;
+
+    @ColumnInfo(name = "label_value")
+    private String labelValue;
+
+    @ColumnInfo(name = "valid_strings")
+    private ArrayList<String> validStrings;
+
+    @ColumnInfo(name = "is_dynamic")
+    private boolean isDynamicParam;
+
+    @ColumnInfo(name = "dependencies")
+    private String dependencies;
+
+    // Index of the param in its owner.
+    @ColumnInfo(name = "position")
+    private int position;
+
+    public ParamEntity() {
+    }
+
+    public ParamEntity(@NonNull String nodeId, int ownerType, String ownerName, Param param, int position) {
+        this.nodeId = nodeId;
+        this.ownerType = ownerType;
+        this.ownerName = ownerName != null ? ownerName : "";
+        this.paramName = param.getName() != null ? param.getName() : "";
+        this.paramType = param.getParamType();
+        this.dataType = param.getDataType();
+        this.uiType = param.getUiType();
+        this.properties = param.getProperties();
+        this.minBounds = param.getMinBounds();
+        this.maxBounds = param.getMaxBounds();
+        this.stepCount = param.getStepCount();
+        this.value = param.getValue();
+        this.switchStatus = param.getSwitchStatus();
+        this.labelValue = param.getLabelValue();
+        this.validStrings = param.getValidStrings();
+        this.isDynamicParam = param.isDynamicParam();
+        this.dependencies = param.getDependencies();
+        this.position = position;
+    }
+
+    /**
+     * Create param model from this row.
+     *
+     * @return Param.
+     */
+    public Param toParam() {
+        Param param = new Param();
+        param.setName(paramName);
+        param.setParamType(paramType);
+        param.setDataType(dataType);
+        param.setUiType(uiType);
+        param.setProperties(properties);
+        param.setMinBounds(minBounds);
+        param.setMaxBounds(maxBounds);
+        param.setStepCount(stepCount);
+        param.setValue(value);
+        param.setSwitchStatus(switchStatus);
+        param.setLabelValue(labelValue);
+        param.setValidStrings(validStrings);
+        param.setDynamicParam(isDynamicParam);
+        param.setDependencies(dependencies);
+        return param;
+    }
+
+    static void addRows(ArrayList<ParamEntity> paramRows, String nodeId, int ownerType, String ownerName,
+                        ArrayList<Param> params) {
+        if (params == null) {
+            return;
+        }
+        for (int i = 0; i < params.size(); i++) {
+            paramRows.add(new ParamEntity(nodeId, ownerType, ownerName, params.get(i), i));
+        }
+    }
+
+    @NonNull
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(@NonNull String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public int getOwnerType() {
+        return ownerType;
+    }
+
+    public void setOwnerType(int ownerType) {
+        this.ownerType = ownerType;
+    }
+
+    @NonNull
+    public String getOwnerName() {
+        return ownerName;
+    }
+
+    public void setOwnerName(@NonNull String ownerName) {
+        this.ownerName = ownerName;
+    }
+
+    @NonNull
+    public String getParamName() {
+        return paramName;
+    }
+
+    public void setParamName(@NonNull String paramName) {
+        this.paramName = paramName;
+    }
+
+    public String getParamType() {
+        return paramType;
+    }
+
+    public void setParamType(String paramType) {
+        this.paramType = paramType;
+    }
+
+    public String getDataType() {
+        return dataType;
+    }
+
+    public void setDataType(String dataType) {
+        this.dataType = dataType;
+    }
+
+    public String getUiType() {
+        return uiType;
+    }
+
+    public void setUiType(String uiType) {
+        this.uiType = uiType;
+    }
+
+    public ArrayList<String> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(ArrayList<String> properties) {
+        this.properties = properties;
+    }
+
+    public int getMinBounds() {
+        return minBounds;
+    }
+
+    public void setMinBounds(int minBounds) {
+        this.minBounds = minBounds;
+    }
+
+    public int getMaxBounds() {
+        return maxBounds;
+    }
+
+    public void setMaxBounds(int maxBounds) {
+        this.maxBounds = maxBounds;
+    }
+
+    public float getStepCount() {
+        return stepCount;
+    }
+
+    public void setStepCount(float stepCount) {
+        this.stepCount = stepCount;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public void setValue(double value) {
+        this.value = value;
+    }
+
+    public boolean getSwitchStatus() {
+        return switchStatus;
+    }
+
+    public void setSwitchStatus(boolean switchStatus) {
+        this.switchStatus = switchStatus;
+    }
+
+    public String getLabelValue() {
+        return labelValue;
+    }
+
+    public void setLabelValue(String labelValue) {
+        this.labelValue = labelValue;
+    }
+
+    public ArrayList<String> getValidStrings() {
+        return validStrings;
+    }
+
+    public void setValidStrings(ArrayList<String> validStrings) {
+        this.validStrings = validStrings;
+    }
+
+    public boolean isDynamicParam() {
+        return isDynamicParam;
+    }
+
+    public void setDynamicParam(boolean dynamicParam) {
+        isDynamicParam = dynamicParam;
+    }
+
+    public String getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(String dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
@@ -0,0 +1,100 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+import com.espressif.AppConstants;
+import com.espressif.ui.models.Service;
+
+/**
+ * Row of service table. Params of the service are stored in param table.
+ */
+@Entity(tableName = AppConstants.SERVICE_TABLE, primaryKeys = {"node_id", "service_name"})
+public class ServiceEntity {
+
+    @ColumnInfo(name = "node_id")
+    @NonNull
+    private String nodeId = "";
+
+    @ColumnInfo(name = "service_name")
+    @NonNull
+    private String serviceName = "";
+
+    @ColumnInfo(name = "service_type")
+    private String serviceType;
+
+    // Index of the service in node config.
+    @ColumnInfo(name = "position")
+    private int position;
+
+    public ServiceEntity() {
+    }
+
+    public ServiceEntity(@NonNull String nodeId, Service service, int position) {
+        this.nodeId = nodeId;
+        this.serviceName = service.getName() != null ? service.getName() : "";
+        this.serviceType = service.getType();
+        this.position = position;
+    }
+
+    /**
+     * Create service model from this row. Params are not set.
+     *
+     * @return Service.
+     */
+    public Service toService() {
+        Service service = new Service(nodeId);
+        service.setName(serviceName);
+        service.setType(serviceType);
+        return service;
+    }
+
+    @NonNull
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(@NonNull String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    @NonNull
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(@NonNull String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
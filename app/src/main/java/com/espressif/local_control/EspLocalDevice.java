@@ -27,6 +27,7 @@ import com.espressif.rainmaker.BuildConfig;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 
 public class EspLocalDevice {
@@ -37,6 +38,9 @@ public class EspLocalDevice {
     private static final String VERSION_JSON_LOCAL_CTRL = "local_ctrl";
     private static final String VERSION_JSON_SEC_PATCH_VER = "sec_patch_ver";
 
+    // Config is fetched again after this time, even if device has not been restarted.
+    private static final long CONFIG_REFRESH_INTERVAL_MS = 10 * 60 * 1000;
+
     private String nodeId;
     private String serviceName;
     private String ipAddr;
@@ -46,10 +50,23 @@ public class EspLocalDevice {
     private int securityType;
     private int secPatchVersion = 0;
     private int propertyCount;
+    private int paramsPropertyIndex = -1;
+
+    // Node config changes only with firmware, i.e. after device restart, which needs a new session.
+    // So config is fetched again only if a new session has been established after the last config fetch.
+    private int sessionCount;
+    private int configSessionCount = -1;
+    private long configFetchTime;
+    private String configHash;
+    private String paramsData;
 
     private EspLocalSession session;
     private EspLocalTransport transport;
     private SessionState sessionState = SessionState.NOT_CREATED;
+    private LocalSessionManager sessionManager;
+
+    // Listeners waiting for the session which is being created. Access is synchronized on this list.
+    private final ArrayList<ResponseListener> sessionListeners = new ArrayList<>();
 
     enum SessionState {
         NOT_CREATED,
@@ -67,34 +84,88 @@ public class EspLocalDevice {
 
     private void initSession(final ResponseListener listener) {
 
-        if (sessionState.equals(SessionState.CREATING)) {
-            Log.e(TAG, "Incorrect session initialisation for local device.");
-            return;
+        synchronized (sessionListeners) {
+            sessionListeners.add(listener);
+            if (sessionState.equals(SessionState.CREATING)) {
+                Log.d(TAG, "Session creation is in progress, waiting for it.");
+                return;
+            }
+            sessionState = SessionState.CREATING;
         }
-        sessionState = SessionState.CREATING;
         Log.d(TAG, "========= Init Session for local device =========");
 
         final String url = "http://" + getIpAddr() + ":" + getPort();
+        final ResponseListener sessionListener = new ResponseListener() {
+
+            @Override
+            public void onSuccess(byte[] returnData) {
+                for (ResponseListener l : takeSessionListeners(SessionState.CREATED)) {
+                    l.onSuccess(returnData);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                for (ResponseListener l : takeSessionListeners(SessionState.FAILED)) {
+                    l.onFailure(e);
+                }
+            }
+        };
 
         if (securityType == 2) {
+
+            int cachedPatchVersion = sessionManager != null
+                    ? sessionManager.getCachedSecPatchVersion(nodeId, securityType, userName) : -1;
+
+            if (cachedPatchVersion != -1) {
+                Log.d(TAG, "Using cached sec_patch_ver=" + cachedPatchVersion);
+                secPatchVersion = cachedPatchVersion;
+                establishSession(url, new ResponseListener() {
+                    @Override
+                    public void onSuccess(byte[] data) {
+                        sessionListener.onSuccess(data);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        // Firmware may have been updated, fetch the version again for next attempt.
+                        sessionManager.invalidate(nodeId);
+                        sessionListener.onFailure(e);
+                    }
+                });
+                return;
+            }
+
             // Firmware built against ESP-IDF v5.4+ advertises sec_patch_ver via the
             // version endpoint. Older firmware does not expose the endpoint or the
             // field, in which case we fall back to patchVersion=0 (legacy static IV).
             fetchSecPatchVersion(url, new ResponseListener() {
                 @Override
                 public void onSuccess(byte[] data) {
-                    establishSession(url, listener);
+                    establishSession(url, sessionListener);
                 }
 
                 @Override
                 public void onFailure(Exception e) {
                     Log.w(TAG, "Version endpoint unavailable, using sec2 patchVersion=0: " + e.getMessage());
                     secPatchVersion = 0;
-                    establishSession(url, listener);
+                    establishSession(url, sessionListener);
                 }
             });
         } else {
-            establishSession(url, listener);
+            establishSession(url, sessionListener);
+        }
+    }
+
+    /**
+     * Set result state of session creation and take listeners waiting for it, under the same lock.
+     */
+    private ArrayList<ResponseListener> takeSessionListeners(SessionState newState) {
+        synchronized (sessionListeners) {
+            sessionState = newState;
+            ArrayList<ResponseListener> listeners = new ArrayList<>(sessionListeners);
+            sessionListeners.clear();
+            return listeners;
         }
     }
 
@@ -154,14 +225,18 @@ public class EspLocalDevice {
 
             @Override
             public void OnSessionEstablished() {
-                sessionState = SessionState.CREATED;
+                synchronized (EspLocalDevice.this) {
+                    sessionCount++;
+                }
                 Log.d(TAG, "========= Session established on local network");
+                if (sessionManager != null && securityType == 2) {
+                    sessionManager.saveSecPatchVersion(nodeId, securityType, userName, secPatchVersion);
+                }
                 listener.onSuccess(null);
             }
 
             @Override
             public void OnSessionEstablishFailed(Exception e) {
-                sessionState = SessionState.FAILED;
                 listener.onFailure(e);
             }
         });
@@ -193,6 +268,9 @@ public class EspLocalDevice {
             session.sendDataToDevice(path, data, new ResponseListener() {
                 @Override
                 public void onSuccess(byte[] returnData) {
+                    if (sessionManager != null) {
+                        sessionManager.onDeviceUsed(nodeId);
+                    }
                     listener.onSuccess(returnData);
                 }
 
@@ -219,6 +297,27 @@ public class EspLocalDevice {
         }
     }
 
+    /**
+     * Establish session with the device if it is not available, without sending any data.
+     *
+     * @param listener Listener to get the result.
+     */
+    public void prepareSession(ResponseListener listener) {
+        if (isSessionEstablished()) {
+            listener.onSuccess(null);
+        } else {
+            initSession(listener);
+        }
+    }
+
+    public boolean isSessionEstablished() {
+        return session != null && session.isEstablished();
+    }
+
+    public void setSessionManager(LocalSessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+    }
+
     public String getNodeId() {
         return nodeId;
     }
@@ -281,4 +380,52 @@ public class EspLocalDevice {
     public void setPropertyCount(int propertyCount) {
         this.propertyCount = propertyCount;
     }
+
+    /**
+     * @return Index of the params property, or -1 if it is not known yet.
+     */
+    public int getParamsPropertyIndex() {
+        return paramsPropertyIndex;
+    }
+
+    public void setParamsPropertyIndex(int paramsPropertyIndex) {
+        this.paramsPropertyIndex = paramsPropertyIndex;
+    }
+
+    /**
+     * @return true if node config should be fetched with the next read.
+     */
+    public synchronized boolean isConfigRequired() {
+        return configSessionCount != sessionCount || paramsPropertyIndex == -1
+                || System.currentTimeMillis() - configFetchTime > CONFIG_REFRESH_INTERVAL_MS;
+    }
+
+    /**
+     * Should be called when config has been received from the device.
+     *
+     * @param hash Content hash of the config.
+     * @return true if config is changed since the last fetch.
+     */
+    public synchronized boolean onConfigFetched(String hash) {
+        boolean isChanged = !hash.equals(configHash);
+        configHash = hash;
+        configSessionCount = sessionCount;
+        configFetchTime = System.currentTimeMillis();
+        if (isChanged) {
+            // Params of the new config must be applied completely.
+            paramsData = null;
+        }
+        return isChanged;
+    }
+
+    /**
+     * @return Params JSON which has been applied last time, used to find changed params.
+     */
+    public synchronized String getParamsData() {
+        return paramsData;
+    }
+
+    public synchronized void setParamsData(String paramsData) {
+        this.paramsData = paramsData;
+    }
 }
@@ -20,18 +20,17 @@ import android.util.Log;
 import com.espressif.provisioning.listeners.ResponseListener;
 import com.espressif.provisioning.transport.Transport;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.net.ConnectException;
 import java.net.CookieManager;
 import java.net.HttpCookie;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * This class is used to send data to device which is available locally.
@@ -43,13 +42,15 @@ public class EspLocalTransport implements Transport {
     private static final String SET_COOKIE_HEADER = "Set-Cookie";
     private static final String COOKIE_HEADER = "Cookie";
 
+    private static final MediaType CONTENT_TYPE = MediaType.parse("application/x-www-form-urlencoded");
+
     private String baseUrl;
-    private ExecutorService workerThreadPool;
+    private LocalTransportEngine engine;
     private CookieManager cookieManager;
 
     public EspLocalTransport(String baseUrl) {
         this.baseUrl = baseUrl;
-        this.workerThreadPool = Executors.newSingleThreadExecutor();
+        this.engine = LocalTransportEngine.getInstance();
         if (cookieManager == null) {
             cookieManager = new CookieManager();
         }
@@ -57,35 +58,37 @@ public class EspLocalTransport implements Transport {
 
     private byte[] sendPostRequest(String path, byte[] data) throws IOException {
         byte[] responseBytes = null;
-        URL url = new URL(baseUrl + "/" + path);
-        Log.e(TAG, "URL : " + url.toString());
-        HttpURLConnection urlConnection = (HttpURLConnection) url.openConnection();
-        urlConnection.setDoOutput(true);
+        String url = baseUrl + "/" + path;
+        Log.d(TAG, "URL : " + url);
 
-        urlConnection.setRequestMethod("POST");
-        urlConnection.setRequestProperty("Accept", "text/plain");
-        urlConnection.setRequestProperty("Content-type", "application/x-www-form-urlencoded");
-        urlConnection.setConnectTimeout(5000);
-        urlConnection.setReadTimeout(5000);
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(url)
+                .header("Accept", "text/plain")
+                .post(RequestBody.create(CONTENT_TYPE, data));
 
         if (cookieManager.getCookieStore().getCookies().size() > 0) {
 
             Log.d(TAG, "Cookie - Name : " + cookieManager.getCookieStore().getCookies().get(0).getName());
             Log.d(TAG, "Cookie - Value : " + cookieManager.getCookieStore().getCookies().get(0).getValue());
             // While joining the Cookies, use ',' or ';' as needed. Most of the servers are using ';'
-            urlConnection.setRequestProperty(COOKIE_HEADER,
+            requestBuilder.header(COOKIE_HEADER,
                     TextUtils.join(";", cookieManager.getCookieStore().getCookies()));
         }
 
-        OutputStream os = urlConnection.getOutputStream();
-        os.write(data);
-        os.close();
+        Request request = requestBuilder.build();
+        Response response;
+        try {
+            response = engine.getHttpClient().newCall(request).execute();
+        } catch (ConnectException e) {
+            // Connection was not established, so request has not reached the device. Safe to send again.
+            Log.w(TAG, "Connection failed, retrying : " + e.getMessage());
+            engine.getStats().onRetry();
+            response = engine.getHttpClient().newCall(request).execute();
+        }
 
-        int responseCode = urlConnection.getResponseCode();
-        Map<String, List<String>> headerFields = urlConnection.getHeaderFields();
-        List<String> cookiesHeader = headerFields.get(SET_COOKIE_HEADER);
+        try {
+            List<String> cookiesHeader = response.headers(SET_COOKIE_HEADER);
 
-        if (cookiesHeader != null) {
             for (String cookie : cookiesHeader) {
                 HttpCookie httpCookie = HttpCookie.parse(cookie).get(0);
                 // Default version of HttpCookie is 1. In version 1, quotes will be added.
@@ -93,17 +96,14 @@ public class EspLocalTransport implements Transport {
                 httpCookie.setVersion(0);
                 cookieManager.getCookieStore().add(null, httpCookie);
             }
-        }
 
-        if (responseCode == HttpURLConnection.HTTP_OK) {
-            int n;
-            byte[] byteChunk = new byte[4096];
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            InputStream is = urlConnection.getInputStream();
-            while ((n = is.read(byteChunk)) > 0) {
-                outputStream.write(byteChunk, 0, n);
+            ResponseBody body = response.body();
+            if (response.code() == 200 && body != null) {
+                // Response body is read completely, so connection goes back to pool for the next request.
+                responseBytes = body.bytes();
             }
-            responseBytes = outputStream.toByteArray();
+        } finally {
+            response.close();
         }
 
         return responseBytes;
@@ -117,23 +117,25 @@ public class EspLocalTransport implements Transport {
      */
     @Override
     public void sendConfigData(final String path, final byte[] data, final ResponseListener listener) {
-        this.workerThreadPool
-                .submit(new Runnable() {
-                    @Override
-                    public void run() {
-                        try {
-                            byte[] returnData = sendPostRequest(path, data);
-
-                            if (returnData == null) {
-                                listener.onFailure(new RuntimeException("Response not received."));
-                            } else {
-                                listener.onSuccess(returnData);
-                            }
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                            listener.onFailure(e);
-                        }
+        engine.execute(baseUrl, new Runnable() {
+            @Override
+            public void run() {
+                long startTime = System.currentTimeMillis();
+                try {
+                    byte[] returnData = sendPostRequest(path, data);
+                    engine.getStats().onRequestDone(System.currentTimeMillis() - startTime, returnData != null);
+
+                    if (returnData == null) {
+                        listener.onFailure(new RuntimeException("Response not received."));
+                    } else {
+                        listener.onSuccess(returnData);
                     }
-                });
+                } catch (Exception e) {
+                    engine.getStats().onRequestDone(System.currentTimeMillis() - startTime, false);
+                    e.printStackTrace();
+                    listener.onFailure(e);
+                }
+            }
+        });
     }
 }
@@ -0,0 +1,302 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.local_control;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.DhcpInfo;
+import android.net.wifi.WifiInfo;
+import android.net.wifi.WifiManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.espressif.AppConstants;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Keeps last known local address of nodes across app restarts, separately for each Wi-Fi network.
+ * <p>
+ * On app start, cached addresses of the current network are checked with a short request to the version endpoint,
+ * so that reachable nodes are controlled locally before mDNS discovery has found them.
+ * Response of the version endpoint doesn't identify the node, so node id of a reachable device must be verified
+ * (see {@link LocalControlApiManager#verifyNodeId}) before it is used.
+ * mDNS discovery confirms or corrects cached addresses.
+ * PoP is not stored, it is taken from node config like for discovered devices.
+ */
+public class LocalAddressCache {
+
+    private static final String TAG = LocalAddressCache.class.getSimpleName();
+
+    private static final long ENTRY_TTL_MS = 7L * 24 * 60 * 60 * 1000;
+    private static final String VERSION_ENDPOINT = "esp_local_ctrl/version";
+    private static final MediaType CONTENT_TYPE = MediaType.parse("application/x-www-form-urlencoded");
+
+    private static final String KEY_IP_ADDR = "ip";
+    private static final String KEY_PORT = "port";
+    private static final String KEY_SERVICE_NAME = "service_name";
+    private static final String KEY_SECURITY_TYPE = "sec_type";
+    private static final String KEY_PROPERTY_COUNT = "property_count";
+    private static final String KEY_LAST_SEEN = "last_seen";
+
+    private static LocalAddressCache addressCache;
+
+    private final WifiManager wifiManager;
+    private final SharedPreferences addressPref;
+    private final Handler handler;
+
+    // Nodes for which probe is in progress. Access is synchronized on this object.
+    private final HashSet<String> probingNodes = new HashSet<>();
+
+    public static synchronized LocalAddressCache getInstance(Context context) {
+        if (addressCache == null) {
+            addressCache = new LocalAddressCache(context.getApplicationContext());
+        }
+        return addressCache;
+    }
+
+    private LocalAddressCache(Context context) {
+        wifiManager = (WifiManager) context.getSystemService(Context.WIFI_SERVICE);
+        addressPref = context.getSharedPreferences(AppConstants.PREF_FILE_LOCAL_ADDRESSES, Context.MODE_PRIVATE);
+        handler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Cached local address of a node.
+     */
+    public static class Entry {
+
+        private final String nodeId;
+        private final String ipAddr;
+        private final int port;
+        private final String serviceName;
+        private final int securityType;
+        private final int propertyCount;
+        private final long lastSeen;
+
+        Entry(String nodeId, JSONObject json) {
+            this.nodeId = nodeId;
+            this.ipAddr = json.optString(KEY_IP_ADDR);
+            this.port = json.optInt(KEY_PORT);
+            this.serviceName = json.optString(KEY_SERVICE_NAME);
+            this.securityType = json.optInt(KEY_SECURITY_TYPE);
+            this.propertyCount = json.optInt(KEY_PROPERTY_COUNT, -1);
+            this.lastSeen = json.optLong(KEY_LAST_SEEN);
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public String getIpAddr() {
+            return ipAddr;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public String getServiceName() {
+            return serviceName;
+        }
+
+        public int getSecurityType() {
+            return securityType;
+        }
+
+        public int getPropertyCount() {
+            return propertyCount;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - lastSeen > ENTRY_TTL_MS;
+        }
+    }
+
+    public interface ProbeListener {
+
+        void onReachable(Entry entry);
+    }
+
+    /**
+     * Get cached addresses of nodes for current Wi-Fi network.
+     *
+     * @return List of entries, empty if phone is not connected to Wi-Fi.
+     */
+    public synchronized ArrayList<Entry> getEntries() {
+
+        ArrayList<Entry> entries = new ArrayList<>();
+        String networkKey = getNetworkKey();
+        if (networkKey == null) {
+            return entries;
+        }
+        JSONObject networkJson = getNetworkJson(networkKey);
+        Iterator<String> nodeIds = networkJson.keys();
+        while (nodeIds.hasNext()) {
+            String nodeId = nodeIds.next();
+            JSONObject entryJson = networkJson.optJSONObject(nodeId);
+            if (entryJson != null) {
+                Entry entry = new Entry(nodeId, entryJson);
+                if (!entry.isExpired()) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Save address of the device for current Wi-Fi network. Should be called when device is confirmed on local network.
+     */
+    public synchronized void save(EspLocalDevice device) {
+
+        String networkKey = getNetworkKey();
+        if (networkKey == null || TextUtils.isEmpty(device.getIpAddr())) {
+            return;
+        }
+        JSONObject networkJson = getNetworkJson(networkKey);
+        JSONObject entryJson = new JSONObject();
+        try {
+            entryJson.put(KEY_IP_ADDR, device.getIpAddr());
+            entryJson.put(KEY_PORT, device.getPort());
+            entryJson.put(KEY_SERVICE_NAME, device.getServiceName() != null ? device.getServiceName() : "");
+            entryJson.put(KEY_SECURITY_TYPE, device.getSecurityType());
+            entryJson.put(KEY_PROPERTY_COUNT, device.getPropertyCount());
+            entryJson.put(KEY_LAST_SEEN, System.currentTimeMillis());
+            networkJson.put(device.getNodeId(), entryJson);
+        } catch (JSONException e) {
+            e.printStackTrace();
+            return;
+        }
+        addressPref.edit().putString(networkKey, networkJson.toString()).apply();
+    }
+
+    /**
+     * Remove cached address of the node for current Wi-Fi network, e.g. when device has not responded at this address.
+     */
+    public synchronized void remove(String nodeId) {
+
+        String networkKey = getNetworkKey();
+        if (networkKey == null) {
+            return;
+        }
+        JSONObject networkJson = getNetworkJson(networkKey);
+        if (networkJson.remove(nodeId) != null) {
+            addressPref.edit().putString(networkKey, networkJson.toString()).apply();
+        }
+    }
+
+    /**
+     * Check if node is reachable at cached address. Listener is called on main thread, only if node has responded.
+     */
+    public void probe(final Entry entry, final ProbeListener listener) {
+
+        synchronized (this) {
+            if (!probingNodes.add(entry.nodeId)) {
+                return;
+            }
+        }
+        final String baseUrl = "http://" + entry.ipAddr + ":" + entry.port;
+        final LocalTransportEngine engine = LocalTransportEngine.getInstance();
+
+        engine.execute(baseUrl, new Runnable() {
+            @Override
+            public void run() {
+                boolean isReachable = false;
+                // Version handler ignores the request body, but protocomm_httpd rejects empty POST requests.
+                Request request = new Request.Builder()
+                        .url(baseUrl + "/" + VERSION_ENDPOINT)
+                        .post(RequestBody.create(CONTENT_TYPE, "---".getBytes()))
+                        .build();
+                try (Response response = engine.getProbeClient().newCall(request).execute()) {
+                    isReachable = response.code() == 200;
+                } catch (Exception e) {
+                    Log.d(TAG, "Node " + entry.nodeId + " is not reachable at " + baseUrl + " : " + e.getMessage());
+                }
+                synchronized (LocalAddressCache.this) {
+                    probingNodes.remove(entry.nodeId);
+                }
+                if (isReachable) {
+                    Log.d(TAG, "Node " + entry.nodeId + " is reachable at cached address " + baseUrl);
+                    handler.post(() -> listener.onReachable(entry));
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove all cached addresses. Should be called on logout.
+     */
+    public synchronized void clear() {
+        addressPref.edit().clear().apply();
+    }
+
+    private JSONObject getNetworkJson(String networkKey) {
+
+        String value = addressPref.getString(networkKey, null);
+        if (!TextUtils.isEmpty(value)) {
+            try {
+                return new JSONObject(value);
+            } catch (JSONException e) {
+                e.printStackTrace();
+            }
+        }
+        return new JSONObject();
+    }
+
+    /**
+     * Returns key of the connected Wi-Fi network. SSID is used if it is available, because BSSID changes
+     * between access points of the same network. BSSID and then gateway address are used if SSID is not
+     * available (e.g. location permission is not granted).
+     *
+     * @return Network key or null if phone is not connected to Wi-Fi.
+     */
+    @SuppressWarnings("deprecation")
+    private String getNetworkKey() {
+
+        if (wifiManager == null) {
+            return null;
+        }
+        WifiInfo wifiInfo = wifiManager.getConnectionInfo();
+        if (wifiInfo == null || wifiInfo.getIpAddress() == 0) {
+            return null;
+        }
+        String ssid = wifiInfo.getSSID();
+        if (!TextUtils.isEmpty(ssid) && !WifiManager.UNKNOWN_SSID.equals(ssid)) {
+            return "ssid_" + ssid.replace("\"", "");
+        }
+        String bssid = wifiInfo.getBSSID();
+        if (!TextUtils.isEmpty(bssid) && !"02:00:00:00:00:00".equals(bssid)) {
+            return "bssid_" + bssid;
+        }
+        DhcpInfo dhcpInfo = wifiManager.getDhcpInfo();
+        if (dhcpInfo != null && dhcpInfo.gateway != 0) {
+            return "gw_" + dhcpInfo.gateway;
+        }
+        return null;
+    }
+}
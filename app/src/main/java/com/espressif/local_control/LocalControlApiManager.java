@@ -25,6 +25,7 @@ import com.espressif.JsonDataParser;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.provisioning.listeners.ResponseListener;
 import com.espressif.ui.models.EspNode;
+import com.espressif.utils.NodeUtils;
 import com.google.gson.JsonObject;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
@@ -52,6 +53,25 @@ public class LocalControlApiManager {
     public void getNodeDetails(final String nodeId, final ApiResponseListener listener) {
 
         Log.d(TAG, "Get Node details on local network for id : " + nodeId);
+        readNodeValues(nodeId, true, listener);
+    }
+
+    public void getParamsValues(final String nodeId, final ApiResponseListener listener) {
+
+        Log.d(TAG, "Get param values on local network for node : " + nodeId);
+        readNodeValues(nodeId, false, listener);
+    }
+
+    /**
+     * Read values of the node from device. Config is read only if it is required (see {@link EspLocalDevice#isConfigRequired()})
+     * and applied only if it is changed. Otherwise only params property is read.
+     * Only changed params are applied to the node. Success bundle contains {@link AppConstants#KEY_PARAMS_CHANGED}.
+     *
+     * @param nodeId     Node id.
+     * @param readConfig true to read config even if it is not required.
+     * @param listener   Listener to get result.
+     */
+    private void readNodeValues(final String nodeId, final boolean readConfig, final ApiResponseListener listener) {
 
         if (espApp.localDeviceMap.containsKey(nodeId)) {
 
@@ -59,50 +79,17 @@ public class LocalControlApiManager {
 
             if (localDevice.getPropertyCount() != 0) {
 
-                getPropertyValues(AppConstants.LOCAL_CONTROL_ENDPOINT, localDevice, new ApiResponseListener() {
+                ApiResponseListener valuesListener = new ApiResponseListener() {
 
                     @Override
                     public void onSuccess(Bundle data) {
 
-                        Log.d(TAG, "Get node detail - Success");
+                        Log.d(TAG, "Get node values - Success");
 
                         if (data != null) {
-
-                            String configData = data.getString(AppConstants.KEY_CONFIG);
-                            String paramsData = data.getString(AppConstants.KEY_PARAMS);
-
-                            Log.d(TAG, "Config data : " + configData);
-                            Log.d(TAG, "Params data : " + paramsData);
-
-                            if (!TextUtils.isEmpty(configData)) {
-
-                                JSONObject configJson = null;
-                                try {
-                                    configJson = new JSONObject(configData);
-                                } catch (JSONException e) {
-                                    e.printStackTrace();
-                                }
-
-                                EspNode node = espApp.nodeMap.get(nodeId);
-                                boolean isDeviceFound = false;
-                                if (node != null) {
-                                    isDeviceFound = true;
-                                }
-                                EspNode localNode = JsonDataParser.setNodeConfig(node, configJson);
-
-                                if (!TextUtils.isEmpty(paramsData) && isDeviceFound) {
-
-                                    JSONObject paramsJson = null;
-                                    try {
-                                        paramsJson = new JSONObject(paramsData);
-                                    } catch (JSONException e) {
-                                        e.printStackTrace();
-                                    }
-                                    JsonDataParser.setAllParams(espApp, localNode, paramsJson);
-                                    espApp.nodeMap.put(node.getNodeId(), localNode);
-                                    listener.onSuccess(null);
-                                }
-                            }
+                            applyNodeValues(nodeId, localDevice, data, listener);
+                        } else {
+                            listener.onResponseFailure(new RuntimeException("Failed to get data from device"));
                         }
                     }
 
@@ -115,7 +102,13 @@ public class LocalControlApiManager {
                     public void onNetworkFailure(Exception exception) {
                         listener.onNetworkFailure(exception);
                     }
-                });
+                };
+
+                if (readConfig || localDevice.isConfigRequired()) {
+                    getPropertyValues(AppConstants.LOCAL_CONTROL_ENDPOINT, localDevice, valuesListener);
+                } else {
+                    getParamsPropertyValue(AppConstants.LOCAL_CONTROL_ENDPOINT, localDevice, valuesListener);
+                }
 
             } else {
 
@@ -148,100 +141,51 @@ public class LocalControlApiManager {
         }
     }
 
-    public void getParamsValues(final String nodeId, final ApiResponseListener listener) {
-
-        Log.d(TAG, "Get param values on local network for node : " + nodeId);
+    private void applyNodeValues(String nodeId, EspLocalDevice localDevice, Bundle data, ApiResponseListener listener) {
 
-        if (espApp.localDeviceMap.containsKey(nodeId)) {
+        String configData = data.getString(AppConstants.KEY_CONFIG);
+        String paramsData = data.getString(AppConstants.KEY_PARAMS);
+        Log.d(TAG, "Params data : " + paramsData);
 
-            final EspLocalDevice localDevice = espApp.localDeviceMap.get(nodeId);
-
-            if (localDevice.getPropertyCount() != 0) {
-
-                getPropertyValues(AppConstants.LOCAL_CONTROL_ENDPOINT, localDevice, new ApiResponseListener() {
-
-                    @Override
-                    public void onSuccess(Bundle data) {
-
-                        Log.d(TAG, "Get param values - Success");
-
-                        if (data != null) {
-
-                            String configData = data.getString(AppConstants.KEY_CONFIG);
-                            String paramsData = data.getString(AppConstants.KEY_PARAMS);
-                            Log.e(TAG, "Params data : " + paramsData);
-
-                            if (!TextUtils.isEmpty(configData)) {
-
-                                JSONObject configJson = null;
-                                try {
-                                    configJson = new JSONObject(configData);
-                                } catch (JSONException e) {
-                                    e.printStackTrace();
-                                }
-
-                                EspNode node = espApp.nodeMap.get(nodeId);
-                                boolean isDeviceFound = false;
-                                if (node != null) {
-                                    isDeviceFound = true;
-                                }
-                                EspNode localNode = JsonDataParser.setNodeConfig(node, configJson);
-
-                                if (!TextUtils.isEmpty(paramsData) && isDeviceFound) {
-
-                                    JSONObject paramsJson = null;
-                                    try {
-                                        paramsJson = new JSONObject(paramsData);
-                                    } catch (JSONException e) {
-                                        e.printStackTrace();
-                                    }
-                                    JsonDataParser.setAllParams(espApp, localNode, paramsJson);
-                                    listener.onSuccess(null);
-                                }
-                            }
-                        }
-                    }
-
-                    @Override
-                    public void onResponseFailure(Exception exception) {
-                        listener.onResponseFailure(exception);
-                    }
-
-                    @Override
-                    public void onNetworkFailure(Exception exception) {
-                        listener.onNetworkFailure(exception);
-                    }
-                });
-
-            } else {
-
-                getPropertyCount(AppConstants.LOCAL_CONTROL_ENDPOINT, localDevice, new ApiResponseListener() {
-
-                    @Override
-                    public void onSuccess(Bundle data) {
+        EspNode node = espApp.nodeMap.get(nodeId);
+        if (node == null || TextUtils.isEmpty(paramsData)) {
+            listener.onResponseFailure(new RuntimeException("Failed to get data from device"));
+            return;
+        }
 
-                        if (data != null) {
+        if (!TextUtils.isEmpty(configData)) {
 
-                            int count = data.getInt(AppConstants.KEY_PROPERTY_COUNT, 0);
-                            localDevice.setPropertyCount(count);
-                            getPropertyValues(AppConstants.LOCAL_CONTROL_ENDPOINT, localDevice, listener);
-                        }
-                    }
+            boolean isConfigChanged = localDevice.onConfigFetched(NodeUtils.Companion.getContentHash(configData));
+            if (isConfigChanged) {
+                Log.d(TAG, "Config data : " + configData);
+                try {
+                    node = JsonDataParser.setNodeConfig(node, new JSONObject(configData));
+                    espApp.nodeMap.put(nodeId, node);
+                } catch (JSONException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
 
-                    @Override
-                    public void onResponseFailure(Exception exception) {
-                        listener.onResponseFailure(exception);
-                    }
+        // Same JSON as the previous read doesn't mean that node values are same, they may have been changed
+        // by a write, cloud or push event. So params are always compared with the current values of the node.
+        boolean isChanged = false;
+        String oldParamsData = localDevice.getParamsData();
 
-                    @Override
-                    public void onNetworkFailure(Exception exception) {
-                        listener.onNetworkFailure(exception);
-                    }
-                });
-            }
-        } else {
-            listener.onResponseFailure(new RuntimeException("Device not available locally."));
+        try {
+            JSONObject paramsJson = new JSONObject(paramsData);
+            JSONObject oldParamsJson = TextUtils.isEmpty(oldParamsData) ? null : new JSONObject(oldParamsData);
+            ArrayList<String> changedKeys = JsonDataParser.setChangedParams(espApp, node, oldParamsJson, paramsJson);
+            Log.d(TAG, "Changed params of node " + nodeId + " : " + changedKeys);
+            isChanged = !changedKeys.isEmpty();
+            localDevice.setParamsData(paramsData);
+        } catch (JSONException e) {
+            e.printStackTrace();
         }
+
+        Bundle bundle = new Bundle();
+        bundle.putBoolean(AppConstants.KEY_PARAMS_CHANGED, isChanged);
+        listener.onSuccess(bundle);
     }
 
     public void updateParamValue(final String nodeId, JsonObject body, final ApiResponseListener listener) {
@@ -296,6 +240,80 @@ public class LocalControlApiManager {
         }
     }
 
+    /**
+     * Check that the device at the address of local device is the node with given id.
+     * Node config is read from the device and its node id is compared, because the address may have been
+     * assigned to another device (e.g. cached address after DHCP reassignment).
+     * Property count of the local device is set if it is not known.
+     *
+     * @param nodeId      Expected node id.
+     * @param localDevice Local device to be checked.
+     * @param listener    Listener to get result. Failure is reported if node id is different.
+     */
+    public void verifyNodeId(final String nodeId, final EspLocalDevice localDevice, final ApiResponseListener listener) {
+
+        if (localDevice.getPropertyCount() <= 0) {
+
+            getPropertyCount(AppConstants.LOCAL_CONTROL_ENDPOINT, localDevice, new ApiResponseListener() {
+
+                @Override
+                public void onSuccess(Bundle data) {
+                    int count = data != null ? data.getInt(AppConstants.KEY_PROPERTY_COUNT, 0) : 0;
+                    if (count <= 0) {
+                        listener.onResponseFailure(new RuntimeException("Failed to get property count from device"));
+                        return;
+                    }
+                    localDevice.setPropertyCount(count);
+                    verifyNodeId(nodeId, localDevice, listener);
+                }
+
+                @Override
+                public void onResponseFailure(Exception exception) {
+                    listener.onResponseFailure(exception);
+                }
+
+                @Override
+                public void onNetworkFailure(Exception exception) {
+                    listener.onNetworkFailure(exception);
+                }
+            });
+            return;
+        }
+
+        getPropertyValues(AppConstants.LOCAL_CONTROL_ENDPOINT, localDevice, new ApiResponseListener() {
+
+            @Override
+            public void onSuccess(Bundle data) {
+
+                String configData = data != null ? data.getString(AppConstants.KEY_CONFIG) : null;
+                String deviceNodeId = null;
+                if (!TextUtils.isEmpty(configData)) {
+                    try {
+                        deviceNodeId = new JSONObject(configData).optString(AppConstants.KEY_NODE_ID);
+                    } catch (JSONException e) {
+                        e.printStackTrace();
+                    }
+                }
+                if (nodeId.equals(deviceNodeId)) {
+                    listener.onSuccess(data);
+                } else {
+                    Log.e(TAG, "Device at " + localDevice.getIpAddr() + " is node " + deviceNodeId + ", expected " + nodeId);
+                    listener.onResponseFailure(new RuntimeException("Node id of local device is different"));
+                }
+            }
+
+            @Override
+            public void onResponseFailure(Exception exception) {
+                listener.onResponseFailure(exception);
+            }
+
+            @Override
+            public void onNetworkFailure(Exception exception) {
+                listener.onNetworkFailure(exception);
+            }
+        });
+    }
+
     public void getPropertyCount(final String path, EspLocalDevice localDevice, final ApiResponseListener listener) {
 
         byte[] data = createGetPropertyCountRequest();
@@ -321,7 +339,7 @@ public class LocalControlApiManager {
         });
     }
 
-    public void getPropertyValues(String path, EspLocalDevice localDevice, final ApiResponseListener listener) {
+    public void getPropertyValues(String path, final EspLocalDevice localDevice, final ApiResponseListener listener) {
 
         byte[] data = createGetAllPropertyValuesRequest(localDevice.getPropertyCount());
 
@@ -330,7 +348,35 @@ public class LocalControlApiManager {
             @Override
             public void onSuccess(byte[] returnData) {
                 if (returnData != null) {
-                    processGetPropertyValue(returnData, listener);
+                    processGetPropertyValue(returnData, localDevice, listener);
+                } else {
+                    listener.onResponseFailure(new RuntimeException("Response not received."));
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onResponseFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Get value of the params property only. Index of the params property must be known from a previous
+     * {@link #getPropertyValues(String, EspLocalDevice, ApiResponseListener)} call.
+     */
+    public void getParamsPropertyValue(String path, EspLocalDevice localDevice, final ApiResponseListener listener) {
+
+        ArrayList<Integer> indices = new ArrayList<>();
+        indices.add(localDevice.getParamsPropertyIndex());
+        byte[] data = createGetPropertyValuesRequest(indices);
+
+        localDevice.sendData(path, data, new ResponseListener() {
+
+            @Override
+            public void onSuccess(byte[] returnData) {
+                if (returnData != null) {
+                    processGetPropertyValue(returnData, null, listener);
                 } else {
                     listener.onResponseFailure(new RuntimeException("Response not received."));
                 }
@@ -379,6 +425,11 @@ public class LocalControlApiManager {
         for (int i = 0; i < count; i++) {
             indices.add(i);
         }
+        return createGetPropertyValuesRequest(indices);
+    }
+
+    private byte[] createGetPropertyValuesRequest(List<Integer> indices) {
+
         EspLocalCtrl.LocalCtrlMsgType msgType = EspLocalCtrl.LocalCtrlMsgType.TypeCmdGetPropertyValues;
         EspLocalCtrl.CmdGetPropertyValues payload = EspLocalCtrl.CmdGetPropertyValues.newBuilder()
                 .addAllIndices(indices).build();
@@ -407,7 +458,10 @@ public class LocalControlApiManager {
         return count;
     }
 
-    private void processGetPropertyValue(byte[] returnData, final ApiResponseListener listener) {
+    /**
+     * @param localDevice Device to store index of params property, if all properties have been requested. Otherwise null.
+     */
+    private void processGetPropertyValue(byte[] returnData, EspLocalDevice localDevice, final ApiResponseListener listener) {
 
         try {
             EspLocalCtrl.LocalCtrlMessage response = EspLocalCtrl.LocalCtrlMessage.parseFrom(returnData);
@@ -420,6 +474,10 @@ public class LocalControlApiManager {
                 for (int i = 0; i < propertyInfoList.size(); i++) {
                     EspLocalCtrl.PropertyInfo propertyInfo = propertyInfoList.get(i);
                     bundle.putString(propertyInfo.getName(), propertyInfo.getValue().toStringUtf8());
+                    // Properties are returned in the order of requested indices.
+                    if (localDevice != null && AppConstants.KEY_PARAMS.equals(propertyInfo.getName())) {
+                        localDevice.setParamsPropertyIndex(i);
+                    }
                 }
                 listener.onSuccess(bundle);
             } else {
@@ -0,0 +1,163 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.local_control;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.espressif.AppConstants;
+import com.espressif.provisioning.listeners.ResponseListener;
+import com.espressif.utils.NodeUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+/**
+ * Keeps local control session parameters of nodes across app restarts.
+ * <p>
+ * Session keys can not be reused after restart because device keeps the session in its RAM only.
+ * So this class caches parameters which are needed before handshake (sec patch version advertised by the device)
+ * and keeps list of recently used nodes. Sessions of recently used nodes are established in background
+ * as soon as they are discovered, so that first user action does not wait for the handshake.
+ * PoP is not stored and is not used for cache key, only a hash of security type and user name is stored
+ * to find out if cached values are still valid. Cached values are removed when handshake fails with them.
+ */
+public class LocalSessionManager {
+
+    private static final String TAG = LocalSessionManager.class.getSimpleName();
+
+    private static final int MAX_RECENT_NODES = 8;
+
+    private static final String KEY_RECENT_NODES = "recent_nodes";
+    private static final String KEY_PREFIX_SEC_PATCH_VERSION = "sec_patch_ver_";
+    private static final String KEY_PREFIX_SECURITY_HASH = "sec_hash_";
+
+    private static LocalSessionManager sessionManager;
+
+    private final SharedPreferences sessionPref;
+
+    // Most recently used node is at the end. Access is synchronized on this object.
+    private final LinkedHashSet<String> recentNodes = new LinkedHashSet<>();
+
+    public static synchronized LocalSessionManager getInstance(Context context) {
+        if (sessionManager == null) {
+            sessionManager = new LocalSessionManager(context.getApplicationContext());
+        }
+        return sessionManager;
+    }
+
+    private LocalSessionManager(Context context) {
+        sessionPref = context.getSharedPreferences(AppConstants.PREF_FILE_LOCAL_SESSIONS, Context.MODE_PRIVATE);
+        String recent = sessionPref.getString(KEY_RECENT_NODES, "");
+        if (!TextUtils.isEmpty(recent)) {
+            recentNodes.addAll(Arrays.asList(recent.split(",")));
+        }
+    }
+
+    /**
+     * Get cached sec patch version of the node.
+     *
+     * @return Sec patch version, or -1 if it is not cached or security parameters of the node have been changed.
+     */
+    int getCachedSecPatchVersion(String nodeId, int securityType, String userName) {
+
+        String hash = sessionPref.getString(KEY_PREFIX_SECURITY_HASH + nodeId, null);
+        if (hash == null || !hash.equals(getSecurityHash(securityType, userName))) {
+            return -1;
+        }
+        return sessionPref.getInt(KEY_PREFIX_SEC_PATCH_VERSION + nodeId, -1);
+    }
+
+    void saveSecPatchVersion(String nodeId, int securityType, String userName, int secPatchVersion) {
+        sessionPref.edit()
+                .putString(KEY_PREFIX_SECURITY_HASH + nodeId, getSecurityHash(securityType, userName))
+                .putInt(KEY_PREFIX_SEC_PATCH_VERSION + nodeId, secPatchVersion)
+                .apply();
+    }
+
+    /**
+     * Remove cached values of the node, e.g. when handshake has failed with cached values.
+     */
+    void invalidate(String nodeId) {
+        sessionPref.edit()
+                .remove(KEY_PREFIX_SECURITY_HASH + nodeId)
+                .remove(KEY_PREFIX_SEC_PATCH_VERSION + nodeId)
+                .apply();
+    }
+
+    /**
+     * Mark node as recently used. Only the last {@link #MAX_RECENT_NODES} nodes are kept.
+     */
+    synchronized void onDeviceUsed(String nodeId) {
+
+        if (recentNodes.contains(nodeId) && getLastUsedNode().equals(nodeId)) {
+            return;
+        }
+        recentNodes.remove(nodeId);
+        recentNodes.add(nodeId);
+        while (recentNodes.size() > MAX_RECENT_NODES) {
+            recentNodes.remove(recentNodes.iterator().next());
+        }
+        sessionPref.edit().putString(KEY_RECENT_NODES, TextUtils.join(",", recentNodes)).apply();
+    }
+
+    public synchronized boolean isRecentlyUsed(String nodeId) {
+        return recentNodes.contains(nodeId);
+    }
+
+    /**
+     * Establish session of the device in background, if device has been used recently and session is not available.
+     *
+     * @param device Local device.
+     */
+    public void prewarm(final EspLocalDevice device) {
+
+        if (!isRecentlyUsed(device.getNodeId()) || device.isSessionEstablished()) {
+            return;
+        }
+        Log.d(TAG, "Prewarm local session for node : " + device.getNodeId());
+        device.prepareSession(new ResponseListener() {
+            @Override
+            public void onSuccess(byte[] returnData) {
+                Log.d(TAG, "Local session is ready for node : " + device.getNodeId());
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Failed to prewarm local session for node : " + device.getNodeId());
+            }
+        });
+    }
+
+    /**
+     * Remove all cached values. Should be called on logout.
+     */
+    public synchronized void clear() {
+        recentNodes.clear();
+        sessionPref.edit().clear().apply();
+    }
+
+    private String getLastUsedNode() {
+        ArrayList<String> nodes = new ArrayList<>(recentNodes);
+        return nodes.isEmpty() ? "" : nodes.get(nodes.size() - 1);
+    }
+
+    private static String getSecurityHash(int securityType, String userName) {
+        return NodeUtils.Companion.getContentHash(securityType + ":" + (userName != null ? userName : ""));
+    }
+}
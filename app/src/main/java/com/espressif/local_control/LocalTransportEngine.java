@@ -0,0 +1,233 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.local_control;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+/**
+ * Shared engine for all local control transports.
+ * <p>
+ * One HTTP client with keep-alive connection pool is used for all devices, so back-to-back requests to a device reuse
+ * the open TCP connection. Requests are executed on one bounded worker pool. Requests of the same device are executed
+ * one after another in submission order, because local control session expects request / response in sequence.
+ * Next request of a device is started as soon as the previous response is received, without going through the queue of other devices.
+ */
+public class LocalTransportEngine {
+
+    private static final String TAG = LocalTransportEngine.class.getSimpleName();
+
+    private static final int WORKER_THREAD_COUNT = 4;
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_DURATION_MINUTES = 5;
+    private static final int TIMEOUT_MS = 5000;
+    private static final int PROBE_TIMEOUT_MS = 1500;
+
+    private static LocalTransportEngine engine;
+
+    private final OkHttpClient httpClient;
+    private final OkHttpClient probeClient;
+    private final ExecutorService workerPool;
+
+    // Key is base URL of the device.
+    private final HashMap<String, DeviceQueue> deviceQueues = new HashMap<>();
+    private final Stats stats = new Stats();
+
+    public static synchronized LocalTransportEngine getInstance() {
+        if (engine == null) {
+            engine = new LocalTransportEngine();
+        }
+        return engine;
+    }
+
+    private LocalTransportEngine() {
+
+        httpClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION_MINUTES, TimeUnit.MINUTES))
+                .connectTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .readTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .writeTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                // Silent retry could send a session request twice on a stale pooled connection.
+                // Only failed connect is retried, by EspLocalTransport.
+                .retryOnConnectionFailure(false)
+                .build();
+
+        // Shares connection pool with the main client, so connection opened by a probe is reused by the session.
+        probeClient = httpClient.newBuilder()
+                .connectTimeout(PROBE_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .readTimeout(PROBE_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .writeTimeout(PROBE_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .build();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKER_THREAD_COUNT, WORKER_THREAD_COUNT,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+        workerPool = executor;
+    }
+
+    OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Returns HTTP client with short timeouts, used to check if a device is reachable at a known address.
+     */
+    OkHttpClient getProbeClient() {
+        return probeClient;
+    }
+
+    /**
+     * Returns latency, failure and retry counters of all local control requests.
+     */
+    public Stats getStats() {
+        return stats;
+    }
+
+    /**
+     * Execute the task on worker pool, after all previously submitted tasks of the same device are done.
+     *
+     * @param baseUrl Base URL of the device.
+     * @param task    Task to be executed.
+     */
+    void execute(String baseUrl, Runnable task) {
+
+        DeviceQueue deviceQueue;
+        synchronized (deviceQueues) {
+            deviceQueue = deviceQueues.get(baseUrl);
+            if (deviceQueue == null) {
+                deviceQueue = new DeviceQueue(baseUrl);
+                deviceQueues.put(baseUrl, deviceQueue);
+            }
+        }
+        deviceQueue.add(task);
+    }
+
+    private class DeviceQueue {
+
+        private final String baseUrl;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private boolean isRunning;
+
+        DeviceQueue(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        synchronized void add(Runnable task) {
+            tasks.add(task);
+            if (!isRunning) {
+                isRunning = true;
+                workerPool.execute(drainTask);
+            }
+        }
+
+        private synchronized Runnable next() {
+            Runnable task = tasks.poll();
+            if (task == null) {
+                isRunning = false;
+            }
+            return task;
+        }
+
+        // Runs all queued tasks of this device on the same worker thread.
+        private final Runnable drainTask = new Runnable() {
+            @Override
+            public void run() {
+                Runnable task;
+                while ((task = next()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        Log.e(TAG, "Local control task failed for " + baseUrl);
+                        e.printStackTrace();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Counters of local control requests.
+     */
+    public static class Stats {
+
+        private final AtomicInteger requestCount = new AtomicInteger();
+        private final AtomicInteger failureCount = new AtomicInteger();
+        private final AtomicInteger retryCount = new AtomicInteger();
+        private final AtomicLong totalLatency = new AtomicLong();
+        private final AtomicLong maxLatency = new AtomicLong();
+
+        void onRequestDone(long latency, boolean isSuccess) {
+            requestCount.incrementAndGet();
+            if (!isSuccess) {
+                failureCount.incrementAndGet();
+            }
+            totalLatency.addAndGet(latency);
+            long max;
+            do {
+                max = maxLatency.get();
+            } while (latency > max && !maxLatency.compareAndSet(max, latency));
+        }
+
+        void onRetry() {
+            retryCount.incrementAndGet();
+        }
+
+        public int getRequestCount() {
+            return requestCount.get();
+        }
+
+        public int getFailureCount() {
+            return failureCount.get();
+        }
+
+        public int getRetryCount() {
+            return retryCount.get();
+        }
+
+        public long getAverageLatency() {
+            int count = requestCount.get();
+            return count == 0 ? 0 : totalLatency.get() / count;
+        }
+
+        public long getMaxLatency() {
+            return maxLatency.get();
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "LocalTransportStats{" +
+                    "requests=" + requestCount.get() +
+                    ", failures=" + failureCount.get() +
+                    ", retries=" + retryCount.get() +
+                    ", avgLatency=" + getAverageLatency() + "ms" +
+                    ", maxLatency=" + maxLatency.get() + "ms" +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,342 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.local_control;
+
+import android.content.Context;
+import android.net.nsd.NsdManager;
+import android.net.nsd.NsdServiceInfo;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single DNS-SD discovery engine for all service types used by the app (local control, TBR, challenge-response).
+ * <p>
+ * Subscribers register for a service type. Discovery of a service type runs while it has subscribers.
+ * Found services are resolved concurrently (up to {@link #maxConcurrentResolves}) and each service is resolved once,
+ * even if it is reported many times. Resolved records (host, port and TXT) are cached for {@link #RESOLVE_CACHE_TTL_MS},
+ * so a service which is found again within this time is reported without resolving it again.
+ * <p>
+ * Listener callbacks are delivered on main thread.
+ */
+public class NsdDiscoveryEngine {
+
+    private static final String TAG = NsdDiscoveryEngine.class.getSimpleName();
+
+    private static final long RESOLVE_CACHE_TTL_MS = 120 * 1000;
+
+    private static NsdDiscoveryEngine discoveryEngine;
+
+    private final NsdManager nsdManager;
+    private final Handler handler;
+
+    // Key is service type.
+    private final HashMap<String, TypeDiscovery> discoveries = new HashMap<>();
+
+    // Key of below collections is service type + service name. Access is synchronized on this object.
+    private final LinkedHashMap<String, NsdServiceInfo> pendingResolves = new LinkedHashMap<>();
+    private final HashSet<String> activeResolves = new HashSet<>();
+    private final HashMap<String, NsdService> resolvedServices = new HashMap<>();
+
+    // Android 14 and later resolve services concurrently. On older versions, the limit is reduced
+    // if the platform reports that a resolve is already active.
+    private int maxConcurrentResolves = Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE ? 8 : 4;
+
+    public static synchronized NsdDiscoveryEngine getInstance(Context context) {
+        if (discoveryEngine == null) {
+            discoveryEngine = new NsdDiscoveryEngine(context.getApplicationContext());
+        }
+        return discoveryEngine;
+    }
+
+    private NsdDiscoveryEngine(Context context) {
+        nsdManager = (NsdManager) context.getSystemService(Context.NSD_SERVICE);
+        handler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Resolved DNS-SD service.
+     */
+    public static class NsdService {
+
+        private final String serviceType;
+        private final String serviceName;
+        private final String host;
+        private final int port;
+        private final HashMap<String, String> attributes;
+        private final long resolvedTime;
+
+        NsdService(String serviceType, NsdServiceInfo serviceInfo) {
+            this.serviceType = serviceType;
+            this.serviceName = serviceInfo.getServiceName();
+            InetAddress hostAddress = serviceInfo.getHost();
+            this.host = hostAddress != null ? hostAddress.getHostAddress() : "";
+            this.port = serviceInfo.getPort();
+            this.attributes = new HashMap<>();
+            for (Map.Entry<String, byte[]> entry : serviceInfo.getAttributes().entrySet()) {
+                byte[] value = entry.getValue();
+                attributes.put(entry.getKey(), value != null ? new String(value, StandardCharsets.UTF_8) : "");
+            }
+            this.resolvedTime = System.currentTimeMillis();
+        }
+
+        public String getServiceType() {
+            return serviceType;
+        }
+
+        public String getServiceName() {
+            return serviceName;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        /**
+         * @return TXT records of the service.
+         */
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - resolvedTime > RESOLVE_CACHE_TTL_MS;
+        }
+    }
+
+    public interface ServiceListener {
+
+        void onServiceFound(NsdService service);
+
+        void onServiceLost(String serviceType, String serviceName);
+    }
+
+    private class TypeDiscovery {
+
+        private final String serviceType;
+        private final ArrayList<ServiceListener> listeners = new ArrayList<>();
+        private NsdManager.DiscoveryListener discoveryListener;
+
+        TypeDiscovery(String serviceType) {
+            this.serviceType = serviceType;
+        }
+    }
+
+    /**
+     * Start discovery of given service type for the listener. Services of this type which are resolved recently
+     * are reported to the listener immediately. If discovery is already running, it is restarted to find new services.
+     */
+    public synchronized void subscribe(String serviceType, ServiceListener listener) {
+
+        TypeDiscovery discovery = discoveries.get(serviceType);
+        if (discovery == null) {
+            discovery = new TypeDiscovery(serviceType);
+            discoveries.put(serviceType, discovery);
+        }
+        if (!discovery.listeners.contains(listener)) {
+            discovery.listeners.add(listener);
+        }
+
+        for (NsdService service : resolvedServices.values()) {
+            if (service.serviceType.equals(serviceType) && !service.isExpired()) {
+                handler.post(() -> listener.onServiceFound(service));
+            }
+        }
+        stopDiscovery(discovery);
+        startDiscovery(discovery);
+    }
+
+    /**
+     * Remove listener. Discovery of the service type is stopped when it has no more listeners.
+     */
+    public synchronized void unsubscribe(String serviceType, ServiceListener listener) {
+
+        TypeDiscovery discovery = discoveries.get(serviceType);
+        if (discovery == null) {
+            return;
+        }
+        discovery.listeners.remove(listener);
+        if (discovery.listeners.isEmpty()) {
+            stopDiscovery(discovery);
+            discoveries.remove(serviceType);
+            Iterator<String> iterator = pendingResolves.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().startsWith(serviceType + "/")) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void startDiscovery(final TypeDiscovery discovery) {
+
+        Log.d(TAG, "Start discovery : " + discovery.serviceType);
+        discovery.discoveryListener = new NsdManager.DiscoveryListener() {
+
+            @Override
+            public void onDiscoveryStarted(String regType) {
+                Log.d(TAG, "Service discovery started : " + regType);
+            }
+
+            @Override
+            public void onServiceFound(NsdServiceInfo serviceInfo) {
+                Log.d(TAG, "Service found : " + serviceInfo.getServiceName());
+                if (serviceInfo.getServiceType().equals(discovery.serviceType)) {
+                    onFound(discovery.serviceType, serviceInfo);
+                } else {
+                    Log.e(TAG, "Unknown Service Type: " + serviceInfo.getServiceType());
+                }
+            }
+
+            @Override
+            public void onServiceLost(NsdServiceInfo serviceInfo) {
+                Log.d(TAG, "Service lost : " + serviceInfo.getServiceName());
+                onLost(discovery.serviceType, serviceInfo.getServiceName());
+            }
+
+            @Override
+            public void onDiscoveryStopped(String serviceType) {
+                Log.d(TAG, "Discovery stopped : " + serviceType);
+            }
+
+            @Override
+            public void onStartDiscoveryFailed(String serviceType, int errorCode) {
+                Log.e(TAG, "Start discovery failed : " + serviceType + ", error code : " + errorCode);
+                synchronized (NsdDiscoveryEngine.this) {
+                    if (discovery.discoveryListener == this) {
+                        discovery.discoveryListener = null;
+                    }
+                }
+            }
+
+            @Override
+            public void onStopDiscoveryFailed(String serviceType, int errorCode) {
+                Log.e(TAG, "Stop discovery failed : " + serviceType + ", error code : " + errorCode);
+            }
+        };
+        nsdManager.discoverServices(discovery.serviceType, NsdManager.PROTOCOL_DNS_SD, discovery.discoveryListener);
+    }
+
+    private void stopDiscovery(TypeDiscovery discovery) {
+
+        if (discovery.discoveryListener != null) {
+            Log.d(TAG, "Stop discovery : " + discovery.serviceType);
+            try {
+                nsdManager.stopServiceDiscovery(discovery.discoveryListener);
+            } catch (IllegalArgumentException e) {
+                Log.e(TAG, "Discovery is not active : " + e.getMessage());
+            }
+            discovery.discoveryListener = null;
+        }
+    }
+
+    private synchronized void onFound(String serviceType, NsdServiceInfo serviceInfo) {
+
+        String key = serviceType + "/" + serviceInfo.getServiceName();
+        NsdService cached = resolvedServices.get(key);
+        if (cached != null && !cached.isExpired()) {
+            Log.d(TAG, "Service is already resolved : " + key);
+            notifyFound(cached);
+            return;
+        }
+        if (activeResolves.contains(key) || pendingResolves.containsKey(key)) {
+            Log.d(TAG, "Service is already in queue : " + key);
+            return;
+        }
+        pendingResolves.put(key, serviceInfo);
+        resolveNext();
+    }
+
+    private synchronized void onLost(String serviceType, String serviceName) {
+
+        String key = serviceType + "/" + serviceName;
+        pendingResolves.remove(key);
+        resolvedServices.remove(key);
+        TypeDiscovery discovery = discoveries.get(serviceType);
+        if (discovery != null) {
+            for (final ServiceListener listener : new ArrayList<>(discovery.listeners)) {
+                handler.post(() -> listener.onServiceLost(serviceType, serviceName));
+            }
+        }
+    }
+
+    private synchronized void resolveNext() {
+
+        while (activeResolves.size() < maxConcurrentResolves && !pendingResolves.isEmpty()) {
+
+            Iterator<Map.Entry<String, NsdServiceInfo>> iterator = pendingResolves.entrySet().iterator();
+            Map.Entry<String, NsdServiceInfo> entry = iterator.next();
+            iterator.remove();
+            final String key = entry.getKey();
+            final String serviceType = key.substring(0, key.indexOf('/'));
+            activeResolves.add(key);
+
+            nsdManager.resolveService(entry.getValue(), new NsdManager.ResolveListener() {
+
+                @Override
+                public void onResolveFailed(NsdServiceInfo serviceInfo, int errorCode) {
+                    Log.e(TAG, "Resolve failed for " + key + ", error code : " + errorCode);
+                    synchronized (NsdDiscoveryEngine.this) {
+                        activeResolves.remove(key);
+                        if (errorCode == NsdManager.FAILURE_ALREADY_ACTIVE && maxConcurrentResolves > 1) {
+                            maxConcurrentResolves--;
+                            Log.d(TAG, "Concurrent resolves are limited to " + maxConcurrentResolves);
+                            pendingResolves.put(key, serviceInfo);
+                        }
+                        resolveNext();
+                    }
+                }
+
+                @Override
+                public void onServiceResolved(NsdServiceInfo serviceInfo) {
+                    Log.d(TAG, "Resolved " + key + ", host : " + serviceInfo.getHost() + ", port : " + serviceInfo.getPort());
+                    NsdService service = new NsdService(serviceType, serviceInfo);
+                    synchronized (NsdDiscoveryEngine.this) {
+                        activeResolves.remove(key);
+                        if (discoveries.containsKey(serviceType)) {
+                            resolvedServices.put(key, service);
+                            notifyFound(service);
+                        }
+                        resolveNext();
+                    }
+                }
+            });
+        }
+    }
+
+    private void notifyFound(final NsdService service) {
+        TypeDiscovery discovery = discoveries.get(service.serviceType);
+        if (discovery == null) {
+            return;
+        }
+        for (final ServiceListener listener : new ArrayList<>(discovery.listeners)) {
+            handler.post(() -> listener.onServiceFound(service));
+        }
+    }
+}
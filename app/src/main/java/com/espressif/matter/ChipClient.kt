@@ -64,6 +64,9 @@ class ChipClient @JvmOverloads constructor(
 
     companion object {
         const val TAG = "ChipClient"
+
+        // Cached device pointer is used for this duration, after that it is requested again from controller.
+        private const val DEVICE_POINTER_TTL_MS = 5 * 60 * 1000L
     }
 
     /* 0x131B is a Espressif's vendor ID, replace with your assigned company ID */
@@ -84,6 +87,9 @@ class ChipClient @JvmOverloads constructor(
     var challenge: String? = null
     var tempDeviceId: Long? = null
 
+    // Connected device pointers, key is matter device id. Value is pointer and the time at which it was received.
+    private val devicePointerCache = java.util.concurrent.ConcurrentHashMap<Long, Pair<Long, Long>>()
+
     // Create a proper coroutine scope for this ChipClient instance
     private val chipClientScope = CoroutineScope(Dispatchers.IO + SupervisorJob())
 
@@ -296,26 +302,40 @@ class ChipClient @JvmOverloads constructor(
 
     /**
      * Wrapper around [ChipDeviceController.getConnectedDevicePointer] to return the value directly.
+     * Pointer is cached per device and cache is invalidated when connection or an operation on the device fails.
      */
     suspend fun getConnectedDevicePointer(nodeId: Long): Long {
+        val cached = devicePointerCache[nodeId]
+        if (cached != null && System.currentTimeMillis() - cached.second < DEVICE_POINTER_TTL_MS) {
+            return cached.first
+        }
         return suspendCoroutine { continuation ->
             chipDeviceController.getConnectedDevicePointer(
                 nodeId,
                 object : GetConnectedDeviceCallback {
                     override fun onDeviceConnected(devicePointer: Long) {
                         Log.d(TAG, "Got connected device pointer")
+                        devicePointerCache[nodeId] = Pair(devicePointer, System.currentTimeMillis())
                         continuation.resume(devicePointer)
                     }
 
                     override fun onConnectionFailure(nodeId: Long, error: Exception) {
                         val errorMessage = "Unable to get connected device with nodeId $nodeId."
                         Log.e(TAG, errorMessage, error)
+                        devicePointerCache.remove(nodeId)
                         continuation.resumeWithException(IllegalStateException(errorMessage))
                     }
                 })
         }
     }
 
+    /**
+     * Remove cached pointer, so that next operation gets a new connected device pointer from controller.
+     */
+    fun invalidateDevicePointer(devicePtr: Long) {
+        devicePointerCache.entries.removeIf { it.value.first == devicePtr }
+    }
+
     suspend fun readDescriptorClusterPartsListAttribute(
         devicePtr: Long,
         endpoint: Int
@@ -944,22 +964,7 @@ class ChipClient @JvmOverloads constructor(
      * Wrapper around [ChipDeviceController.getConnectedDevicePointer] to return the value directly.
      */
     suspend fun awaitGetConnectedDevicePointer(nodeId: Long): Long {
-        return suspendCoroutine { continuation ->
-            chipDeviceController.getConnectedDevicePointer(
-                nodeId,
-                object : GetConnectedDeviceCallback {
-                    override fun onDeviceConnected(devicePointer: Long) {
-                        Log.d(TAG, "Got connected device pointer")
-                        continuation.resume(devicePointer)
-                    }
-
-                    override fun onConnectionFailure(nodeId: Long, error: Exception) {
-                        val errorMessage = "Unable to get connected device with nodeId $nodeId"
-                        Log.e(TAG, errorMessage, error)
-                        continuation.resumeWithException(IllegalStateException(errorMessage))
-                    }
-                })
-        }
+        return getConnectedDevicePointer(nodeId)
     }
 
     // ---------------------------------------------------------------------------
@@ -1016,6 +1021,7 @@ class ChipClient @JvmOverloads constructor(
 //                                e
 //                            )
 //                        )
+                        invalidateDevicePointer(devicePtr)
                         continuation.resume(Unit)
                     }
 
@@ -1056,6 +1062,9 @@ class ChipClient @JvmOverloads constructor(
         attributePaths: List<ChipAttributePath>
     ): Map<ChipAttributePath, AttributeState> {
         return suspendCoroutine { continuation ->
+            // Error of one path (e.g. unsupported attribute) is followed by report of other paths,
+            // so continuation is resumed only once.
+            val isResumed = java.util.concurrent.atomic.AtomicBoolean(false)
             val callback: ReportCallback =
                 object : ReportCallback {
 
@@ -1064,32 +1073,40 @@ class ChipClient @JvmOverloads constructor(
                         eventPath: ChipEventPath?,
                         e: java.lang.Exception
                     ) {
-                        continuation.resumeWithException(
-                            IllegalStateException(
-                                "readAttributes failed",
-                                e
+                        if (attributePath != null && attributePaths.size > 1) {
+                            Log.w(TAG, "Read failed for attribute path : $attributePath, ${e.message}")
+                            return
+                        }
+                        if (isResumed.compareAndSet(false, true)) {
+                            invalidateDevicePointer(devicePtr)
+                            continuation.resumeWithException(
+                                IllegalStateException(
+                                    "readAttributes failed",
+                                    e
+                                )
                             )
-                        )
+                        }
                     }
 
                     override fun onReport(nodeState: NodeState?) {
+                        if (!isResumed.compareAndSet(false, true)) {
+                            return
+                        }
                         val states: HashMap<ChipAttributePath, AttributeState> = HashMap()
 
                         if (nodeState != null) {
                             Log.d(TAG, "Node state : ${nodeState.toString()}")
                             for (path in attributePaths) {
                                 val endpoint: Int = path.endpointId.id.toInt()
-                                try {
-                                    states[path] =
-                                        nodeState
-                                            .getEndpointState(endpoint)!!
-                                            .getClusterState(path.clusterId.id)!!
-                                            .getAttributeState(path.attributeId.id)!!
-                                } catch (e: Exception) {
-                                    Log.e(TAG, "Exception : " + e.message)
-                                    e.printStackTrace()
+                                val state = nodeState
+                                    .getEndpointState(endpoint)
+                                    ?.getClusterState(path.clusterId.id)
+                                    ?.getAttributeState(path.attributeId.id)
+                                if (state != null) {
+                                    states[path] = state
+                                } else {
+                                    Log.w(TAG, "Attribute is not available in report : $path")
                                 }
-
                             }
                         }
                         continuation.resume(states)
@@ -1098,6 +1115,10 @@ class ChipClient @JvmOverloads constructor(
                     override fun onDone() {
                         super.onDone()
                         Log.d(TAG, "Report callback onDone")
+                        // Read ended with errors of all paths and without report.
+                        if (isResumed.compareAndSet(false, true)) {
+                            continuation.resume(emptyMap())
+                        }
                     }
                 }
             chipDeviceController.readAttributePath(
@@ -1119,6 +1140,7 @@ class ChipClient @JvmOverloads constructor(
                     override fun onError(e: java.lang.Exception?) {
 
                         e?.printStackTrace()
+                        invalidateDevicePointer(devicePtr)
                         continuation.resumeWithException(
                             IllegalStateException(
                                 "invoke failed",
@@ -1144,6 +1166,7 @@ class ChipClient @JvmOverloads constructor(
      */
     fun cleanup() {
         Log.d(TAG, "Cleaning up ChipClient and cancelling all coroutines")
+        devicePointerCache.clear()
         chipClientScope.cancel()
     }
 }
@@ -18,6 +18,7 @@ import android.os.Bundle
 import android.text.TextUtils
 import android.util.Log
 import chip.devicecontroller.ChipClusters
+import chip.devicecontroller.model.ChipAttributePath
 import com.espressif.AppConstants
 import com.espressif.AppConstants.Companion.UpdateEventType
 import com.espressif.EspApplication
@@ -28,16 +29,56 @@ import com.espressif.ui.models.Param
 import com.espressif.ui.models.UpdateEvent
 import com.espressif.utils.NodeUtils
 import com.espressif.utils.ParamUtils
+import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.GlobalScope
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.future.future
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
 import org.greenrobot.eventbus.EventBus
 import java.math.BigInteger
-import java.util.concurrent.ExecutionException
+import java.util.concurrent.CompletableFuture
 
 class ChipClientHelper constructor(private val espApp: EspApplication) {
 
     companion object {
         const val TAG = "ChipClientHelper"
+
+        private const val MAX_CONCURRENT_READS = 4
+
+        private const val ATTRIBUTE_ON_OFF = 0x0000L
+        private const val ATTRIBUTE_CURRENT_LEVEL = 0x0000L
+        private const val ATTRIBUTE_CURRENT_HUE = 0x0000L
+        private const val ATTRIBUTE_CURRENT_SATURATION = 0x0001L
+        private const val ATTRIBUTE_COLOR_TEMPERATURE_MIREDS = 0x0007L
+        private const val ATTRIBUTE_MEASURED_VALUE = 0x0000L
+        private const val ATTRIBUTE_LOCK_STATE = 0x0000L
+        private const val ATTRIBUTE_SPEED_CURRENT = 0x0006L
+        private const val ATTRIBUTE_LOCAL_TEMPERATURE = 0x0000L
+        private const val ATTRIBUTE_OCCUPIED_COOLING_SETPOINT = 0x0011L
+        private const val ATTRIBUTE_OCCUPIED_HEATING_SETPOINT = 0x0012L
+        private const val ATTRIBUTE_SYSTEM_MODE = 0x001CL
+
+        // Attributes read for current values, key is cluster id.
+        private val READ_ATTRIBUTES = mapOf(
+            ChipClusters.OnOffCluster.CLUSTER_ID to listOf(ATTRIBUTE_ON_OFF),
+            ChipClusters.LevelControlCluster.CLUSTER_ID to listOf(ATTRIBUTE_CURRENT_LEVEL),
+            ChipClusters.ColorControlCluster.CLUSTER_ID to listOf(
+                ATTRIBUTE_CURRENT_HUE,
+                ATTRIBUTE_CURRENT_SATURATION,
+                ATTRIBUTE_COLOR_TEMPERATURE_MIREDS
+            ),
+            ChipClusters.TemperatureMeasurementCluster.CLUSTER_ID to listOf(ATTRIBUTE_MEASURED_VALUE),
+            ChipClusters.DoorLockCluster.CLUSTER_ID to listOf(ATTRIBUTE_LOCK_STATE),
+            ChipClusters.FanControlCluster.CLUSTER_ID to listOf(ATTRIBUTE_SPEED_CURRENT),
+            ChipClusters.ThermostatCluster.CLUSTER_ID to listOf(
+                ATTRIBUTE_SYSTEM_MODE,
+                ATTRIBUTE_OCCUPIED_COOLING_SETPOINT,
+                ATTRIBUTE_OCCUPIED_HEATING_SETPOINT,
+                ATTRIBUTE_LOCAL_TEMPERATURE
+            )
+        )
     }
 
     suspend fun initChipClient(matterNodeId: String) {
@@ -85,8 +126,7 @@ class ChipClientHelper constructor(private val espApp: EspApplication) {
                                         )
                                         && !TextUtils.isEmpty(matterNodeId)
                                     ) {
-                                        val chipClient = ChipClient(
-                                            espApp,
+                                        val chipClient = ChipClientPool.getInstance(espApp).getClient(
                                             g.groupId,
                                             fabricId,
                                             rootCa,
@@ -101,7 +141,7 @@ class ChipClientHelper constructor(private val espApp: EspApplication) {
                                 val node: EspNode? = espApp.nodeMap.get(nodeId)
                                 if (node != null) {
                                     addParamsForMatterDevice(nodeId, matterNodeId, node)
-                                    getCurrentValues(nodeId, matterNodeId, node)
+                                    readCurrentValues(nodeId, matterNodeId, node)
                                 }
                                 Log.d(TAG, "Init and fetch cluster info done for the device")
                             }
@@ -206,246 +246,212 @@ class ChipClientHelper constructor(private val espApp: EspApplication) {
         }
     }
 
-    @Throws(ExecutionException::class)
-    fun getCurrentValues(nodeId: String?, matterNodeId: String?, node: EspNode) {
-
-        val id = BigInteger(matterNodeId, 16)
-        val deviceId = id.toLong()
-        Log.d(TAG, "Device id : $deviceId")
-
-        if (espApp.matterDeviceInfoMap.containsKey(matterNodeId)) {
-            var matterDeviceInfo = espApp.matterDeviceInfoMap.get(matterNodeId)
-
-            if (matterDeviceInfo != null && matterDeviceInfo.size > 0) {
-
-                for (clusterInfo in matterDeviceInfo) {
-
-                    if (node.devices[0].params == null) {
-                        Log.e(TAG, "Matter device params are not available")
-                        return
-                    }
-
-                    var params: ArrayList<Param> = node.devices[0].params
-
-                    if (clusterInfo.endpoint == AppConstants.ENDPOINT_1 && clusterInfo.serverClusters != null
-                    ) {
-                        if (clusterInfo.serverClusters.contains(ChipClusters.OnOffCluster.CLUSTER_ID)) {
-
-                            val espClusterHelper =
-                                OnOffClusterHelper(espApp.chipClientMap[matterNodeId]!!)
-                            val onOffStatus: Boolean? =
-                                espClusterHelper.getDeviceStateOnOffClusterAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
-
-                            Log.d(TAG, "On off cluster value : : $onOffStatus")
-
-                            for (param in params) {
-                                if (AppConstants.PARAM_TYPE_POWER.equals(param.paramType)) {
-                                    if (onOffStatus != null) {
-                                        param.switchStatus = onOffStatus
-                                    }
-                                }
+    /**
+     * Read current values of multiple Matter devices, [MAX_CONCURRENT_READS] devices at a time.
+     * Device status update event is posted when values of all devices are read.
+     *
+     * @param matterNodes Key is node id and value is matter node id.
+     */
+    fun getCurrentValuesForNodes(matterNodes: Map<String, String>): CompletableFuture<Unit> =
+        GlobalScope.future {
+            val semaphore = Semaphore(MAX_CONCURRENT_READS)
+            val startTime = System.currentTimeMillis()
+            coroutineScope {
+                for ((nodeId, matterNodeId) in matterNodes) {
+                    val node = espApp.nodeMap[nodeId] ?: continue
+                    launch(Dispatchers.IO) {
+                        semaphore.withPermit {
+                            try {
+                                readCurrentValues(nodeId, matterNodeId, node)
+                            } catch (e: Exception) {
+                                Log.e(TAG, "Failed to read current values for matter node : $matterNodeId")
+                                e.printStackTrace()
                             }
                         }
+                    }
+                }
+            }
+            Log.d(TAG, "Read current values of ${matterNodes.size} matter nodes in ${System.currentTimeMillis() - startTime} ms")
+            EventBus.getDefault().post(UpdateEvent(UpdateEventType.EVENT_DEVICE_STATUS_UPDATE))
+        }
 
-                        if (clusterInfo.serverClusters.contains(ChipClusters.LevelControlCluster.CLUSTER_ID)) {
+    /**
+     * Read current values of the Matter device in a single read request and update params of the node.
+     */
+    suspend fun readCurrentValues(nodeId: String?, matterNodeId: String?, node: EspNode) {
 
-                            val espClusterHelper =
-                                LevelControlClusterHelper(espApp.chipClientMap[matterNodeId]!!)
-                            var brightnessValue: Int? =
-                                espClusterHelper.getCurrentLevelValueAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
+        val matterDeviceInfo = espApp.matterDeviceInfoMap[matterNodeId]
+        if (matterDeviceInfo.isNullOrEmpty()) {
+            return
+        }
+        if (node.devices[0].params == null) {
+            Log.e(TAG, "Matter device params are not available")
+            return
+        }
+        val chipClient = espApp.chipClientMap[matterNodeId] ?: return
 
-                            Log.d(TAG, "Level control cluster value : $brightnessValue")
+        val deviceId = BigInteger(matterNodeId, 16).toLong()
+        Log.d(TAG, "Device id : $deviceId")
 
-                            for (param in params) {
-                                if (AppConstants.PARAM_TYPE_BRIGHTNESS.equals(param.paramType)) {
-                                    if (brightnessValue != null) {
-                                        var temp = ((brightnessValue * 100f) / 255f)
-                                        brightnessValue = temp.toInt()
-                                        param.value = brightnessValue.toDouble()
-                                    }
-                                }
-                            }
-                        }
+        val attributePaths = getCurrentValuePaths(matterNodeId)
+        if (attributePaths.isEmpty()) {
+            return
+        }
 
-                        if (clusterInfo.serverClusters.contains(ChipClusters.ColorControlCluster.CLUSTER_ID)) {
-
-                            val espClusterHelper =
-                                ColorControlClusterHelper(espApp.chipClientMap[matterNodeId]!!)
-                            var hueValue: Int? =
-                                espClusterHelper.getCurrentHueValueAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
-
-                            var saturationValue: Int? =
-                                espClusterHelper.getCurrentSaturationValueAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
-
-                            val cctKelvin: Int? = try {
-                                espClusterHelper.getCurrentCCTValueInKelvinAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
-                            } catch (e: Exception) {
-                                // Cluster present without ColorTemperature attribute (e.g. RGB-only bulb).
-                                null
-                            }
+        val devicePtr =
+            try {
+                chipClient.getConnectedDevicePointer(deviceId)
+            } catch (e: IllegalStateException) {
+                Log.e(TAG, "Can't get connectedDevicePointer.")
+                return
+            }
 
-                            Log.d(TAG, "Color control cluster  hueValue : $hueValue")
-                            Log.d(TAG, "Color control cluster saturationValue : $saturationValue")
-                            Log.d(TAG, "Color control cluster cct (Kelvin) : $cctKelvin")
+        val states = chipClient.readAttributes(devicePtr, attributePaths)
+        val values = HashMap<Long, HashMap<Long, Any?>>()
+        for ((path, state) in states) {
+            values.getOrPut(path.clusterId.id) { HashMap() }[path.attributeId.id] = state.value
+        }
+        Log.d(TAG, "Read ${states.size} of ${attributePaths.size} attributes for matter node : $matterNodeId")
+        applyValues(node.devices[0].params, values)
+        if (nodeId != null) {
+            espApp.deviceRegistry.notifyNodeUpdated(nodeId)
+        }
+    }
 
-                            for (param in params) {
-                                if (AppConstants.PARAM_TYPE_HUE.equals(param.paramType)) {
-                                    if (hueValue != null) {
-                                        var temp = ((hueValue * 360f) / 255f)
-                                        hueValue = temp.toInt()
-                                        param.value = hueValue.toDouble()
-                                    }
-                                } else if (AppConstants.PARAM_TYPE_SATURATION.equals(param.paramType)) {
-                                    if (saturationValue != null) {
-                                        var temp = ((saturationValue * 100f) / 255f)
-                                        saturationValue = temp.toInt()
-                                        param.value = saturationValue.toDouble()
-                                    }
-                                } else if (AppConstants.PARAM_TYPE_CCT.equals(param.paramType)) {
-                                    if (cctKelvin != null) {
-                                        param.value = cctKelvin.toDouble()
-                                    }
-                                }
-                            }
-                        }
+    /**
+     * Attribute paths which are used to get current values of the Matter device (for read and subscription).
+     */
+    fun getCurrentValuePaths(matterNodeId: String?): ArrayList<ChipAttributePath> {
 
-                        if (clusterInfo.serverClusters.contains(ChipClusters.TemperatureMeasurementCluster.CLUSTER_ID)) {
+        val attributePaths = ArrayList<ChipAttributePath>()
+        val matterDeviceInfo = espApp.matterDeviceInfoMap[matterNodeId] ?: return attributePaths
 
-                            val espClusterHelper =
-                                TemperatureClusterHelper(espApp.chipClientMap[matterNodeId]!!)
-                            var temperatureValue: Double? =
-                                espClusterHelper.getTemperatureAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
+        for (clusterInfo in matterDeviceInfo) {
+            if (clusterInfo.endpoint != AppConstants.ENDPOINT_1 || clusterInfo.serverClusters == null) {
+                continue
+            }
+            for ((clusterId, attributeIds) in READ_ATTRIBUTES) {
+                if (clusterInfo.serverClusters.contains(clusterId)) {
+                    for (attributeId in attributeIds) {
+                        attributePaths.add(
+                            ChipAttributePath.newInstance(AppConstants.ENDPOINT_1, clusterId, attributeId)
+                        )
+                    }
+                }
+            }
+        }
+        return attributePaths
+    }
 
-                            Log.d(TAG, "Temperature value : $temperatureValue")
+    /**
+     * Update params from attribute values. Key of [values] is cluster id, key of inner map is attribute id.
+     * Only params of attributes available in [values] are updated.
+     */
+    fun applyValues(params: ArrayList<Param>, values: Map<Long, Map<Long, Any?>>) {
+
+        val onOff = values[ChipClusters.OnOffCluster.CLUSTER_ID]?.get(ATTRIBUTE_ON_OFF) as? Boolean
+        val level = getInt(values, ChipClusters.LevelControlCluster.CLUSTER_ID, ATTRIBUTE_CURRENT_LEVEL)
+        val hue = getInt(values, ChipClusters.ColorControlCluster.CLUSTER_ID, ATTRIBUTE_CURRENT_HUE)
+        val saturation = getInt(values, ChipClusters.ColorControlCluster.CLUSTER_ID, ATTRIBUTE_CURRENT_SATURATION)
+        val mireds = getInt(values, ChipClusters.ColorControlCluster.CLUSTER_ID, ATTRIBUTE_COLOR_TEMPERATURE_MIREDS)
+        val temperature = getInt(values, ChipClusters.TemperatureMeasurementCluster.CLUSTER_ID, ATTRIBUTE_MEASURED_VALUE)
+        val lockState = getInt(values, ChipClusters.DoorLockCluster.CLUSTER_ID, ATTRIBUTE_LOCK_STATE)
+        val fanSpeed = getInt(values, ChipClusters.FanControlCluster.CLUSTER_ID, ATTRIBUTE_SPEED_CURRENT)
+        val systemMode = getInt(values, ChipClusters.ThermostatCluster.CLUSTER_ID, ATTRIBUTE_SYSTEM_MODE)
+        val coolingSetpoint = getInt(values, ChipClusters.ThermostatCluster.CLUSTER_ID, ATTRIBUTE_OCCUPIED_COOLING_SETPOINT)
+        val heatingSetpoint = getInt(values, ChipClusters.ThermostatCluster.CLUSTER_ID, ATTRIBUTE_OCCUPIED_HEATING_SETPOINT)
+        val localTemp = getInt(values, ChipClusters.ThermostatCluster.CLUSTER_ID, ATTRIBUTE_LOCAL_TEMPERATURE)
+        val cctKelvin = if (mireds != null && mireds > 0) {
+            ColorControlClusterHelper.clampKelvin(ColorControlClusterHelper.miredsToKelvin(mireds))
+        } else {
+            null
+        }
 
-                            for (param in params) {
-                                if (AppConstants.PARAM_TYPE_TEMPERATURE.equals(param.paramType)) {
-                                    if (temperatureValue != null) {
-                                        param.value = temperatureValue
-                                        param.labelValue = temperatureValue.toString()
-                                    }
-                                }
-                            }
-                        }
+        Log.d(
+            TAG,
+            "Current values : on off - $onOff, level - $level, hue - $hue, saturation - $saturation, cct - $cctKelvin, " +
+                    "temperature - $temperature, lock state - $lockState, fan speed - $fanSpeed, " +
+                    "mode - $systemMode, cooling point - $coolingSetpoint, heating point - $heatingSetpoint, temp - $localTemp"
+        )
+
+        for (param in params) {
+            when {
+                AppConstants.PARAM_TYPE_POWER == param.paramType -> {
+                    if (onOff != null) {
+                        param.switchStatus = onOff
+                    }
+                }
 
-                        if (clusterInfo.serverClusters.contains(ChipClusters.DoorLockCluster.CLUSTER_ID)) {
+                AppConstants.PARAM_TYPE_BRIGHTNESS == param.paramType -> {
+                    if (level != null) {
+                        param.value = ((level * 100f) / 255f).toInt().toDouble()
+                    }
+                }
 
-                            val espClusterHelper =
-                                DoorLockClusterHelper(espApp.chipClientMap[matterNodeId]!!)
-                            var lockStateValue: Int? =
-                                espClusterHelper.getLockStateAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
+                AppConstants.PARAM_TYPE_HUE == param.paramType -> {
+                    if (hue != null) {
+                        param.value = ((hue * 360f) / 255f).toInt().toDouble()
+                    }
+                }
 
-                            Log.d(TAG, "Door lock state value : $lockStateValue")
-                        }
+                AppConstants.PARAM_TYPE_SATURATION == param.paramType -> {
+                    if (saturation != null) {
+                        param.value = ((saturation * 100f) / 255f).toInt().toDouble()
+                    }
+                }
 
-                        if (clusterInfo.serverClusters.contains(ChipClusters.FanControlCluster.CLUSTER_ID)) {
+                AppConstants.PARAM_TYPE_CCT == param.paramType -> {
+                    if (cctKelvin != null) {
+                        param.value = cctKelvin.toDouble()
+                    }
+                }
 
-                            val espClusterHelper =
-                                FanControlClusterHelper(espApp.chipClientMap[matterNodeId]!!)
-                            var fanSpeed: Int? =
-                                espClusterHelper.getFanSpeedAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
+                AppConstants.PARAM_TEMPERATURE == param.name && localTemp != null -> {
+                    // Thermostat local temperature overrides the measured value, label is kept from the measured value.
+                    if (temperature != null) {
+                        param.labelValue = temperature.toDouble().toString()
+                    }
+                    param.value = Utils.temperatureDeviceToAppConversion(localTemp).toDouble()
+                }
 
-                            Log.d(TAG, "Fan speed value : $fanSpeed")
+                AppConstants.PARAM_TYPE_TEMPERATURE == param.paramType -> {
+                    if (temperature != null) {
+                        param.value = temperature.toDouble()
+                        param.labelValue = temperature.toDouble().toString()
+                    }
+                }
 
-                            for (param in params) {
-                                if (AppConstants.PARAM_TYPE_SPEED.equals(param.paramType)) {
-                                    if (fanSpeed != null) {
-                                        param.value = fanSpeed.toDouble()
-                                        param.labelValue = fanSpeed.toString()
-                                    }
-                                }
-                            }
-                        }
+                AppConstants.PARAM_TYPE_SPEED == param.paramType -> {
+                    if (fanSpeed != null) {
+                        param.value = fanSpeed.toDouble()
+                        param.labelValue = fanSpeed.toString()
+                    }
+                }
 
-                        if (clusterInfo.serverClusters.contains(ChipClusters.ThermostatCluster.CLUSTER_ID)) {
-
-                            val espClusterHelper =
-                                ThermostatClusterHelper(espApp.chipClientMap[matterNodeId]!!)
-                            var systemMode: Int? =
-                                espClusterHelper.getSystemModeAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
-
-                            var coolingSetpoint: Int? =
-                                espClusterHelper.getOccupiedCoolingSetpointAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
-
-                            var heatingSetpoint: Int? =
-                                espClusterHelper.getOccupiedHeatingSetpointAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
-
-                            var localTemp: Int? =
-                                espClusterHelper.getLocalTemperatureAsync(
-                                    deviceId,
-                                    AppConstants.ENDPOINT_1
-                                ).get()
+                AppConstants.PARAM_SYSTEM_MODE == param.name -> {
+                    if (systemMode != null) {
+                        val mode = NodeUtils.getSystemModeStringFromValue(systemMode)
+                        param.value = mode.modeValue.toDouble()
+                        param.labelValue = mode.modeName
+                    }
+                }
 
-                            Log.d(
-                                TAG,
-                                "Thermostat cluster param values : mode - $systemMode, cooling point -  $coolingSetpoint, heating point - $heatingSetpoint, temp - $localTemp"
-                            )
+                AppConstants.PARAM_COOLING_POINT == param.name -> {
+                    if (coolingSetpoint != null) {
+                        param.value = Utils.temperatureDeviceToAppConversion(coolingSetpoint).toDouble()
+                    }
+                }
 
-                            for (param in params) {
-                                if (AppConstants.PARAM_SYSTEM_MODE.equals(param.name)) {
-                                    if (systemMode != null) {
-                                        val mode =
-                                            NodeUtils.getSystemModeStringFromValue(systemMode)
-                                        param.value = mode.modeValue.toDouble()
-                                        param.labelValue = mode.modeName
-                                    }
-                                } else if (AppConstants.PARAM_COOLING_POINT.equals(param.name)) {
-                                    if (coolingSetpoint != null) {
-                                        param.value =
-                                            Utils.temperatureDeviceToAppConversion(coolingSetpoint)
-                                                .toDouble()
-                                    }
-                                } else if (AppConstants.PARAM_HEATING_POINT.equals(param.name)) {
-                                    if (heatingSetpoint != null) {
-                                        param.value =
-                                            Utils.temperatureDeviceToAppConversion(heatingSetpoint)
-                                                .toDouble()
-                                    }
-                                } else if (AppConstants.PARAM_TEMPERATURE.equals(param.name)) {
-                                    if (localTemp != null) {
-                                        param.value =
-                                            Utils.temperatureDeviceToAppConversion(localTemp)
-                                                .toDouble()
-                                    }
-                                }
-                            }
-                        }
+                AppConstants.PARAM_HEATING_POINT == param.name -> {
+                    if (heatingSetpoint != null) {
+                        param.value = Utils.temperatureDeviceToAppConversion(heatingSetpoint).toDouble()
                     }
                 }
             }
         }
     }
+
+    private fun getInt(values: Map<Long, Map<Long, Any?>>, clusterId: Long, attributeId: Long): Int? {
+        return (values[clusterId]?.get(attributeId) as? Number)?.toInt()
+    }
 }
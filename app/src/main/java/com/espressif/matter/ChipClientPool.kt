@@ -0,0 +1,90 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.matter
+
+import android.content.Context
+import android.util.Log
+
+/**
+ * Pool of [ChipClient] per fabric.
+ *
+ * All Matter nodes of a fabric use the same client, so the controller, its UDP port and
+ * CASE session cache are created once per fabric instead of once per node.
+ * Clients used for commissioning are not part of this pool.
+ */
+class ChipClientPool private constructor(private val context: Context) {
+
+    companion object {
+        const val TAG = "ChipClientPool"
+
+        @Volatile
+        private var instance: ChipClientPool? = null
+
+        @JvmStatic
+        fun getInstance(context: Context): ChipClientPool {
+            return instance ?: synchronized(this) {
+                instance ?: ChipClientPool(context.applicationContext).also { instance = it }
+            }
+        }
+    }
+
+    // Key is fabric id
+    private val clients = HashMap<String, ChipClient>()
+
+    /**
+     * Get client of the fabric. Client is created if it is not available.
+     */
+    @Synchronized
+    fun getClient(
+        groupId: String,
+        fabricId: String,
+        rootCa: String,
+        ipk: String,
+        groupCatIdOperate: String,
+        groupCatIdAdmin: String
+    ): ChipClient {
+        var client = clients[fabricId]
+        if (client == null) {
+            Log.d(TAG, "Creating ChipClient for fabric : $fabricId, group : $groupId")
+            client = ChipClient(
+                context,
+                groupId,
+                fabricId,
+                rootCa,
+                ipk,
+                groupCatIdOperate,
+                groupCatIdAdmin
+            )
+            clients[fabricId] = client
+        }
+        return client
+    }
+
+    @Synchronized
+    fun getClientCount(): Int {
+        return clients.size
+    }
+
+    /**
+     * Release all clients. Should be called on logout.
+     */
+    @Synchronized
+    fun clear() {
+        for (client in clients.values) {
+            client.cleanup()
+        }
+        clients.clear()
+    }
+}
@@ -0,0 +1,404 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.matter
+
+import android.content.Context
+import android.os.Handler
+import android.os.Looper
+import android.util.Log
+import chip.devicecontroller.ReportCallback
+import chip.devicecontroller.ResubscriptionAttemptCallback
+import chip.devicecontroller.SubscriptionEstablishedCallback
+import chip.devicecontroller.model.ChipAttributePath
+import chip.devicecontroller.model.ChipEventPath
+import chip.devicecontroller.model.NodeState
+import com.espressif.AppConstants
+import com.espressif.AppConstants.Companion.UpdateEventType
+import com.espressif.EspApplication
+import com.espressif.ui.models.UpdateEvent
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import org.greenrobot.eventbus.EventBus
+import java.math.BigInteger
+
+/**
+ * App scoped Matter attribute subscriptions.
+ *
+ * Device screen subscribes for its device and gets a callback when params of the node are updated.
+ * When the screen is closed, subscription is kept for last [MAX_BACKGROUND_SUBSCRIPTIONS] devices and its reports
+ * are applied less often, without subscribing again. Report interval also depends on device type.
+ * Reports received within [REPORT_BATCH_MS] (or background batch time) are applied to the param model together, on main thread.
+ *
+ * Methods must be called from main thread. Listener callbacks are delivered on main thread.
+ */
+class MatterSubscriptionManager private constructor(context: Context) {
+
+    companion object {
+        const val TAG = "MatterSubscriptionMgr"
+
+        private const val MAX_BACKGROUND_SUBSCRIPTIONS = 4
+        private const val REPORT_BATCH_MS = 100L
+
+        @Volatile
+        private var instance: MatterSubscriptionManager? = null
+
+        @JvmStatic
+        fun getInstance(context: Context): MatterSubscriptionManager {
+            return instance ?: synchronized(this) {
+                instance ?: MatterSubscriptionManager(context.applicationContext).also { instance = it }
+            }
+        }
+
+        private fun isSensor(deviceType: String?): Boolean {
+            return deviceType == AppConstants.ESP_DEVICE_TEMP_SENSOR
+                    || deviceType == AppConstants.ESP_DEVICE_THERMOSTAT
+        }
+
+        /**
+         * Min and max report interval (in seconds) for the device type.
+         * Sensors change slowly, so they get longer intervals than devices controlled by the user.
+         */
+        private fun getIntervals(deviceType: String?): Pair<Int, Int> {
+            return if (isSensor(deviceType)) Pair(1, 30) else Pair(1, 10)
+        }
+
+        /**
+         * Time (in ms) for which reports are collected before they are applied, while device is not shown on screen.
+         */
+        private fun getBackgroundBatchTime(deviceType: String?): Long {
+            return if (isSensor(deviceType)) 10000L else 1000L
+        }
+    }
+
+    interface MatterUpdateListener {
+        fun onParamsUpdated(nodeId: String)
+
+        /**
+         * Called when subscription is established, values will be reported by device.
+         */
+        fun onSubscriptionEstablished(nodeId: String) {}
+
+        /**
+         * Called when subscription could not be established, values should be polled instead.
+         */
+        fun onSubscriptionFailed(nodeId: String) {}
+    }
+
+    /**
+     * Health of a subscription.
+     */
+    class SubscriptionHealth {
+
+        var subscribeCount = 0
+            private set
+        var resubscribeCount = 0
+            private set
+        var reportCount = 0L
+            private set
+        private var firstReportTime = 0L
+        private var lastReportTime = 0L
+
+        @Synchronized
+        internal fun onSubscribed() {
+            subscribeCount++
+        }
+
+        @Synchronized
+        internal fun onResubscribeAttempt() {
+            resubscribeCount++
+        }
+
+        @Synchronized
+        internal fun onReport() {
+            val now = System.currentTimeMillis()
+            if (firstReportTime == 0L) {
+                firstReportTime = now
+            }
+            lastReportTime = now
+            reportCount++
+        }
+
+        /** Reports per minute since the first report. */
+        @Synchronized
+        fun getReportRate(): Double {
+            val duration = lastReportTime - firstReportTime
+            return if (duration <= 0) 0.0 else reportCount * 60000.0 / duration
+        }
+
+        /** Time in ms since last report, -1 if no report is received. */
+        @Synchronized
+        fun getLastReportAge(): Long {
+            return if (lastReportTime == 0L) -1 else System.currentTimeMillis() - lastReportTime
+        }
+
+        @Synchronized
+        override fun toString(): String {
+            return "SubscriptionHealth{subscribes=$subscribeCount, resubscribes=$resubscribeCount, " +
+                    "reports=$reportCount, reportRate=${"%.1f".format(getReportRate())}/min, lastReportAge=${getLastReportAge()}ms}"
+        }
+    }
+
+    private inner class NodeSubscription(
+        val nodeId: String,
+        val matterNodeId: String,
+        val deviceType: String?
+    ) {
+        val deviceId: Long = BigInteger(matterNodeId, 16).toLong()
+        val listeners = ArrayList<MatterUpdateListener>()
+        val health = SubscriptionHealth()
+
+        // Incremented for each new subscription, callbacks of older subscriptions are ignored.
+        @Volatile
+        var generation = 0
+        var subscriptionId: Long? = null
+        var chipClient: ChipClient? = null
+        var isStarted = false
+
+        // False when device is not shown on screen, reports are applied less often.
+        @Volatile
+        var isVisible = true
+
+        // Values received and not yet applied. Key is cluster id, key of inner map is attribute id.
+        val pendingValues = HashMap<Long, HashMap<Long, Any?>>()
+        var isFlushScheduled = false
+    }
+
+    private val espApp = context as EspApplication
+    private val handler = Handler(Looper.getMainLooper())
+    private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+    private val chipClientHelper = ChipClientHelper(espApp)
+
+    // Key is matter node id, in least recently used order.
+    private val subscriptions = LinkedHashMap<String, NodeSubscription>(16, 0.75f, true)
+
+    /**
+     * Subscribe for attribute reports of the device shown on screen.
+     */
+    fun subscribe(nodeId: String, matterNodeId: String, deviceType: String?, listener: MatterUpdateListener) {
+
+        var subscription = subscriptions[matterNodeId]
+        if (subscription == null) {
+            subscription = NodeSubscription(nodeId, matterNodeId, deviceType)
+            subscriptions[matterNodeId] = subscription
+        }
+        if (!subscription.listeners.contains(listener)) {
+            subscription.listeners.add(listener)
+        }
+        if (!subscription.isVisible) {
+            subscription.isVisible = true
+            // Apply values collected in background now, instead of waiting for background batch time.
+            applyPendingValues(subscription)
+        }
+        if (!subscription.isStarted) {
+            startSubscription(subscription)
+        }
+    }
+
+    /**
+     * Remove listener. Subscription is kept for recently used devices, its reports are applied less often.
+     */
+    fun unsubscribe(matterNodeId: String, listener: MatterUpdateListener) {
+
+        val subscription = subscriptions[matterNodeId] ?: return
+        subscription.listeners.remove(listener)
+        if (subscription.listeners.isEmpty()) {
+            subscription.isVisible = false
+            releaseOldSubscriptions()
+        }
+    }
+
+    /**
+     * Returns true if subscription of the device is established, i.e. values are being reported.
+     */
+    fun isSubscribed(matterNodeId: String?): Boolean {
+        val subscription = subscriptions[matterNodeId] ?: return false
+        return subscription.isStarted && subscription.subscriptionId != null
+    }
+
+    fun getHealth(matterNodeId: String): SubscriptionHealth? {
+        return subscriptions[matterNodeId]?.health
+    }
+
+    /**
+     * Stop all subscriptions. Should be called on logout.
+     */
+    fun clear() {
+        for (subscription in subscriptions.values) {
+            stopSubscription(subscription)
+        }
+        subscriptions.clear()
+    }
+
+    private fun releaseOldSubscriptions() {
+        val background = subscriptions.values.filter { it.listeners.isEmpty() }
+        val excess = background.size - MAX_BACKGROUND_SUBSCRIPTIONS
+        for (i in 0 until excess) {
+            val subscription = background[i]
+            Log.d(TAG, "Releasing subscription of ${subscription.matterNodeId}, ${subscription.health}")
+            stopSubscription(subscription)
+            subscriptions.remove(subscription.matterNodeId)
+        }
+    }
+
+    private fun startSubscription(subscription: NodeSubscription) {
+
+        val chipClient = espApp.chipClientMap[subscription.matterNodeId]
+        val attributePaths = chipClientHelper.getCurrentValuePaths(subscription.matterNodeId)
+        if (chipClient == null || attributePaths.isEmpty()) {
+            Log.e(TAG, "Cannot subscribe for ${subscription.matterNodeId}, device is not available")
+            subscriptions.remove(subscription.matterNodeId)
+            return
+        }
+
+        stopSubscription(subscription)
+        val generation = ++subscription.generation
+        subscription.chipClient = chipClient
+        subscription.isStarted = true
+        val (minInterval, maxInterval) = getIntervals(subscription.deviceType)
+        Log.d(TAG, "Subscribe for ${subscription.matterNodeId}, attributes : ${attributePaths.size}, interval : $minInterval - $maxInterval s")
+
+        scope.launch {
+            try {
+                val devicePtr = chipClient.getConnectedDevicePointer(subscription.deviceId)
+                chipClient.chipDeviceController.subscribeToPath(
+                    SubscriptionEstablishedCallback { subscriptionId ->
+                        handler.post {
+                            if (subscription.generation == generation) {
+                                subscription.subscriptionId = subscriptionId
+                                subscription.health.onSubscribed()
+                                Log.d(TAG, "Subscription established for ${subscription.matterNodeId}, id : $subscriptionId")
+                                for (listener in ArrayList(subscription.listeners)) {
+                                    listener.onSubscriptionEstablished(subscription.nodeId)
+                                }
+                            } else {
+                                // Subscription has been replaced while it was being established.
+                                shutdownSubscription(chipClient, subscription.deviceId, subscriptionId)
+                            }
+                        }
+                    },
+                    ResubscriptionAttemptCallback { terminationCause, nextResubscribeIntervalMsec ->
+                        subscription.health.onResubscribeAttempt()
+                        Log.d(TAG, "Resubscription attempt for ${subscription.matterNodeId}, cause : $terminationCause, next : $nextResubscribeIntervalMsec ms")
+                    },
+                    createReportCallback(subscription, generation),
+                    devicePtr,
+                    attributePaths,
+                    emptyList<ChipEventPath>(),
+                    minInterval,
+                    maxInterval,
+                    true,
+                    false,
+                    0
+                )
+            } catch (e: Exception) {
+                Log.e(TAG, "Failed to subscribe for ${subscription.matterNodeId}", e)
+                handler.post {
+                    if (subscription.generation == generation) {
+                        // Subscribe again when device is shown next time.
+                        subscription.isStarted = false
+                        for (listener in ArrayList(subscription.listeners)) {
+                            listener.onSubscriptionFailed(subscription.nodeId)
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private fun stopSubscription(subscription: NodeSubscription) {
+        subscription.generation++
+        subscription.isStarted = false
+        val subscriptionId = subscription.subscriptionId ?: return
+        val chipClient = subscription.chipClient ?: return
+        subscription.subscriptionId = null
+        shutdownSubscription(chipClient, subscription.deviceId, subscriptionId)
+    }
+
+    private fun shutdownSubscription(chipClient: ChipClient, deviceId: Long, subscriptionId: Long) {
+        try {
+            val controller = chipClient.chipDeviceController
+            controller.shutdownSubscriptions(controller.fabricIndex, deviceId, subscriptionId)
+        } catch (e: Exception) {
+            Log.e(TAG, "Failed to shutdown subscription $subscriptionId", e)
+        }
+    }
+
+    private fun createReportCallback(subscription: NodeSubscription, generation: Int): ReportCallback {
+        return object : ReportCallback {
+
+            override fun onError(
+                attributePath: ChipAttributePath?,
+                eventPath: ChipEventPath?,
+                e: java.lang.Exception
+            ) {
+                Log.e(TAG, "Subscription error for ${subscription.matterNodeId}, path : $attributePath", e)
+            }
+
+            override fun onReport(nodeState: NodeState?) {
+                if (nodeState == null || subscription.generation != generation) {
+                    return
+                }
+                subscription.health.onReport()
+
+                synchronized(subscription.pendingValues) {
+                    for ((_, endpoint) in nodeState.endpointStates) {
+                        for ((clusterId, cluster) in endpoint.clusterStates) {
+                            for ((attributeId, attribute) in cluster.attributeStates) {
+                                subscription.pendingValues.getOrPut(clusterId) { HashMap() }[attributeId] = attribute.value
+                            }
+                        }
+                    }
+                    if (subscription.isFlushScheduled) {
+                        return
+                    }
+                    subscription.isFlushScheduled = true
+                }
+                val batchTime = if (subscription.isVisible) REPORT_BATCH_MS else getBackgroundBatchTime(subscription.deviceType)
+                handler.postDelayed({ applyPendingValues(subscription) }, batchTime)
+            }
+        }
+    }
+
+    /**
+     * Apply all pending values of the node to its params and notify listeners. Runs on main thread.
+     */
+    private fun applyPendingValues(subscription: NodeSubscription) {
+
+        val values: HashMap<Long, HashMap<Long, Any?>>
+        synchronized(subscription.pendingValues) {
+            values = HashMap(subscription.pendingValues)
+            subscription.pendingValues.clear()
+            subscription.isFlushScheduled = false
+        }
+
+        val node = espApp.nodeMap[subscription.nodeId]
+        val params = node?.devices?.getOrNull(0)?.params
+        if (params == null || values.isEmpty()) {
+            return
+        }
+        chipClientHelper.applyValues(params, values)
+        espApp.deviceRegistry.notifyNodeUpdated(subscription.nodeId)
+
+        if (subscription.listeners.isEmpty()) {
+            EventBus.getDefault().post(UpdateEvent(UpdateEventType.EVENT_DEVICE_STATUS_UPDATE))
+        } else {
+            for (listener in ArrayList(subscription.listeners)) {
+                listener.onParamsUpdated(subscription.nodeId)
+            }
+        }
+    }
+}
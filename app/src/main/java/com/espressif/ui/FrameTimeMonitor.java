@@ -0,0 +1,128 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.ui;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+/**
+ * Collects frame times of a window and logs a summary periodically.
+ * Frames which take longer than one refresh interval of the display are counted as janky.
+ * Used to check rendering performance of screens with long lists, e.g. devices screen.
+ */
+public class FrameTimeMonitor implements Window.OnFrameMetricsAvailableListener {
+
+    private static final String TAG = FrameTimeMonitor.class.getSimpleName();
+
+    private static final long REPORT_INTERVAL_MS = 10000;
+
+    private final String name;
+    private Window window;
+    private HandlerThread metricsThread;
+
+    // Below values are accessed on metrics thread only.
+    private long frameIntervalNs;
+    private long frameCount;
+    private long jankyFrameCount;
+    private long droppedReportCount;
+    private long totalDurationNs;
+    private long maxDurationNs;
+    private long lastReportTime;
+
+    public FrameTimeMonitor(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Start collecting frame times of the window.
+     */
+    public void start(Window window) {
+
+        if (this.window != null) {
+            return;
+        }
+        float refreshRate = 60;
+        Display display = window.getDecorView().getDisplay();
+        if (display != null && display.getRefreshRate() > 0) {
+            refreshRate = display.getRefreshRate();
+        }
+        frameIntervalNs = (long) (1000000000L / refreshRate);
+        lastReportTime = SystemClock.elapsedRealtime();
+
+        metricsThread = new HandlerThread("frame-metrics");
+        metricsThread.start();
+        this.window = window;
+        window.addOnFrameMetricsAvailableListener(this, new Handler(metricsThread.getLooper()));
+    }
+
+    /**
+     * Stop collecting frame times and log the summary.
+     */
+    public void stop() {
+
+        if (window == null) {
+            return;
+        }
+        try {
+            window.removeOnFrameMetricsAvailableListener(this);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Frame metrics listener is not registered");
+        }
+        window = null;
+        new Handler(metricsThread.getLooper()).post(this::report);
+        metricsThread.quitSafely();
+        metricsThread = null;
+    }
+
+    @Override
+    public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+
+        long durationNs = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+        frameCount++;
+        totalDurationNs += durationNs;
+        droppedReportCount += dropCountSinceLastInvocation;
+        if (durationNs > frameIntervalNs) {
+            jankyFrameCount++;
+        }
+        if (durationNs > maxDurationNs) {
+            maxDurationNs = durationNs;
+        }
+        if (SystemClock.elapsedRealtime() - lastReportTime >= REPORT_INTERVAL_MS) {
+            report();
+        }
+    }
+
+    private void report() {
+
+        if (frameCount > 0) {
+            Log.d(TAG, name + " : frames " + frameCount
+                    + ", janky " + jankyFrameCount + " (" + (jankyFrameCount * 100 / frameCount) + "%)"
+                    + ", avg " + (totalDurationNs / frameCount / 1000) + " us"
+                    + ", max " + (maxDurationNs / 1000) + " us"
+                    + ", dropped reports " + droppedReportCount);
+        }
+        frameCount = 0;
+        jankyFrameCount = 0;
+        droppedReportCount = 0;
+        totalDurationNs = 0;
+        maxDurationNs = 0;
+        lastReportTime = SystemClock.elapsedRealtime();
+    }
+}
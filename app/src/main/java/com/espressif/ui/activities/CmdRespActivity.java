@@ -1,7 +1,6 @@
 package com.espressif.ui.activities;
 
 import android.os.Bundle;
-import android.os.Handler;
 import android.text.TextUtils;
 import android.text.TextWatcher;
 import android.text.Editable;
@@ -15,8 +14,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 
 import com.espressif.AppConstants;
-import com.espressif.cloudapi.ApiManager;
-import com.espressif.cloudapi.ApiResponseListener;
+import com.espressif.cloudapi.CommandResponseClient;
 import com.espressif.rainmaker.R;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.textfield.TextInputEditText;
@@ -29,19 +27,19 @@ import com.google.gson.JsonSyntaxException;
 import org.json.JSONObject;
 import org.json.JSONArray;
 
+import java.util.concurrent.CancellationException;
+
 public class CmdRespActivity extends AppCompatActivity {
 
     private static final String TAG = CmdRespActivity.class.getSimpleName();
-    private static final int STATUS_POLLING_INTERVAL = 2000; // 2 seconds
+    private static final int CMD_RESULT_GRACE_TIME = 10000; // 10 seconds
 
     private String nodeId;
     private TextInputEditText etId, etPayload, etTimeout;
     private TextView tvResponse;
     private Button btnSend;
-    private ApiManager apiManager;
-    private Handler handler;
-    private String requestId;
-    private boolean isPolling = false;
+    private CommandResponseClient commandClient;
+    private CommandResponseClient.CommandRequest commandRequest;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -50,8 +48,7 @@ public class CmdRespActivity extends AppCompatActivity {
 
         nodeId = getIntent().getStringExtra(AppConstants.KEY_NODE_ID);
         initViews();
-        apiManager = ApiManager.getInstance(this);
-        handler = new Handler();
+        commandClient = CommandResponseClient.getInstance(this);
     }
 
     private void initViews() {
@@ -79,10 +76,10 @@ public class CmdRespActivity extends AppCompatActivity {
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                if (isPolling) {
+                if (commandRequest != null && !commandRequest.isDone()) {
                     btnSend.setEnabled(true);
                     btnSend.setOnClickListener(v -> {
-                        stopPolling();
+                        commandRequest.cancel();
                         sendCommand();
                     });
                 }
@@ -187,33 +184,52 @@ public class CmdRespActivity extends AppCompatActivity {
         tvResponse.setText("");
         btnSend.setEnabled(false);
 
-        apiManager.sendCommandResponse(requestBody, new ApiResponseListener() {
-            @Override
-            public void onSuccess(Bundle data) {
-                String reqId = data.getString(AppConstants.KEY_REQUEST_ID);
-                if (!TextUtils.isEmpty(reqId)) {
-                    requestId = reqId;
-                    String msg = getString(R.string.request_id_received, requestId);
-                    tvResponse.setText(msg);
-                    startPolling();
-                }
+        // Wait a little more than device timeout, so that timed out status is received from cloud.
+        long waitTime = timeout * 1000L + CMD_RESULT_GRACE_TIME;
+        final CommandResponseClient.CommandRequest request = commandClient.send(requestBody, waitTime, status -> {
+            if (CommandResponseClient.STATUS_REQUESTED.equals(status)) {
+                tvResponse.setText(getString(R.string.request_id_received, commandRequest.getRequestId()));
+            } else {
+                tvResponse.setText("Status: " + status);
             }
+        });
+        commandRequest = request;
 
-            @Override
-            public void onResponseFailure(Exception exception) {
-                stopPolling();
-                String error = exception.getMessage();
-                if (!TextUtils.isEmpty(error)) {
-                    tvResponse.setText(error);
+        request.getFuture().whenComplete((data, throwable) -> {
+            if (request != commandRequest) {
+                // Request is cancelled and a new request is sent.
+                return;
+            }
+            if (throwable != null) {
+                if (!(throwable instanceof CancellationException)) {
+                    String error = throwable.getMessage();
+                    tvResponse.setText(TextUtils.isEmpty(error) ? getString(R.string.error_network) : error);
                 }
+            } else {
+                showResult(data);
             }
+            resetSendButton();
+        });
+    }
 
-            @Override
-            public void onNetworkFailure(Exception exception) {
-                stopPolling();
-                tvResponse.setText(R.string.error_network);
+    private void showResult(Bundle data) {
+
+        String status = data.getString(AppConstants.KEY_STATUS);
+        tvResponse.setText("Status: " + status);
+
+        if (CommandResponseClient.STATUS_SUCCESS.equals(status)) {
+            String responseData = data.getString(AppConstants.KEY_RESPONSE_DATA);
+            if (!TextUtils.isEmpty(responseData)) {
+                tvResponse.append("\nResponse: " + responseData);
             }
-        });
+        } else if (CommandResponseClient.STATUS_TIMED_OUT.equals(status)) {
+            tvResponse.append("\nReason: Timed Out");
+        } else if (CommandResponseClient.STATUS_FAILURE.equals(status)) {
+            String statusDesc = data.getString(AppConstants.KEY_STATUS_DESCRIPTION);
+            if (!TextUtils.isEmpty(statusDesc)) {
+                tvResponse.append("\nReason: " + statusDesc);
+            }
+        }
     }
 
     private boolean isBase64(String str) {
@@ -228,94 +244,16 @@ public class CmdRespActivity extends AppCompatActivity {
         }
     }
 
-    private void startPolling() {
-        if (!isPolling) {
-            isPolling = true;
-            btnSend.setEnabled(false);
-            btnSend.setOnClickListener(v -> stopPolling());
-            pollStatus();
-        }
-    }
-
-    private void stopPolling() {
-        isPolling = false;
-        handler.removeCallbacksAndMessages(null);
+    private void resetSendButton() {
         btnSend.setEnabled(true);
         btnSend.setOnClickListener(v -> sendCommand());
     }
 
-    private void pollStatus() {
-        if (!isPolling) {
-            return;
-        }
-
-        Log.d(TAG, "Polling status for request: " + requestId);
-
-        apiManager.getCommandResponseStatus(requestId, new ApiResponseListener() {
-            @Override
-            public void onSuccess(Bundle data) {
-                Log.d(TAG, "Poll status success: " + data.toString());
-                runOnUiThread(() -> {
-                    try {
-                        String status = data.getString(AppConstants.KEY_STATUS);
-                        
-                        // Display latest status
-                        tvResponse.setText("Status: " + status);
-                        
-                        // Enable button if status is not "requested" or "in_progress"
-                        if (!status.equals("requested") && !status.equals("in_progress")) {
-                            btnSend.setEnabled(true);
-                        }
-                        
-                        if ("success".equals(status)) {
-                            String responseData = data.getString(AppConstants.KEY_RESPONSE_DATA);
-                            if (!TextUtils.isEmpty(responseData)) {
-                                tvResponse.append("\nResponse: " + responseData);
-                            }
-                            stopPolling();
-                        } else if ("timed_out".equals(status)) {
-                            tvResponse.append("\nReason: Timed Out");
-                            stopPolling();
-                        } else if ("failure".equals(status)) {
-                            String statusDesc = data.getString(AppConstants.KEY_STATUS_DESCRIPTION);
-                            if (!TextUtils.isEmpty(statusDesc)) {
-                                tvResponse.append("\nReason: " + statusDesc);
-                            }
-                            stopPolling();
-                        } else {
-                            handler.postDelayed(() -> pollStatus(), STATUS_POLLING_INTERVAL);
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error parsing response", e);
-                        tvResponse.setText("Error parsing response");
-                        stopPolling();
-                    }
-                });
-            }
-
-            @Override
-            public void onResponseFailure(Exception exception) {
-                Log.e(TAG, "Poll status response failure", exception);
-                runOnUiThread(() -> {
-                    tvResponse.setText(R.string.error_network);
-                    stopPolling();
-                });
-            }
-
-            @Override
-            public void onNetworkFailure(Exception exception) {
-                Log.e(TAG, "Poll status network failure", exception);
-                runOnUiThread(() -> {
-                    tvResponse.setText(R.string.error_network);
-                    stopPolling();
-                });
-            }
-        });
-    }
-
     @Override
     protected void onDestroy() {
-        stopPolling();
+        if (commandRequest != null) {
+            commandRequest.cancel();
+        }
         super.onDestroy();
     }
 } 
\ No newline at end of file
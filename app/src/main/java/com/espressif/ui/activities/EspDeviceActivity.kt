@@ -40,15 +40,12 @@ import androidx.lifecycle.lifecycleScope
 import androidx.recyclerview.widget.LinearLayoutManager
 import androidx.recyclerview.widget.RecyclerView
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout.OnRefreshListener
-import chip.devicecontroller.ReportCallback
-import chip.devicecontroller.model.ChipAttributePath
-import chip.devicecontroller.model.ChipEventPath
-import chip.devicecontroller.model.NodeState
 import com.auth0.android.jwt.JWT
 import com.espressif.AppConstants
 import com.espressif.AppConstants.Companion.UpdateEventType
 import com.espressif.EspApplication
 import com.espressif.NetworkApiManager
+import com.espressif.ParamRefreshScheduler
 import com.espressif.ble.BleLocalControlManager
 import com.espressif.cloudapi.ApiManager
 import com.espressif.cloudapi.ApiResponseListener
@@ -58,7 +55,7 @@ import com.espressif.matter.ControllerClusterHelper
 import com.espressif.matter.ControllerLoginActivity
 import com.espressif.matter.DoorLockClusterHelper
 import com.espressif.matter.GroupSelectionActivity
-import com.espressif.matter.SubscriptionHelper
+import com.espressif.matter.MatterSubscriptionManager
 import com.espressif.matter.ThreadBRActivity
 import com.espressif.rainmaker.BuildConfig
 import com.espressif.rainmaker.R
@@ -94,7 +91,6 @@ class EspDeviceActivity : AppCompatActivity() {
     companion object {
         private const val TAG = "EspDeviceActivity"
         private const val NODE_DETAILS_ACTIVITY_REQUEST = 10
-        private const val UPDATE_INTERVAL = 5000
         private const val UI_UPDATE_INTERVAL = 4500
         private const val KEY_LOCK_SETUP_DONE = "lock_setup_done"
     }
@@ -104,6 +100,7 @@ class EspDeviceActivity : AppCompatActivity() {
     private lateinit var espApp: EspApplication
     private var device: Device? = null
     private lateinit var networkApiManager: NetworkApiManager
+    private lateinit var paramRefreshScheduler: ParamRefreshScheduler
     private lateinit var handler: Handler
 
     private lateinit var paramAdapter: ParamAdapter
@@ -130,13 +127,26 @@ class EspDeviceActivity : AppCompatActivity() {
     private var lastUpdateRequestTime: Long = 0
     private var isNetworkAvailable = true
     private var shouldGetParams = true
+    private var refreshNodeId: String? = null
     private var isUpdateView = true
 
     // Matter subscription related variables
-    private var subscriptionHelper: SubscriptionHelper? = null
     private var matterSubscriptionActive = false
-    private var lastMatterUpdateTime = 0L
-    private val MATTER_UPDATE_THROTTLE_MS = 100L // Throttle updates to max once per 100ms
+    private val matterUpdateListener = object : MatterSubscriptionManager.MatterUpdateListener {
+        override fun onParamsUpdated(nodeId: String) {
+            updateUi()
+        }
+
+        override fun onSubscriptionEstablished(nodeId: String) {
+            // Values are reported by device, polling is not required.
+            stopUpdateValueTask()
+        }
+
+        override fun onSubscriptionFailed(nodeId: String) {
+            // Device will not report values, poll them instead.
+            startUpdateValueTask()
+        }
+    }
 
     // BLE local control related
     private var bleLocalCtrlInfo: EspNode.BleLocalCtrlInfo? = null
@@ -186,6 +196,7 @@ class EspDeviceActivity : AppCompatActivity() {
 
         espApp = applicationContext as EspApplication
         networkApiManager = NetworkApiManager(applicationContext)
+        paramRefreshScheduler = ParamRefreshScheduler.getInstance(applicationContext)
         device = intent.getParcelableExtra(AppConstants.KEY_ESP_DEVICE)
         handler = Handler()
 
@@ -548,6 +559,11 @@ class EspDeviceActivity : AppCompatActivity() {
         when (event.eventType) {
             UpdateEventType.EVENT_DEVICE_ADDED, UpdateEventType.EVENT_DEVICE_REMOVED, UpdateEventType.EVENT_STATE_CHANGE_UPDATE, UpdateEventType.EVENT_LOCAL_DEVICE_UPDATE, UpdateEventType.EVENT_DEVICE_ONLINE, UpdateEventType.EVENT_DEVICE_OFFLINE -> {}
             UpdateEventType.EVENT_DEVICE_STATUS_UPDATE -> {
+                // Event from push updates has ids of updated nodes, ignore updates of other nodes.
+                val updatedNodeIds = event.data?.getStringArrayList(AppConstants.KEY_NODE_IDS)
+                if (updatedNodeIds != null && !updatedNodeIds.contains(nodeId)) {
+                    return
+                }
                 val currentTime = System.currentTimeMillis()
                 if (BuildConfig.isContinuousUpdateEnable) {
                     if (isUpdateView && currentTime - lastUpdateRequestTime > UI_UPDATE_INTERVAL) {
@@ -600,15 +616,30 @@ class EspDeviceActivity : AppCompatActivity() {
             Log.d(TAG, "Skipping update task for Pure Matter node")
             return
         }
+        if (nodeStatus == AppConstants.NODE_STATUS_MATTER_LOCAL
+            && MatterSubscriptionManager.getInstance(espApp).isSubscribed(matterNodeId)
+        ) {
+            // Values are reported by Matter subscription.
+            Log.d(TAG, "Skipping update task, Matter subscription is active")
+            return
+        }
         shouldGetParams = true
-        handler.removeCallbacks(updateValuesTask)
-        handler.postDelayed(updateValuesTask, UPDATE_INTERVAL.toLong())
-        Log.d(TAG, "Scheduled updateValuesTask in ${UPDATE_INTERVAL}ms")
+        val paramsNodeId = getParamsNodeId()
+        if (refreshNodeId != null && refreshNodeId != paramsNodeId) {
+            paramRefreshScheduler.unsubscribe(refreshNodeId, paramRefreshListener)
+        }
+        refreshNodeId = paramsNodeId
+        if (paramsNodeId != null) {
+            paramRefreshScheduler.subscribe(paramsNodeId, paramRefreshListener)
+        }
     }
 
     fun stopUpdateValueTask() {
         shouldGetParams = false
-        handler.removeCallbacks(updateValuesTask)
+        if (refreshNodeId != null) {
+            paramRefreshScheduler.unsubscribe(refreshNodeId, paramRefreshListener)
+            refreshNodeId = null
+        }
     }
 
     private fun goToNodeDetailsActivity() {
@@ -617,33 +648,6 @@ class EspDeviceActivity : AppCompatActivity() {
         startActivityForResult(intent, NODE_DETAILS_ACTIVITY_REQUEST)
     }
 
-    private val updateValuesTask: Runnable = object : Runnable {
-        override fun run() {
-            Log.d(
-                TAG,
-                "updateValuesTask running, shouldGetParams=$shouldGetParams, nodeStatus=$nodeStatus"
-            )
-            if (shouldGetParams) {
-                if (BuildConfig.isContinuousUpdateEnable) {
-                    val currentTime = System.currentTimeMillis()
-                    Log.d(
-                        TAG,
-                        "ContinuousUpdate enabled, isUpdateView=$isUpdateView, timeDiff=${currentTime - lastUpdateRequestTime}"
-                    )
-                    if (isUpdateView && currentTime - lastUpdateRequestTime >= UI_UPDATE_INTERVAL) {
-                        getValues()
-                    } else {
-                        handler.removeCallbacks(this)
-                        handler.postDelayed(this, UI_UPDATE_INTERVAL.toLong())
-                    }
-                } else {
-                    Log.d(TAG, "ContinuousUpdate disabled, calling getValues()")
-                    getValues()
-                }
-            }
-        }
-    }
-
     private fun initViews() {
 
         setToolbar()
@@ -1115,99 +1119,80 @@ class EspDeviceActivity : AppCompatActivity() {
             })
     }
 
-    private fun getValues() {
-        Log.d(
-            TAG,
-            "getValues() called, nodeStatus=$nodeStatus (BLE_LOCAL=${AppConstants.NODE_STATUS_BLE_LOCAL})"
-        )
-
-        when (nodeStatus) {
-            AppConstants.NODE_STATUS_REMOTELY_CONTROLLABLE -> {
-                if (!TextUtils.isEmpty(nodeType) && nodeType == AppConstants.NODE_TYPE_PURE_MATTER) {
-                    var controllerNodeId = ""
-
-                    for ((key, controllerDevices) in espApp.controllerDevices) {
-                        if (controllerDevices.containsKey(matterNodeId)) {
-                            controllerNodeId = key
-                            break
-                        }
-                    }
+    /**
+     * Node id to be polled for param values. Params of remotely controllable pure Matter node are received from its controller.
+     */
+    private fun getParamsNodeId(): String? {
 
-                    if (!TextUtils.isEmpty(controllerNodeId)) {
-                        getParamValuesForDevice(controllerNodeId!!)
+        if (nodeStatus == AppConstants.NODE_STATUS_REMOTELY_CONTROLLABLE) {
+            if (!TextUtils.isEmpty(nodeType) && nodeType == AppConstants.NODE_TYPE_PURE_MATTER) {
+                for ((key, controllerDevices) in espApp.controllerDevices) {
+                    if (controllerDevices.containsKey(matterNodeId)) {
+                        return key
                     }
                 }
             }
-
-            AppConstants.NODE_STATUS_OFFLINE -> {
-                /* Don't poll cloud API for offline nodes */
-                Log.d(TAG, "Node is offline, skipping cloud API poll")
-            }
-
-//            AppConstants.NODE_STATUS_MATTER_LOCAL -> getParamValuesForMatterDevice(nodeId!!)
-            else -> getParamValuesForDevice(nodeId!!)
+            return null
         }
+        return nodeId
     }
 
-    private fun getParamValuesForDevice(rmNodeId: String) {
-        networkApiManager.getParamsValues(rmNodeId, object : ApiResponseListener {
-            override fun onSuccess(data: Bundle?) {
-                runOnUiThread {
-                    isNetworkAvailable = true
-                    hideLoading()
-                    binding.espDeviceLayout.swipeContainer.isRefreshing = false
-                    updateUi()
-                    handler?.removeCallbacks(updateValuesTask)
-                    handler?.postDelayed(
-                        updateValuesTask,
-                        UPDATE_INTERVAL.toLong()
-                    )
-                }
-            }
+    private val paramRefreshListener: ApiResponseListener = object : ApiResponseListener {
 
-            override fun onResponseFailure(exception: java.lang.Exception) {
-                stopUpdateValueTask()
-                isNetworkAvailable = true
-                hideLoading()
-                binding.espDeviceLayout.swipeContainer.isRefreshing = false
-                if (exception is CloudException) {
-                    Toast.makeText(
-                        this@EspDeviceActivity,
-                        exception.message,
-                        Toast.LENGTH_SHORT
-                    )
-                        .show()
-                } else {
-                    Toast.makeText(
-                        this@EspDeviceActivity,
-                        "Failed to get param values",
-                        Toast.LENGTH_SHORT
-                    ).show()
-                }
+        override fun onSuccess(data: Bundle?) {
+            isNetworkAvailable = true
+            hideLoading()
+            binding.espDeviceLayout.swipeContainer.isRefreshing = false
+            // Don't refresh UI while user is changing param values.
+            if (!BuildConfig.isContinuousUpdateEnable
+                || (isUpdateView && System.currentTimeMillis() - lastUpdateRequestTime >= UI_UPDATE_INTERVAL)
+            ) {
                 updateUi()
             }
+        }
 
-            override fun onNetworkFailure(exception: java.lang.Exception) {
-                stopUpdateValueTask()
-                hideLoading()
-                binding.espDeviceLayout.swipeContainer.isRefreshing = false
-                if (exception is CloudException) {
-                    Toast.makeText(
-                        this@EspDeviceActivity,
-                        exception.message,
-                        Toast.LENGTH_SHORT
-                    )
-                        .show()
-                } else {
-                    Toast.makeText(
-                        this@EspDeviceActivity,
-                        "Failed to get param values",
-                        Toast.LENGTH_SHORT
-                    ).show()
-                }
-                updateUi()
+        override fun onResponseFailure(exception: java.lang.Exception) {
+            stopUpdateValueTask()
+            isNetworkAvailable = true
+            hideLoading()
+            binding.espDeviceLayout.swipeContainer.isRefreshing = false
+            if (exception is CloudException) {
+                Toast.makeText(
+                    this@EspDeviceActivity,
+                    exception.message,
+                    Toast.LENGTH_SHORT
+                )
+                    .show()
+            } else {
+                Toast.makeText(
+                    this@EspDeviceActivity,
+                    "Failed to get param values",
+                    Toast.LENGTH_SHORT
+                ).show()
             }
-        })
+            updateUi()
+        }
+
+        override fun onNetworkFailure(exception: java.lang.Exception) {
+            stopUpdateValueTask()
+            hideLoading()
+            binding.espDeviceLayout.swipeContainer.isRefreshing = false
+            if (exception is CloudException) {
+                Toast.makeText(
+                    this@EspDeviceActivity,
+                    exception.message,
+                    Toast.LENGTH_SHORT
+                )
+                    .show()
+            } else {
+                Toast.makeText(
+                    this@EspDeviceActivity,
+                    "Failed to get param values",
+                    Toast.LENGTH_SHORT
+                ).show()
+            }
+            updateUi()
+        }
     }
 
     private fun setUserAndCredsForLock() {
@@ -1547,13 +1532,13 @@ class EspDeviceActivity : AppCompatActivity() {
         lifecycleScope.launch {
             try {
                 withContext(Dispatchers.IO) {
-                    ChipClientHelper(espApp).getCurrentValues(
+                    ChipClientHelper(espApp).readCurrentValues(
                         capturedNodeId,
                         capturedMatterNodeId,
                         node
                     )
                 }
-                // getCurrentValues updated node.devices[*].params in place;
+                // readCurrentValues updated node.devices[*].params in place;
                 // re-copy them into the adapter's working list so the UI reflects it.
                 updateUi()
             } catch (e: Exception) {
@@ -1611,55 +1596,17 @@ class EspDeviceActivity : AppCompatActivity() {
 
     // Matter Subscription Methods
     private fun setupMatterSubscriptions() {
-        if (matterSubscriptionActive || matterNodeId.isNullOrEmpty() || !espApp.chipClientMap.containsKey(
-                matterNodeId
-            )
+        val capturedMatterNodeId = matterNodeId
+        if (matterSubscriptionActive || nodeId.isNullOrEmpty() || capturedMatterNodeId.isNullOrEmpty()
+            || !espApp.chipClientMap.containsKey(capturedMatterNodeId)
         ) {
             Log.d(TAG, "Cannot setup Matter subscriptions - already active or device not available")
             return
         }
-        Log.d(TAG, "Setting up Matter subscriptions for device: $matterNodeId")
-
-        lifecycleScope.launch {
-            try {
-                val chipClient = espApp.chipClientMap[matterNodeId]!!
-                subscriptionHelper = SubscriptionHelper(chipClient)
-                val deviceId = BigInteger(matterNodeId, 16).toLong()
-                val connectedDevicePtr = chipClient.getConnectedDevicePointer(deviceId)
-
-                // Create subscriptions based on device type
-                val subscriptions = subscriptionHelper!!.createSubscriptionsForDevice(
-                    device?.deviceType ?: "esp.device.switch",
-                    AppConstants.ENDPOINT_1.toLong()
-                )
-
-                Log.d(
-                    TAG,
-                    "Created ${subscriptions.size} subscriptions for device type: ${device?.deviceType}"
-                )
-
-                // Setup subscription callbacks
-                val reportCallback = createMatterReportCallback()
-                val subscriptionEstablishedCallback =
-                    SubscriptionHelper.SubscriptionEstablishedCallbackForDevice(deviceId)
-                val resubscriptionAttemptCallback =
-                    SubscriptionHelper.ResubscriptionAttemptCallbackForDevice(deviceId)
-
-                // Start subscriptions
-                subscriptionHelper!!.subscribeToMultipleAttributes(
-                    connectedDevicePtr,
-                    subscriptions,
-                    subscriptionEstablishedCallback,
-                    resubscriptionAttemptCallback,
-                    reportCallback
-                )
-                matterSubscriptionActive = true
-                Log.d(TAG, "Matter subscriptions setup completed successfully")
-            } catch (e: Exception) {
-                Log.e(TAG, "Failed to setup Matter subscriptions", e)
-                matterSubscriptionActive = false
-            }
-        }
+        Log.d(TAG, "Setting up Matter subscriptions for device: $capturedMatterNodeId")
+        MatterSubscriptionManager.getInstance(espApp)
+            .subscribe(nodeId!!, capturedMatterNodeId, device?.deviceType, matterUpdateListener)
+        matterSubscriptionActive = true
     }
 
     private fun stopMatterSubscriptions() {
@@ -1669,422 +1616,7 @@ class EspDeviceActivity : AppCompatActivity() {
 
         Log.d(TAG, "Stopping Matter subscriptions")
         matterSubscriptionActive = false
-        subscriptionHelper = null
-    }
-
-    private fun createMatterReportCallback(): ReportCallback {
-        return object : ReportCallback {
-
-            override fun onError(
-                attributePath: ChipAttributePath?,
-                eventPath: ChipEventPath?,
-                e: java.lang.Exception
-            ) {
-                Log.e(TAG, "Matter subscription error", e)
-            }
-
-            override fun onReport(nodeState: NodeState) {
-                Log.d(TAG, "Matter subscription report received for node: ${nodeId}")
-
-                try {
-                    for ((endpointId, endpoint) in nodeState.endpointStates) {
-                        for ((clusterId, cluster) in endpoint.clusterStates) {
-                            for ((attributeId, attribute) in cluster.attributeStates) {
-                                Log.d(
-                                    TAG,
-                                    "Attribute update - Endpoint: $endpointId, Cluster: $clusterId, Attribute: $attributeId, Value: ${attribute.value}"
-                                )
-
-                                // Update UI based on cluster and attribute with throttling
-                                val currentTime = System.currentTimeMillis()
-                                if (currentTime - lastMatterUpdateTime > MATTER_UPDATE_THROTTLE_MS) {
-                                    lastMatterUpdateTime = currentTime
-                                    runOnUiThread {
-                                        updateParameterFromMatterAttribute(
-                                            clusterId,
-                                            attributeId,
-                                            attribute.value
-                                        )
-                                    }
-                                } else {
-                                    Log.d(
-                                        TAG,
-                                        "Throttling Matter update for cluster $clusterId attribute $attributeId"
-                                    )
-                                }
-                            }
-                        }
-                    }
-                } catch (e: Exception) {
-                    Log.e(TAG, "Error processing Matter subscription report", e)
-                }
-            }
-
-            override fun onDone() {
-                Log.d(TAG, "Matter subscription done")
-            }
-        }
-    }
-
-    private fun updateParameterFromMatterAttribute(
-        clusterId: Long,
-        attributeId: Long,
-        value: Any?
-    ) {
-        if (paramList == null || value == null) {
-            return
-        }
-
-        Log.d(
-            TAG,
-            "Updating parameter from Matter attribute - Cluster: $clusterId, Attribute: $attributeId, Value: $value"
-        )
-
-        try {
-            var paramUpdated = false
-
-            when (clusterId) {
-                6L -> { // OnOff Cluster
-                    if (attributeId == 0L) { // OnOff attribute
-                        for (param in paramList!!) {
-                            if (param.paramType == AppConstants.PARAM_TYPE_POWER || param.name.equals(
-                                    "Power",
-                                    true
-                                )
-                            ) {
-                                val boolValue = value as? Boolean ?: false
-                                param.switchStatus = boolValue
-                                param.labelValue = if (boolValue) "true" else "false"
-                                paramUpdated = true
-                                break
-                            }
-                        }
-                    }
-                }
-
-                8L -> { // Level Control Cluster
-                    if (attributeId == 0L) { // CurrentLevel attribute
-                        for (param in paramList!!) {
-                            if (param.paramType == AppConstants.PARAM_TYPE_BRIGHTNESS || param.name.equals(
-                                    "Brightness",
-                                    true
-                                )
-                            ) {
-                                val intValue = value as? Int ?: 0
-                                val percentage =
-                                    (intValue * 100) / 254 // Convert from 0-254 to 0-100
-                                param.value = percentage.toDouble()
-                                param.labelValue = percentage.toString()
-                                paramUpdated = true
-                                break
-                            }
-                        }
-                    }
-                }
-
-                768L -> { // Color Control Cluster
-                    when (attributeId) {
-                        0L -> { // CurrentHue attribute
-                            for (param in paramList!!) {
-                                if (param.paramType == AppConstants.PARAM_TYPE_HUE || param.name.equals(
-                                        "Hue",
-                                        true
-                                    )
-                                ) {
-                                    val intValue = value as? Int ?: 0
-                                    val hueValue =
-                                        (intValue * 360) / 254 // Convert from 0-254 to 0-360
-                                    param.value = hueValue.toDouble()
-                                    param.labelValue = hueValue.toString()
-                                    paramUpdated = true
-                                    break
-                                }
-                            }
-                        }
-
-                        1L -> { // CurrentSaturation attribute
-                            for (param in paramList!!) {
-                                if (param.paramType == AppConstants.PARAM_TYPE_SATURATION || param.name.equals(
-                                        "Saturation",
-                                        true
-                                    )
-                                ) {
-                                    val intValue = value as? Int ?: 0
-                                    val percentage =
-                                        (intValue * 100) / 254 // Convert from 0-254 to 0-100
-                                    param.value = percentage.toDouble()
-                                    param.labelValue = percentage.toString()
-                                    paramUpdated = true
-                                    break
-                                }
-                            }
-                        }
-
-                        7L -> { // ColorTemperature attribute
-                            for (param in paramList!!) {
-                                if (param.paramType == AppConstants.PARAM_TYPE_CCT || param.name.equals(
-                                        AppConstants.PARAM_CCT,
-                                        true
-                                    )
-                                ) {
-                                    val miredsValue = value as? Int ?: 0
-                                    // Convert mireds to Kelvin: K = 1,000,000 / M
-                                    val kelvinValue = if (miredsValue > 0) {
-                                        1000000 / miredsValue
-                                    } else {
-                                        0
-                                    }
-
-                                    // Clamp Kelvin value between 2000K and 7000K
-                                    val clampedKelvin = kelvinValue.coerceIn(2000, 7000)
-
-                                    Log.d(
-                                        TAG,
-                                        "CCT: Mireds=$miredsValue, Raw Kelvin=$kelvinValue, Clamped Kelvin=$clampedKelvin"
-                                    )
-
-                                    // Store the clamped Kelvin value
-                                    param.value = clampedKelvin.toDouble()
-                                    param.labelValue = clampedKelvin.toString()
-                                    paramUpdated = true
-                                    break
-                                }
-                            }
-                        }
-                    }
-                }
-
-                1026L -> { // Temperature Measurement Cluster
-                    if (attributeId == 0L) { // MeasuredValue attribute
-                        for (param in paramList!!) {
-                            if (param.paramType == AppConstants.PARAM_TYPE_TEMPERATURE || param.name.equals(
-                                    "Temperature",
-                                    true
-                                )
-                            ) {
-                                val intValue = value as? Int ?: 0
-                                val temperatureValue =
-                                    intValue / 100.0 // Convert from centi-degrees to degrees
-                                param.value = temperatureValue
-                                param.labelValue = String.format("%.1f", temperatureValue)
-                                paramUpdated = true
-                                break
-                            }
-                        }
-                    }
-                }
-
-//                257L -> { // Door Lock Cluster
-//                    if (attributeId == 0L) { // LockState attribute
-//                        for (param in paramList!!) {
-//                            if (param.paramType == AppConstants.PARAM_TYPE_LOCK_STATE || param.name.equals("Lock", true)) {
-//                                val intValue = value as? Int ?: 0
-//                                val isLocked = intValue == 1
-//                                param.setSwitchStatus(!isLocked) // UI shows unlocked state as true
-//                                param.labelValue = if (isLocked) "Locked" else "Unlocked"
-//                                paramUpdated = true
-//                                break
-//                            }
-//                        }
-//                    }
-//                }
-
-                513L -> { // Thermostat Cluster
-                    when (attributeId) {
-                        0L -> { // LocalTemperature attribute
-                            for (param in paramList!!) {
-                                if (param.paramType == AppConstants.PARAM_TYPE_TEMPERATURE || param.name.equals(
-                                        "Temperature",
-                                        true
-                                    )
-                                ) {
-                                    val intValue = value as? Int ?: 0
-                                    val temperatureValue = intValue / 100.0
-                                    param.value = temperatureValue
-                                    param.labelValue =
-                                        String.format("%.1f", temperatureValue)
-                                    paramUpdated = true
-                                    break
-                                }
-                            }
-                        }
-
-                        17L -> { // OccupiedCoolingSetpoint
-                            for (param in paramList!!) {
-                                if (param.name.equals(
-                                        AppConstants.PARAM_COOLING_POINT,
-                                        true
-                                    )
-                                ) {
-                                    val intValue = value as? Int ?: 0
-                                    val temperatureValue = intValue / 100.0
-                                    param.value = temperatureValue
-                                    param.labelValue =
-                                        String.format("%.1f", temperatureValue)
-                                    paramUpdated = true
-                                    break
-                                }
-                            }
-                        }
-
-                        18L -> { // OccupiedHeatingSetpoint
-                            for (param in paramList!!) {
-                                if (param.name.equals(
-                                        AppConstants.PARAM_HEATING_POINT,
-                                        true
-                                    )
-                                ) {
-                                    val intValue = value as? Int ?: 0
-                                    val temperatureValue = intValue / 100.0
-                                    param.value = temperatureValue
-                                    param.labelValue =
-                                        String.format("%.1f", temperatureValue)
-                                    paramUpdated = true
-                                    break
-                                }
-                            }
-                        }
-
-                        28L -> { // SystemMode
-                            for (param in paramList!!) {
-                                if (param.name.equals(
-                                        AppConstants.PARAM_SYSTEM_MODE,
-                                        true
-                                    )
-                                ) {
-                                    val intValue = value as? Int ?: 0
-                                    param.value = intValue.toDouble()
-                                    param.labelValue = when (intValue) {
-                                        0 -> "Off"
-                                        1 -> "Auto"
-                                        3 -> "Cool"
-                                        4 -> "Heat"
-                                        else -> "Unknown"
-                                    }
-                                    paramUpdated = true
-                                    break
-                                }
-                            }
-                        }
-                    }
-                }
-
-                514L -> { // Fan Control Cluster
-                    if (attributeId == 0L) { // FanMode attribute
-                        for (param in paramList!!) {
-                            if (param.paramType == AppConstants.PARAM_TYPE_SPEED || param.name.equals(
-                                    "Speed",
-                                    true
-                                )
-                            ) {
-                                val intValue = value as? Int ?: 0
-                                param.value = intValue.toDouble()
-                                param.labelValue = intValue.toString()
-                                paramUpdated = true
-                                break
-                            }
-                        }
-                    }
-                }
-
-                else -> {
-                    Log.d(
-                        TAG,
-                        "Unhandled cluster ID: $clusterId for attribute: $attributeId"
-                    )
-                }
-            }
-
-            if (paramUpdated) {
-                Log.d(TAG, "Parameter updated from Matter subscription - refreshing UI")
-                // Find the specific parameter position and update only that item
-                val paramPosition = findParameterPosition(clusterId, attributeId)
-                if (paramPosition >= 0) {
-                    paramAdapter.notifyItemChanged(paramPosition)
-                } else {
-                    // Fallback to full refresh if position not found
-                    paramAdapter.notifyDataSetChanged()
-                }
-            }
-
-        } catch (e: Exception) {
-            Log.e(TAG, "Error updating parameter from Matter attribute", e)
-        }
-    }
-
-    private fun findParameterPosition(clusterId: Long, attributeId: Long): Int {
-        if (paramList == null) return -1
-
-        for (i in paramList!!.indices) {
-            val param = paramList!![i]
-
-            // Map cluster/attribute to param types for position finding
-            val matches = when (clusterId) {
-                6L -> if (attributeId == 0L) param.paramType == AppConstants.PARAM_TYPE_POWER || param.name.equals(
-                    "Power",
-                    true
-                ) else false
-
-                8L -> if (attributeId == 0L) param.paramType == AppConstants.PARAM_TYPE_BRIGHTNESS || param.name.equals(
-                    "Brightness",
-                    true
-                ) else false
-
-                768L -> when (attributeId) {
-                    0L -> param.paramType == AppConstants.PARAM_TYPE_HUE || param.name.equals(
-                        AppConstants.PARAM_HUE,
-                        true
-                    )
-
-                    1L -> param.paramType == AppConstants.PARAM_TYPE_SATURATION || param.name.equals(
-                        AppConstants.PARAM_SATURATION,
-                        true
-                    )
-
-                    7L -> param.paramType == AppConstants.PARAM_TYPE_CCT || param.name.equals(
-                        AppConstants.PARAM_CCT,
-                        true
-                    )
-
-                    else -> false
-                }
-
-                1026L -> if (attributeId == 0L) param.paramType == AppConstants.PARAM_TYPE_TEMPERATURE || param.name.equals(
-                    "Temperature",
-                    true
-                ) else false
-
-                513L -> when (attributeId) {
-                    0L -> param.paramType == AppConstants.PARAM_TYPE_TEMPERATURE || param.name.equals(
-                        "Temperature",
-                        true
-                    )
-
-                    17L -> param.name.equals(AppConstants.PARAM_COOLING_POINT, true)
-                    18L -> param.name.equals(AppConstants.PARAM_HEATING_POINT, true)
-                    28L -> param.name.equals(AppConstants.PARAM_SYSTEM_MODE, true)
-                    else -> false
-                }
-
-                514L -> if (attributeId == 0L) param.paramType == AppConstants.PARAM_TYPE_SPEED || param.name.equals(
-                    "Speed",
-                    true
-                ) else false
-
-                else -> false
-            }
-
-            if (matches) {
-                Log.d(
-                    TAG,
-                    "Found parameter ${param.name} at position $i for cluster $clusterId attribute $attributeId"
-                )
-                return i
-            }
-        }
-
-        Log.d(TAG, "Parameter not found for cluster $clusterId attribute $attributeId")
-        return -1
+        MatterSubscriptionManager.getInstance(espApp).unsubscribe(matterNodeId!!, matterUpdateListener)
     }
 
     private fun findGroupIdParam(services: List<Service>): Param? {
@@ -55,10 +55,12 @@ import androidx.viewpager.widget.ViewPager;
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
 import com.espressif.JsonDataParser;
+import com.espressif.ParamRefreshScheduler;
 import com.espressif.ble.BleLocalControlManager;
 import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.db.EspDatabase;
+import com.espressif.db.EspDbWriter;
 import com.espressif.matter.GroupSelectionActivity;
 import com.espressif.provisioning.ESPConstants;
 import com.espressif.rainmaker.BuildConfig;
@@ -95,6 +97,7 @@ public class EspMainActivity extends AppCompatActivity implements BleLocalContro
     private static final int REQUEST_LOCATION = 1;
     private static final int REQUEST_NOTIFICATION_PERMISSION = 2;
     private static final int REQUEST_APP_UPDATE = 500;
+    private static final int NODE_PAGE_SIZE = 50;
 
     private CollapsingToolbarLayout collapsingToolbarLayout;
     private Toolbar appbar;
@@ -183,6 +186,7 @@ public class EspMainActivity extends AppCompatActivity implements BleLocalContro
         super.onResume();
         EventBus.getDefault().register(this);
         getNodes();
+        updateGridRefresh();
 
         if (Utils.isPlayServicesAvailable(getApplicationContext())) {
             // Resume any pending updates
@@ -196,6 +200,7 @@ public class EspMainActivity extends AppCompatActivity implements BleLocalContro
     protected void onPause() {
         super.onPause();
         EventBus.getDefault().unregister(this);
+        ParamRefreshScheduler.getInstance(this).unsubscribeVisibleNodes(paramRefreshListener);
     }
 
     @Override
@@ -355,6 +360,27 @@ public class EspMainActivity extends AppCompatActivity implements BleLocalContro
         }
     };
 
+    // Device grid is updated by EVENT_DEVICE_STATUS_UPDATE event posted after each refresh.
+    private final ApiResponseListener paramRefreshListener = new ApiResponseListener() {
+
+        @Override
+        public void onSuccess(Bundle data) {
+            if (data != null) {
+                Log.d(TAG, "Params refreshed for " + data.getInt(AppConstants.KEY_NODE_COUNT) + " nodes");
+            }
+        }
+
+        @Override
+        public void onResponseFailure(Exception exception) {
+            Log.e(TAG, "Failed to refresh params : " + exception.getMessage());
+        }
+
+        @Override
+        public void onNetworkFailure(Exception exception) {
+            Log.e(TAG, "Failed to refresh params : " + exception.getMessage());
+        }
+    };
+
     public void setUpdateListener(UiUpdateListener updateListener) {
         updateListenerArrayList.add(updateListener);
     }
@@ -485,6 +511,7 @@ public class EspMainActivity extends AppCompatActivity implements BleLocalContro
             collapsingToolbarLayout.setTitle(title);
             updateActionBar();
             updateUi();
+            updateGridRefresh();
         }
 
         @Override
@@ -492,6 +519,19 @@ public class EspMainActivity extends AppCompatActivity implements BleLocalContro
         }
     };
 
+    /**
+     * Params of visible nodes of device grid are refreshed only while devices page is shown.
+     */
+    private void updateGridRefresh() {
+
+        ParamRefreshScheduler scheduler = ParamRefreshScheduler.getInstance(this);
+        if (viewPager != null && viewPager.getCurrentItem() == 0) {
+            scheduler.subscribeVisibleNodes(paramRefreshListener);
+        } else {
+            scheduler.unsubscribeVisibleNodes(paramRefreshListener);
+        }
+    }
+
     private void updateUi() {
 
         switch (espApp.getAppState()) {
@@ -597,7 +637,96 @@ public class EspMainActivity extends AppCompatActivity implements BleLocalContro
     private void loadDataFromLocalStorage() {
 
         EspDatabase espDatabase = EspDatabase.getInstance(getApplicationContext());
-        ArrayList<EspNode> nodeList = (ArrayList<EspNode>) espDatabase.getNodeDao().getNodesFromStorage();
+
+        // Load first page of nodes on main thread to show devices immediately, remaining nodes are loaded in background.
+        ArrayList<EspNode> nodeList = (ArrayList<EspNode>) espDatabase.getNodeDao().getNodesFromStorage("", NODE_PAGE_SIZE);
+        addNodesFromStorage(parseNodesFromStorage(nodeList));
+
+        if (nodeList.size() == NODE_PAGE_SIZE) {
+            loadRemainingNodesFromStorage(espDatabase, nodeList.get(nodeList.size() - 1).getNodeId(),
+                    ApiManager.getNodeSyncGeneration());
+        }
+
+        // Set all devices offline
+//        for (Map.Entry<String, EspNode> entry : espApp.nodeMap.entrySet()) {
+//
+//            String key = entry.getKey();
+//            EspNode node = entry.getValue();
+//
+//            if (node != null) {
+//                node.setOnline(false);
+//                ArrayList<Device> espDevices = node.getDevices();
+//                devices.addAll(espDevices);
+//            }
+//        }
+
+        if (BuildConfig.isNodeGroupingSupported) {
+            ArrayList<Group> groupList = (ArrayList<Group>) espDatabase.getGroupDao().getGroupsFromStorage();
+            for (int groupIndex = 0; groupIndex < groupList.size(); groupIndex++) {
+
+                Group group = groupList.get(groupIndex);
+                if (group != null) {
+                    espApp.groupMap.put(group.getGroupId(), group);
+                }
+            }
+        }
+        Log.d(TAG, "Node list size from local storage : " + espApp.nodeMap.size());
+    }
+
+    /**
+     * Load remaining nodes in background. Node sync completes on main thread, so each page is added on main thread
+     * and it is dropped if nodes have been synced with cloud after loading started (stored nodes may have been removed).
+     */
+    private void loadRemainingNodesFromStorage(final EspDatabase espDatabase, final String firstPageLastNodeId,
+                                               final int syncGeneration) {
+
+        new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+
+                String lastNodeId = firstPageLastNodeId;
+                ArrayList<EspNode> nodeList;
+
+                do {
+                    if (ApiManager.getNodeSyncGeneration() != syncGeneration) {
+                        Log.d(TAG, "Nodes are synced with cloud, stop loading nodes from local storage");
+                        return;
+                    }
+                    nodeList = (ArrayList<EspNode>) espDatabase.getNodeDao().getNodesFromStorage(lastNodeId, NODE_PAGE_SIZE);
+                    final ArrayList<EspNode> nodes = parseNodesFromStorage(nodeList);
+                    final boolean isLastPage = nodeList.size() < NODE_PAGE_SIZE;
+
+                    runOnUiThread(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            if (ApiManager.getNodeSyncGeneration() != syncGeneration) {
+                                return;
+                            }
+                            addNodesFromStorage(nodes);
+                            if (isLastPage) {
+                                Log.d(TAG, "Node list size after loading all nodes from local storage : " + espApp.nodeMap.size());
+                                EventBus.getDefault().post(new UpdateEvent(AppConstants.Companion.UpdateEventType.EVENT_DEVICE_STATUS_UPDATE));
+                            }
+                        }
+                    });
+                    if (!nodeList.isEmpty()) {
+                        lastNodeId = nodeList.get(nodeList.size() - 1).getNodeId();
+                    }
+                } while (nodeList.size() == NODE_PAGE_SIZE);
+            }
+        }).start();
+    }
+
+    /**
+     * Create nodes from their stored config and params. Nodes which are being deleted are skipped.
+     */
+    private ArrayList<EspNode> parseNodesFromStorage(ArrayList<EspNode> nodeList) {
+
+        EspDatabase espDatabase = EspDatabase.getInstance(getApplicationContext());
+        EspDbWriter dbWriter = EspDbWriter.getInstance(getApplicationContext());
+        ArrayList<EspNode> nodes = new ArrayList<>();
 
         for (int nodeIndex = 0; nodeIndex < nodeList.size(); nodeIndex++) {
 
@@ -605,6 +734,11 @@ public class EspMainActivity extends AppCompatActivity implements BleLocalContro
 
             if (node != null) {
 
+                // Node has been removed from cloud, its row is not yet deleted.
+                if (dbWriter.isNodeDeletePending(node.getNodeId())) {
+                    continue;
+                }
+
                 String configData = node.getConfigData();
                 String paramData = node.getParamData();
 
@@ -617,7 +751,7 @@ public class EspMainActivity extends AppCompatActivity implements BleLocalContro
                         } else {
                             Log.e(TAG, "Param configuration is not available.");
                         }
-                        espApp.nodeMap.put(node.getNodeId(), node);
+                        nodes.add(node);
 
                     } catch (JSONException e) {
                         e.printStackTrace();
@@ -627,31 +761,22 @@ public class EspMainActivity extends AppCompatActivity implements BleLocalContro
                 }
             }
         }
+        // Values of all nodes of the page are read in one query.
+        espDatabase.getDeviceDao().applyParamValues(nodes);
+        return nodes;
+    }
 
-        // Set all devices offline
-//        for (Map.Entry<String, EspNode> entry : espApp.nodeMap.entrySet()) {
-//
-//            String key = entry.getKey();
-//            EspNode node = entry.getValue();
-//
-//            if (node != null) {
-//                node.setOnline(false);
-//                ArrayList<Device> espDevices = node.getDevices();
-//                devices.addAll(espDevices);
-//            }
-//        }
+    private void addNodesFromStorage(ArrayList<EspNode> nodes) {
 
-        if (BuildConfig.isNodeGroupingSupported) {
-            ArrayList<Group> groupList = (ArrayList<Group>) espDatabase.getGroupDao().getGroupsFromStorage();
-            for (int groupIndex = 0; groupIndex < groupList.size(); groupIndex++) {
+        EspDbWriter dbWriter = EspDbWriter.getInstance(getApplicationContext());
 
-                Group group = groupList.get(groupIndex);
-                if (group != null) {
-                    espApp.groupMap.put(group.getGroupId(), group);
-                }
+        for (EspNode node : nodes) {
+            if (dbWriter.isNodeDeletePending(node.getNodeId())) {
+                continue;
             }
+            // Node may be already received from cloud, do not replace it with stored data.
+            espApp.nodeMap.putIfAbsent(node.getNodeId(), node);
         }
-        Log.d(TAG, "Node list size from local storage : " + espApp.nodeMap.size());
     }
 
     private void getNodes() {
@@ -430,9 +430,9 @@ public class NodeDetailsActivity extends AppCompatActivity {
             return result;
         }
 
-        for (com.espressif.ui.models.Group group : espApp.groupMap.values()) {
+        for (String groupId : espApp.getDeviceRegistry().getGroupIdsForNode(matterNodeId)) {
+            com.espressif.ui.models.Group group = espApp.groupMap.get(groupId);
             if (group == null || group.getNodeList() == null) continue;
-            if (!group.getNodeList().contains(matterNodeId)) continue;
 
             for (String nId : group.getNodeList()) {
                 if (TextUtils.equals(nId, matterNodeId)) continue;
@@ -44,7 +44,7 @@ import androidx.core.widget.ContentLoadingProgressBar;
 import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
-import com.espressif.NetworkApiManager;
+import com.espressif.ParamWritePipeline;
 import com.espressif.ble.BleLocalControlManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.rainmaker.R;
@@ -833,7 +833,7 @@ public class SceneDetailActivity extends AppCompatActivity {
     }
 
     private void updateSceneRequest(HashMap<String, JsonObject> sceneJsonBodyMap, ApiResponseListener listener) {
-        NetworkApiManager networkApiManager = new NetworkApiManager(getApplicationContext());
+        ParamWritePipeline paramWritePipeline = ParamWritePipeline.getInstance(getApplicationContext());
         final int totalNodes = sceneJsonBodyMap.size();
         final int[] completedCount = {0};
         final boolean[] hasFailure = {false};
@@ -842,7 +842,7 @@ public class SceneDetailActivity extends AppCompatActivity {
             String nodeId = entry.getKey();
             JsonObject payload = entry.getValue();
 
-            networkApiManager.updateParamValue(nodeId, payload, new ApiResponseListener() {
+            paramWritePipeline.submit(nodeId, payload, new ApiResponseListener() {
                 @Override
                 public void onSuccess(Bundle data) {
                     synchronized (completedCount) {
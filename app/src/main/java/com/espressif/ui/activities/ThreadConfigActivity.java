@@ -68,6 +68,7 @@ public class ThreadConfigActivity extends AppCompatActivity {
 
     private EspApplication espApp;
     private ESPProvisionManager provisionManager;
+    private TbrServiceDiscovery tbrMdnsManager;
     private ArrayList<WiFiAccessPoint> threadNetworkList;
 
     private ActivityResultLauncher<IntentSenderRequest> preferredCredentialsLauncher;
@@ -95,6 +96,7 @@ public class ThreadConfigActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         EventBus.getDefault().unregister(this);
+        stopTbrDiscovery();
         super.onDestroy();
     }
 
@@ -235,7 +237,7 @@ public class ThreadConfigActivity extends AppCompatActivity {
                         if (isTbrAvailable) {
                             Log.d(TAG, "TBR is available");
                             handler.postDelayed(stopTbrDiscoveryTask, 15000);
-                            TbrServiceDiscovery tbrMdnsManager = new TbrServiceDiscovery(this, AppConstants.MDNS_TBR_SERVICE_TYPE,
+                            tbrMdnsManager = new TbrServiceDiscovery(this, AppConstants.MDNS_TBR_SERVICE_TYPE,
                                     new TbrServiceDiscovery.ThreadDeviceListener() {
                                         @Override
                                         public void deviceFound(String nodeId, String networkName) {
@@ -243,6 +245,7 @@ public class ThreadConfigActivity extends AppCompatActivity {
                                             tbrNodeId = nodeId;
                                             threadNetworkName = networkName;
                                             handler.removeCallbacks(stopTbrDiscoveryTask);
+                                            stopTbrDiscovery();
 
                                             // if TBR's thread network is available, then check active dataset param value.
                                             // if active dataset is available, use it for provisioning thread device.
@@ -408,11 +411,19 @@ public class ThreadConfigActivity extends AppCompatActivity {
 
         @Override
         public void run() {
+            stopTbrDiscovery();
             hideLoading();
             showError(getString(R.string.error_title), getString(R.string.error_no_preferred_creds), false);
         }
     };
 
+    private void stopTbrDiscovery() {
+        if (tbrMdnsManager != null) {
+            tbrMdnsManager.stopDiscovery();
+            tbrMdnsManager = null;
+        }
+    }
+
     private void showAlertForDeviceDisconnected() {
 
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
@@ -26,12 +26,11 @@ import android.widget.RadioGroup;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.espressif.AppConstants;
-import com.espressif.cloudapi.ApiManager;
+import com.espressif.TimeSeriesStore;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.rainmaker.R;
 import com.espressif.rainmaker.databinding.ActivityTimeSeriesBinding;
 import com.espressif.ui.models.Param;
-import com.espressif.ui.models.TsData;
 import com.espressif.ui.widgets.EspMarkerView;
 import com.github.mikephil.charting.components.XAxis;
 import com.github.mikephil.charting.components.YAxis;
@@ -48,10 +47,9 @@ import com.github.mikephil.charting.listener.OnChartValueSelectedListener;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.concurrent.TimeUnit;
 
 public class TimeSeriesActivity extends AppCompatActivity {
@@ -85,19 +83,27 @@ public class TimeSeriesActivity extends AppCompatActivity {
     private String weekStart = null;
     private String timeZone;
 
-    private ApiManager apiManager;
     private String nodeId, deviceName, paramName, tsType;
     private Param param;
     private long myStartTime, myEndTime;
     private SimpleDateFormat dateFormatter;
-    private ArrayList<TsData> tsData;
+    private TimeSeriesStore timeSeriesStore;
+    private TimeSeriesStore.TsRequest tsRequest, prefetchRequest;
+    private long[] tsTimestamps;
+    private double[] tsValues;
 
     private float yMin, yMax;
+    private float dataMin, dataMax;
 
     private ArrayList<BarEntry> barEntries = new ArrayList<>();
     private ArrayList<Entry> lineEntries = new ArrayList<>();
     private ArrayList<String> xAxisLabel = new ArrayList<>();
 
+    // X axis labels of charts with fixed slots (minutes / hours) are formatted when they are drawn.
+    private SimpleDateFormat slotLabelFormat;
+    private long slotStartMillis, slotMillis;
+    private int slotCount;
+
     private ActivityTimeSeriesBinding binding;
 
     @Override
@@ -107,7 +113,7 @@ public class TimeSeriesActivity extends AppCompatActivity {
         View view = binding.getRoot();
         setContentView(view);
 
-        apiManager = ApiManager.getInstance(getApplicationContext());
+        timeSeriesStore = TimeSeriesStore.getInstance(getApplicationContext());
         Intent intent = getIntent();
         nodeId = intent.getStringExtra(AppConstants.KEY_NODE_ID);
         deviceName = intent.getStringExtra(AppConstants.KEY_DEVICE_NAME);
@@ -170,6 +176,17 @@ public class TimeSeriesActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    protected void onDestroy() {
+        if (tsRequest != null) {
+            tsRequest.cancel();
+        }
+        if (prefetchRequest != null) {
+            prefetchRequest.cancel();
+        }
+        super.onDestroy();
+    }
+
     private void initViews() {
 
         setSupportActionBar(binding.toolbarLayout.toolbar);
@@ -317,33 +334,9 @@ public class TimeSeriesActivity extends AppCompatActivity {
         @Override
         public void onClick(View v) {
             Log.d(TAG, "Previous button clicked");
-            myEndTime = myStartTime - 1;
-            Calendar calendar = com.espressif.ui.Utils.getCalendarForTimeZone(timeZone);
-            calendar.setTime(new Date(myEndTime * 1000));
-
-            switch (chartInterval) {
-                case INTERVAL_1D:
-                    break;
-
-                case INTERVAL_7D:
-                    calendar.add(Calendar.DATE, -6);
-                    break;
-
-                case INTERVAL_4W:
-                    calendar.add(Calendar.DATE, -27);
-                    break;
-
-                case INTERVAL_1Y:
-                    calendar.set(Calendar.DATE, 1);
-                    calendar.add(Calendar.MONTH, -11);
-                    break;
-            }
-            calendar.set(Calendar.HOUR_OF_DAY, 0);
-            calendar.set(Calendar.MINUTE, 0);
-            calendar.set(Calendar.SECOND, 0);
-            calendar.set(Calendar.MILLISECOND, 0);
-            long startTime = calendar.getTimeInMillis();
-            myStartTime = TimeUnit.SECONDS.convert(startTime, TimeUnit.MILLISECONDS);
+            long[] previousRange = getPreviousRange(myStartTime);
+            myStartTime = previousRange[0];
+            myEndTime = previousRange[1];
             Log.d(TAG, "Start time : " + dateFormatter.format(new Date(myStartTime * 1000)));
             Log.d(TAG, "End time : " + dateFormatter.format(new Date(myEndTime * 1000)));
             setNextBtnVisibility();
@@ -405,6 +398,10 @@ public class TimeSeriesActivity extends AppCompatActivity {
 
         showLoading();
         Log.d(TAG, "Change chart");
+        if (tsRequest != null) {
+            tsRequest.cancel();
+            tsRequest = null;
+        }
         boolean isChartTypeChange = false;
         if (chartInterval != newChartType) {
             isChartTypeChange = true;
@@ -514,414 +511,309 @@ public class TimeSeriesActivity extends AppCompatActivity {
         Log.d(TAG, "============= End date : " + endDateInString);
     }
 
+    /**
+     * Get start and end time of the interval before the interval starting at given time.
+     */
+    private long[] getPreviousRange(long startTime) {
+
+        long endTime = startTime - 1;
+        Calendar calendar = com.espressif.ui.Utils.getCalendarForTimeZone(timeZone);
+        calendar.setTime(new Date(endTime * 1000));
+
+        switch (chartInterval) {
+            case INTERVAL_1D:
+                break;
+
+            case INTERVAL_7D:
+                calendar.add(Calendar.DATE, -6);
+                break;
+
+            case INTERVAL_4W:
+                calendar.add(Calendar.DATE, -27);
+                break;
+
+            case INTERVAL_1Y:
+                calendar.set(Calendar.DATE, 1);
+                calendar.add(Calendar.MONTH, -11);
+                break;
+        }
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        long previousStartTime = TimeUnit.SECONDS.convert(calendar.getTimeInMillis(), TimeUnit.MILLISECONDS);
+        return new long[]{previousStartTime, endTime};
+    }
+
     private void getTsData(String aggregate, String timeInterval, long startTime, long endTime,
                            String weekStart, String timeZone, ApiResponseListener listener) {
 
-        apiManager.getTimeSeriesData(nodeId, paramName, param.getDataType(), aggregate, timeInterval,
-                startTime, endTime, weekStart, timeZone, tsType, new ApiResponseListener() {
+        TimeSeriesStore.ProgressListener progressListener = points -> {
+            // Render partial data while remaining pages are being received.
+            tsTimestamps = points.getTimestamps();
+            tsValues = points.getValues();
+            processTsData(startTime);
+            if (tsTimestamps.length > 0) {
+                hideLoading();
+                updateChart();
+            }
+        };
 
-                    @Override
-                    public void onSuccess(Bundle data) {
-                        if (data != null) {
-                            tsData = data.getParcelableArrayList("ts_data");
-                            Log.d(TAG, "Time Series data size : " + tsData.size());
-                            processTsData(startTime, endTime, tsData);
-                            listener.onSuccess(data);
-                        }
-                    }
+        ApiResponseListener responseListener = new ApiResponseListener() {
 
-                    @Override
-                    public void onResponseFailure(Exception exception) {
-                        listener.onResponseFailure(exception);
-                    }
+            @Override
+            public void onSuccess(Bundle data) {
+                if (data != null) {
+                    tsTimestamps = data.getLongArray(AppConstants.KEY_TS_TIMESTAMPS);
+                    tsValues = data.getDoubleArray(AppConstants.KEY_TS_VALUES);
+                    Log.d(TAG, "Time Series data size : " + tsTimestamps.length);
+                    processTsData(startTime);
+                    listener.onSuccess(data);
+                }
+                prefetchPreviousRange(aggregate, timeInterval, startTime, weekStart, timeZone);
+            }
 
-                    @Override
-                    public void onNetworkFailure(Exception exception) {
-                        listener.onNetworkFailure(exception);
-                    }
-                });
+            @Override
+            public void onResponseFailure(Exception exception) {
+                listener.onResponseFailure(exception);
+            }
+
+            @Override
+            public void onNetworkFailure(Exception exception) {
+                listener.onNetworkFailure(exception);
+            }
+        };
+
+        if (prefetchRequest != null && prefetchRequest.isRunningFor(aggregate, timeInterval, startTime, endTime, weekStart)) {
+            // User has moved to the range which is being prefetched, continue with the same request.
+            Log.d(TAG, "Using prefetch request");
+            tsRequest = prefetchRequest;
+            prefetchRequest = null;
+            tsRequest.setListeners(progressListener, responseListener);
+            return;
+        }
+
+        if (prefetchRequest != null) {
+            prefetchRequest.cancel();
+            prefetchRequest = null;
+        }
+        long completeUntil = getCompleteUntil(aggregate, timeInterval, startTime, endTime);
+        tsRequest = timeSeriesStore.getTimeSeriesData(nodeId, paramName, param.getDataType(), aggregate, timeInterval,
+                startTime, endTime, weekStart, timeZone, tsType, completeUntil, progressListener, responseListener);
     }
 
-    private void processTsData(long startTime, long endTime, ArrayList<TsData> tsData) {
+    /**
+     * Fetch data of the previous interval in background, so that it is available in cache when user moves to it.
+     */
+    private void prefetchPreviousRange(String aggregate, String timeInterval, long startTime, String weekStart,
+                                       String timeZone) {
 
-        barEntries.clear();
-        lineEntries.clear();
-        xAxisLabel.clear();
+        if (isFinishing()) {
+            return;
+        }
+        long[] previousRange = getPreviousRange(startTime);
+        if (prefetchRequest != null) {
+            if (prefetchRequest.isRunningFor(aggregate, timeInterval, previousRange[0], previousRange[1], weekStart)) {
+                return;
+            }
+            prefetchRequest.cancel();
+        }
+        long completeUntil = getCompleteUntil(aggregate, timeInterval, previousRange[0], previousRange[1]);
+        prefetchRequest = timeSeriesStore.getTimeSeriesData(nodeId, paramName, param.getDataType(), aggregate,
+                timeInterval, previousRange[0], previousRange[1], weekStart, timeZone, tsType, completeUntil, null, null);
+    }
 
-        final Calendar tempCalendar = com.espressif.ui.Utils.getCalendarForTimeZone(timeZone);
-        startTime = TimeUnit.MILLISECONDS.convert(startTime, TimeUnit.SECONDS);
-        Date startDate = new Date(startTime);
-        tempCalendar.setTime(startDate);
-        Date endDate;
-        HashMap<Long, TsData> tsDataMap = new HashMap<>();
-        SimpleDateFormat sdf = new SimpleDateFormat("dd-MMM-yy hh:mm aaa");
-        SimpleDateFormat formatter = new SimpleDateFormat("HH:mm");
-        float min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
-        Log.d(TAG, "TS DATA size : " + tsData.size());
+    /**
+     * Get time (in seconds) till which data of the range will not change anymore.
+     * For raw data, it is a minute before current time. For aggregated data, it is the start of the current bucket.
+     */
+    private long getCompleteUntil(String aggregate, String timeInterval, long startTime, long endTime) {
 
-        if (tsData != null && tsData.size() > 0) {
+        long now = TimeUnit.SECONDS.convert(System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        if (endTime < now) {
+            return endTime + 1;
+        }
+        if (aggregate.equals(AGGREGATE_TYPE_RAW)) {
+            return now - 60;
+        }
 
-            switch (chartInterval) {
+        Calendar calendar = com.espressif.ui.Utils.getCalendarForTimeZone(timeZone);
+        calendar.setTimeInMillis(TimeUnit.MILLISECONDS.convert(startTime, TimeUnit.SECONDS));
+        long bucketStart = startTime;
+        while (true) {
+            switch (timeInterval) {
+                case TIME_INTERVAL_DAY:
+                    calendar.add(Calendar.DATE, 1);
+                    break;
+                case TIME_INTERVAL_WEEK:
+                    calendar.add(Calendar.DATE, 7);
+                    break;
+                case TIME_INTERVAL_MONTH:
+                    calendar.add(Calendar.MONTH, 1);
+                    break;
+                default:
+                    calendar.add(Calendar.HOUR, 1);
+                    break;
+            }
+            long nextBucketStart = TimeUnit.SECONDS.convert(calendar.getTimeInMillis(), TimeUnit.MILLISECONDS);
+            if (nextBucketStart > now) {
+                return bucketStart;
+            }
+            bucketStart = nextBucketStart;
+        }
+    }
 
-                case INTERVAL_1D:
+    private void processTsData(long startTime) {
 
-                    formatter = new SimpleDateFormat("hh:mm aaa");
+        barEntries.clear();
+        lineEntries.clear();
+        xAxisLabel.clear();
+        slotLabelFormat = null;
+        dataMin = Integer.MAX_VALUE;
+        dataMax = Integer.MIN_VALUE;
 
-                    if (aggregateType.equals(AGGREGATE_TYPE_RAW)) {
+        if (tsTimestamps == null || tsTimestamps.length == 0) {
+            Log.e(TAG, "No TS Data available.");
+            return;
+        }
+        Log.d(TAG, "TS DATA size : " + tsTimestamps.length);
 
-                        if (tsData.size() > 0) {
-
-                            for (int j = 0; j < tsData.size(); j++) {
-                                TsData dataPoint = tsData.get(j);
-                                long timeStamp = TimeUnit.MINUTES.convert(dataPoint.getTimeStamp(), TimeUnit.SECONDS);
-                                tsDataMap.put(timeStamp, dataPoint);
-                            }
-
-                            int mins = 1440;
-                            for (int i = 1; i < (mins + 1); i++) {
-
-                                long timeStamp = tempCalendar.getTimeInMillis();
-                                String timeStr = formatter.format(tempCalendar.getTime());
-                                timeStamp = TimeUnit.MINUTES.convert(timeStamp, TimeUnit.MILLISECONDS);
-
-                                if (tsDataMap.containsKey(timeStamp)) {
-                                    TsData dataPoint = tsDataMap.get(timeStamp);
-                                    float y = 0;
-                                    if (dataPoint != null && dataPoint.getValue() != null) {
-                                        y = dataPoint.getValue().floatValue();
-                                    }
-                                    if (y < min) {
-                                        min = y;
-                                    }
-                                    if (y > max) {
-                                        max = y;
-                                    }
-
-                                    String markerText = sdf.format(new Date(TimeUnit.MILLISECONDS.convert(dataPoint.getTimeStamp(), TimeUnit.SECONDS)));
-                                    BarEntry barEntry1 = new BarEntry(i, y); // start always from x=1 for the first bar
-                                    Entry lineEntry1 = new Entry(i, y);
-                                    barEntry1.setData(markerText);
-                                    lineEntry1.setData(markerText);
-                                    barEntries.add(barEntry1);
-                                    lineEntries.add(lineEntry1);
-                                }
-                                xAxisLabel.add(timeStr);
-                                tempCalendar.add(Calendar.MINUTE, 1);
-                            }
-                        }
-                    } else {
-
-                        if (tsData.size() > 0) {
-
-                            for (int j = 0; j < tsData.size(); j++) {
-                                TsData dataPoint = tsData.get(j);
-                                long timeStamp = TimeUnit.HOURS.convert(dataPoint.getTimeStamp(), TimeUnit.SECONDS);
-                                tsDataMap.put(timeStamp, dataPoint);
-                            }
-                            Log.d(TAG, "tsDataMap size : " + tsDataMap.size());
-
-                            int hours = 24;
-                            for (int i = 1; i < (hours + 1); i++) {
-
-                                long timeStamp = tempCalendar.getTimeInMillis();
-                                String timeStr = formatter.format(tempCalendar.getTime());
-                                timeStamp = TimeUnit.HOURS.convert(timeStamp, TimeUnit.MILLISECONDS);
-
-                                if (tsDataMap.containsKey(timeStamp)) {
-                                    TsData dataPoint = tsDataMap.get(timeStamp);
-                                    float y = 0;
-                                    if (dataPoint != null && dataPoint.getValue() != null) {
-                                        y = dataPoint.getValue().floatValue();
-                                    }
-                                    if (y < min) {
-                                        min = y;
-                                    }
-                                    if (y > max) {
-                                        max = y;
-                                    }
-
-                                    String markerText = sdf.format(new Date(TimeUnit.MILLISECONDS.convert(dataPoint.getTimeStamp(), TimeUnit.SECONDS)));
-                                    BarEntry barEntry1 = new BarEntry(i, y); // start always from x=1 for the first bar
-                                    Entry lineEntry1 = new Entry(i, y);
-                                    Log.d(TAG, "Bar entry for time : " + timeStr + " and y : " + y);
-                                    barEntry1.setData(markerText);
-                                    lineEntry1.setData(markerText);
-                                    barEntries.add(barEntry1);
-                                    lineEntries.add(lineEntry1);
-                                }
-                                xAxisLabel.add(timeStr);
-                                tempCalendar.add(Calendar.HOUR, 1);
-                            }
-                        }
-                    }
-                    break;
+        switch (chartInterval) {
 
-                case INTERVAL_7D:
+            case INTERVAL_1D:
+                if (aggregateType.equals(AGGREGATE_TYPE_RAW)) {
+                    addSlotEntries(startTime, TimeUnit.MINUTES.toSeconds(1), 1440, "hh:mm aaa");
+                } else {
+                    addSlotEntries(startTime, TimeUnit.HOURS.toSeconds(1), 24, "hh:mm aaa");
+                }
+                break;
 
-                    formatter = new SimpleDateFormat("EEE");
+            case INTERVAL_7D:
+                if (aggregateType.equals(AGGREGATE_TYPE_RAW)) {
+                    addSlotEntries(startTime, TimeUnit.MINUTES.toSeconds(1), 10080, "EEE");
+                } else {
+                    addBucketEntries(startTime, 7, Calendar.DATE, 1, new SimpleDateFormat("EEE"), new SimpleDateFormat("dd-MMM-yy"), false);
+                    xAxisLabel.add(""); //empty label for the last vertical grid line on Y-Right Axis
+                }
+                break;
 
-                    if (aggregateType.equals(AGGREGATE_TYPE_RAW)) {
+            case INTERVAL_4W:
+                if (aggregateType.equals(AGGREGATE_TYPE_RAW)) {
+                    addSlotEntries(startTime, TimeUnit.HOURS.toSeconds(1), 672, "dd/MM");
+                } else {
+                    addBucketEntries(startTime, 4, Calendar.DATE, 7, new SimpleDateFormat("dd/MM"), new SimpleDateFormat("dd-MMM"), true);
+                    xAxisLabel.add(""); //empty label for the last vertical grid line on Y-Right Axis
+                }
+                break;
 
-                        if (tsData.size() > 0) {
-
-                            for (int j = 0; j < tsData.size(); j++) {
-                                TsData dataPoint = tsData.get(j);
-                                long timeStamp = TimeUnit.MINUTES.convert(dataPoint.getTimeStamp(), TimeUnit.SECONDS);
-                                tsDataMap.put(timeStamp, dataPoint);
-                            }
-
-                            int mins = 10080;
-                            for (int i = 1; i < (mins + 1); i++) {
-
-                                long timeStamp = tempCalendar.getTimeInMillis();
-                                String timeStr = formatter.format(tempCalendar.getTime());
-                                timeStamp = TimeUnit.MINUTES.convert(timeStamp, TimeUnit.MILLISECONDS);
-
-                                if (tsDataMap.containsKey(timeStamp)) {
-                                    TsData dataPoint = tsDataMap.get(timeStamp);
-                                    float y = 0;
-                                    if (dataPoint != null && dataPoint.getValue() != null) {
-                                        y = dataPoint.getValue().floatValue();
-                                    }
-                                    if (y < min) {
-                                        min = y;
-                                    }
-                                    if (y > max) {
-                                        max = y;
-                                    }
-
-                                    String markerText = sdf.format(new Date(TimeUnit.MILLISECONDS.convert(dataPoint.getTimeStamp(), TimeUnit.SECONDS)));
-                                    BarEntry barEntry = new BarEntry(i, y);
-                                    Entry lineEntry = new Entry(i, y);
-                                    barEntry.setData(markerText);
-                                    lineEntry.setData(markerText);
-                                    barEntries.add(barEntry);
-                                    lineEntries.add(lineEntry);
-                                }
-                                xAxisLabel.add(timeStr);
-                                tempCalendar.add(Calendar.MINUTE, 1);
-                            }
-                        }
-                    } else {
-
-                        ArrayList<TsData> mTsData = new ArrayList<>();
-                        mTsData.addAll(tsData);
-
-                        for (int i = 0; i < 7; i++) {
-
-                            String weekStartDay = formatter.format(tempCalendar.getTime());
-                            Log.d(TAG, "======= Adding xAxisLabel : " + weekStartDay);
-                            xAxisLabel.add(weekStartDay);
-                            tempCalendar.add(Calendar.DATE, 1);
-                            endDate = tempCalendar.getTime();
-                            Log.d(TAG, "======= Start date For calculation : " + startDate);
-                            Log.d(TAG, "======= End date For calculation : " + endDate);
-
-                            SimpleDateFormat sdf1 = new SimpleDateFormat("dd-MMM-yy");
-                            Iterator<TsData> itr = mTsData.iterator();
-
-                            while (itr.hasNext()) {
-                                TsData dataPoint = itr.next();
-                                Date tsDate = new Date(dataPoint.getTimeStamp() * 1000);
-
-                                if ((tsDate.after(startDate) && tsDate.before(endDate)) || tsDate.equals(startDate)) {
-                                    Log.d(TAG, "======= Entry added for date : " + tsDate);
-
-                                    float y = 0;
-                                    if (dataPoint.getValue() != null) {
-                                        y = dataPoint.getValue().floatValue();
-                                    }
-                                    if (y < min) {
-                                        min = y;
-                                    }
-                                    if (y > max) {
-                                        max = y;
-                                    }
-
-                                    String markerText = sdf1.format(tsDate);
-                                    BarEntry barEntry = new BarEntry((i + 1), y);
-                                    Entry lineEntry = new Entry((i + 1), y);
-                                    barEntry.setData(markerText);
-                                    lineEntry.setData(markerText);
-                                    barEntries.add(barEntry);
-                                    lineEntries.add(lineEntry);
-                                    Log.d(TAG, "Adding entry for day ==== : " + weekStartDay);
-                                    itr.remove();
-                                    break;
-                                }
-                            }
-                            startDate = tempCalendar.getTime();
-                        }
-                        xAxisLabel.add(""); //empty label for the last vertical grid line on Y-Right Axis
-                    }
-                    break;
+            case INTERVAL_1Y:
+                SimpleDateFormat monthFormatter = new SimpleDateFormat("MMM");
+                addBucketEntries(startTime, 12, Calendar.MONTH, 1, monthFormatter, monthFormatter, false);
+                break;
+        }
 
-                case INTERVAL_4W:
+        yMax = (int) (10 * (Math.ceil(dataMax / 10)));
+        yMin = (int) (10 * (Math.floor(dataMin / 10)));
+        Log.d(TAG, "Min value in all readings : " + yMin);
+        Log.d(TAG, "Max value in all readings : " + yMax);
+    }
 
-                    formatter = new SimpleDateFormat("dd/MM");
+    /**
+     * Add entries for charts with fixed slots (minutes / hours). Entry of a slot is the last point of that slot.
+     * Points are down sampled to screen width, keeping min and max of each group of slots.
+     */
+    private void addSlotEntries(long startTime, long slotSeconds, int slotCount, String labelFormat) {
+
+        slotStartMillis = TimeUnit.MILLISECONDS.convert(startTime, TimeUnit.SECONDS);
+        slotMillis = TimeUnit.MILLISECONDS.convert(slotSeconds, TimeUnit.SECONDS);
+        this.slotCount = slotCount;
+        slotLabelFormat = new SimpleDateFormat(labelFormat);
+
+        // Last point of each slot
+        int[] slotIndices = new int[tsTimestamps.length];
+        long[] slotTimes = new long[tsTimestamps.length];
+        double[] slotValues = new double[tsTimestamps.length];
+        int count = 0;
+        long lastSlot = -1;
+        for (int i = 0; i < tsTimestamps.length; i++) {
+            long slot = (tsTimestamps[i] - startTime) / slotSeconds;
+            if (slot < 0 || slot >= slotCount) {
+                continue;
+            }
+            if (slot == lastSlot) {
+                count--;
+            }
+            slotIndices[count] = i;
+            slotTimes[count] = slot;
+            slotValues[count] = tsValues[i];
+            count++;
+            lastSlot = slot;
+        }
+        long[] times = Arrays.copyOf(slotTimes, count);
+        double[] values = Arrays.copyOf(slotValues, count);
 
-                    if (aggregateType.equals(AGGREGATE_TYPE_RAW)) {
+        int maxPoints = getResources().getDisplayMetrics().widthPixels;
+        int[] plotted = TimeSeriesStore.downsampleMinMax(times, values, 0, slotCount, Math.max(maxPoints / 2, 1));
+        Log.d(TAG, "Points : " + count + ", plotted : " + plotted.length);
 
-                        if (tsData.size() > 0) {
-
-                            for (int j = 0; j < tsData.size(); j++) {
-                                TsData dataPoint = tsData.get(j);
-                                long timeStamp = TimeUnit.HOURS.convert(dataPoint.getTimeStamp(), TimeUnit.SECONDS);
-                                tsDataMap.put(timeStamp, dataPoint);
-                            }
-
-                            int hours = 672;
-                            for (int i = 1; i < (hours + 1); i++) {
-
-                                long timeStamp = tempCalendar.getTimeInMillis();
-                                String timeStr = formatter.format(tempCalendar.getTime());
-                                timeStamp = TimeUnit.HOURS.convert(timeStamp, TimeUnit.MILLISECONDS);
-
-                                if (tsDataMap.containsKey(timeStamp)) {
-                                    TsData dataPoint = tsDataMap.get(timeStamp);
-                                    float y = 0;
-                                    if (dataPoint != null && dataPoint.getValue() != null) {
-                                        y = dataPoint.getValue().floatValue();
-                                    }
-                                    if (y < min) {
-                                        min = y;
-                                    }
-                                    if (y > max) {
-                                        max = y;
-                                    }
-
-                                    String markerText = sdf.format(new Date(TimeUnit.MILLISECONDS.convert(dataPoint.getTimeStamp(), TimeUnit.SECONDS)));
-                                    BarEntry barEntry = new BarEntry(i, y);
-                                    Entry lineEntry = new Entry(i, y);
-                                    barEntry.setData(markerText);
-                                    lineEntry.setData(markerText);
-                                    barEntries.add(barEntry);
-                                    lineEntries.add(lineEntry);
-                                }
-                                xAxisLabel.add(timeStr);
-                                tempCalendar.add(Calendar.HOUR, 1);
-                            }
-                            xAxisLabel.add("");
-                        }
+        SimpleDateFormat sdf = new SimpleDateFormat("dd-MMM-yy hh:mm aaa");
+        for (int index : plotted) {
+            int i = slotIndices[index];
+            String markerText = sdf.format(new Date(TimeUnit.MILLISECONDS.convert(tsTimestamps[i], TimeUnit.SECONDS)));
+            addEntry((int) times[index] + 1, (float) values[index], markerText); // start always from x=1 for the first bar
+        }
+    }
 
-                    } else {
-
-                        ArrayList<TsData> mTsData = new ArrayList<>();
-                        mTsData.addAll(tsData);
-
-                        for (int i = 0; i < 4; i++) {
-
-                            String weekStartDay = formatter.format(tempCalendar.getTime());
-                            Log.d(TAG, "======= Adding xAxisLabel : " + weekStartDay);
-                            xAxisLabel.add(weekStartDay);
-                            tempCalendar.add(Calendar.DATE, 7);
-                            tempCalendar.add(Calendar.MILLISECOND, -1);
-                            endDate = tempCalendar.getTime();
-                            Log.d(TAG, "======= Start date For calculation : " + startDate);
-                            Log.d(TAG, "======= End date For calculation : " + endDate);
-
-                            SimpleDateFormat sdfMonth = new SimpleDateFormat("dd-MMM");
-                            Iterator<TsData> itr = mTsData.iterator();
-
-                            while (itr.hasNext()) {
-                                TsData dataPoint = itr.next();
-                                Date tsDate = new Date(dataPoint.getTimeStamp() * 1000);
-
-                                if ((tsDate.after(startDate) && tsDate.before(endDate)) || tsDate.equals(startDate)) {
-
-                                    Log.d(TAG, "Entry added for date : " + tsDate);
-
-                                    float y = 0;
-                                    if (dataPoint.getValue() != null) {
-                                        y = dataPoint.getValue().floatValue();
-                                    }
-                                    if (y < min) {
-                                        min = y;
-                                    }
-                                    if (y > max) {
-                                        max = y;
-                                    }
-
-                                    String startDateText = sdfMonth.format(startDate);
-                                    String endDateText = sdfMonth.format(endDate);
-                                    String markerText = startDateText + " to " + endDateText;
-
-                                    BarEntry barEntry = new BarEntry((i + 1), y);
-                                    Entry lineEntry = new Entry((i + 1), y);
-                                    barEntry.setData(markerText);
-                                    lineEntry.setData(markerText);
-                                    barEntries.add(barEntry);
-                                    lineEntries.add(lineEntry);
-                                    itr.remove();
-                                    break;
-                                }
-                            }
-                            tempCalendar.add(Calendar.MILLISECOND, 1);
-                            startDate = tempCalendar.getTime();
-                        }
-                        xAxisLabel.add(""); //empty label for the last vertical grid line on Y-Right Axis
-                    }
-                    break;
+    /**
+     * Add entries for charts with calendar buckets (days / weeks / months). Entry of a bucket is its first point.
+     */
+    private void addBucketEntries(long startTime, int bucketCount, int calendarField, int amount,
+                                  SimpleDateFormat labelFormatter, SimpleDateFormat markerFormatter, boolean isRangeMarker) {
 
-                case INTERVAL_1Y:
+        final Calendar tempCalendar = com.espressif.ui.Utils.getCalendarForTimeZone(timeZone);
+        tempCalendar.setTimeInMillis(TimeUnit.MILLISECONDS.convert(startTime, TimeUnit.SECONDS));
+        int pointIndex = 0;
 
-                    ArrayList<TsData> mTsData = new ArrayList<>();
-                    mTsData.addAll(tsData);
-
-                    for (int i = 1; i <= 12; i++) {
-
-                        formatter = new SimpleDateFormat("MMM");
-                        String month = formatter.format(tempCalendar.getTime());
-                        Log.d(TAG, "======= Adding xAxisLabel : " + month);
-                        xAxisLabel.add(month);
-
-                        tempCalendar.add(Calendar.MONTH, 1);
-                        endDate = tempCalendar.getTime();
-                        Log.d(TAG, "======= Start date For calculation : " + startDate);
-                        Log.d(TAG, "======= End date For calculation : " + endDate);
-
-                        Iterator<TsData> itr = mTsData.iterator();
-
-                        while (itr.hasNext()) {
-                            TsData dataPoint = itr.next();
-                            Date tsDate = new Date(dataPoint.getTimeStamp() * 1000);
-                            Log.d(TAG, "======= TS date For calculation : " + tsDate);
-
-                            if ((tsDate.after(startDate) && tsDate.before(endDate)) || tsDate.equals(startDate)) {
-                                float y = 0;
-                                if (dataPoint.getValue() != null) {
-                                    y = dataPoint.getValue().floatValue();
-                                }
-                                if (y < min) {
-                                    min = y;
-                                }
-                                if (y > max) {
-                                    max = y;
-                                }
-
-                                BarEntry barEntry = new BarEntry(i, y);
-                                Entry lineEntry = new Entry(i, y);
-                                barEntry.setData(month);
-                                lineEntry.setData(month);
-                                barEntries.add(barEntry);
-                                lineEntries.add(lineEntry);
-                                itr.remove();
-                                break;
-                            }
-                        }
-                        startDate = tempCalendar.getTime();
-                    }
-                    break;
-            }
+        for (int i = 0; i < bucketCount; i++) {
 
-            yMax = (int) (10 * (Math.ceil(max / 10)));
-            yMin = (int) (10 * (Math.floor(min / 10)));
-            Log.d(TAG, "Min value in all readings : " + yMin);
-            Log.d(TAG, "Max value in all readings : " + yMax);
+            Date bucketStart = tempCalendar.getTime();
+            String label = labelFormatter.format(bucketStart);
+            xAxisLabel.add(label);
+            tempCalendar.add(calendarField, amount);
+            long bucketEndMillis = tempCalendar.getTimeInMillis();
 
-        } else {
-            Log.e(TAG, "No TS Data available.");
+            while (pointIndex < tsTimestamps.length && tsTimestamps[pointIndex] * 1000 < bucketStart.getTime()) {
+                pointIndex++;
+            }
+            if (pointIndex < tsTimestamps.length && tsTimestamps[pointIndex] * 1000 < bucketEndMillis) {
+                String markerText;
+                if (isRangeMarker) {
+                    markerText = markerFormatter.format(bucketStart) + " to " + markerFormatter.format(new Date(bucketEndMillis - 1));
+                } else {
+                    markerText = markerFormatter.format(new Date(tsTimestamps[pointIndex] * 1000));
+                }
+                addEntry(i + 1, (float) tsValues[pointIndex], markerText);
+                pointIndex++;
+            }
+        }
+    }
+
+    private void addEntry(int x, float y, String markerText) {
+        if (Float.isNaN(y)) {
+            y = 0;
+        }
+        if (y < dataMin) {
+            dataMin = y;
         }
+        if (y > dataMax) {
+            dataMax = y;
+        }
+        BarEntry barEntry = new BarEntry(x, y);
+        Entry lineEntry = new Entry(x, y);
+        barEntry.setData(markerText);
+        lineEntry.setData(markerText);
+        barEntries.add(barEntry);
+        lineEntries.add(lineEntry);
     }
 
     private void updateChart() {
@@ -939,7 +831,7 @@ public class TimeSeriesActivity extends AppCompatActivity {
             return;
         }
 
-        if (tsData != null && tsData.size() > 0) {
+        if (tsTimestamps != null && tsTimestamps.length > 0) {
 
             if (chartType == TYPE_BAR_CHART) {
                 binding.barChart.setVisibility(View.VISIBLE);
@@ -1129,6 +1021,13 @@ public class TimeSeriesActivity extends AppCompatActivity {
             public String getFormattedValue(float value) {
                 int index = (int) value;
 
+                if (slotLabelFormat != null) {
+                    if (index >= 0 && index < slotCount) {
+                        return slotLabelFormat.format(new Date(slotStartMillis + index * slotMillis));
+                    }
+                    return "";
+                }
+
                 if (chartInterval == INTERVAL_1Y) {
                     if (value != 0.5f) {
                         index = (int) (value + 0.5f);
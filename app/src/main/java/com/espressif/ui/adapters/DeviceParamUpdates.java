@@ -19,6 +19,7 @@ import android.os.Bundle;
 import android.util.Log;
 
 import com.espressif.NetworkApiManager;
+import com.espressif.ParamRefreshScheduler;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.ui.Utils;
 import com.espressif.ui.activities.EspDeviceActivity;
@@ -267,6 +268,7 @@ public class DeviceParamUpdates {
         if (context instanceof EspDeviceActivity) {
             ((EspDeviceActivity) context).setLastUpdateRequestTime(System.currentTimeMillis());
         }
+        ParamRefreshScheduler.getInstance(context).resetInterval(nodeId);
         isWait = true;
 
         networkApiManager.updateParamValue(nodeId, body, new ApiResponseListener() {
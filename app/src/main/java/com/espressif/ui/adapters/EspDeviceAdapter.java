@@ -33,13 +33,15 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.aar.tapholdupbutton.TapHoldUpButton;
 import com.espressif.AppConstants;
 import com.espressif.ESPControllerAPIKeys;
 import com.espressif.EspApplication;
-import com.espressif.NetworkApiManager;
+import com.espressif.ParamWritePipeline;
 import com.espressif.ble.BleLocalControlManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.local_control.EspLocalDevice;
@@ -63,22 +65,108 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
+/**
+ * Adapter for device cards. List is diffed in background and only changed cards are bound again.
+ * If only node status or primary param value of a device is changed, only that part of the card is bound.
+ */
 public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.DeviceViewHolder> {
 
+    static final String PAYLOAD_STATUS = "status";
+    static final String PAYLOAD_PARAM = "param";
+
+    // Stable ids of devices in this list, key is node id + device name. Ids of removed devices are dropped on list update.
+    private final HashMap<String, Long> stableIds = new HashMap<>();
+    private long nextStableId;
+
     private Context context;
     private EspApplication espApp;
-    private NetworkApiManager networkApiManager;
-    private ArrayList<Device> deviceList;
+    private ParamWritePipeline paramWritePipeline;
+    private final AsyncListDiffer<DeviceItem> differ;
 
     public EspDeviceAdapter(Context context, ArrayList<Device> deviceList) {
         this.context = context;
-        this.deviceList = deviceList;
         espApp = (EspApplication) context.getApplicationContext();
-        networkApiManager = new NetworkApiManager(espApp);
+        paramWritePipeline = ParamWritePipeline.getInstance(espApp);
+        differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+        setHasStableIds(true);
+        updateList(deviceList);
     }
 
+    /**
+     * Snapshot of a device card. Values are copied when list is submitted, because device objects are updated in place.
+     */
+    static class DeviceItem {
+
+        private final Device device;
+        private final String key;
+        private final int contentHash;
+        private final int statusHash;
+        private final int paramHash;
+
+        DeviceItem(EspApplication espApp, Device device) {
+
+            this.device = device;
+            this.key = device.getNodeId() + "/" + device.getDeviceName();
+            EspNode node = espApp.nodeMap.get(device.getNodeId());
+            String metadataName = (node != null && node.getNodeMetadata() != null) ? node.getNodeMetadata().getDeviceName() : null;
+            contentHash = Objects.hash(device.getUserVisibleName(), device.getDeviceType(), device.getPrimaryParamName(),
+                    metadataName, node != null ? node.getNewNodeType() : null);
+
+            EspLocalDevice localDevice = espApp.localDeviceMap.get(device.getNodeId());
+            statusHash = Objects.hash(node != null ? node.getNodeStatus() : -1, node != null && node.isOnline(),
+                    node != null ? node.getTimeStampOfStatus() : 0, espApp.getAppState(),
+                    localDevice != null ? localDevice.getSecurityType() : -1, espApp.matterRmNodeIdMap.get(device.getNodeId()));
+
+            int hash = 0;
+            if (!TextUtils.isEmpty(device.getPrimaryParamName()) && device.getParams() != null) {
+                for (Param param : device.getParams()) {
+                    if (param != null && device.getPrimaryParamName().equals(param.getName())) {
+                        hash = Objects.hash(param.getSwitchStatus(), param.getLabelValue(), param.getValue(),
+                                param.getUiType(), param.getDataType());
+                        break;
+                    }
+                }
+            }
+            paramHash = hash;
+        }
+
+        int getHash() {
+            return Objects.hash(key, contentHash, statusHash, paramHash);
+        }
+    }
+
+    private static final DiffUtil.ItemCallback<DeviceItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<DeviceItem>() {
+
+        @Override
+        public boolean areItemsTheSame(@NonNull DeviceItem oldItem, @NonNull DeviceItem newItem) {
+            return oldItem.key.equals(newItem.key);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull DeviceItem oldItem, @NonNull DeviceItem newItem) {
+            return oldItem.device == newItem.device && oldItem.contentHash == newItem.contentHash
+                    && oldItem.statusHash == newItem.statusHash && oldItem.paramHash == newItem.paramHash;
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull DeviceItem oldItem, @NonNull DeviceItem newItem) {
+            // Click listeners of the card refer to device object, so card is bound completely if object is changed.
+            if (oldItem.device != newItem.device || oldItem.contentHash != newItem.contentHash) {
+                return null;
+            }
+            if (oldItem.paramHash != newItem.paramHash) {
+                return PAYLOAD_PARAM;
+            }
+            return PAYLOAD_STATUS;
+        }
+    };
+
     @Override
     public DeviceViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
 
@@ -88,10 +176,34 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
         return vh;
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull DeviceViewHolder deviceVh, int position, @NonNull List<Object> payloads) {
+
+        if (payloads.isEmpty()) {
+            onBindViewHolder(deviceVh, position);
+            return;
+        }
+
+        Device device = differ.getCurrentList().get(position).device;
+        EspNode node = espApp.nodeMap.get(device.getNodeId());
+        if (node == null) {
+            onBindViewHolder(deviceVh, position);
+            return;
+        }
+        String nodeId = device.getNodeId();
+        String matterNodeId = espApp.matterRmNodeIdMap.containsKey(nodeId) ? espApp.matterRmNodeIdMap.get(nodeId) : "";
+
+        if (payloads.contains(PAYLOAD_PARAM)) {
+            bindPrimaryParam(deviceVh, device, nodeId, node.getNodeStatus(), matterNodeId);
+        }
+        // Status is bound after param, because offline status changes the param view.
+        bindStatus(deviceVh, node, nodeId, node.getNodeStatus(), matterNodeId);
+    }
+
     @Override
     public void onBindViewHolder(@NonNull final DeviceViewHolder deviceVh, final int position) {
 
-        final Device device = deviceList.get(position);
+        final Device device = differ.getCurrentList().get(position).device;
         EspNode node = espApp.nodeMap.get(device.getNodeId());
         String deviceName = device.getUserVisibleName();
         String nodeId = device.getNodeId();
@@ -119,6 +231,60 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
         Utils.setDeviceIcon(deviceVh.ivDevice, device.getDeviceType());
         deviceVh.pbBleLoading.setVisibility(View.GONE);
 
+        bindPrimaryParam(deviceVh, device, nodeId, nodeStatus, matterNodeId);
+        bindStatus(deviceVh, node, nodeId, nodeStatus, matterNodeId);
+
+        // implement setOnClickListener event on item view.
+        deviceVh.itemView.setOnClickListener(new View.OnClickListener() {
+
+            @Override
+            public void onClick(View view) {
+
+                String rmNodeId = device.getNodeId();
+                SharedPreferences sharedPreferences = context.getSharedPreferences(AppConstants.ESP_PREFERENCES, Context.MODE_PRIVATE);
+                boolean isMatterController = sharedPreferences.getBoolean(rmNodeId, false);
+                String key = "ctrl_setup_" + rmNodeId;
+                boolean isMatterCtrlSetupDone = sharedPreferences.getBoolean(key, false);
+                Log.d("TAG", "isMatterController : " + isMatterController);
+                Log.d("TAG", "isMatterCtrlSetupDone : " + isMatterCtrlSetupDone);
+
+                Service controllerService = NodeUtils.Companion.getService(espApp.nodeMap.get(device.getNodeId()), AppConstants.SERVICE_TYPE_MATTER_CONTROLLER);
+                boolean isCtlServiceAvailable = controllerService != null;
+                boolean hasUserToken = false;
+                boolean matterNodeIdParamAvailable = false;
+
+                if (isCtlServiceAvailable) {
+                    ArrayList<Param> params = controllerService.getParams();
+
+                    if (params != null && !params.isEmpty()) {
+                        for (Param param : params) {
+                            if (AppConstants.PARAM_TYPE_USER_TOKEN.equals(param.getParamType())) {
+                                String userToken = param.getLabelValue();
+                                if (userToken != null && !userToken.isEmpty()) {
+                                    hasUserToken = true;
+                                }
+                            }
+                            if (AppConstants.PARAM_TYPE_MATTER_NODE_ID.equals(param.getParamType())) {
+                                matterNodeIdParamAvailable = true;
+                            }
+                        }
+                    }
+                }
+
+                if (isMatterController && !isMatterCtrlSetupDone) {
+                    controllerNeedsAccessWarning(rmNodeId, R.string.dialog_msg_matter_controller, false, false);
+                } else {
+                    Intent intent = new Intent(context, EspDeviceActivity.class);
+                    intent.putExtra(AppConstants.KEY_ESP_DEVICE, device);
+                    context.startActivity(intent);
+                }
+            }
+        });
+    }
+
+    private void bindPrimaryParam(final DeviceViewHolder deviceVh, final Device device, final String nodeId,
+                                  final int nodeStatus, final String matterNodeId) {
+
         if (!TextUtils.isEmpty(device.getPrimaryParamName())) {
 
             String paramName = device.getPrimaryParamName();
@@ -266,7 +432,7 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
                                             deviceVh.pbBleLoading.setVisibility(View.VISIBLE);
                                         }
 
-                                        networkApiManager.updateParamValue(device.getNodeId(), body, new ApiResponseListener() {
+                                        paramWritePipeline.submit(device.getNodeId(), body, new ApiResponseListener() {
 
                                             @Override
                                             public void onSuccess(Bundle data) {
@@ -385,7 +551,7 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
                                 body.add(device.getDeviceName(), jsonParam);
 
                                 final boolean finalIsOn1 = finalIsOn;
-                                networkApiManager.updateParamValue(device.getNodeId(), body, new ApiResponseListener() {
+                                paramWritePipeline.submit(device.getNodeId(), body, new ApiResponseListener() {
 
                                     @Override
                                     public void onSuccess(Bundle data) {
@@ -444,6 +610,9 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
             deviceVh.ivDeviceStatus.setVisibility(View.GONE);
             deviceVh.tvStringValue.setVisibility(View.GONE);
         }
+    }
+
+    private void bindStatus(DeviceViewHolder deviceVh, EspNode node, String nodeId, int nodeStatus, String matterNodeId) {
 
         if (node != null && !node.isOnline() && nodeStatus != AppConstants.NODE_STATUS_MATTER_LOCAL
                 && nodeStatus != AppConstants.NODE_STATUS_REMOTELY_CONTROLLABLE
@@ -565,63 +734,48 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
             default:
                 break;
         }
-
-        // implement setOnClickListener event on item view.
-        deviceVh.itemView.setOnClickListener(new View.OnClickListener() {
-
-            @Override
-            public void onClick(View view) {
-
-                String rmNodeId = device.getNodeId();
-                SharedPreferences sharedPreferences = context.getSharedPreferences(AppConstants.ESP_PREFERENCES, Context.MODE_PRIVATE);
-                boolean isMatterController = sharedPreferences.getBoolean(rmNodeId, false);
-                String key = "ctrl_setup_" + rmNodeId;
-                boolean isMatterCtrlSetupDone = sharedPreferences.getBoolean(key, false);
-                Log.d("TAG", "isMatterController : " + isMatterController);
-                Log.d("TAG", "isMatterCtrlSetupDone : " + isMatterCtrlSetupDone);
-
-                Service controllerService = NodeUtils.Companion.getService(espApp.nodeMap.get(device.getNodeId()), AppConstants.SERVICE_TYPE_MATTER_CONTROLLER);
-                boolean isCtlServiceAvailable = controllerService != null;
-                boolean hasUserToken = false;
-                boolean matterNodeIdParamAvailable = false;
-
-                if (isCtlServiceAvailable) {
-                    ArrayList<Param> params = controllerService.getParams();
-
-                    if (params != null && !params.isEmpty()) {
-                        for (Param param : params) {
-                            if (AppConstants.PARAM_TYPE_USER_TOKEN.equals(param.getParamType())) {
-                                String userToken = param.getLabelValue();
-                                if (userToken != null && !userToken.isEmpty()) {
-                                    hasUserToken = true;
-                                }
-                            }
-                            if (AppConstants.PARAM_TYPE_MATTER_NODE_ID.equals(param.getParamType())) {
-                                matterNodeIdParamAvailable = true;
-                            }
-                        }
-                    }
-                }
-
-                if (isMatterController && !isMatterCtrlSetupDone) {
-                    controllerNeedsAccessWarning(rmNodeId, R.string.dialog_msg_matter_controller, false, false);
-                } else {
-                    Intent intent = new Intent(context, EspDeviceActivity.class);
-                    intent.putExtra(AppConstants.KEY_ESP_DEVICE, device);
-                    context.startActivity(intent);
-                }
-            }
-        });
     }
 
     @Override
     public int getItemCount() {
-        return deviceList.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String key = differ.getCurrentList().get(position).key;
+        Long id = stableIds.get(key);
+        if (id == null) {
+            id = nextStableId++;
+            stableIds.put(key, id);
+        }
+        return id;
     }
 
     public void updateList(ArrayList<Device> updatedDeviceList) {
-        deviceList = updatedDeviceList;
-        notifyDataSetChanged();
+        ArrayList<DeviceItem> items = new ArrayList<>();
+        if (updatedDeviceList != null) {
+            for (Device device : updatedDeviceList) {
+                items.add(new DeviceItem(espApp, device));
+            }
+        }
+        submitItems(items);
+    }
+
+    /**
+     * Submit snapshots of devices. Changed cards are found in background and bound on main thread.
+     */
+    void submitItems(List<DeviceItem> items) {
+        differ.submitList(items, new Runnable() {
+            @Override
+            public void run() {
+                HashSet<String> keys = new HashSet<>();
+                for (DeviceItem item : differ.getCurrentList()) {
+                    keys.add(item.key);
+                }
+                stableIds.keySet().retainAll(keys);
+            }
+        });
     }
 
     private void controllerNeedsAccessWarning(String rmNodeId, int strResId, boolean isCtrlService, boolean isRmakerController) {
@@ -774,7 +928,7 @@ public class EspDeviceAdapter extends RecyclerView.Adapter<EspDeviceAdapter.Devi
             deviceVh.pbBleLoading.setVisibility(View.VISIBLE);
         }
 
-        networkApiManager.updateParamValue(nodeId, body, new ApiResponseListener() {
+        paramWritePipeline.submit(nodeId, body, new ApiResponseListener() {
             @Override
             public void onSuccess(Bundle data) {
                 if (isBleRoute) {
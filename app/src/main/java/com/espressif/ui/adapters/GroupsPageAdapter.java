@@ -55,25 +55,39 @@ import com.espressif.ui.activities.GroupDetailActivity;
 import com.espressif.ui.activities.OnNetworkDiscoveryActivity;
 import com.espressif.ui.activities.ProvisionLanding;
 import com.espressif.ui.models.Device;
+import com.espressif.ui.models.DevicesViewModel;
 import com.espressif.ui.models.EspNode;
-import com.espressif.ui.models.Group;
 
 import java.util.ArrayList;
-import java.util.Map;
 
+/**
+ * Adapter for pages of groups on devices screen. Device and node adapters of each page are created once with the page,
+ * and only get updated lists when data is changed. Card views are shared by all pages through common view pools.
+ */
 public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.GroupPageViewHolder> {
 
+    /**
+     * Payload to bind page with updated data. Page view holder is reused, without change animation.
+     */
+    public static final String PAYLOAD_UPDATE = "update";
+
+    private static final int MAX_RECYCLED_CARDS = 40;
+
     private final String TAG = GroupsPageAdapter.class.getSimpleName();
 
     private Activity context;
-    private ArrayList<Group> groups;
+    private DevicesViewModel viewModel;
     private EspApplication espApp;
     private boolean isRefreshing = false;
+    private final RecyclerView.RecycledViewPool deviceViewPool = new RecyclerView.RecycledViewPool();
+    private final RecyclerView.RecycledViewPool nodeViewPool = new RecyclerView.RecycledViewPool();
 
-    public GroupsPageAdapter(Activity context, ArrayList<Group> groups) {
+    public GroupsPageAdapter(Activity context, DevicesViewModel viewModel) {
         this.context = context;
-        this.groups = groups;
+        this.viewModel = viewModel;
         espApp = (EspApplication) context.getApplicationContext();
+        deviceViewPool.setMaxRecycledViews(0, MAX_RECYCLED_CARDS);
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -83,72 +97,45 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
         LayoutInflater layoutInflater = LayoutInflater.from(context);
         View v = layoutInflater.inflate(R.layout.layout_group_page, parent, false);
         GroupPageViewHolder groupPageViewHolder = new GroupPageViewHolder(v);
-        return groupPageViewHolder;
-    }
-
-    @Override
-    public void onBindViewHolder(@NonNull final GroupPageViewHolder viewHolder, int position) {
-
-        Group group = groups.get(position);
-        ArrayList<Device> devices = new ArrayList<>();
-        ArrayList<EspNode> nodes = new ArrayList<>();
 
         GridLayoutManager linearLayoutManager = new GridLayoutManager(context, 2);
-        viewHolder.rvDevices.setLayoutManager(linearLayoutManager);
-//        viewHolder.rvDevices.setHasFixedSize(true);
-
-        viewHolder.rvNodes.setLayoutManager(new LinearLayoutManager(context));
-//        viewHolder.rvNodes.setHasFixedSize(true);
-
-        viewHolder.swipeRefreshLayout.setOnRefreshListener(new SwipeRefreshLayout.OnRefreshListener() {
+        linearLayoutManager.setRecycleChildrenOnDetach(true);
+        groupPageViewHolder.rvDevices.setLayoutManager(linearLayoutManager);
+        groupPageViewHolder.rvDevices.setRecycledViewPool(deviceViewPool);
+        groupPageViewHolder.deviceAdapter = new EspDeviceAdapter(context, new ArrayList<>());
+        groupPageViewHolder.rvDevices.setAdapter(groupPageViewHolder.deviceAdapter);
+
+        LinearLayoutManager nodeLayoutManager = new LinearLayoutManager(context);
+        nodeLayoutManager.setRecycleChildrenOnDetach(true);
+        groupPageViewHolder.rvNodes.setLayoutManager(nodeLayoutManager);
+        groupPageViewHolder.rvNodes.setRecycledViewPool(nodeViewPool);
+        groupPageViewHolder.nodeAdapter = new NodeAdapter(context, new ArrayList<>());
+        groupPageViewHolder.nodeAdapter.setDeviceViewPool(deviceViewPool);
+        groupPageViewHolder.rvNodes.setAdapter(groupPageViewHolder.nodeAdapter);
+
+        groupPageViewHolder.swipeRefreshLayout.setOnRefreshListener(new SwipeRefreshLayout.OnRefreshListener() {
 
             @Override
             public void onRefresh() {
                 isRefreshing = true;
-                notifyDataSetChanged();
+                notifyItemRangeChanged(0, getItemCount(), PAYLOAD_UPDATE);
                 ((EspMainActivity) context).refreshDeviceList();
             }
         });
+        return groupPageViewHolder;
+    }
 
-        EspDeviceAdapter deviceAdapter = new EspDeviceAdapter(context, devices);
-        viewHolder.rvDevices.setAdapter(deviceAdapter);
-
-        NodeAdapter nodeAdapter = new NodeAdapter(context, nodes);
-        viewHolder.rvNodes.setAdapter(nodeAdapter);
-
-        if (position == 0) {
-
-            for (Map.Entry<String, EspNode> entry : espApp.nodeMap.entrySet()) {
+    @Override
+    public void onBindViewHolder(@NonNull final GroupPageViewHolder viewHolder, int position) {
 
-                String key = entry.getKey();
-                EspNode node = entry.getValue();
+        DevicesViewModel.GroupProjection projection = viewModel.getProjection(position);
+        ArrayList<Device> devices = projection.getDevices();
+        ArrayList<EspNode> nodes = projection.getNodes();
 
-                if (node.getDevices().size() == 1) {
-                    devices.addAll(node.getDevices());
-                } else if (node.getDevices().size() > 1) {
-                    nodes.add(node);
-                }
-            }
-        } else {
-            ArrayList<String> nodeIds = group.getNodeList();
-
-            if (nodeIds != null && nodeIds.size() > 0) {
-                for (int i = 0; i < nodeIds.size(); i++) {
-                    EspNode node = espApp.nodeMap.get(nodeIds.get(i));
-                    if (node != null) {
-                        if (node.getDevices().size() == 1) {
-                            devices.addAll(node.getDevices());
-                        } else if (node.getDevices().size() > 1) {
-                            nodes.add(node);
-                        }
-                    }
-                }
-            }
-        }
-        Log.d(TAG, "Group : " + group.getGroupName() + ",  Device list size : " + devices.size());
-        Log.d(TAG, "Group : " + group.getGroupName() + ",  Node list size : " + nodes.size());
+        Log.d(TAG, "Group : " + viewModel.getGroups().get(position).getGroupName() + ",  Device list size : " + devices.size()
+                + ",  Node list size : " + nodes.size());
 
-        if (devices.size() <= 0 && nodes.size() <= 0) {
+        if (projection.isEmpty()) {
 
             viewHolder.tvNoDevice.setText(R.string.no_devices);
             viewHolder.rlNoDevices.setVisibility(View.VISIBLE);
@@ -156,6 +143,8 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
             viewHolder.tvAddDevice.setVisibility(View.GONE);
             viewHolder.rvDevices.setVisibility(View.GONE);
             viewHolder.rvNodes.setVisibility(View.GONE);
+            viewHolder.deviceAdapter.updateList(devices);
+            viewHolder.nodeAdapter.updateList(nodes);
 
             if (position == 0) {
                 viewHolder.ivNoDevice.setVisibility(View.VISIBLE);
@@ -187,7 +176,7 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
                         @Override
                         public void onClick(View v) {
                             Intent intent = new Intent(context, GroupDetailActivity.class);
-                            intent.putExtra(AppConstants.KEY_GROUP, groups.get(viewHolder.getAdapterPosition()));
+                            intent.putExtra(AppConstants.KEY_GROUP, viewModel.getGroups().get(viewHolder.getAdapterPosition()));
                             context.startActivity(intent);
                         }
                     });
@@ -202,17 +191,17 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
 
             if (devices.size() > 0) {
                 viewHolder.rvDevices.setVisibility(View.VISIBLE);
-                deviceAdapter.updateList(devices);
             } else {
                 viewHolder.rvDevices.setVisibility(View.GONE);
             }
+            viewHolder.deviceAdapter.updateList(devices);
 
             if (nodes.size() > 0) {
                 viewHolder.rvNodes.setVisibility(View.VISIBLE);
-                nodeAdapter.updateList(nodes);
             } else {
                 viewHolder.rvNodes.setVisibility(View.GONE);
             }
+            viewHolder.nodeAdapter.updateList(nodes);
         }
         viewHolder.swipeRefreshLayout.setRefreshing(isRefreshing);
     }
@@ -223,7 +212,12 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
 
     @Override
     public int getItemCount() {
-        return groups.size();
+        return viewModel.getGroups().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return viewModel.getGroupId(position);
     }
 
     static class GroupPageViewHolder extends RecyclerView.ViewHolder {
@@ -237,6 +231,8 @@ public class GroupsPageAdapter extends RecyclerView.Adapter<GroupsPageAdapter.Gr
         private ImageView ivNoDevice;
         private RecyclerView rvDevices, rvNodes;
         private SwipeRefreshLayout swipeRefreshLayout;
+        private EspDeviceAdapter deviceAdapter;
+        private NodeAdapter nodeAdapter;
 
         public GroupPageViewHolder(View pageView) {
             super(pageView);
@@ -23,24 +23,85 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.SimpleItemAnimator;
 
 import com.espressif.AppConstants;
+import com.espressif.EspApplication;
 import com.espressif.rainmaker.R;
 import com.espressif.ui.activities.NodeDetailsActivity;
+import com.espressif.ui.models.Device;
 import com.espressif.ui.models.EspNode;
 
 import java.util.ArrayList;
+import java.util.Objects;
 
+/**
+ * Adapter for nodes which have more than one device. Device adapter of each card is kept with the view holder,
+ * so that only changed device cards are bound again when values are updated.
+ */
 public class NodeAdapter extends RecyclerView.Adapter<NodeAdapter.NodeViewHolder> {
 
     private Context context;
-    private ArrayList<EspNode> nodedList;
+    private EspApplication espApp;
+    private final AsyncListDiffer<NodeItem> differ;
+    private RecyclerView.RecycledViewPool deviceViewPool;
 
-    public NodeAdapter(Context context, ArrayList<EspNode> deviceList) {
+    public NodeAdapter(Context context, ArrayList<EspNode> nodeList) {
         this.context = context;
-        this.nodedList = deviceList;
+        espApp = (EspApplication) context.getApplicationContext();
+        differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+        setHasStableIds(true);
+        updateList(nodeList);
+    }
+
+    /**
+     * Snapshot of a node card with snapshots of its devices.
+     */
+    static class NodeItem {
+
+        private final EspNode node;
+        private final String nodeName;
+        private final ArrayList<EspDeviceAdapter.DeviceItem> deviceItems = new ArrayList<>();
+        private final int devicesHash;
+
+        NodeItem(EspApplication espApp, EspNode node) {
+            this.node = node;
+            this.nodeName = node.getNodeName();
+            int hash = 1;
+            if (node.getDevices() != null) {
+                for (Device device : node.getDevices()) {
+                    EspDeviceAdapter.DeviceItem item = new EspDeviceAdapter.DeviceItem(espApp, device);
+                    deviceItems.add(item);
+                    hash = 31 * hash + item.getHash();
+                }
+            }
+            devicesHash = hash;
+        }
+    }
+
+    private static final DiffUtil.ItemCallback<NodeItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<NodeItem>() {
+
+        @Override
+        public boolean areItemsTheSame(@NonNull NodeItem oldItem, @NonNull NodeItem newItem) {
+            return oldItem.node.getNodeId().equals(newItem.node.getNodeId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull NodeItem oldItem, @NonNull NodeItem newItem) {
+            return oldItem.node == newItem.node && Objects.equals(oldItem.nodeName, newItem.nodeName)
+                    && oldItem.devicesHash == newItem.devicesHash;
+        }
+    };
+
+    /**
+     * Set pool of device card views, shared with other device lists.
+     */
+    public void setDeviceViewPool(RecyclerView.RecycledViewPool deviceViewPool) {
+        this.deviceViewPool = deviceViewPool;
     }
 
     @Override
@@ -49,19 +110,26 @@ public class NodeAdapter extends RecyclerView.Adapter<NodeAdapter.NodeViewHolder
         LayoutInflater layoutInflater = LayoutInflater.from(context);
         View v = layoutInflater.inflate(R.layout.item_node, parent, false);
         NodeViewHolder vh = new NodeViewHolder(v);
+
+        GridLayoutManager linearLayoutManager = new GridLayoutManager(context, 2);
+        linearLayoutManager.setRecycleChildrenOnDetach(true);
+        vh.rvDevices.setLayoutManager(linearLayoutManager);
+        if (deviceViewPool != null) {
+            vh.rvDevices.setRecycledViewPool(deviceViewPool);
+        }
+        ((SimpleItemAnimator) vh.rvDevices.getItemAnimator()).setSupportsChangeAnimations(false);
+        vh.deviceAdapter = new EspDeviceAdapter(context, new ArrayList<>());
+        vh.rvDevices.setAdapter(vh.deviceAdapter);
         return vh;
     }
 
     @Override
     public void onBindViewHolder(@NonNull final NodeViewHolder myViewHolder, final int position) {
 
-        final EspNode node = nodedList.get(position);
+        NodeItem item = differ.getCurrentList().get(position);
+        final EspNode node = item.node;
         myViewHolder.tvDeviceName.setText(node.getNodeName());
-
-        GridLayoutManager linearLayoutManager = new GridLayoutManager(context, 2);
-        myViewHolder.rvDevices.setLayoutManager(linearLayoutManager);
-        EspDeviceAdapter adapter = new EspDeviceAdapter(context, node.getDevices());
-        myViewHolder.rvDevices.setAdapter(adapter);
+        myViewHolder.deviceAdapter.submitItems(item.deviceItems);
 
         myViewHolder.itemView.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -84,12 +152,22 @@ public class NodeAdapter extends RecyclerView.Adapter<NodeAdapter.NodeViewHolder
 
     @Override
     public int getItemCount() {
-        return nodedList.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).node.getNodeId().hashCode();
     }
 
     public void updateList(ArrayList<EspNode> updatedNodeList) {
-        nodedList = updatedNodeList;
-        notifyDataSetChanged();
+        ArrayList<NodeItem> items = new ArrayList<>();
+        if (updatedNodeList != null) {
+            for (EspNode node : updatedNodeList) {
+                items.add(new NodeItem(espApp, node));
+            }
+        }
+        differ.submitList(items);
     }
 
     static class NodeViewHolder extends RecyclerView.ViewHolder {
@@ -98,6 +176,7 @@ public class NodeAdapter extends RecyclerView.Adapter<NodeAdapter.NodeViewHolder
         ImageView ivDevice;
         RecyclerView rvDevices;
         ImageView ivNodeInfo;
+        EspDeviceAdapter deviceAdapter;
 
         public NodeViewHolder(View itemView) {
             super(itemView);
@@ -32,7 +32,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
-import com.espressif.NetworkApiManager;
+import com.espressif.ParamWritePipeline;
 import com.espressif.cloudapi.ApiManager;
 import com.espressif.cloudapi.ApiResponseListener;
 import com.espressif.rainmaker.R;
@@ -210,13 +210,13 @@ public class ScheduleAdapter extends RecyclerView.Adapter<ScheduleAdapter.Schedu
                     }
                 }
 
-                NetworkApiManager networkApiManager = new NetworkApiManager(context.getApplicationContext());
+                ParamWritePipeline paramWritePipeline = ParamWritePipeline.getInstance(context);
                 final int totalNodes = nodeIdJsonBodyMap.size();
                 final int[] completedCount = {0};
                 final boolean[] hasFailure = {false};
 
                 for (Map.Entry<String, JsonObject> entry : nodeIdJsonBodyMap.entrySet()) {
-                    networkApiManager.updateParamValue(entry.getKey(), entry.getValue(), new ApiResponseListener() {
+                    paramWritePipeline.submit(entry.getKey(), entry.getValue(), new ApiResponseListener() {
                         @Override
                         public void onSuccess(Bundle data) {
                             synchronized (completedCount) {
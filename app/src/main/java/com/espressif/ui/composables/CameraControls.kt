@@ -2,7 +2,6 @@ package com.espressif.ui.composables
 
 import android.app.Activity
 import android.content.Intent
-import android.os.Bundle
 import android.os.Handler
 import android.os.Looper
 import android.text.TextUtils
@@ -90,6 +89,7 @@ import androidx.compose.ui.viewinterop.AndroidView
 import org.webrtc.EglBase
 import org.webrtc.SurfaceViewRenderer
 import org.webrtc.RendererCommon
+import com.espressif.ui.webrtc.CameraSessionPrewarmer
 import com.espressif.ui.webrtc.WebRtcViewportManager
 import com.espressif.ui.webrtc.WebRtcChannelInfoHelper
 import com.espressif.ui.webrtc.WebRtcChannelInfo
@@ -100,8 +100,7 @@ import androidx.core.content.ContextCompat
 import androidx.core.app.ActivityCompat
 import com.espressif.AppConstants
 import com.espressif.EspApplication
-import com.espressif.cloudapi.ApiManager
-import com.espressif.cloudapi.ApiResponseListener
+import com.espressif.cloudapi.CommandResponseClient
 import com.espressif.rainmaker.R
 import com.espressif.ui.activities.WebRtcConfigActivity
 import com.espressif.ui.activities.WebRtcActivity
@@ -110,7 +109,6 @@ import com.google.gson.Gson
 import com.google.gson.JsonArray
 import com.google.gson.JsonObject
 import com.google.gson.JsonSyntaxException
-import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.launch
@@ -120,10 +118,14 @@ import java.time.Instant
 import java.time.LocalDate
 import java.time.ZoneId
 import java.time.format.DateTimeFormatter
+import java.util.concurrent.CancellationException
 import kotlin.math.max
 
 private const val TAG = "CAM"
 
+// Time to wait for the result of a camera command.
+private const val CAMERA_COMMAND_WAIT_TIME = 30000L
+
 /**
  * Suspends until AWS credentials (region) are available or timeout is reached.
  * @return true if credentials are available, false if timeout occurred
@@ -717,17 +719,21 @@ fun initLandscapeControls(composeView: ComposeView, onStop: Runnable) {
     }
 }
 
-fun sendCameraCommand(coroutineScope: CoroutineScope,
-                      nodeId: String,
-                      apiManager: ApiManager,
+/**
+ * Send camera command and deliver its result as soon as it is received from push notification or status polling.
+ *
+ * @return Request which can be cancelled, null if a mandatory argument is missing.
+ */
+fun sendCameraCommand(nodeId: String,
+                      commandClient: CommandResponseClient,
                       command: String,
                       argList: List<Arg>,
-                      onResponse: (CommandResponse) -> Unit) {
+                      onResponse: (CommandResponse) -> Unit): CommandResponseClient.CommandRequest? {
     val gson = Gson()
     val stringArgList = mutableListOf<String>()
 
     for (arg in argList) {
-        if (!arg.optional && arg.value == null) return
+        if (!arg.optional && arg.value == null) return null
         if (arg.value == null) break
         stringArgList.add(arg.value!!)
     }
@@ -749,122 +755,77 @@ fun sendCameraCommand(coroutineScope: CoroutineScope,
 
     Log.i(TAG, "sendCameraCommand: ${requestBody.toString()}")
 
-    apiManager.sendCommandResponse(requestBody, object : ApiResponseListener {
-        override fun onNetworkFailure(exception: Exception) {
-            onResponse(CommandResponse.Failure("Network Failure while sending request"))
+    val request = commandClient.send(requestBody, CAMERA_COMMAND_WAIT_TIME) { status ->
+        if (status == CommandResponseClient.STATUS_IN_PROGRESS) {
+            onResponse(CommandResponse.InProgress)
         }
+    }
 
-        override fun onSuccess(data: Bundle?) {
-
-            if (data!!.containsKey(AppConstants.KEY_REQUEST_ID)) {
-                val reqId = data.getString(AppConstants.KEY_REQUEST_ID)
-                coroutineScope.launch {
-                    var polling = true
-                    while (true) {
-                        if (!polling) break
-
-                        apiManager.getCommandResponseStatus(reqId, object : ApiResponseListener {
-                            override fun onNetworkFailure(exception: Exception) {
-                                onResponse(CommandResponse.Failure("Network Failure while receiving response"))
-                                polling = false
-                            }
-
-                            override fun onResponseFailure(exception: Exception) {
-                                onResponse(CommandResponse.Failure("Response Failure while receiving response"))
-                                polling = false
-                            }
-
-                            override fun onSuccess(data: Bundle?) {
-                                try {
-                                    val status = data!!.getString(AppConstants.KEY_STATUS)
-
-                                    // Display latest status
-                                    Log.i(TAG, "onSuccess: resp status: $status")
+    request.future.whenComplete { data, throwable ->
+        if (throwable != null) {
+            if (throwable !is CancellationException) {
+                Log.e(TAG, "Command $command failed", throwable)
+                onResponse(CommandResponse.Failure("Network Failure while receiving response"))
+            }
+            return@whenComplete
+        }
+        try {
+            val status = data.getString(AppConstants.KEY_STATUS)
+            Log.i(TAG, "onSuccess: resp status: $status")
+
+            data class CombinedResponseClass_(
+                val status: String,
+                val description: String?,
+                val listing: List<String?>?
+            )
 
-                                    val gson = Gson()
-                                    data class CombinedResponseClass_(
-                                        val status: String,
-                                        val description: String?,
-                                        val listing: List<String?>?
-                                    )
+            when (status) {
+                CommandResponseClient.STATUS_SUCCESS -> {
+                    val responseData = data.getString(AppConstants.KEY_RESPONSE_DATA)
+                    Log.i(TAG, "onSuccess: data: $responseData")
 
-                                    // check if response received
-                                    when (status) {
-                                        "success" -> {
-                                            val responseData =
-                                                data.getString(AppConstants.KEY_RESPONSE_DATA)
-
-                                            Log.i(TAG, "onSuccess: data: $responseData")
-
-
-                                            try {
-                                                val responseDataClass: CombinedResponseClass_ = gson.fromJson(responseData!!, CombinedResponseClass_::class.java)
-                                                // check if parsed response has a status of success or failure
-                                                when(responseDataClass.status)
-                                                {
-                                                    "success" -> {
-                                                        if (responseDataClass.listing != null)
-                                                        {
-                                                            onResponse(CommandResponse.Success(CommandResponseData.LsData(responseDataClass.listing, command)))
-                                                        }
-                                                        else if (responseDataClass.description != null && responseDataClass.description != "")
-                                                        {
-                                                            onResponse(CommandResponse.Success(CommandResponseData.StringData(responseDataClass.description,command)))
-                                                        }
-                                                        else
-                                                        {
-                                                            onResponse(CommandResponse.Success(CommandResponseData.NoData(command)))
-                                                        }
-                                                    }
-                                                    "failure" -> {
-                                                        onResponse(CommandResponse.Failure(responseDataClass.description ?: "No response"))
-                                                    }
-                                                }
-                                            }
-                                            catch (err: JsonSyntaxException) {
-                                                Log.e(TAG, "onSuccess Error: $err")
-                                                onResponse(CommandResponse.Success(
-                                                    CommandResponseData.StringData("onSuccess Error: $err", command)))
-                                            }
-
-                                            polling = false
-                                        }
-                                        "timed_out" -> {
-                                            Log.i(TAG, "onSuccess: data: Reason: Timed Out")
-                                            onResponse(CommandResponse.Failure("Timed out"))
-                                            polling = false
-                                        }
-                                        "failure" -> {
-                                            val statusDesc =
-                                                data.getString(AppConstants.KEY_STATUS_DESCRIPTION)
-                                            if (!TextUtils.isEmpty(statusDesc)) {
-                                                onResponse(CommandResponse.Failure("Failed - Reason: $statusDesc"))
-                                            } else {
-                                                onResponse(CommandResponse.Failure("Failed - No response"))
-                                            }
-                                            polling = false
-                                        }
-                                        "in_progress" -> {
-                                            onResponse(CommandResponse.InProgress)
-                                        }
-                                    }
-                                } catch (e: java.lang.Exception) {
-                                    Log.e(TAG, "Error parsing response", e)
-                                    onResponse(CommandResponse.Failure("Error Parsing response, $e"))
+                    try {
+                        val responseDataClass: CombinedResponseClass_ = gson.fromJson(responseData!!, CombinedResponseClass_::class.java)
+                        // check if parsed response has a status of success or failure
+                        when (responseDataClass.status) {
+                            "success" -> {
+                                if (responseDataClass.listing != null) {
+                                    onResponse(CommandResponse.Success(CommandResponseData.LsData(responseDataClass.listing, command)))
+                                } else if (responseDataClass.description != null && responseDataClass.description != "") {
+                                    onResponse(CommandResponse.Success(CommandResponseData.StringData(responseDataClass.description, command)))
+                                } else {
+                                    onResponse(CommandResponse.Success(CommandResponseData.NoData(command)))
                                 }
                             }
-                        })
-
-                        delay(2000)
+                            "failure" -> {
+                                onResponse(CommandResponse.Failure(responseDataClass.description ?: "No response"))
+                            }
+                        }
+                    } catch (err: JsonSyntaxException) {
+                        Log.e(TAG, "onSuccess Error: $err")
+                        onResponse(CommandResponse.Success(
+                            CommandResponseData.StringData("onSuccess Error: $err", command)))
+                    }
+                }
+                CommandResponseClient.STATUS_TIMED_OUT -> {
+                    Log.i(TAG, "onSuccess: data: Reason: Timed Out")
+                    onResponse(CommandResponse.Failure("Timed out"))
+                }
+                CommandResponseClient.STATUS_FAILURE -> {
+                    val statusDesc = data.getString(AppConstants.KEY_STATUS_DESCRIPTION)
+                    if (!TextUtils.isEmpty(statusDesc)) {
+                        onResponse(CommandResponse.Failure("Failed - Reason: $statusDesc"))
+                    } else {
+                        onResponse(CommandResponse.Failure("Failed - No response"))
                     }
                 }
             }
+        } catch (e: java.lang.Exception) {
+            Log.e(TAG, "Error parsing response", e)
+            onResponse(CommandResponse.Failure("Error Parsing response, $e"))
         }
-
-        override fun onResponseFailure(exception: Exception) {
-            onResponse(CommandResponse.Failure("Response Failure for request"))
-        }
-    })
+    }
+    return request
 }
 
 @JvmOverloads
@@ -1048,6 +1009,16 @@ fun initCameraControls(view: View, nodeId: String, hasControlParam: Boolean = tr
                 }
             }
 
+            // Commands in progress, cancelled when controls are disposed so that results are not
+            // awaited and shown after the screen is gone.
+            val commandRequests = remember { mutableListOf<CommandResponseClient.CommandRequest>() }
+            DisposableEffect(Unit) {
+                onDispose {
+                    commandRequests.forEach { it.cancel() }
+                    commandRequests.clear()
+                }
+            }
+
             MaterialTheme(
                 colorScheme =
                 if (isSystemInDarkTheme())
@@ -1058,9 +1029,8 @@ fun initCameraControls(view: View, nodeId: String, hasControlParam: Boolean = tr
                     responseData = responseData,
                     onCommandSend = { command, argList ->
                         sendCameraCommand(
-                            coroutineScope,
                             nodeId,
-                            ApiManager.getInstance(context),
+                            CommandResponseClient.getInstance(context),
                             command,
                             argList
                         ) { data ->
@@ -1082,6 +1052,9 @@ fun initCameraControls(view: View, nodeId: String, hasControlParam: Boolean = tr
                                 }
                                 is CommandResponse.NoCommandSent -> {}
                             }
+                        }?.let { request ->
+                            commandRequests.removeAll { it.isDone }
+                            commandRequests.add(request)
                         }
                         if (command in listOf(AppConstants.CAMERA_COMMAND_VIEW_FROM,
                                 AppConstants.CAMERA_COMMAND_VIEW_EVENT_FILES,
@@ -1190,6 +1163,13 @@ fun initViewportControls(composeView: ComposeView, channelName: String, nodeId:
                 }
             }
 
+            // Prepare video session while viewport is shown, so that video starts faster on play
+            LaunchedEffect(channelName) {
+                if (!isPlaying && webRtcManager == null) {
+                    CameraSessionPrewarmer.prewarm(context, channelName)
+                }
+            }
+
             val onVideoPlay: () -> Unit = {
                 // Check permissions first
                 val hasCameraPermission = ContextCompat.checkSelfPermission(context, Manifest.permission.CAMERA) == PackageManager.PERMISSION_GRANTED
@@ -1400,10 +1380,14 @@ fun initViewportControls(composeView: ComposeView, channelName: String, nodeId:
 
                     // Clear any old video content from the renderer before starting new session
                     surfaceViewRenderer?.clearImage()
+                    val warmSession = if (storedSessionInfo == null) CameraSessionPrewarmer.take(channelName) else null
                     // Check if we have stored session info (from fullscreen transition)
                     val channelInfo: WebRtcChannelInfo = if (storedSessionInfo != null) {
                         Log.d("CameraControls", "Resuming with stored session info")
                         storedSessionInfo!!
+                    } else if (warmSession != null) {
+                        Log.d("CameraControls", "initViewportControls: Using prepared session info")
+                        warmSession.channelInfo
                     } else {
                         // Fetch channel endpoints only; ICE servers will be fetched
                         // in parallel with WebSocket connect inside start()
@@ -1485,12 +1469,14 @@ fun initViewportControls(composeView: ComposeView, channelName: String, nodeId:
                             dataEndpoint = channelInfo.dataEndpoint,
                             surfaceViewRenderer = surfaceViewRenderer!!,
                             isMaster = false,
-                            clientId = storedClientId  // Reuse client ID if available
+                            clientId = storedClientId,  // Reuse client ID if available
+                            warmSession = warmSession
                         )
                         storedSessionInfo = null
                         storedClientId = null
                     } catch (e: Exception) {
                         Log.e("CameraControls", "initViewportControls: Failed to start WebRTC: ${e.message}", e)
+                        warmSession?.release()
                         isLoading = false
                         isPlaying = false
                         errorMessage = context.getString(R.string.camera_toast_start_failed, e.message ?: "")
@@ -1843,6 +1829,13 @@ fun CameraControlsWithViewport(
         }
     }
 
+    // Prepare video session while viewport is shown, so that video starts faster on play
+    LaunchedEffect(channelName) {
+        if (!isPlaying && webRtcManager == null) {
+            CameraSessionPrewarmer.prewarm(context, channelName)
+        }
+    }
+
     // Initialize WebRTC when SurfaceViewRenderer is created and channel info is available
     LaunchedEffect(isPlaying, surfaceViewRenderer, webRtcManager) {
         Log.d("CameraControls", "CameraControlsWithViewport LaunchedEffect: isPlaying=$isPlaying, surfaceViewRenderer=${surfaceViewRenderer != null}, webRtcManager=${webRtcManager != null}")
@@ -1864,14 +1857,20 @@ fun CameraControlsWithViewport(
 
             // Clear any old video content from the renderer before starting new session
             surfaceViewRenderer?.clearImage()
-            val region = EspApplication.region ?: "us-east-1"
-            Log.d("CameraControls", "Using region: $region for WebRTC connection")
-            val result = WebRtcChannelInfoHelper.fetchChannelEndpoints(region, channelName.trim(), ChannelRole.VIEWER)
-            val channelInfo = result.getOrNull() ?: run {
-                result.onFailure { e ->
-                    Toast.makeText(context, context.getString(R.string.camera_toast_webrtc_start_failed, e.message ?: ""), Toast.LENGTH_LONG).show()
+            val warmSession = if (storedClientId == null) CameraSessionPrewarmer.take(channelName) else null
+            val channelInfo = if (warmSession != null) {
+                Log.d("CameraControls", "CameraControlsWithViewport using prepared session info")
+                warmSession.channelInfo
+            } else {
+                val region = EspApplication.region ?: "us-east-1"
+                Log.d("CameraControls", "Using region: $region for WebRTC connection")
+                val result = WebRtcChannelInfoHelper.fetchChannelEndpoints(region, channelName.trim(), ChannelRole.VIEWER)
+                result.getOrNull() ?: run {
+                    result.onFailure { e ->
+                        Toast.makeText(context, context.getString(R.string.camera_toast_webrtc_start_failed, e.message ?: ""), Toast.LENGTH_LONG).show()
+                    }
+                    return@LaunchedEffect
                 }
-                return@LaunchedEffect
             }
 
             val manager = WebRtcViewportManager(context, lifecycleOwner)
@@ -1924,12 +1923,14 @@ fun CameraControlsWithViewport(
                     dataEndpoint = channelInfo.dataEndpoint,
                     surfaceViewRenderer = surfaceViewRenderer!!,
                     isMaster = false,
-                    clientId = storedClientId
+                    clientId = storedClientId,
+                    warmSession = warmSession
                 )
                 onWebRtcManagerChange(manager)
                 EspApplication.setViewportWebRtcManager(manager)
             } catch (e: Exception) {
                 Log.e("CameraControls", "CameraControlsWithViewport: Failed to start WebRTC: ${e.message}", e)
+                warmSession?.release()
                 onWebRtcManagerChange(null)
                 onVideoStop()
                 Handler(Looper.getMainLooper()).post {
@@ -26,24 +26,26 @@ import android.widget.ImageView;
 import androidx.annotation.NonNull;
 import androidx.appcompat.widget.PopupMenu;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.viewpager2.widget.ViewPager2;
 
 import com.espressif.AppConstants;
 import com.espressif.EspApplication;
+import com.espressif.ParamRefreshScheduler;
 import com.espressif.rainmaker.BuildConfig;
 import com.espressif.rainmaker.R;
+import com.espressif.ui.FrameTimeMonitor;
 import com.espressif.ui.activities.EspMainActivity;
 import com.espressif.ui.activities.GroupDetailActivity;
 import com.espressif.ui.activities.GroupsActivity;
 import com.espressif.ui.adapters.GroupsPageAdapter;
-import com.espressif.ui.models.Group;
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.DevicesViewModel;
+import com.espressif.ui.models.EspNode;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Map;
+import java.util.LinkedHashSet;
 
 public class DevicesFragment extends Fragment {
 
@@ -55,7 +57,8 @@ public class DevicesFragment extends Fragment {
 
     private EspApplication espApp;
     private GroupsPageAdapter adapter;
-    private ArrayList<Group> groups;
+    private DevicesViewModel viewModel;
+    private FrameTimeMonitor frameTimeMonitor;
 
     public DevicesFragment() {
         // Required empty public constructor
@@ -74,14 +77,33 @@ public class DevicesFragment extends Fragment {
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
 
         View root = inflater.inflate(R.layout.fragment_devices, container, false);
-        groups = new ArrayList<>();
         espApp = (EspApplication) getActivity().getApplicationContext();
+        viewModel = new ViewModelProvider(this).get(DevicesViewModel.class);
         init(root);
         updateDeviceUi();
         ((EspMainActivity) getActivity()).setUpdateListener(updateListener);
         return root;
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+        if (BuildConfig.DEBUG) {
+            if (frameTimeMonitor == null) {
+                frameTimeMonitor = new FrameTimeMonitor(TAG);
+            }
+            frameTimeMonitor.start(getActivity().getWindow());
+        }
+    }
+
+    @Override
+    public void onPause() {
+        if (frameTimeMonitor != null) {
+            frameTimeMonitor.stop();
+        }
+        super.onPause();
+    }
+
     @Override
     public void onDestroy() {
         ((EspMainActivity) getActivity()).removeUpdateListener(updateListener);
@@ -115,14 +137,21 @@ public class DevicesFragment extends Fragment {
             ivMore.setVisibility(View.GONE);
         }
 
-        adapter = new GroupsPageAdapter(getActivity(), groups);
+        adapter = new GroupsPageAdapter(getActivity(), viewModel);
         groupPager.setAdapter(adapter);
+        groupPager.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
+
+            @Override
+            public void onPageSelected(int position) {
+                updateVisibleNodes();
+            }
+        });
 
         TabLayoutMediator tabLayoutMediator = new TabLayoutMediator(tabLayout, groupPager, new TabLayoutMediator.TabConfigurationStrategy() {
 
             @Override
             public void onConfigureTab(@NonNull TabLayout.Tab tab, int position) {
-                tab.setText("" + groups.get(position).getGroupName());
+                tab.setText("" + viewModel.getGroups().get(position).getGroupName());
             }
         });
         tabLayoutMediator.attach();
@@ -148,31 +177,39 @@ public class DevicesFragment extends Fragment {
 
     private void updateUi(boolean isRefreshing) {
 
-        groups.clear();
-
-        for (Map.Entry<String, Group> entry : espApp.groupMap.entrySet()) {
-
-            String key = entry.getKey();
-            Group group = entry.getValue();
+        boolean isGroupListChanged = viewModel.update(espApp, getString(R.string.group_all_devices));
+        Log.d(TAG, "Number of groups : " + viewModel.getGroups().size());
+        adapter.setRefreshing(isRefreshing);
 
-            if (group != null) {
-                groups.add(group);
+        if (isGroupListChanged) {
+            adapter.notifyDataSetChanged();
+        } else {
+            // Pages are kept and their lists are diffed, so only changed cards of changed groups are bound again.
+            for (int position : viewModel.getChangedPositions()) {
+                adapter.notifyItemChanged(position, GroupsPageAdapter.PAYLOAD_UPDATE);
             }
         }
+        updateVisibleNodes();
+    }
 
-        // Sort groups list to display alphabetically.
-        Collections.sort(groups, new Comparator<Group>() {
-
-            @Override
-            public int compare(Group g1, Group g2) {
-                return g1.getGroupName().compareToIgnoreCase(g2.getGroupName());
-            }
-        });
+    /**
+     * Nodes of the selected group are polled for param values while device grid is shown.
+     */
+    private void updateVisibleNodes() {
 
-        groups.add(0, new Group(getString(R.string.group_all_devices)));
-        Log.d(TAG, "Number of groups : " + groups.size());
-        adapter.notifyDataSetChanged();
-        adapter.setRefreshing(isRefreshing);
+        int position = groupPager.getCurrentItem();
+        if (position < 0 || position >= viewModel.getGroups().size()) {
+            return;
+        }
+        DevicesViewModel.GroupProjection projection = viewModel.getProjection(position);
+        LinkedHashSet<String> nodeIds = new LinkedHashSet<>();
+        for (Device device : projection.getDevices()) {
+            nodeIds.add(device.getNodeId());
+        }
+        for (EspNode node : projection.getNodes()) {
+            nodeIds.add(node.getNodeId());
+        }
+        ParamRefreshScheduler.getInstance(getActivity()).setVisibleNodes(nodeIds);
     }
 
     private void showPopupMenu(View anchor) {
@@ -42,10 +42,7 @@ import com.espressif.rainmaker.R;
 import com.espressif.ui.activities.EspMainActivity;
 import com.espressif.ui.activities.SceneDetailActivity;
 import com.espressif.ui.adapters.SceneAdapter;
-import com.espressif.ui.models.EspNode;
 import com.espressif.ui.models.Scene;
-import com.espressif.ui.models.Service;
-import com.espressif.utils.NodeUtils;
 import com.google.android.material.card.MaterialCardView;
 
 import java.util.ArrayList;
@@ -217,18 +214,7 @@ public class ScenesFragment extends Fragment {
 
         } else {
 
-            Service sceneService = null;
-            for (Map.Entry<String, EspNode> entry : espApp.nodeMap.entrySet()) {
-
-                if (entry.getValue() != null) {
-                    sceneService = NodeUtils.Companion.getService(entry.getValue(), AppConstants.SERVICE_TYPE_SCENES);
-                    if (sceneService != null) {
-                        break;
-                    }
-                }
-            }
-
-            if (sceneService != null) {
+            if (espApp.getDeviceRegistry().hasNodeWithService(AppConstants.SERVICE_TYPE_SCENES)) {
                 tvNoScene.setText(R.string.no_scenes);
                 btnAddScene.setVisibility(View.VISIBLE);
             } else {
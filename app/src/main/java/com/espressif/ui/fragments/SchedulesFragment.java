@@ -42,10 +42,7 @@ import com.espressif.rainmaker.R;
 import com.espressif.ui.activities.EspMainActivity;
 import com.espressif.ui.activities.ScheduleDetailActivity;
 import com.espressif.ui.adapters.ScheduleAdapter;
-import com.espressif.ui.models.EspNode;
 import com.espressif.ui.models.Schedule;
-import com.espressif.ui.models.Service;
-import com.espressif.utils.NodeUtils;
 import com.google.android.material.card.MaterialCardView;
 
 import java.util.ArrayList;
@@ -226,18 +223,7 @@ public class SchedulesFragment extends Fragment {
 
         } else {
 
-            Service scheduleService = null;
-            for (Map.Entry<String, EspNode> entry : espApp.nodeMap.entrySet()) {
-
-                if (entry.getValue() != null) {
-                    scheduleService = NodeUtils.Companion.getService(entry.getValue(), AppConstants.SERVICE_TYPE_SCHEDULE);
-                    if (scheduleService != null) {
-                        break;
-                    }
-                }
-            }
-
-            if (scheduleService != null) {
+            if (espApp.getDeviceRegistry().hasNodeWithService(AppConstants.SERVICE_TYPE_SCHEDULE)) {
                 tvNoSchedule.setText(R.string.no_schedules);
                 btnAddSchedule.setVisibility(View.VISIBLE);
             } else {
@@ -58,6 +58,10 @@ public class Device implements Parcelable {
         return nodeId;
     }
 
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
     public String getDeviceName() {
         return deviceName;
     }
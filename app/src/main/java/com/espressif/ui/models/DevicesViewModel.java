@@ -0,0 +1,289 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.ui.models;
+
+import androidx.lifecycle.ViewModel;
+
+import com.espressif.DeviceRegistry;
+import com.espressif.EspApplication;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps groups shown on devices screen and the devices / nodes of each group.
+ * <p>
+ * Lists of all groups are built together with one pass over nodes, when nodes or groups are added / removed,
+ * instead of scanning all nodes while binding each group page. Nodes changed in place are collected from
+ * the node map listener, and only groups which have those nodes are reported as changed.
+ * Nodes with one device are shown as device cards and nodes with more devices are shown as node cards.
+ */
+public class DevicesViewModel extends ViewModel {
+
+    private final ArrayList<Group> groups = new ArrayList<>();
+    // Projections in the same order as groups.
+    private final ArrayList<GroupProjection> projections = new ArrayList<>();
+    private final ArrayList<String> groupKeys = new ArrayList<>();
+    // Devices of each node when projections were built, to find out if devices of a node changed in place.
+    private final HashMap<String, List<Device>> nodeDevices = new HashMap<>();
+    // Stable ids of group pages, key is group key. Ids of removed groups are dropped.
+    private final HashMap<String, Long> groupIds = new HashMap<>();
+    private long nextGroupId;
+    private final ArrayList<Integer> changedPositions = new ArrayList<>();
+
+    // Nodes changed since last update. Registry listener is called on any thread.
+    private final Set<String> changedNodeIds = ConcurrentHashMap.newKeySet();
+    private DeviceRegistry.RegistryMap<EspNode> nodeMap;
+    private long nodeVersion = -1, groupVersion = -1;
+    private int appStateHash;
+    private String allDevicesGroupName;
+
+    private final DeviceRegistry.ChangeListener<EspNode> nodeListener = new DeviceRegistry.ChangeListener<EspNode>() {
+
+        @Override
+        public void onAdded(String key, EspNode value) {
+            // Map version is changed, all groups are built again.
+        }
+
+        @Override
+        public void onUpdated(String key, EspNode value) {
+            changedNodeIds.add(key);
+        }
+
+        @Override
+        public void onRemoved(String key, EspNode value) {
+            // Map version is changed, all groups are built again.
+        }
+    };
+
+    /**
+     * Devices and nodes of a group.
+     */
+    public static class GroupProjection {
+
+        private final ArrayList<Device> devices = new ArrayList<>();
+        private final ArrayList<EspNode> nodes = new ArrayList<>();
+
+        public ArrayList<Device> getDevices() {
+            return devices;
+        }
+
+        public ArrayList<EspNode> getNodes() {
+            return nodes;
+        }
+
+        public boolean isEmpty() {
+            return devices.isEmpty() && nodes.isEmpty();
+        }
+
+        void add(EspNode node) {
+            if (node.getDevices().size() == 1) {
+                devices.addAll(node.getDevices());
+            } else if (node.getDevices().size() > 1) {
+                nodes.add(node);
+            }
+        }
+    }
+
+    /**
+     * Update groups and projections from app data. Must be called on main thread.
+     * Positions of groups which need to be bound again are available from {@link #getChangedPositions()}.
+     *
+     * @param espApp              Application which has node and group data.
+     * @param allDevicesGroupName Name of the first group, which has all devices.
+     * @return true if list of groups has been changed, false if only devices / nodes of groups may have been changed.
+     */
+    public boolean update(EspApplication espApp, String allDevicesGroupName) {
+
+        DeviceRegistry registry = espApp.getDeviceRegistry();
+        if (nodeMap == null) {
+            nodeMap = registry.getNodeMap();
+            nodeMap.addListener(nodeListener);
+        }
+
+        changedPositions.clear();
+        HashSet<String> nodeIds = new HashSet<>(changedNodeIds);
+        changedNodeIds.removeAll(nodeIds);
+
+        long newNodeVersion = nodeMap.getVersion();
+        long newGroupVersion = registry.getGroupMap().getVersion();
+        if (newNodeVersion != nodeVersion || newGroupVersion != groupVersion
+                || !allDevicesGroupName.equals(this.allDevicesGroupName) || isNodeDevicesChanged(nodeIds)) {
+
+            nodeVersion = newNodeVersion;
+            groupVersion = newGroupVersion;
+            this.allDevicesGroupName = allDevicesGroupName;
+            appStateHash = getAppStateHash(espApp, registry);
+            boolean isGroupListChanged = buildProjections(espApp, allDevicesGroupName);
+            addAllPositions();
+            return isGroupListChanged;
+        }
+
+        int newAppStateHash = getAppStateHash(espApp, registry);
+        if (newAppStateHash != appStateHash) {
+            // State which is shown on all cards has been changed.
+            appStateHash = newAppStateHash;
+            addAllPositions();
+            return false;
+        }
+
+        if (!nodeIds.isEmpty()) {
+            // First group has all devices.
+            changedPositions.add(0);
+            for (int i = 1; i < groups.size(); i++) {
+                ArrayList<String> groupNodeIds = groups.get(i).getNodeList();
+                if (groupNodeIds != null && !Collections.disjoint(groupNodeIds, nodeIds)) {
+                    changedPositions.add(i);
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean buildProjections(EspApplication espApp, String allDevicesGroupName) {
+
+        ArrayList<Group> newGroups = new ArrayList<>();
+        for (Map.Entry<String, Group> entry : espApp.groupMap.entrySet()) {
+            Group group = entry.getValue();
+            if (group != null) {
+                newGroups.add(group);
+            }
+        }
+
+        // Sort groups list to display alphabetically.
+        Collections.sort(newGroups, (g1, g2) -> g1.getGroupName().compareToIgnoreCase(g2.getGroupName()));
+        newGroups.add(0, new Group(allDevicesGroupName));
+
+        ArrayList<String> newGroupKeys = new ArrayList<>();
+        ArrayList<GroupProjection> newProjections = new ArrayList<>();
+        GroupProjection allDevices = new GroupProjection();
+        newProjections.add(allDevices);
+        newGroupKeys.add(allDevicesGroupName);
+
+        for (int i = 1; i < newGroups.size(); i++) {
+            Group group = newGroups.get(i);
+            newGroupKeys.add(group.getGroupId() + "/" + group.getGroupName());
+            newProjections.add(new GroupProjection());
+        }
+
+        nodeDevices.clear();
+        for (EspNode node : espApp.nodeMap.values()) {
+            allDevices.add(node);
+            nodeDevices.put(node.getNodeId(), new ArrayList<>(node.getDevices()));
+        }
+        for (int i = 1; i < newGroups.size(); i++) {
+            ArrayList<String> nodeIds = newGroups.get(i).getNodeList();
+            if (nodeIds == null) {
+                continue;
+            }
+            for (String nodeId : nodeIds) {
+                EspNode node = espApp.nodeMap.get(nodeId);
+                if (node != null) {
+                    newProjections.get(i).add(node);
+                }
+            }
+        }
+
+        boolean isGroupListChanged = !newGroupKeys.equals(groupKeys);
+        groups.clear();
+        groups.addAll(newGroups);
+        projections.clear();
+        projections.addAll(newProjections);
+        groupKeys.clear();
+        groupKeys.addAll(newGroupKeys);
+        groupIds.keySet().retainAll(newGroupKeys);
+        return isGroupListChanged;
+    }
+
+    /**
+     * Returns true if devices of any given node have been replaced in place, which changes projections.
+     */
+    private boolean isNodeDevicesChanged(Set<String> nodeIds) {
+
+        for (String nodeId : nodeIds) {
+            EspNode node = nodeMap.get(nodeId);
+            List<Device> devices = nodeDevices.get(nodeId);
+            if (node == null || devices == null) {
+                continue;
+            }
+            List<Device> currentDevices = node.getDevices();
+            if (currentDevices.size() != devices.size()) {
+                return true;
+            }
+            for (int i = 0; i < devices.size(); i++) {
+                if (currentDevices.get(i) != devices.get(i)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hash of app level state used by all cards (app state, local devices and Matter nodes).
+     */
+    private static int getAppStateHash(EspApplication espApp, DeviceRegistry registry) {
+        return Objects.hash(espApp.getAppState(), registry.getLocalDeviceMap().getVersion(), espApp.matterRmNodeIdMap.size());
+    }
+
+    private void addAllPositions() {
+        for (int i = 0; i < groups.size(); i++) {
+            changedPositions.add(i);
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        if (nodeMap != null) {
+            nodeMap.removeListener(nodeListener);
+        }
+        super.onCleared();
+    }
+
+    public ArrayList<Group> getGroups() {
+        return groups;
+    }
+
+    public GroupProjection getProjection(int position) {
+        return projections.get(position);
+    }
+
+    /**
+     * @return Positions of groups which have been changed by last {@link #update}.
+     */
+    public List<Integer> getChangedPositions() {
+        return changedPositions;
+    }
+
+    /**
+     * @return Stable id of the group page at given position. Group key is mapped to id, so ids don't collide.
+     */
+    public long getGroupId(int position) {
+        String key = groupKeys.get(position);
+        Long id = groupIds.get(key);
+        if (id == null) {
+            id = nextGroupId++;
+            groupIds.put(key, id);
+        }
+        return id;
+    }
+}
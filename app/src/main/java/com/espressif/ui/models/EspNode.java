@@ -84,6 +84,9 @@ public class EspNode implements Parcelable {
     @ColumnInfo(name = "param_data")
     private String paramData;
 
+    @Ignore
+    private String configHash; // hash of config data, used to skip rebuilding unchanged config
+
     @Ignore
     private boolean isSelected;
 
@@ -294,6 +297,14 @@ public class EspNode implements Parcelable {
         this.paramData = paramData;
     }
 
+    public String getConfigHash() {
+        return configHash;
+    }
+
+    public void setConfigHash(String configHash) {
+        this.configHash = configHash;
+    }
+
     public boolean isSelected() {
         return isSelected;
     }
@@ -34,6 +34,10 @@ public class Service implements Parcelable {
         return nodeId;
     }
 
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,137 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.ui.models;
+
+import java.util.Arrays;
+
+/**
+ * Time series points stored in primitive columns.
+ * Timestamps are in seconds. Missing values are stored as {@link Double#NaN}.
+ */
+public class TsColumns {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] timestamps;
+    private double[] values;
+    private int size;
+
+    public TsColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public TsColumns(int capacity) {
+        timestamps = new long[Math.max(capacity, 1)];
+        values = new double[Math.max(capacity, 1)];
+    }
+
+    public TsColumns(long[] timestamps, double[] values) {
+        this.timestamps = timestamps;
+        this.values = values;
+        this.size = Math.min(timestamps.length, values.length);
+    }
+
+    public void add(long timestamp, double value) {
+        if (size == timestamps.length) {
+            // Columns created from arrays can be empty.
+            int capacity = Math.max(timestamps.length * 2, INITIAL_CAPACITY);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        timestamps[size] = timestamp;
+        values[size] = value;
+        size++;
+    }
+
+    public void addAll(TsColumns columns) {
+        for (int i = 0; i < columns.size; i++) {
+            add(columns.timestamps[i], columns.values[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return Timestamps, trimmed to size.
+     */
+    public long[] getTimestamps() {
+        return timestamps.length == size ? timestamps : Arrays.copyOf(timestamps, size);
+    }
+
+    /**
+     * @return Values, trimmed to size.
+     */
+    public double[] getValues() {
+        return values.length == size ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Sort points by timestamp, if they are not already sorted.
+     */
+    public void sort() {
+
+        boolean isSorted = true;
+        for (int i = 1; i < size; i++) {
+            if (timestamps[i] < timestamps[i - 1]) {
+                isSorted = false;
+                break;
+            }
+        }
+        if (isSorted) {
+            return;
+        }
+
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        final long[] ts = timestamps;
+        Arrays.sort(order, (a, b) -> Long.compare(ts[a], ts[b]));
+        long[] sortedTs = new long[size];
+        double[] sortedValues = new double[size];
+        for (int i = 0; i < size; i++) {
+            sortedTs[i] = timestamps[order[i]];
+            sortedValues[i] = values[order[i]];
+        }
+        timestamps = sortedTs;
+        values = sortedValues;
+    }
+
+    /**
+     * @return Index of the first point with timestamp greater than or equal to given timestamp.
+     */
+    public int lowerBound(long timestamp) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
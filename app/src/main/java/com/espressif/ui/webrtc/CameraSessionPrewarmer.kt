@@ -0,0 +1,277 @@
+package com.espressif.ui.webrtc
+
+import android.content.Context
+import android.os.SystemClock
+import android.util.Log
+import com.amazonaws.services.kinesisvideo.model.ChannelRole
+import com.espressif.EspApplication
+import com.espressif.webrtc.Event
+import com.espressif.webrtc.SignalingListener
+import com.espressif.webrtc.SignalingServiceWebSocketClient
+import com.espressif.webrtc.WebRtcConstants
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withTimeoutOrNull
+import java.util.UUID
+import java.util.concurrent.Executors
+
+/**
+ * Prepares viewer session of a camera when its viewport is shown, so that video starts faster
+ * when user taps play.
+ *
+ * Credentials, channel endpoints and PeerConnectionFactory are prepared in parallel, then ICE servers are
+ * fetched while signaling WebSocket is opened with pre-signed URL. Prepared session is handed over to
+ * [WebRtcViewportManager.start] with [take]. Sessions which are not used within [SESSION_TTL_MS] are closed.
+ */
+object CameraSessionPrewarmer {
+    private const val TAG = "CameraSessionPrewarmer"
+
+    private const val SESSION_TTL_MS = 60 * 1000L
+    private const val MAX_SESSIONS = 2
+    private const val CREDENTIALS_WAIT_MS = 10000L
+    private const val CREDENTIALS_POLL_INTERVAL_MS = 500L
+    private const val TAKE_WAIT_MS = 5000L
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    // Key is channel name. Access is synchronized on this map.
+    private val sessions = LinkedHashMap<String, PendingSession>()
+
+    private class PendingSession(val session: Deferred<WarmSession?>) {
+        val createdAt = SystemClock.elapsedRealtime()
+
+        fun isExpired() = SystemClock.elapsedRealtime() - createdAt > SESSION_TTL_MS
+
+        // Preparation is not cancelled, connecting signaling client can't be interrupted.
+        // Connection is closed after preparation is complete.
+        fun release() {
+            scope.launch { session.await()?.release() }
+        }
+    }
+
+    /**
+     * Viewer session prepared for a channel.
+     * Signaling connection can be taken only once, by the manager which starts the video.
+     */
+    class WarmSession internal constructor(
+        val channelInfo: WebRtcChannelInfo,
+        val clientId: String,
+        private var client: SignalingServiceWebSocketClient?,
+        private val listener: ForwardingSignalingListener?
+    ) {
+        /**
+         * Returns open signaling connection, which delivers messages to given listener from now on,
+         * or null if connection is not available.
+         */
+        fun takeSignalingClient(signalingListener: SignalingListener): SignalingServiceWebSocketClient? {
+            val openClient = synchronized(this) {
+                val current = client
+                client = null
+                current
+            } ?: return null
+            if (!openClient.isOpen || listener == null) {
+                openClient.disconnect()
+                return null
+            }
+            listener.attach(signalingListener)
+            return openClient
+        }
+
+        /**
+         * Close signaling connection if it has not been taken.
+         */
+        fun release() {
+            val openClient = synchronized(this) {
+                val current = client
+                client = null
+                current
+            }
+            openClient?.disconnect()
+        }
+    }
+
+    /**
+     * Keeps signaling messages received before the session is taken and forwards them
+     * to the listener of the manager after that.
+     */
+    internal class ForwardingSignalingListener : SignalingListener() {
+
+        private var target: SignalingListener? = null
+        private val pendingEvents = mutableListOf<(SignalingListener) -> Unit>()
+
+        fun attach(listener: SignalingListener) {
+            val events = synchronized(this) {
+                target = listener
+                val copy = pendingEvents.toList()
+                pendingEvents.clear()
+                copy
+            }
+            events.forEach { it(listener) }
+        }
+
+        private fun dispatch(event: (SignalingListener) -> Unit) {
+            val listener = synchronized(this) {
+                target ?: run {
+                    pendingEvents.add(event)
+                    null
+                }
+            }
+            listener?.let(event)
+        }
+
+        override fun onSdpOffer(offerEvent: Event) = dispatch { it.onSdpOffer(offerEvent) }
+
+        override fun onSdpAnswer(answerEvent: Event) = dispatch { it.onSdpAnswer(answerEvent) }
+
+        override fun onIceCandidate(message: Event) = dispatch { it.onIceCandidate(message) }
+
+        override fun onError(errorMessage: Event) = dispatch { it.onError(errorMessage) }
+
+        override fun onException(e: Exception) = dispatch { it.onException(e) }
+    }
+
+    /**
+     * Start preparing viewer session of the channel, if it is not already prepared.
+     * Should be called when camera viewport becomes visible.
+     */
+    @JvmStatic
+    fun prewarm(context: Context, channelName: String) {
+        val appContext = context.applicationContext
+        val key = channelName.trim()
+        synchronized(sessions) {
+            val existing = sessions[key]
+            if (existing != null && !existing.isExpired()) {
+                return
+            }
+            sessions.remove(key)?.release()
+            while (sessions.size >= MAX_SESSIONS) {
+                val oldest = sessions.keys.first()
+                sessions.remove(oldest)?.release()
+            }
+            val pending = PendingSession(scope.async { prepare(appContext, key) })
+            sessions[key] = pending
+            scope.launch {
+                delay(SESSION_TTL_MS)
+                synchronized(sessions) {
+                    if (sessions[key] == pending) {
+                        Log.d(TAG, "Prepared session of $key is not used, closing it")
+                        sessions.remove(key)
+                        pending.release()
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Take prepared session of the channel. Waits for preparation if it is in progress.
+     *
+     * @return Prepared session or null if session is not prepared / has expired.
+     */
+    suspend fun take(channelName: String): WarmSession? {
+        val key = channelName.trim()
+        val pending = synchronized(sessions) { sessions.remove(key) } ?: return null
+        if (pending.isExpired()) {
+            pending.release()
+            return null
+        }
+        val session = withTimeoutOrNull(TAKE_WAIT_MS) { pending.session.await() }
+        if (session == null) {
+            pending.release()
+        } else {
+            Log.d(TAG, "Using prepared session of $key, prepared ${SystemClock.elapsedRealtime() - pending.createdAt} ms ago")
+        }
+        return session
+    }
+
+    /**
+     * Close all prepared sessions. Should be called on logout.
+     */
+    @JvmStatic
+    fun clear() {
+        synchronized(sessions) {
+            sessions.values.forEach { it.release() }
+            sessions.clear()
+        }
+    }
+
+    private suspend fun prepare(context: Context, channelName: String): WarmSession? = coroutineScope {
+        val startTime = SystemClock.elapsedRealtime()
+        val factoryInit = async { WebRtcViewportManager.ensureFactoryInitialized(context) }
+
+        // Credentials and channel endpoints
+        val region = waitForRegion() ?: run {
+            Log.d(TAG, "Credentials are not available, session of $channelName is not prepared")
+            return@coroutineScope null
+        }
+        val credentials = async {
+            try {
+                WebRtcConstants.getCredentialsProvider().credentials
+            } catch (e: Exception) {
+                Log.e(TAG, "Failed to get credentials: ${e.message}")
+                null
+            }
+        }
+        val endpoints = async { WebRtcChannelInfoHelper.fetchChannelEndpoints(region, channelName, ChannelRole.VIEWER) }
+        val channelInfo = endpoints.await().getOrElse { e ->
+            Log.e(TAG, "Failed to fetch endpoints of $channelName: ${e.message}")
+            return@coroutineScope null
+        }
+        val awsCredentials = credentials.await() ?: return@coroutineScope null
+        val credentialsTime = SystemClock.elapsedRealtime()
+
+        // ICE servers and signaling connection
+        val clientId = UUID.randomUUID().toString()
+        val iceServers = async {
+            try {
+                WebRtcChannelInfoHelper.fetchIceServersBlocking(
+                    channelInfo.region, channelInfo.channelArn, channelInfo.dataEndpoint, ChannelRole.VIEWER
+                )
+            } catch (e: Exception) {
+                Log.e(TAG, "Failed to fetch ICE servers: ${e.message}")
+                emptyList()
+            }
+        }
+        val listener = ForwardingSignalingListener()
+        val signaling = async {
+            val endpoint = WebRtcChannelInfoHelper.buildSignalingEndpoint(channelInfo.wssEndpoint, channelInfo.channelArn, clientId)
+            val signedUri = WebRtcChannelInfoHelper.getSignedUri(endpoint, awsCredentials, channelInfo.region)
+                ?: return@async null
+            try {
+                SignalingServiceWebSocketClient(signedUri.toString(), listener, Executors.newFixedThreadPool(10))
+                    .takeIf { client ->
+                        client.isOpen.also { isOpen -> if (!isOpen) client.disconnect() }
+                    }
+            } catch (e: Exception) {
+                Log.e(TAG, "Failed to open signaling connection: ${e.message}")
+                null
+            }
+        }
+        val client = signaling.await()
+        val signalingTime = SystemClock.elapsedRealtime()
+        val session = WarmSession(channelInfo.copy(iceServers = iceServers.await()), clientId, client, listener)
+        factoryInit.await()
+        val endTime = SystemClock.elapsedRealtime()
+
+        Log.d(TAG, "Prepared session of $channelName in ${endTime - startTime} ms"
+                + " (credentials & endpoints ${credentialsTime - startTime} ms"
+                + ", signaling ${signalingTime - credentialsTime} ms, connected: ${client != null}"
+                + ", ICE servers: ${session.channelInfo.iceServers.size})")
+        session
+    }
+
+    private suspend fun waitForRegion(): String? {
+        var waitTime = 0L
+        while (EspApplication.region.isNullOrEmpty() && waitTime < CREDENTIALS_WAIT_MS) {
+            delay(CREDENTIALS_POLL_INTERVAL_MS)
+            waitTime += CREDENTIALS_POLL_INTERVAL_MS
+        }
+        return EspApplication.region?.takeIf { it.isNotEmpty() }
+    }
+}
@@ -15,10 +15,14 @@ import com.amazonaws.services.kinesisvideosignaling.AWSKinesisVideoSignalingClie
 import com.amazonaws.services.kinesisvideosignaling.model.GetIceServerConfigRequest
 import com.amazonaws.services.kinesisvideosignaling.model.GetIceServerConfigResult
 import com.amazonaws.services.kinesisvideosignaling.model.IceServer as AwsIceServer
+import com.espressif.webrtc.AwsV4Signer
+import com.espressif.webrtc.Constants
 import com.espressif.webrtc.WebRtcConstants
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import org.webrtc.PeerConnection.IceServer
+import java.net.URI
+import java.util.Date
 
 data class WebRtcChannelInfo(
     val channelArn: String,
@@ -316,6 +320,46 @@ object WebRtcChannelInfoHelper {
         return iceServerList
     }
 
+    // --- Signaling URL ---
+
+    /**
+     * Build signaling WebSocket endpoint of the channel.
+     * Client ID is added only for viewer role, master endpoint does not have it.
+     */
+    @JvmStatic
+    fun buildSignalingEndpoint(wssEndpoint: String?, channelArn: String?, clientId: String?): String {
+        val masterEndpoint = "$wssEndpoint?${Constants.CHANNEL_ARN_QUERY_PARAM}=$channelArn"
+        return if (clientId == null) masterEndpoint
+               else "$masterEndpoint&${Constants.CLIENT_ID_QUERY_PARAM}=$clientId"
+    }
+
+    /**
+     * Sign signaling WebSocket endpoint (SigV4 pre-signed URL, valid for 5 minutes).
+     * Returns null if credentials are not available or signing fails.
+     */
+    @JvmStatic
+    fun getSignedUri(endpoint: String, credentials: com.amazonaws.auth.AWSCredentials, region: String): URI? {
+        val accessKey = credentials.awsAccessKeyId
+        val secretKey = credentials.awsSecretKey
+        val sessionToken = if (credentials is com.amazonaws.auth.AWSSessionCredentials) {
+            credentials.sessionToken
+        } else ""
+
+        if (accessKey.isNullOrEmpty() || secretKey.isNullOrEmpty()) {
+            Log.e(TAG, "Failed to fetch credentials!")
+            return null
+        }
+
+        return try {
+            val endpointUri = URI.create(endpoint)
+            val wssUri = URI.create("wss://${endpointUri.host}")
+            AwsV4Signer.sign(endpointUri, accessKey, secretKey, sessionToken ?: "", wssUri, region, Date().time)
+        } catch (e: Exception) {
+            Log.e(TAG, "Failed to sign URI: $e")
+            null
+        }
+    }
+
     // --- Legacy (backward compat) ---
 
     /**
@@ -2,6 +2,7 @@ package com.espressif.ui.webrtc
 
 import android.content.Context
 import android.media.AudioManager
+import android.os.SystemClock
 import android.util.Log
 import android.view.View
 import android.widget.Toast
@@ -39,14 +40,12 @@ import org.webrtc.DefaultVideoDecoderFactory
 import org.webrtc.LowLatencyDefaultVideoDecoderFactory
 import org.webrtc.DefaultVideoEncoderFactory
 import org.webrtc.RTCStats
-import java.net.URI
 import java.util.*
 import java.util.concurrent.Executors
 import java.util.concurrent.ScheduledExecutorService
 import java.util.concurrent.ScheduledFuture
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.RejectedExecutionException
-import java.util.Date
 
 /**
  * Holds a snapshot of WebRTC video stats for UI display.
@@ -123,6 +122,10 @@ class WebRtcViewportManager(
     private var isStreamActive = false
     @Volatile private var pendingRenegotiation = false
     private var streamStartTime = 0L
+    // Start request time (elapsed realtime) to log time to connected / first frame.
+    private var startRequestTime = 0L
+    // Session prepared by CameraSessionPrewarmer, signaling connection is taken when it is needed.
+    private var warmSession: CameraSessionPrewarmer.WarmSession? = null
 
     private var onConnectionStateChanged: ((Boolean) -> Unit)? = null
     private var onError: ((String) -> Unit)? = null
@@ -570,10 +573,12 @@ class WebRtcViewportManager(
         dataEndpoint: String? = null,
         surfaceViewRenderer: SurfaceViewRenderer,
         isMaster: Boolean = false,
-        clientId: String? = null
+        clientId: String? = null,
+        warmSession: CameraSessionPrewarmer.WarmSession? = null
     ) {
         if (rootEglBase != null || isStarting) {
             Log.w(TAG, "WebRTC already started")
+            warmSession?.release()
             return
         }
         // Latch synchronously on the calling thread: rootEglBase is only assigned
@@ -588,9 +593,17 @@ class WebRtcViewportManager(
         this.mRegion = region
         this.master = isMaster
         this.remoteView = surfaceViewRenderer
+        startRequestTime = SystemClock.elapsedRealtime()
 
-        // Use provided client ID or generate new one
-        mClientId = clientId ?: UUID.randomUUID().toString()
+        // Use provided client ID, client ID of prepared session or generate new one.
+        // Prepared signaling connection is signed with its client ID, so it can't be used with other ID.
+        if (warmSession != null && (clientId != null || isMaster || warmSession.channelInfo.channelArn != channelArn)) {
+            warmSession.release()
+            this.warmSession = null
+        } else {
+            this.warmSession = warmSession
+        }
+        mClientId = clientId ?: this.warmSession?.clientId ?: UUID.randomUUID().toString()
         if (clientId != null) {
             Log.d(TAG, "Reusing client ID: $clientId")
         }
@@ -640,6 +653,10 @@ class WebRtcViewportManager(
                 remoteView?.init(rootEglBase!!.eglBaseContext, null)
                 remoteView?.setScalingType(RendererCommon.ScalingType.SCALE_ASPECT_FIT)
                 remoteView?.setMirror(false)
+                // Frame listener is called once, for the next rendered frame. Scale 0 skips bitmap creation.
+                remoteView?.addFrameListener({ _ ->
+                    Log.d(TAG, "Time to first frame: ${SystemClock.elapsedRealtime() - startRequestTime} ms")
+                }, 0f)
                 viewInitLatch.countDown()
             }
             viewInitLatch.await()
@@ -793,6 +810,7 @@ class WebRtcViewportManager(
                             streamStartTime = System.currentTimeMillis()
                             isStreamActive = true
                             Log.i(TAG, "Stream started - duration tracking began")
+                            Log.d(TAG, "Time to connected: ${SystemClock.elapsedRealtime() - startRequestTime} ms")
                             startStatsCollection()
                         }
                         if (pendingRenegotiation) {
@@ -819,20 +837,6 @@ class WebRtcViewportManager(
      * Used in the parallel flow where PeerConnection is created after ICE servers arrive.
      */
     private fun connectSignaling() {
-        val masterEndpoint = "$mWssEndpoint?${Constants.CHANNEL_ARN_QUERY_PARAM}=$mChannelArn"
-        val viewerEndpoint = "$mWssEndpoint?${Constants.CHANNEL_ARN_QUERY_PARAM}=$mChannelArn&${Constants.CLIENT_ID_QUERY_PARAM}=$mClientId"
-
-        val credentials = WebRtcConstants.getCredentialsProvider().credentials
-        val endpoint = if (master) masterEndpoint else viewerEndpoint
-        val signedUri = getSignedUri(endpoint, credentials, mRegion ?: "")
-
-        if (signedUri == null) {
-            onError?.invoke("Failed to get signed URI")
-            return
-        }
-
-        val wsHost = signedUri.toString()
-
         val signalingListener = object : SignalingListener() {
             override fun onSdpOffer(offerEvent: Event) {
                 Log.d(TAG, "Received SDP Offer: Setting Remote Description")
@@ -900,7 +904,7 @@ class WebRtcViewportManager(
         }
 
         try {
-            client = SignalingServiceWebSocketClient(wsHost, signalingListener, Executors.newFixedThreadPool(10))
+            client = openSignalingClient(signalingListener) ?: return
             Log.d(TAG, "Signaling connection ${if (client?.isOpen == true) "Successful" else "Failed"}")
         } catch (e: Exception) {
             Log.e(TAG, "Exception with websocket client: $e")
@@ -909,20 +913,6 @@ class WebRtcViewportManager(
     }
 
     private fun initWsConnection() {
-        val masterEndpoint = "$mWssEndpoint?${Constants.CHANNEL_ARN_QUERY_PARAM}=$mChannelArn"
-        val viewerEndpoint = "$mWssEndpoint?${Constants.CHANNEL_ARN_QUERY_PARAM}=$mChannelArn&${Constants.CLIENT_ID_QUERY_PARAM}=$mClientId"
-
-        val credentials = WebRtcConstants.getCredentialsProvider().credentials
-        val endpoint = if (master) masterEndpoint else viewerEndpoint
-        val signedUri = getSignedUri(endpoint, credentials, mRegion ?: "")
-
-        if (signedUri == null) {
-            onError?.invoke("Failed to get signed URI")
-            return
-        }
-
-        val wsHost = signedUri.toString()
-
         val signalingListener = object : SignalingListener() {
             override fun onSdpOffer(offerEvent: Event) {
                 Log.d(TAG, "Received SDP Offer: Setting Remote Description")
@@ -1001,7 +991,7 @@ class WebRtcViewportManager(
         }
 
         try {
-            client = SignalingServiceWebSocketClient(wsHost, signalingListener, Executors.newFixedThreadPool(10))
+            client = openSignalingClient(signalingListener) ?: return
             Log.d(TAG, "Client connection ${if (client?.isOpen == true) "Successful" else "Failed"}")
 
             if (client?.isOpen == true) {
@@ -1177,26 +1167,30 @@ class WebRtcViewportManager(
         return Message("ICE_CANDIDATE", recipientClientId ?: "", senderClientId, encodedPayload)
     }
 
-    private fun getSignedUri(endpoint: String, credentials: com.amazonaws.auth.AWSCredentials, region: String): URI? {
-        val accessKey = credentials.awsAccessKeyId
-        val secretKey = credentials.awsSecretKey
-        val sessionToken = if (credentials is com.amazonaws.auth.AWSSessionCredentials) {
-            credentials.sessionToken
-        } else ""
+    /**
+     * Take signaling connection of the prepared session if it is available, otherwise open a new connection.
+     * Returns null (and reports error) if signed URL can't be created.
+     */
+    private fun openSignalingClient(signalingListener: SignalingListener): SignalingServiceWebSocketClient? {
+        val warmClient = warmSession?.takeSignalingClient(signalingListener)
+        warmSession = null
+        if (warmClient != null) {
+            Log.d(TAG, "Using prepared signaling connection, signaling ready in ${SystemClock.elapsedRealtime() - startRequestTime} ms")
+            return warmClient
+        }
 
-        if (accessKey.isEmpty() || secretKey.isEmpty()) {
-            Log.e(TAG, "Failed to fetch credentials!")
+        val endpoint = WebRtcChannelInfoHelper.buildSignalingEndpoint(mWssEndpoint, mChannelArn, if (master) null else mClientId)
+        val credentials = WebRtcConstants.getCredentialsProvider().credentials
+        val signedUri = WebRtcChannelInfoHelper.getSignedUri(endpoint, credentials, mRegion ?: "")
+
+        if (signedUri == null) {
+            onError?.invoke("Failed to get signed URI")
             return null
         }
 
-        return try {
-            val endpointUri = URI.create(endpoint)
-            val wssUri = URI.create("wss://${endpointUri.host}")
-            AwsV4Signer.sign(endpointUri, accessKey, secretKey, sessionToken ?: "", wssUri, region, Date().time)
-        } catch (e: Exception) {
-            Log.e(TAG, "Failed to sign URI: $e")
-            null
-        }
+        val signalingClient = SignalingServiceWebSocketClient(signedUri.toString(), signalingListener, Executors.newFixedThreadPool(10))
+        Log.d(TAG, "Signaling ready in ${SystemClock.elapsedRealtime() - startRequestTime} ms")
+        return signalingClient
     }
 
     @Volatile
@@ -1328,6 +1322,9 @@ class WebRtcViewportManager(
             Log.e(TAG, "Error disconnecting WebSocket: $e", e)
         }
         client = null
+        // Prepared connection which has not been taken yet (session stopped while starting)
+        warmSession?.release()
+        warmSession = null
 
         // Dispose PeerConnection (this will also dispose tracks)
         // Clear reference first to prevent callbacks from accessing disposed connection
@@ -26,6 +26,7 @@ import com.espressif.ui.models.Device
 import com.espressif.ui.models.EspNode
 import com.espressif.ui.models.Param
 import com.espressif.ui.models.Service
+import java.security.MessageDigest
 
 class NodeUtils {
 
@@ -69,6 +70,23 @@ class NodeUtils {
             return false
         }
 
+        /**
+         * Returns SHA-256 hash (hex string) of the given node data (config / params JSON).
+         * Returns empty string if data is not available.
+         */
+        fun getContentHash(data: String?): String {
+
+            if (TextUtils.isEmpty(data)) {
+                return ""
+            }
+            val digest = MessageDigest.getInstance("SHA-256").digest(data!!.toByteArray(Charsets.UTF_8))
+            val hash = StringBuilder(digest.size * 2)
+            for (b in digest) {
+                hash.append(String.format("%02x", b))
+            }
+            return hash.toString()
+        }
+
         fun getService(node: EspNode, serviceType: String): Service? {
 
             if (node?.services != null) {
@@ -0,0 +1,76 @@
+// Copyright 2026 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.ble
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Ignore
+import org.junit.Test
+
+/**
+ * Measures host side cost of a chunked get_params transfer (request encoding, response decoding, reassembly and
+ * JSON decoding) against [FakeParamsDevice], without BLE latency.
+ * Median of [RUNS] runs after [WARMUP_RUNS] warm up runs should stay below [MAX_CHUNK_TIME_US] per chunk, which is
+ * far below BLE latency of a chunk. Ignored by default as timing depends on the host, remove [Ignore] to run it.
+ */
+class BleChunkTransferBenchmark {
+
+    companion object {
+        private val DEVICE_COUNTS = intArrayOf(1, 20, 100)
+        private val CHUNK_SIZES = intArrayOf(180, 500)
+        private const val WARMUP_RUNS = 200
+        private const val RUNS = 1000
+        private const val MAX_CHUNK_TIME_US = 1000.0
+    }
+
+    @Ignore("Benchmark")
+    @Test
+    fun readParams() {
+        for (deviceCount in DEVICE_COUNTS) {
+            val params = FakeParamsDevice.paramsJson(deviceCount)
+
+            for (chunkSize in CHUNK_SIZES) {
+                val device = FakeParamsDevice(params, chunkSize)
+                repeat(WARMUP_RUNS) { read(device) }
+
+                val times = LongArray(RUNS)
+                var chunkCount = 0
+                for (i in 0 until RUNS) {
+                    val startTime = System.nanoTime()
+                    val transfer = read(device)
+                    times[i] = System.nanoTime() - startTime
+                    chunkCount = transfer.chunkCount
+                    assertEquals(deviceCount, transfer.toJson().length())
+                }
+                times.sort()
+                val medianUs = times[RUNS / 2] / 1e3
+                assertTrue(
+                    String.format("Params : %d bytes, chunk size : %d, chunks : %d, transfer : %.1f us",
+                        params.length, chunkSize, chunkCount, medianUs),
+                    medianUs < MAX_CHUNK_TIME_US * chunkCount
+                )
+            }
+        }
+    }
+
+    private fun read(device: FakeParamsDevice): BleChunkTransfer {
+        val transfer = BleChunkTransfer()
+        do {
+            transfer.appendResponse(device.sendData(transfer.buildRequest(null)))
+        } while (!transfer.isComplete())
+        transfer.toJson()
+        return transfer
+    }
+}
@@ -0,0 +1,142 @@
+// Copyright 2026 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.ble
+
+import com.google.protobuf.ByteString
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl
+import java.io.IOException
+
+class BleChunkTransferTest {
+
+    @Test
+    fun singleChunk_isComplete() {
+        val params = FakeParamsDevice.paramsJson(1)
+        val device = FakeParamsDevice(params, 4096)
+
+        val transfer = readAll(device)
+
+        assertEquals(1, transfer.chunkCount)
+        assertTrue(JSONObject(params).similar(transfer.toJson()))
+    }
+
+    @Test
+    fun multipleChunks_areReassembledInOrder() {
+        val params = FakeParamsDevice.paramsJson(50)
+        val device = FakeParamsDevice(params, 180)
+
+        val transfer = readAll(device)
+
+        val expectedChunks = (params.toByteArray().size + 179) / 180
+        assertEquals(expectedChunks, transfer.chunkCount)
+        assertEquals(expectedChunks, device.requestCount)
+        assertEquals(params.toByteArray().size, transfer.receivedLen)
+        assertTrue(JSONObject(params).similar(transfer.toJson()))
+    }
+
+    @Test
+    fun multiByteCharacters_splitAcrossChunks() {
+        val params = "{\"Light\":{\"Name\":\"灯光 ☀ Lumière\"}}"
+        val device = FakeParamsDevice(params, 7)
+
+        val transfer = readAll(device)
+
+        assertEquals("灯光 ☀ Lumière", transfer.toJson().getJSONObject("Light").getString("Name"))
+    }
+
+    @Test
+    fun requestOffset_followsReceivedLength() {
+        val transfer = BleChunkTransfer()
+        transfer.appendResponse(FakeParamsDevice.response(0, ByteString.copyFromUtf8("{\"a\":"), 8))
+
+        val cmd = EspRmakerProvLocalCtrl.RMakerLocalCtrlPayload.parseFrom(transfer.buildRequest(null)).cmdGetData
+        assertEquals(5, cmd.offset)
+        assertFalse(cmd.hasTimestamp)
+    }
+
+    @Test
+    fun timestamp_isSentInRequest() {
+        val cmd = EspRmakerProvLocalCtrl.RMakerLocalCtrlPayload.parseFrom(BleChunkTransfer().buildRequest(1234L)).cmdGetData
+        assertTrue(cmd.hasTimestamp)
+        assertEquals(1234L, cmd.timestamp)
+    }
+
+    @Test
+    fun moreDataThanReported_isKept() {
+        val transfer = BleChunkTransfer()
+        transfer.appendResponse(FakeParamsDevice.response(0, ByteString.copyFromUtf8("{\"a\":"), 4))
+        transfer.appendResponse(FakeParamsDevice.response(5, ByteString.copyFromUtf8("1}"), 4))
+
+        assertTrue(transfer.isComplete())
+        assertEquals(1, transfer.toJson().getInt("a"))
+    }
+
+    @Test(expected = IOException::class)
+    fun emptyChunkBeforeEnd_isError() {
+        val transfer = BleChunkTransfer()
+        transfer.appendResponse(FakeParamsDevice.response(0, ByteString.copyFromUtf8("{\"a\":"), 10))
+        transfer.appendResponse(FakeParamsDevice.response(5, ByteString.EMPTY, 10))
+    }
+
+    @Test(expected = IOException::class)
+    fun emptyFirstChunk_isError() {
+        BleChunkTransfer().appendResponse(FakeParamsDevice.response(0, ByteString.EMPTY, 10))
+    }
+
+    @Test(expected = IOException::class)
+    fun offsetMismatch_isError() {
+        val transfer = BleChunkTransfer()
+        transfer.appendResponse(FakeParamsDevice.response(0, ByteString.copyFromUtf8("{\"a\":"), 10))
+        transfer.appendResponse(FakeParamsDevice.response(3, ByteString.copyFromUtf8("1}"), 10))
+    }
+
+    @Test(expected = IOException::class)
+    fun deviceError_isError() {
+        BleChunkTransfer().appendResponse(FakeParamsDevice.response(0, ByteString.EMPTY, 0,
+            EspRmakerProvLocalCtrl.RMakerLocalCtrlStatus.Fail))
+    }
+
+    @Test(expected = IOException::class)
+    fun emptyResponse_isError() {
+        BleChunkTransfer().appendResponse(ByteArray(0))
+    }
+
+    @Test
+    fun transferStats_countChunksAndBytes() {
+        val params = FakeParamsDevice.paramsJson(10)
+        val stats = BleTransferStats()
+
+        val transfer = readAll(FakeParamsDevice(params, 100))
+        stats.onTransferDone(transfer)
+        stats.onTransferFailed()
+
+        assertEquals(1, stats.transferCount)
+        assertEquals(1, stats.failedCount)
+        assertEquals(transfer.chunkCount.toLong(), stats.chunkCount)
+        assertEquals(params.toByteArray().size.toLong(), stats.byteCount)
+    }
+
+    private fun readAll(device: FakeParamsDevice): BleChunkTransfer {
+        val transfer = BleChunkTransfer()
+        do {
+            transfer.appendResponse(device.sendData(transfer.buildRequest(null)))
+        } while (!transfer.isComplete())
+        return transfer
+    }
+}
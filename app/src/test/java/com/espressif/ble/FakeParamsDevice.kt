@@ -0,0 +1,75 @@
+// Copyright 2026 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.ble
+
+import com.google.protobuf.ByteString
+import rmaker_prov_local_ctrl.EspRmakerProvLocalCtrl
+
+/**
+ * Device side of chunked get_params, as implemented by the firmware.
+ * Answers each request with the chunk at requested offset, [chunkSize] bytes at most.
+ */
+class FakeParamsDevice(params: String, private val chunkSize: Int) {
+
+    private val data = params.toByteArray(Charsets.UTF_8)
+
+    var requestCount = 0
+        private set
+
+    /** Returns response of a get_params request, same as the custom endpoint of ESPDevice. */
+    fun sendData(request: ByteArray): ByteArray {
+        requestCount++
+        val cmd = EspRmakerProvLocalCtrl.RMakerLocalCtrlPayload.parseFrom(request).cmdGetData
+        val offset = minOf(cmd.offset, data.size)
+        val len = minOf(chunkSize, data.size - offset)
+        return response(offset, ByteString.copyFrom(data, offset, len), data.size)
+    }
+
+    companion object {
+
+        fun response(
+            offset: Int,
+            payload: ByteString,
+            totalLen: Int,
+            status: EspRmakerProvLocalCtrl.RMakerLocalCtrlStatus = EspRmakerProvLocalCtrl.RMakerLocalCtrlStatus.Success
+        ): ByteArray {
+            val buf = EspRmakerProvLocalCtrl.PayloadBuf.newBuilder()
+                .setOffset(offset)
+                .setPayload(payload)
+                .setTotalLen(totalLen)
+            val respGetData = EspRmakerProvLocalCtrl.RespGetData.newBuilder()
+                .setStatus(status)
+                .setBuf(buf)
+            return EspRmakerProvLocalCtrl.RMakerLocalCtrlPayload.newBuilder()
+                .setMsg(EspRmakerProvLocalCtrl.RMakerLocalCtrlMsgType.TypeRespGetData)
+                .setRespGetData(respGetData)
+                .build()
+                .toByteArray()
+        }
+
+        /** Params JSON of a node with given number of devices. */
+        fun paramsJson(deviceCount: Int): String {
+            val json = StringBuilder("{")
+            for (i in 0 until deviceCount) {
+                if (i > 0) {
+                    json.append(',')
+                }
+                json.append("\"Light$i\":{\"Name\":\"Light $i\",\"Power\":true,\"Brightness\":${i % 100},")
+                    .append("\"Hue\":${i % 360},\"Saturation\":50,\"Mode\":\"Warm\"}")
+            }
+            return json.append('}').toString()
+        }
+    }
+}
@@ -0,0 +1,114 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import com.espressif.AppConstants;
+import com.espressif.JsonDataParser;
+import com.espressif.ui.models.EspNode;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares decode time of one node list page with {@link NodeDetailsStreamParser} and with the org.json path
+ * (full page as JSONObject, config decoded by {@link JsonDataParser#setNodeConfig} and kept as string for database).
+ * Median of {@link #RUNS} runs after {@link #WARMUP_RUNS} warm up runs is compared, stream parser should not be slower.
+ * Ignored by default as timing depends on the host, remove {@link Ignore} to run it.
+ */
+public class NodeDetailsStreamParserBenchmark {
+
+    private static final int[] NODE_COUNTS = {100, 1000, 5000};
+    private static final int WARMUP_RUNS = 3;
+    private static final int RUNS = 7;
+
+    @Ignore("Benchmark")
+    @Test
+    public void decodeNodeListPage() throws Exception {
+
+        for (int nodeCount : NODE_COUNTS) {
+
+            String page = NodeDetailsTestData.nodeListPage(nodeCount, null);
+
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                decodeWithStreamParser(page);
+                decodeWithJsonObject(page);
+            }
+
+            long[] streamTimes = new long[RUNS];
+            long[] jsonTimes = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long startTime = System.nanoTime();
+                assertEquals(nodeCount, decodeWithStreamParser(page));
+                streamTimes[i] = System.nanoTime() - startTime;
+
+                startTime = System.nanoTime();
+                assertEquals(nodeCount, decodeWithJsonObject(page));
+                jsonTimes[i] = System.nanoTime() - startTime;
+            }
+
+            long streamMedian = median(streamTimes);
+            long jsonMedian = median(jsonTimes);
+            assertTrue(String.format("Nodes : %d, stream parser : %.2f ms, org.json : %.2f ms",
+                    nodeCount, streamMedian / 1e6, jsonMedian / 1e6), streamMedian <= jsonMedian);
+        }
+    }
+
+    private static int decodeWithStreamParser(String page) throws Exception {
+
+        final int[] count = {0};
+        NodeDetailsStreamParser.parsePage(new StringReader(page), new NodeDetailsStreamParser.NodeDetailsCallback() {
+
+            @Override
+            public void onNodeDetails(NodeDetailsStreamParser.NodeDetails nodeDetails) {
+                if (nodeDetails.config != null && nodeDetails.configJson != null) {
+                    count[0]++;
+                }
+            }
+        });
+        return count[0];
+    }
+
+    private static int decodeWithJsonObject(String page) throws Exception {
+
+        int count = 0;
+        JSONObject pageJson = new JSONObject(page);
+        JSONArray nodeDetailsJson = pageJson.optJSONArray(AppConstants.KEY_NODE_DETAILS);
+
+        for (int i = 0; i < nodeDetailsJson.length(); i++) {
+            JSONObject nodeJson = nodeDetailsJson.optJSONObject(i);
+            JSONObject configJson = nodeJson.optJSONObject(AppConstants.KEY_CONFIG);
+            EspNode espNode = JsonDataParser.setNodeConfig(new EspNode(nodeJson.optString(AppConstants.KEY_ID)), configJson);
+            String configData = configJson.toString();
+            if (espNode != null && configData != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,230 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+import com.espressif.JsonDataParser;
+import com.espressif.ui.models.Device;
+import com.espressif.ui.models.EspNode;
+import com.espressif.ui.models.Param;
+import com.espressif.ui.models.Service;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link NodeDetailsStreamParser} decodes node config same as {@link JsonDataParser#setNodeConfig}.
+ */
+public class NodeDetailsStreamParserTest {
+
+    @Test
+    public void nodeConfig_isSameAsJsonDataParser() throws Exception {
+
+        String config = NodeDetailsTestData.nodeConfig("NODE1");
+        EspNode expected = JsonDataParser.setNodeConfig(null, new JSONObject(config));
+        EspNode actual = parseSingleNode(wrapConfig("NODE1", config)).config;
+
+        assertNodeEquals(expected, actual);
+        assertEquals(10, actual.getScheduleMaxCnt());
+        assertEquals(8, actual.getSceneMaxCnt());
+    }
+
+    @Test
+    public void serviceTypeAfterParams_setsMaxCount() throws Exception {
+
+        String config = "{\"node_id\":\"NODE2\",\"config_version\":\"1\",\"info\":{\"name\":\"N\"},\"devices\":[],"
+                + "\"services\":[{\"name\":\"Schedule\",\"params\":[{\"name\":\"Schedules\",\"type\":\"esp.param.schedules\","
+                + "\"data_type\":\"array\",\"bounds\":{\"max\":5}}],\"type\":\"esp.service.schedule\"}]}";
+
+        EspNode expected = JsonDataParser.setNodeConfig(null, new JSONObject(config));
+        EspNode actual = parseSingleNode(wrapConfig("NODE2", config)).config;
+
+        assertNodeEquals(expected, actual);
+        assertEquals(5, actual.getScheduleMaxCnt());
+    }
+
+    @Test
+    public void missingSections_areSameAsJsonDataParser() throws Exception {
+
+        String config = "{\"node_id\":\"NODE3\",\"config_version\":\"1\",\"devices\":[{\"name\":\"Fan\"}]}";
+
+        EspNode expected = JsonDataParser.setNodeConfig(null, new JSONObject(config));
+        EspNode actual = parseSingleNode(wrapConfig("NODE3", config)).config;
+
+        assertNodeEquals(expected, actual);
+        assertTrue(actual.getServices().isEmpty());
+        assertTrue(actual.getAttributes().isEmpty());
+    }
+
+    @Test
+    public void configJson_isSameAsReceivedConfig() throws Exception {
+
+        String config = NodeDetailsTestData.nodeConfig("NODE4");
+        NodeDetailsStreamParser.NodeDetails nodeDetails = parseSingleNode(wrapConfig("NODE4", config));
+
+        assertTrue(new JSONObject(config).similar(new JSONObject(nodeDetails.configJson)));
+    }
+
+    @Test
+    public void nodeDetails_sectionsAreReturnedAsJson() throws Exception {
+
+        String page = NodeDetailsTestData.nodeListPage(1, null);
+        NodeDetailsStreamParser.NodeDetails nodeDetails = parseSingleNode(page);
+        JSONObject expected = new JSONObject(page).getJSONArray("node_details").getJSONObject(0);
+
+        assertEquals(NodeDetailsTestData.nodeId(0), nodeDetails.nodeId);
+        assertEquals("primary", nodeDetails.role);
+        assertEquals("rainmaker", nodeDetails.nodeType);
+        assertFalse(nodeDetails.isMatter);
+        assertTrue(expected.getJSONObject("metadata").similar(new JSONObject(nodeDetails.metadataJson)));
+        assertTrue(expected.getJSONObject("status").similar(new JSONObject(nodeDetails.statusJson)));
+        assertTrue(expected.getJSONObject("params").similar(new JSONObject(nodeDetails.paramsJson)));
+    }
+
+    @Test
+    public void parsePage_returnsAllNodesAndNextId() throws Exception {
+
+        final ArrayList<String> nodeIds = new ArrayList<>();
+        String nextId = NodeDetailsStreamParser.parsePage(new StringReader(NodeDetailsTestData.nodeListPage(25, "NODE_NEXT")),
+                new NodeDetailsStreamParser.NodeDetailsCallback() {
+
+                    @Override
+                    public void onNodeDetails(NodeDetailsStreamParser.NodeDetails nodeDetails) {
+                        nodeIds.add(nodeDetails.nodeId);
+                    }
+                });
+
+        assertEquals("NODE_NEXT", nextId);
+        assertEquals(25, nodeIds.size());
+        assertEquals(NodeDetailsTestData.nodeId(24), nodeIds.get(24));
+    }
+
+    @Test
+    public void lastPage_returnsEmptyNextId() throws Exception {
+
+        String nextId = NodeDetailsStreamParser.parsePage(new StringReader(NodeDetailsTestData.nodeListPage(2, null)),
+                new NodeDetailsStreamParser.NodeDetailsCallback() {
+
+                    @Override
+                    public void onNodeDetails(NodeDetailsStreamParser.NodeDetails nodeDetails) {
+                    }
+                });
+
+        assertEquals("", nextId);
+    }
+
+    @Test
+    public void nodeWithoutConfig_hasNullConfig() throws Exception {
+
+        NodeDetailsStreamParser.NodeDetails nodeDetails = parseSingleNode(
+                "{\"node_details\":[{\"id\":\"NODE5\",\"role\":\"secondary\",\"config\":null}]}");
+
+        assertEquals("NODE5", nodeDetails.nodeId);
+        assertNull(nodeDetails.config);
+        assertNull(nodeDetails.configJson);
+    }
+
+    private static String wrapConfig(String nodeId, String config) {
+        return "{\"node_details\":[{\"id\":\"" + nodeId + "\",\"config\":" + config + "}]}";
+    }
+
+    private static NodeDetailsStreamParser.NodeDetails parseSingleNode(String page) throws IOException, JSONException {
+
+        final ArrayList<NodeDetailsStreamParser.NodeDetails> nodes = new ArrayList<>();
+        NodeDetailsStreamParser.parsePage(new StringReader(page), new NodeDetailsStreamParser.NodeDetailsCallback() {
+
+            @Override
+            public void onNodeDetails(NodeDetailsStreamParser.NodeDetails nodeDetails) {
+                nodes.add(nodeDetails);
+            }
+        });
+        assertEquals(1, nodes.size());
+        return nodes.get(0);
+    }
+
+    private static void assertNodeEquals(EspNode expected, EspNode actual) throws JSONException {
+
+        assertNotNull(actual);
+        assertEquals(expected.getNodeId(), actual.getNodeId());
+        assertEquals(expected.getConfigVersion(), actual.getConfigVersion());
+        assertEquals(expected.getNodeName(), actual.getNodeName());
+        assertEquals(expected.getFwVersion(), actual.getFwVersion());
+        assertEquals(expected.getNodeType(), actual.getNodeType());
+        assertEquals(expected.getScheduleMaxCnt(), actual.getScheduleMaxCnt());
+        assertEquals(expected.getSceneMaxCnt(), actual.getSceneMaxCnt());
+        assertParamsEquals(expected.getAttributes(), actual.getAttributes());
+
+        assertEquals(expected.getDevices().size(), actual.getDevices().size());
+        for (int i = 0; i < expected.getDevices().size(); i++) {
+            Device expectedDevice = expected.getDevices().get(i);
+            Device actualDevice = actual.getDevices().get(i);
+            assertEquals(expectedDevice.getNodeId(), actualDevice.getNodeId());
+            assertEquals(expectedDevice.getDeviceName(), actualDevice.getDeviceName());
+            assertEquals(expectedDevice.getUserVisibleName(), actualDevice.getUserVisibleName());
+            assertEquals(expectedDevice.getDeviceType(), actualDevice.getDeviceType());
+            assertEquals(expectedDevice.getPrimaryParamName(), actualDevice.getPrimaryParamName());
+            assertParamsEquals(expectedDevice.getParams(), actualDevice.getParams());
+        }
+
+        assertEquals(expected.getServices().size(), actual.getServices().size());
+        for (int i = 0; i < expected.getServices().size(); i++) {
+            Service expectedService = expected.getServices().get(i);
+            Service actualService = actual.getServices().get(i);
+            assertEquals(expectedService.getNodeId(), actualService.getNodeId());
+            assertEquals(expectedService.getName(), actualService.getName());
+            assertEquals(expectedService.getType(), actualService.getType());
+            assertParamsEquals(expectedService.getParams(), actualService.getParams());
+        }
+    }
+
+    private static void assertParamsEquals(ArrayList<Param> expected, ArrayList<Param> actual) throws JSONException {
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Param expectedParam = expected.get(i);
+            Param actualParam = actual.get(i);
+            String message = "Param " + expectedParam.getName();
+            assertEquals(message, expectedParam.getName(), actualParam.getName());
+            assertEquals(message, expectedParam.getParamType(), actualParam.getParamType());
+            assertEquals(message, expectedParam.getDataType(), actualParam.getDataType());
+            assertEquals(message, expectedParam.getUiType(), actualParam.getUiType());
+            assertEquals(message, expectedParam.isDynamicParam(), actualParam.isDynamicParam());
+            assertEquals(message, expectedParam.getProperties(), actualParam.getProperties());
+            assertEquals(message, expectedParam.getMinBounds(), actualParam.getMinBounds());
+            assertEquals(message, expectedParam.getMaxBounds(), actualParam.getMaxBounds());
+            assertEquals(message, expectedParam.getStepCount(), actualParam.getStepCount(), 0);
+            assertEquals(message, expectedParam.getLabelValue(), actualParam.getLabelValue());
+            if (expectedParam.isDynamicParam() && expectedParam.getValidStrings() != null) {
+                assertEquals(message, expectedParam.getValidStrings(), actualParam.getValidStrings());
+            }
+            if (expectedParam.getDependencies() == null) {
+                assertNull(message, actualParam.getDependencies());
+            } else {
+                assertTrue(message, new JSONObject(expectedParam.getDependencies())
+                        .similar(new JSONObject(actualParam.getDependencies())));
+            }
+        }
+    }
+}
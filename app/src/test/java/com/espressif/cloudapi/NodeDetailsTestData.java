@@ -0,0 +1,116 @@
+// Copyright 2025 Espressif Systems (Shanghai) PTE LTD
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.espressif.cloudapi;
+
+/**
+ * Node list ("/user/nodes?node_details=true") responses used by node details parser tests.
+ */
+final class NodeDetailsTestData {
+
+    private NodeDetailsTestData() {
+    }
+
+    /**
+     * Config of a node with a light device (all param fields), a switch device, schedule / scenes services
+     * and node attributes.
+     */
+    static String nodeConfig(String nodeId) {
+        return "{"
+                + "\"node_id\":\"" + nodeId + "\","
+                + "\"config_version\":\"2020-03-20\","
+                + "\"info\":{\"name\":\"Light Node\",\"fw_version\":\"1.2.0\",\"type\":\"Lightbulb\","
+                + "\"model\":\"esp32c3\",\"attributes\":[{\"name\":\"serial\",\"value\":\"" + nodeId + "\"}]},"
+                + "\"devices\":["
+                + "{\"name\":\"Light\",\"type\":\"esp.device.lightbulb\",\"primary\":\"Power\","
+                + "\"attributes\":[{\"name\":\"room\",\"value\":\"Hall\",\"data_type\":\"string\"}],"
+                + "\"params\":["
+                + "{\"name\":\"Name\",\"type\":\"esp.param.name\",\"data_type\":\"string\",\"properties\":[\"read\",\"write\"]},"
+                + "{\"name\":\"Power\",\"type\":\"esp.param.power\",\"data_type\":\"bool\",\"ui_type\":\"esp.ui.toggle\","
+                + "\"properties\":[\"read\",\"write\"]},"
+                + "{\"name\":\"Brightness\",\"type\":\"esp.param.brightness\",\"data_type\":\"int\","
+                + "\"ui_type\":\"esp.ui.slider\",\"properties\":[\"read\",\"write\"],"
+                + "\"bounds\":{\"min\":0,\"max\":100,\"step\":5},"
+                + "\"dependencies\":{\"Power\":{\"value\":true}}},"
+                + "{\"name\":\"Mode\",\"type\":\"esp.param.mode\",\"data_type\":\"string\",\"ui_type\":\"esp.ui.dropdown\","
+                + "\"properties\":[\"read\",\"write\"],\"valid_strs\":[\"Warm\",\"Cool\",\"Daylight\"]},"
+                + "{\"name\":\"Temperature\",\"type\":\"esp.param.temperature\",\"data_type\":\"float\","
+                + "\"properties\":[\"read\"],\"bounds\":{\"min\":-20,\"max\":60,\"step\":0.5}}"
+                + "]},"
+                + "{\"name\":\"Switch\",\"type\":\"esp.device.switch\",\"primary\":\"Power\",\"params\":["
+                + "{\"name\":\"Power\",\"type\":\"esp.param.power\",\"data_type\":\"bool\",\"ui_type\":\"esp.ui.toggle\","
+                + "\"properties\":[\"read\",\"write\"]}"
+                + "]}"
+                + "],"
+                + "\"services\":["
+                + "{\"name\":\"Schedule\",\"type\":\"esp.service.schedule\",\"params\":["
+                + "{\"name\":\"Schedules\",\"type\":\"esp.param.schedules\",\"data_type\":\"array\","
+                + "\"properties\":[\"read\",\"write\"],\"bounds\":{\"max\":10}}]},"
+                + "{\"name\":\"Scenes\",\"type\":\"esp.service.scenes\",\"params\":["
+                + "{\"name\":\"Scenes\",\"type\":\"esp.param.scenes\",\"data_type\":\"array\","
+                + "\"properties\":[\"read\",\"write\"],\"bounds\":{\"max\":8}}]},"
+                + "{\"name\":\"Time\",\"type\":\"esp.service.time\",\"params\":["
+                + "{\"name\":\"TZ\",\"type\":\"esp.param.tz\",\"data_type\":\"string\",\"properties\":[\"read\",\"write\"]}]}"
+                + "]"
+                + "}";
+    }
+
+    /**
+     * Node details entry of node list response.
+     */
+    static String nodeDetails(String nodeId) {
+        return "{"
+                + "\"id\":\"" + nodeId + "\","
+                + "\"role\":\"primary\","
+                + "\"node_type\":\"rainmaker\","
+                + "\"is_matter\":false,"
+                + "\"metadata\":{\"bleLocalCtrl\":{\"name\":\"PROV_" + nodeId + "\"}},"
+                + "\"status\":{\"connectivity\":{\"connected\":true,\"timestamp\":1700000000000}},"
+                + "\"params\":{\"Light\":{\"Name\":\"Light\",\"Power\":true,\"Brightness\":40,\"Mode\":\"Warm\","
+                + "\"Temperature\":21.5},\"Switch\":{\"Power\":false},\"Time\":{\"TZ\":\"Asia/Shanghai\"}},"
+                + "\"config\":" + nodeConfig(nodeId)
+                + "}";
+    }
+
+    /**
+     * One page of node list response with given number of nodes.
+     */
+    static String nodeListPage(int nodeCount, String nextId) {
+        StringBuilder page = new StringBuilder(nodeCount * 2600);
+        page.append("{\"nodes\":[");
+        for (int i = 0; i < nodeCount; i++) {
+            if (i > 0) {
+                page.append(',');
+            }
+            page.append('"').append(nodeId(i)).append('"');
+        }
+        page.append("],\"node_details\":[");
+        for (int i = 0; i < nodeCount; i++) {
+            if (i > 0) {
+                page.append(',');
+            }
+            page.append(nodeDetails(nodeId(i)));
+        }
+        page.append("],\"total\":").append(nodeCount);
+        if (nextId != null) {
+            page.append(",\"next_id\":\"").append(nextId).append('"');
+        }
+        page.append('}');
+        return page.toString();
+    }
+
+    static String nodeId(int index) {
+        return String.format("NODE%08d", index);
+    }
+}